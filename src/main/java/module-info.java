@@ -3,6 +3,8 @@ module proyect.batallanaval {
     requires javafx.fxml;
     requires javafx.graphics;
     requires javafx.base;
+    requires java.management;
+    requires jdk.jfr;
 
 
     opens proyect.batallanaval to javafx.fxml;
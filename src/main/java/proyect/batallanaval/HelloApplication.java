@@ -2,6 +2,8 @@ package proyect.batallanaval;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import proyect.batallanaval.controllers.GameManager;
+import proyect.batallanaval.red.ClienteRed;
 import proyect.batallanaval.views.HomeView;
 
 import java.io.IOException;
@@ -12,4 +14,11 @@ public class    HelloApplication extends Application {
         HomeView homeView = new HomeView();
         homeView.show();
     }
+
+    @Override
+    public void stop() {
+        // The last automatic save may still be on its way to disk
+        GameManager.esperarGuardados();
+        ClienteRed.detenerServidorLocal();
+    }
 }
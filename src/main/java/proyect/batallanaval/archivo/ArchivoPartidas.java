@@ -0,0 +1,287 @@
+package proyect.batallanaval.archivo;
+
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.models.RegistroPartida;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only archive of every finished game: both initial fleets and the
+ * whole shot sequence, in a couple of hundred bytes per game.
+ * <p>
+ * Games are stored in columnar blocks of up to {@value #PARTIDAS_POR_BLOQUE}
+ * games (see {@link FormatoBloque}) in {@code archivo.bna}, so an analysis
+ * reads only the columns it needs. Until a block is full, finished games are
+ * appended one by one to {@code archivo.pendientes}; when it reaches a full
+ * block, the block is written and synced first and the journal is emptied
+ * afterwards. A crash in between leaves games in both files, and the
+ * journal's copies are skipped on the next load by their id.
+ * </p>
+ * There is one instance per directory, shared by every game manager. A
+ * query run from outside the game opens its own read-only instance (see
+ * {@link #soloLectura(Path)}) that never writes to the files.
+ */
+public final class ArchivoPartidas {
+    private static final System.Logger LOG = Registros.getLogger(ArchivoPartidas.class);
+
+    /** Games per columnar block. */
+    public static final int PARTIDAS_POR_BLOQUE = 4096;
+
+    private static final String BLOQUES = "archivo.bna";
+    private static final String PENDIENTES = "archivo.pendientes";
+
+    private static final Map<Path, ArchivoPartidas> ABIERTOS = new ConcurrentHashMap<>();
+
+    private final Path directorio;
+    private final Path rutaBloques;
+    private final Path rutaPendientes;
+    private final boolean soloLectura;
+
+    private final List<Long> posicionesBloques = new ArrayList<>();
+    private final List<FilaPartida> pendientes = new ArrayList<>();
+    private long bytesBloques;
+    private long bytesPendientes;
+    private long siguienteId;
+    private boolean cargado;
+
+    private ArchivoPartidas(Path directorio, boolean soloLectura) {
+        this.directorio = directorio;
+        this.rutaBloques = directorio.resolve(BLOQUES);
+        this.rutaPendientes = directorio.resolve(PENDIENTES);
+        this.soloLectura = soloLectura;
+    }
+
+    /**
+     * Returns the archive kept in a directory.
+     */
+    public static ArchivoPartidas en(Path directorio) {
+        return ABIERTOS.computeIfAbsent(directorio.toAbsolutePath().normalize(),
+                d -> new ArchivoPartidas(d, false));
+    }
+
+    /**
+     * Opens the archive of a directory for queries only, e.g. while the game
+     * may be writing it. The files are opened for reading, and a block or
+     * journal record cut short by a crash or a write in progress is skipped
+     * instead of truncated.
+     */
+    public static ArchivoPartidas soloLectura(Path directorio) {
+        return new ArchivoPartidas(directorio.toAbsolutePath().normalize(), true);
+    }
+
+    /**
+     * Appends a finished game.
+     *
+     * @param registro    the game's seed, fleets and shots
+     * @param ganoJugador whether the human player won
+     * @param estrategia  name of the strategy the machine played with
+     * @throws IllegalArgumentException if the game cannot be archived: it did not use
+     *                                  the standard fleet on a 10x10 board
+     * @throws IOException              if the archive cannot be written
+     * @throws IllegalStateException    if the archive was opened read-only
+     */
+    public synchronized void registrar(RegistroPartida registro, boolean ganoJugador, String estrategia)
+            throws IOException {
+        comprobarEscritura();
+        cargar();
+        FilaPartida fila = FilaPartida.de(siguienteId, registro, ganoJugador, estrategia,
+                System.currentTimeMillis());
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + fila.tamano()).order(FormatoBloque.ORDEN);
+        buffer.putInt(fila.tamano());
+        fila.escribir(buffer);
+        buffer.flip();
+        Files.createDirectories(directorio);
+        try (FileChannel canal = FileChannel.open(rutaPendientes,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            escribir(canal, buffer, bytesPendientes);
+        }
+        bytesPendientes += buffer.limit();
+        pendientes.add(fila);
+        siguienteId++;
+
+        if (pendientes.size() >= PARTIDAS_POR_BLOQUE) {
+            consolidar();
+        }
+    }
+
+    /**
+     * Writes the pending games as a block, even if it is not full.
+     *
+     * @throws IOException if the block cannot be written; the games stay pending
+     * @throws IllegalStateException if the archive was opened read-only
+     */
+    public synchronized void consolidar() throws IOException {
+        comprobarEscritura();
+        cargar();
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        ByteBuffer bloque = FormatoBloque.codificar(pendientes);
+        Files.createDirectories(directorio);
+        try (FileChannel canal = FileChannel.open(rutaBloques,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            escribir(canal, bloque, bytesBloques);
+            canal.force(false);
+        }
+        posicionesBloques.add(bytesBloques);
+        bytesBloques += bloque.limit();
+
+        try (FileChannel canal = FileChannel.open(rutaPendientes, StandardOpenOption.WRITE)) {
+            canal.truncate(0);
+        }
+        bytesPendientes = 0;
+        int n = pendientes.size();
+        pendientes.clear();
+        LOG.log(Level.DEBUG, () -> "Bloque de archivo escrito: " + n + " partidas, "
+                + bloque.limit() + " bytes");
+    }
+
+    /** Number of games in the archive, pending ones included. */
+    public synchronized long totalPartidas() {
+        try {
+            cargar();
+        } catch (IOException e) {
+            LOG.log(Level.ERROR, "No se pudo leer el archivo de partidas", e);
+        }
+        return siguienteId;
+    }
+
+    /** Path of the block file, which holds only complete blocks. */
+    Path rutaBloques() {
+        return rutaBloques;
+    }
+
+    /**
+     * Positions of the blocks in the block file, and the file length they
+     * cover; blocks are never rewritten, so the snapshot stays valid.
+     */
+    synchronized List<Long> posicionesBloques() throws IOException {
+        cargar();
+        List<Long> posiciones = new ArrayList<>(posicionesBloques);
+        posiciones.add(bytesBloques);
+        return posiciones;
+    }
+
+    /**
+     * The games not yet written as a block, laid out as one.
+     *
+     * @return the block, or {@code null} if there are no pending games
+     */
+    synchronized FormatoBloque.Bloque bloquePendiente() throws IOException {
+        cargar();
+        if (pendientes.isEmpty()) {
+            return null;
+        }
+        return FormatoBloque.leer(FormatoBloque.codificar(pendientes), 0);
+    }
+
+    private void comprobarEscritura() {
+        if (soloLectura) {
+            throw new IllegalStateException("Archive opened read-only: " + directorio);
+        }
+    }
+
+    private void cargar() throws IOException {
+        if (cargado) {
+            return;
+        }
+        cargarBloques();
+        cargarPendientes();
+        cargado = true;
+        LOG.log(Level.DEBUG, () -> "Archivo de partidas cargado: " + posicionesBloques.size()
+                + " bloques, " + pendientes.size() + " partidas pendientes");
+    }
+
+    // Walks the block headers; a block cut short by a crash is dropped, or only skipped when read-only
+    private void cargarBloques() throws IOException {
+        if (!Files.exists(rutaBloques)) {
+            return;
+        }
+        StandardOpenOption[] opciones = soloLectura
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel canal = FileChannel.open(rutaBloques, opciones)) {
+            long tamano = canal.size();
+            ByteBuffer cabecera = ByteBuffer.allocate(FormatoBloque.CABECERA);
+            long posicion = 0;
+            while (posicion < tamano) {
+                FormatoBloque.Cabecera c = null;
+                if (posicion + FormatoBloque.CABECERA <= tamano) {
+                    cabecera.clear();
+                    while (cabecera.hasRemaining()) {
+                        canal.read(cabecera, posicion + cabecera.position());
+                    }
+                    c = FormatoBloque.cabecera(cabecera.flip(), 0);
+                }
+                if (c == null || posicion + c.longitud() > tamano || c.primerId() < siguienteId) {
+                    if (soloLectura) {
+                        LOG.log(Level.WARNING, "Archivo de partidas incompleto: se ignoran {0} bytes desde {1}",
+                                tamano - posicion, posicion);
+                    } else {
+                        LOG.log(Level.WARNING, "Archivo de partidas truncado en {0} de {1} bytes",
+                                posicion, tamano);
+                        canal.truncate(posicion);
+                    }
+                    break;
+                }
+                posicionesBloques.add(posicion);
+                siguienteId = c.primerId() + c.partidas();
+                posicion += c.longitud();
+            }
+            bytesBloques = posicion;
+        }
+    }
+
+    // Reads the journal, skipping games already in a block and a torn tail, dropped unless read-only
+    private void cargarPendientes() throws IOException {
+        if (!Files.exists(rutaPendientes)) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(rutaPendientes)).order(FormatoBloque.ORDEN);
+        int validos = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                int tamano = buffer.getInt();
+                if (tamano <= 0 || tamano > buffer.remaining()) {
+                    break;
+                }
+                FilaPartida fila = FilaPartida.leer(buffer.slice(buffer.position(), tamano)
+                        .order(FormatoBloque.ORDEN));
+                buffer.position(buffer.position() + tamano);
+                validos = buffer.position();
+                if (fila.id() >= siguienteId) {
+                    pendientes.add(fila);
+                    siguienteId = fila.id() + 1;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // a record whose length does not match its content: treated as the torn tail
+        }
+        bytesPendientes = validos;
+        if (validos < buffer.limit() && !soloLectura) {
+            LOG.log(Level.WARNING, "Partidas pendientes truncadas en {0} de {1} bytes",
+                    validos, buffer.limit());
+            try (FileChannel canal = FileChannel.open(rutaPendientes, StandardOpenOption.WRITE)) {
+                canal.truncate(validos);
+            }
+        }
+    }
+
+    private static void escribir(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicion += canal.write(buffer, posicion);
+        }
+    }
+}
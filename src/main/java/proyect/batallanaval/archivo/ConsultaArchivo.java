@@ -0,0 +1,247 @@
+package proyect.batallanaval.archivo;
+
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+import proyect.batallanaval.models.Tablero;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes an {@link Informe} over every game of an {@link ArchivoPartidas}.
+ * <p>
+ * The block file is mapped read-only and each block is scanned in place,
+ * column by column, without building any game or board objects: each game is
+ * replayed on two 100-byte arrays that say which ship, if any, covers a cell.
+ * Blocks are split between the cores of a {@link ForkJoinPool}, each scan
+ * fills its own partial report and the partial reports are merged as the
+ * tasks join.
+ * </p>
+ * It can also run on its own, printing the report of a save directory:
+ * {@code java -m proyect.batallanaval/proyect.batallanaval.archivo.ConsultaArchivo [directorio]}.
+ */
+public final class ConsultaArchivo {
+    private static final System.Logger LOG = Registros.getLogger(ConsultaArchivo.class);
+
+    private static final Histograma T_CONSULTA = Metricas.histograma("archivo.consulta");
+
+    private static final int CELDAS = Tablero.SIZE * Tablero.SIZE;
+
+    // Largest stretch of the block file mapped at once; a mapping is indexed by int
+    private static final long MAXIMO_MAPEO = 1L << 30;
+
+    private ConsultaArchivo() {
+    }
+
+    /**
+     * Scans the whole archive, pending games included, on the common pool.
+     *
+     * @throws IOException if the block file cannot be mapped
+     */
+    public static Informe ejecutar(ArchivoPartidas archivo) throws IOException {
+        return ejecutar(archivo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans the whole archive, pending games included.
+     *
+     * @param pool the pool the block scans run on
+     * @throws IOException if the block file cannot be mapped
+     */
+    public static Informe ejecutar(ArchivoPartidas archivo, ForkJoinPool pool) throws IOException {
+        long inicio = System.nanoTime();
+        List<FormatoBloque.Bloque> bloques = mapear(archivo);
+        FormatoBloque.Bloque pendiente = archivo.bloquePendiente();
+        if (pendiente != null) {
+            bloques.add(pendiente);
+        }
+
+        Informe informe = bloques.isEmpty()
+                ? new Informe()
+                : pool.invoke(new TareaBloques(bloques, 0, bloques.size()));
+
+        T_CONSULTA.registrarDesde(inicio);
+        LOG.log(Level.INFO, "Archivo analizado: {0} partidas en {1} bloques, {2} ms",
+                informe.partidas(), bloques.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return informe;
+    }
+
+    /**
+     * Maps the complete blocks of the archive, in stretches of whole blocks of
+     * at most {@link #MAXIMO_MAPEO} bytes.
+     */
+    private static List<FormatoBloque.Bloque> mapear(ArchivoPartidas archivo) throws IOException {
+        List<Long> posiciones = archivo.posicionesBloques();
+        List<FormatoBloque.Bloque> bloques = new ArrayList<>(posiciones.size());
+        if (posiciones.size() < 2) {
+            return bloques;
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo.rutaBloques(), StandardOpenOption.READ)) {
+            int primero = 0;
+            while (primero < posiciones.size() - 1) {
+                long desde = posiciones.get(primero);
+                int ultimo = primero + 1; // exclusive
+                while (ultimo < posiciones.size() - 1 && posiciones.get(ultimo + 1) - desde <= MAXIMO_MAPEO) {
+                    ultimo++;
+                }
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, desde,
+                        posiciones.get(ultimo) - desde);
+                for (int i = primero; i < ultimo; i++) {
+                    FormatoBloque.Bloque bloque = FormatoBloque.leer(mapa, (int) (posiciones.get(i) - desde));
+                    if (bloque == null) {
+                        throw new IOException("Corrupt archive block at " + posiciones.get(i));
+                    }
+                    bloques.add(bloque);
+                }
+                primero = ultimo;
+            }
+        }
+        return bloques;
+    }
+
+    /**
+     * Scans a range of blocks, splitting it in halves down to single blocks.
+     */
+    private static final class TareaBloques extends RecursiveTask<Informe> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only live in the pool; the mapped blocks are never serialized
+        private final transient List<FormatoBloque.Bloque> bloques;
+        private final int desde;
+        private final int hasta;
+
+        TareaBloques(List<FormatoBloque.Bloque> bloques, int desde, int hasta) {
+            this.bloques = bloques;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Informe compute() {
+            if (hasta - desde == 1) {
+                Informe informe = new Informe();
+                escanear(bloques.get(desde), informe);
+                return informe;
+            }
+            int medio = (desde + hasta) >>> 1;
+            TareaBloques izquierda = new TareaBloques(bloques, desde, medio);
+            izquierda.fork();
+            Informe derecha = new TareaBloques(bloques, medio, hasta).compute();
+            return izquierda.join().combinar(derecha);
+        }
+    }
+
+    /**
+     * Replays every game of a block into a report.
+     */
+    static void escanear(FormatoBloque.Bloque bloque, Informe informe) {
+        ByteBuffer resultados = bloque.columna(FormatoBloque.Columna.RESULTADO);
+        ByteBuffer numDisparos = bloque.columna(FormatoBloque.Columna.NUM_DISPAROS);
+        ByteBuffer flotasJugador = bloque.columna(FormatoBloque.Columna.FLOTA_JUGADOR);
+        ByteBuffer flotasMaquina = bloque.columna(FormatoBloque.Columna.FLOTA_MAQUINA);
+        ByteBuffer disparos = bloque.columna(FormatoBloque.Columna.DISPAROS);
+        ByteBuffer codigosEstrategia = bloque.codigos(FormatoBloque.Columna.ESTRATEGIA);
+        String[] estrategias = bloque.valores(FormatoBloque.Columna.ESTRATEGIA);
+
+        // Per side: which ship (index + 1) covers each cell of that side's board
+        byte[][] tableros = new byte[2][CELDAS];
+        int[][] restantes = new int[2][FormatoBloque.BARCOS];
+        int[][] primerImpactoBarco = new int[2][FormatoBloque.BARCOS];
+        int[] disparosLado = new int[2];
+        boolean[] impactado = new boolean[2];
+        long[][] porEstrategia = new long[estrategias.length][2];
+
+        int n = bloque.partidas();
+        int siguienteDisparo = 0;
+        for (int i = 0; i < n; i++) {
+            boolean ganoJugador = (resultados.get(i) & FormatoBloque.GANO_JUGADOR) != 0;
+            if (ganoJugador) {
+                informe.victoriasJugador++;
+            }
+            long[] estrategia = porEstrategia[codigosEstrategia.getShort(2 * i) & 0xFFFF];
+            estrategia[0]++;
+            if (!ganoJugador) {
+                estrategia[1]++;
+            }
+
+            for (int lado = 0; lado < 2; lado++) {
+                ByteBuffer flotas = lado == Informe.JUGADOR ? flotasJugador : flotasMaquina;
+                byte[] tablero = tableros[lado];
+                Arrays.fill(tablero, (byte) 0);
+                long[] colocaciones = informe.colocaciones[lado];
+                for (int b = 0; b < FormatoBloque.BARCOS; b++) {
+                    int barco = flotas.get(i * FormatoBloque.BARCOS + b) & 0xFF;
+                    int celda = barco & ~FormatoBloque.BIT_ALTO;
+                    int paso = (barco & FormatoBloque.BIT_ALTO) != 0 ? Tablero.SIZE : 1;
+                    int tamano = FormatoBloque.TIPOS_FLOTA[b].getSize();
+                    for (int k = 0; k < tamano && celda < CELDAS; k++, celda += paso) {
+                        tablero[celda] = (byte) (b + 1);
+                        colocaciones[celda]++;
+                    }
+                    restantes[lado][b] = tamano;
+                }
+                disparosLado[lado] = 0;
+                impactado[lado] = false;
+            }
+
+            // Replay: a shot by one side lands on the other side's board
+            int total = numDisparos.get(i) & 0xFF;
+            for (int d = 0; d < total; d++) {
+                int disparo = disparos.get(siguienteDisparo + d) & 0xFF;
+                int atacante = (disparo & FormatoBloque.BIT_ALTO) != 0 ? Informe.JUGADOR : Informe.MAQUINA;
+                int celda = disparo & ~FormatoBloque.BIT_ALTO;
+                int turno = ++disparosLado[atacante];
+                if (celda >= CELDAS) {
+                    continue;
+                }
+                int barco = tableros[1 - atacante][celda] - 1;
+                if (barco < 0) {
+                    continue;
+                }
+                if (!impactado[atacante]) {
+                    impactado[atacante] = true;
+                    informe.primerImpacto[atacante][celda]++;
+                }
+                int tamano = FormatoBloque.TIPOS_FLOTA[barco].getSize();
+                int[] vida = restantes[1 - atacante];
+                if (vida[barco] == tamano) {
+                    primerImpactoBarco[atacante][barco] = turno;
+                }
+                if (--vida[barco] == 0) {
+                    int tipo = FormatoBloque.TIPOS_FLOTA[barco].ordinal();
+                    informe.disparosParaHundir[atacante][tipo] += turno - primerImpactoBarco[atacante][barco] + 1;
+                    informe.hundidos[atacante][tipo]++;
+                }
+            }
+            siguienteDisparo += total;
+        }
+
+        informe.partidas += n;
+        for (int e = 0; e < estrategias.length; e++) {
+            informe.sumarEstrategia(estrategias[e], porEstrategia[e][0], porEstrategia[e][1]);
+        }
+    }
+
+    /**
+     * Prints the report of a save directory, by default the game's own. The
+     * archive is only read, so this can run while the game is playing.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directorio = Path.of(args.length > 0 ? args[0] : System.getProperty("batallanaval.partidas", "partidas"));
+        System.out.print(ejecutar(ArchivoPartidas.soloLectura(directorio)).formatear());
+    }
+}
@@ -0,0 +1,145 @@
+package proyect.batallanaval.archivo;
+
+import proyect.batallanaval.models.Colocacion;
+import proyect.batallanaval.models.Disparo;
+import proyect.batallanaval.models.Orientacion;
+import proyect.batallanaval.models.RegistroPartida;
+import proyect.batallanaval.models.Tablero;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One finished game in archive form, before it is spread over the columns
+ * of a block. It is also the record format of the pending-games journal.
+ * <p>
+ * Cells of the 10x10 board are numbered {@code fila * 10 + columna}, which
+ * leaves the high bit of a byte free: a ship is one byte with the bit set
+ * when vertical, and a shot is one byte with the bit set when the human
+ * player fired it. Shot results are not stored, since replaying the shots
+ * against both fleets gives them back.
+ * </p>
+ *
+ * @param id           sequence number of the game in the archive
+ * @param fin          when the game finished, in milliseconds since the epoch
+ * @param resultado    {@link FormatoBloque#GANO_JUGADOR} and {@link FormatoBloque#SIN_CONTACTO} flags
+ * @param flotaJugador human fleet, in {@link FormatoBloque#TIPOS_FLOTA} order
+ * @param flotaMaquina machine fleet, in {@link FormatoBloque#TIPOS_FLOTA} order
+ * @param disparos     every shot of both sides, in order
+ */
+record FilaPartida(long id, long semilla, long fin, byte resultado,
+                   byte[] flotaJugador, byte[] flotaMaquina, byte[] disparos,
+                   String jugador, String estrategia) {
+
+    /**
+     * Builds the archive form of a finished game.
+     *
+     * @throws IllegalArgumentException if the game was not played with the
+     *                                  standard fleet on a 10x10 board, or has more shots than fit
+     */
+    static FilaPartida de(long id, RegistroPartida registro, boolean ganoJugador, String estrategia, long fin) {
+        if (registro.flotaJugador() == null || registro.flotaMaquina() == null) {
+            throw new IllegalArgumentException("Game has no fleets: it never started");
+        }
+        List<Disparo> lista = registro.disparos();
+        if (lista.size() > FormatoBloque.MAXIMO_DISPAROS) {
+            throw new IllegalArgumentException("Too many shots to archive: " + lista.size());
+        }
+        byte[] disparos = new byte[lista.size()];
+        for (int i = 0; i < disparos.length; i++) {
+            Disparo d = lista.get(i);
+            disparos[i] = (byte) ((d.delJugador() ? FormatoBloque.BIT_ALTO : 0) | celda(d.fila(), d.columna()));
+        }
+
+        byte resultado = (byte) ((ganoJugador ? FormatoBloque.GANO_JUGADOR : 0)
+                | (registro.reglaSinContacto() ? FormatoBloque.SIN_CONTACTO : 0));
+        return new FilaPartida(id, registro.semilla(), fin, resultado,
+                flota(registro.flotaJugador()), flota(registro.flotaMaquina()), disparos,
+                registro.nickname(), estrategia);
+    }
+
+    private static byte[] flota(List<Colocacion> colocaciones) {
+        if (colocaciones.size() != FormatoBloque.BARCOS) {
+            throw new IllegalArgumentException("Not a standard fleet: " + colocaciones.size() + " ships");
+        }
+        List<Colocacion> ordenadas = new ArrayList<>(colocaciones);
+        ordenadas.sort(Comparator.comparing(Colocacion::tipo)
+                .thenComparingInt(c -> celda(c.fila(), c.columna())));
+
+        byte[] flota = new byte[FormatoBloque.BARCOS];
+        for (int i = 0; i < flota.length; i++) {
+            Colocacion c = ordenadas.get(i);
+            if (c.tipo() != FormatoBloque.TIPOS_FLOTA[i]) {
+                throw new IllegalArgumentException("Not a standard fleet: " + c.tipo() + " at " + i);
+            }
+            flota[i] = (byte) ((c.orientacion() == Orientacion.VERTICAL ? FormatoBloque.BIT_ALTO : 0)
+                    | celda(c.fila(), c.columna()));
+        }
+        return flota;
+    }
+
+    private static int celda(int fila, int columna) {
+        if (fila < 0 || fila >= Tablero.SIZE || columna < 0 || columna >= Tablero.SIZE) {
+            throw new IllegalArgumentException("Cell outside a 10x10 board: " + fila + "," + columna);
+        }
+        return fila * Tablero.SIZE + columna;
+    }
+
+    /** Bytes this game takes in the journal. */
+    int tamano() {
+        return 8 + 8 + 8 + 1 + 2 * FormatoBloque.BARCOS + 1 + disparos.length
+                + 2 + utf8(jugador).length + 2 + utf8(estrategia).length;
+    }
+
+    /** Writes this game as a journal record. */
+    void escribir(ByteBuffer buffer) {
+        buffer.putLong(id).putLong(semilla).putLong(fin).put(resultado)
+                .put(flotaJugador).put(flotaMaquina)
+                .put((byte) disparos.length).put(disparos);
+        ponerTexto(buffer, jugador);
+        ponerTexto(buffer, estrategia);
+    }
+
+    /**
+     * Reads a journal record.
+     *
+     * @throws java.nio.BufferUnderflowException if the record is cut short
+     */
+    static FilaPartida leer(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long semilla = buffer.getLong();
+        long fin = buffer.getLong();
+        byte resultado = buffer.get();
+        byte[] flotaJugador = new byte[FormatoBloque.BARCOS];
+        byte[] flotaMaquina = new byte[FormatoBloque.BARCOS];
+        buffer.get(flotaJugador).get(flotaMaquina);
+        byte[] disparos = new byte[buffer.get() & 0xFF];
+        buffer.get(disparos);
+        String jugador = leerTexto(buffer);
+        String estrategia = leerTexto(buffer);
+        return new FilaPartida(id, semilla, fin, resultado, flotaJugador, flotaMaquina, disparos,
+                jugador, estrategia);
+    }
+
+    static byte[] utf8(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Text too long to archive");
+        }
+        return bytes;
+    }
+
+    static void ponerTexto(ByteBuffer buffer, String texto) {
+        byte[] bytes = utf8(texto);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String leerTexto(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,273 @@
+package proyect.batallanaval.archivo;
+
+import proyect.batallanaval.models.TipoBarco;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout of a columnar block of archived games.
+ * <p>
+ * A block starts with a {@value #CABECERA}-byte header: magic number, block
+ * length, id of its first game, number of games, number of shots and the
+ * byte length of each {@link Columna}. The columns follow in declaration
+ * order, each starting at a multiple of 8 bytes. Fixed-width columns hold one
+ * value per game; {@link Columna#DISPAROS} holds the shots of every game back
+ * to back, delimited by {@link Columna#NUM_DISPAROS}; text columns hold a
+ * dictionary of the distinct values followed by a 16-bit code per game.
+ * Everything is little-endian, so a scan can read the columns it needs
+ * straight out of a mapped file.
+ * </p>
+ */
+final class FormatoBloque {
+
+    static final int MAGIA = 0x314E4142; // "BAN1"
+    static final ByteOrder ORDEN = ByteOrder.LITTLE_ENDIAN;
+    static final int CABECERA = 64;
+
+    /** Flag of {@link Columna#RESULTADO}: the human player won. */
+    static final int GANO_JUGADOR = 1;
+    /** Flag of {@link Columna#RESULTADO}: the game used the no-touch rule. */
+    static final int SIN_CONTACTO = 2;
+
+    /** High bit of ship and shot bytes; the low 7 bits are the cell. */
+    static final int BIT_ALTO = 0x80;
+
+    /** Ships of a standard fleet, in the order they are stored. */
+    static final TipoBarco[] TIPOS_FLOTA = {
+            TipoBarco.PORTAAVIONES,
+            TipoBarco.SUBMARINO, TipoBarco.SUBMARINO,
+            TipoBarco.DESTRUCTOR, TipoBarco.DESTRUCTOR, TipoBarco.DESTRUCTOR,
+            TipoBarco.FRAGATA, TipoBarco.FRAGATA, TipoBarco.FRAGATA, TipoBarco.FRAGATA
+    };
+    static final int BARCOS = TIPOS_FLOTA.length;
+
+    /** Every cell of a 10x10 board can be shot once by each side. */
+    static final int MAXIMO_DISPAROS = 200;
+
+    /**
+     * Columns of a block, in storage order.
+     */
+    enum Columna {
+        /** Game seed, 8 bytes. */
+        SEMILLA(8),
+        /** End of the game in epoch milliseconds, 8 bytes. */
+        FIN(8),
+        /** {@link #GANO_JUGADOR} and {@link #SIN_CONTACTO} flags, 1 byte. */
+        RESULTADO(1),
+        /** Shots of the game, 1 unsigned byte. */
+        NUM_DISPAROS(1),
+        /** Human fleet, {@link #BARCOS} bytes. */
+        FLOTA_JUGADOR(BARCOS),
+        /** Machine fleet, {@link #BARCOS} bytes. */
+        FLOTA_MAQUINA(BARCOS),
+        /** Shots of all games back to back, 1 byte each. */
+        DISPAROS(0),
+        /** Player nickname, dictionary-coded. */
+        JUGADOR(0),
+        /** Name of the machine's strategy, dictionary-coded. */
+        ESTRATEGIA(0);
+
+        /** Bytes per game, or 0 for variable-size columns. */
+        final int ancho;
+
+        Columna(int ancho) {
+            this.ancho = ancho;
+        }
+    }
+
+    private static final Columna[] COLUMNAS = Columna.values();
+
+    private FormatoBloque() {
+    }
+
+    /**
+     * Lays out games as one block.
+     *
+     * @param filas games with consecutive ids
+     */
+    static ByteBuffer codificar(List<FilaPartida> filas) {
+        int n = filas.size();
+        int totalDisparos = 0;
+        for (FilaPartida f : filas) {
+            totalDisparos += f.disparos().length;
+        }
+        byte[] jugadores = diccionario(filas, true);
+        byte[] estrategias = diccionario(filas, false);
+
+        int[] longitudes = new int[COLUMNAS.length];
+        for (Columna c : COLUMNAS) {
+            longitudes[c.ordinal()] = switch (c) {
+                case DISPAROS -> totalDisparos;
+                case JUGADOR -> jugadores.length;
+                case ESTRATEGIA -> estrategias.length;
+                default -> c.ancho * n;
+            };
+        }
+        int longitud = CABECERA;
+        for (int l : longitudes) {
+            longitud += alinear(l);
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(longitud).order(ORDEN);
+        b.putInt(MAGIA).putInt(longitud)
+                .putLong(n == 0 ? 0 : filas.get(0).id())
+                .putInt(n).putInt(totalDisparos);
+        for (int l : longitudes) {
+            b.putInt(l);
+        }
+
+        int posicion = CABECERA;
+        for (Columna c : COLUMNAS) {
+            b.position(posicion);
+            switch (c) {
+                case SEMILLA -> filas.forEach(f -> b.putLong(f.semilla()));
+                case FIN -> filas.forEach(f -> b.putLong(f.fin()));
+                case RESULTADO -> filas.forEach(f -> b.put(f.resultado()));
+                case NUM_DISPAROS -> filas.forEach(f -> b.put((byte) f.disparos().length));
+                case FLOTA_JUGADOR -> filas.forEach(f -> b.put(f.flotaJugador()));
+                case FLOTA_MAQUINA -> filas.forEach(f -> b.put(f.flotaMaquina()));
+                case DISPAROS -> filas.forEach(f -> b.put(f.disparos()));
+                case JUGADOR -> b.put(jugadores);
+                case ESTRATEGIA -> b.put(estrategias);
+            }
+            posicion += alinear(longitudes[c.ordinal()]);
+        }
+        b.position(0);
+        return b;
+    }
+
+    /**
+     * Dictionary column: number of values, each value as length and UTF-8
+     * bytes, padding to an even offset, then one code per game.
+     */
+    private static byte[] diccionario(List<FilaPartida> filas, boolean jugador) {
+        Map<String, Integer> codigos = new LinkedHashMap<>();
+        short[] porPartida = new short[filas.size()];
+        int bytesValores = 0;
+        for (int i = 0; i < filas.size(); i++) {
+            String valor = jugador ? filas.get(i).jugador() : filas.get(i).estrategia();
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = codigos.size();
+                codigos.put(valor, codigo);
+                bytesValores += 2 + FilaPartida.utf8(valor).length;
+            }
+            porPartida[i] = (short) (int) codigo;
+        }
+
+        int inicioCodigos = (4 + bytesValores + 1) & ~1;
+        ByteBuffer b = ByteBuffer.allocate(inicioCodigos + 2 * filas.size()).order(ORDEN);
+        b.putInt(codigos.size());
+        for (String valor : codigos.keySet()) {
+            FilaPartida.ponerTexto(b, valor);
+        }
+        b.position(inicioCodigos);
+        for (short codigo : porPartida) {
+            b.putShort(codigo);
+        }
+        return b.array();
+    }
+
+    private static int alinear(int longitud) {
+        return (longitud + 7) & ~7;
+    }
+
+    /**
+     * Fixed fields of a block header.
+     *
+     * @param longitud bytes of the whole block, header included
+     * @param primerId id of its first game; the others follow consecutively
+     * @param partidas number of games
+     */
+    record Cabecera(int longitud, long primerId, int partidas, int totalDisparos) {
+    }
+
+    /**
+     * Decodes the fixed fields of a block header.
+     *
+     * @param cabecera at least {@value #CABECERA} bytes, read from the given position
+     * @return the header, or {@code null} if no block starts there
+     */
+    static Cabecera cabecera(ByteBuffer cabecera, int posicion) {
+        ByteBuffer b = cabecera.duplicate().order(ORDEN);
+        if (b.limit() - posicion < CABECERA || b.getInt(posicion) != MAGIA) {
+            return null;
+        }
+        int longitud = b.getInt(posicion + 4);
+        int partidas = b.getInt(posicion + 16);
+        int totalDisparos = b.getInt(posicion + 20);
+        if (longitud < CABECERA || partidas < 0 || totalDisparos < 0) {
+            return null;
+        }
+        return new Cabecera(longitud, b.getLong(posicion + 8), partidas, totalDisparos);
+    }
+
+    /**
+     * Reads the block at the given position.
+     *
+     * @param datos a buffer holding complete blocks, such as a mapped region of the archive
+     * @return a view of the block, or {@code null} if no complete, valid block starts there
+     */
+    static Bloque leer(ByteBuffer datos, int posicion) {
+        Cabecera c = cabecera(datos, posicion);
+        if (c == null || (long) posicion + c.longitud() > datos.limit()) {
+            return null;
+        }
+        ByteBuffer b = datos.duplicate().order(ORDEN);
+        int[] inicios = new int[COLUMNAS.length];
+        int[] longitudes = new int[COLUMNAS.length];
+        int inicio = CABECERA;
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            longitudes[i] = b.getInt(posicion + 24 + 4 * i);
+            inicios[i] = inicio;
+            inicio += alinear(longitudes[i]);
+        }
+        if (inicio != c.longitud()) {
+            return null;
+        }
+        return new Bloque(b.slice(posicion, c.longitud()).order(ORDEN), c.primerId(),
+                c.partidas(), c.totalDisparos(), inicios, longitudes);
+    }
+
+    /**
+     * A block inside a buffer: header fields and access to each column.
+     *
+     * @param datos         the block's bytes, from its header on
+     * @param primerId      id of its first game; the others follow consecutively
+     * @param partidas      number of games
+     * @param totalDisparos number of shots of all its games
+     */
+    record Bloque(ByteBuffer datos, long primerId, int partidas, int totalDisparos,
+                  int[] inicios, int[] longitudes) {
+
+        int longitud() {
+            return datos.limit();
+        }
+
+        /** The bytes of one column, positioned at its start. */
+        ByteBuffer columna(Columna c) {
+            return datos.slice(inicios[c.ordinal()], longitudes[c.ordinal()]).order(ORDEN);
+        }
+
+        /** Decodes the dictionary of a text column. */
+        String[] valores(Columna c) {
+            ByteBuffer b = columna(c);
+            String[] valores = new String[b.getInt()];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = FilaPartida.leerTexto(b);
+            }
+            return valores;
+        }
+
+        /** Dictionary codes of a text column, one unsigned short per game. */
+        ByteBuffer codigos(Columna c) {
+            ByteBuffer b = columna(c);
+            int inicio = b.limit() - 2 * partidas;
+            return b.slice(inicio, 2 * partidas).order(ORDEN);
+        }
+    }
+}
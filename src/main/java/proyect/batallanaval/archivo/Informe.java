@@ -0,0 +1,159 @@
+package proyect.batallanaval.archivo;
+
+import proyect.batallanaval.models.Tablero;
+import proyect.batallanaval.models.TipoBarco;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregate figures over a set of archived games.
+ * <p>
+ * Figures are kept per attacking side: index 0 is the human player, index 1
+ * the machine. Cell maps are indexed {@code fila * 10 + columna}. Partial
+ * reports of disjoint sets of games are merged with {@link #combinar}.
+ * </p>
+ */
+public final class Informe {
+
+    static final int JUGADOR = 0;
+    static final int MAQUINA = 1;
+
+    private static final int CELDAS = Tablero.SIZE * Tablero.SIZE;
+    private static final TipoBarco[] TIPOS = TipoBarco.values();
+
+    /**
+     * Games the machine played with one strategy, and how many it won.
+     */
+    public record TasaVictoria(long partidas, long victoriasMaquina) {
+
+        /** Share of the games the machine won, 0 if there are none. */
+        public double tasa() {
+            return partidas == 0 ? 0 : (double) victoriasMaquina / partidas;
+        }
+    }
+
+    long partidas;
+    long victoriasJugador;
+    final long[][] primerImpacto = new long[2][CELDAS];
+    final long[][] disparosParaHundir = new long[2][TIPOS.length];
+    final long[][] hundidos = new long[2][TIPOS.length];
+    final long[][] colocaciones = new long[2][CELDAS];
+    final Map<String, long[]> porEstrategia = new TreeMap<>(); // {games, machine wins}
+
+    Informe() {
+    }
+
+    /** Adds the figures of another, disjoint set of games to this one. */
+    Informe combinar(Informe otro) {
+        partidas += otro.partidas;
+        victoriasJugador += otro.victoriasJugador;
+        for (int lado = 0; lado < 2; lado++) {
+            sumar(primerImpacto[lado], otro.primerImpacto[lado]);
+            sumar(disparosParaHundir[lado], otro.disparosParaHundir[lado]);
+            sumar(hundidos[lado], otro.hundidos[lado]);
+            sumar(colocaciones[lado], otro.colocaciones[lado]);
+        }
+        otro.porEstrategia.forEach((estrategia, v) -> sumarEstrategia(estrategia, v[0], v[1]));
+        return this;
+    }
+
+    void sumarEstrategia(String estrategia, long partidas, long victoriasMaquina) {
+        long[] v = porEstrategia.computeIfAbsent(estrategia, e -> new long[2]);
+        v[0] += partidas;
+        v[1] += victoriasMaquina;
+    }
+
+    private static void sumar(long[] destino, long[] origen) {
+        for (int i = 0; i < destino.length; i++) {
+            destino[i] += origen[i];
+        }
+    }
+
+    private static int lado(boolean delJugador) {
+        return delJugador ? JUGADOR : MAQUINA;
+    }
+
+    /** Number of games in the report. */
+    public long partidas() {
+        return partidas;
+    }
+
+    /** Games the human player won. */
+    public long victoriasJugador() {
+        return victoriasJugador;
+    }
+
+    /**
+     * Where each side landed its first hit of a game: one count per cell of
+     * the opponent's board.
+     */
+    public long[] primerImpacto(boolean delJugador) {
+        return primerImpacto[lado(delJugador)].clone();
+    }
+
+    /**
+     * Average shots a side fired from its first hit on a ship of a type to
+     * the shot that sank it, both included; 0 if none was sunk. Every shot of
+     * the side in between counts, wherever it landed.
+     */
+    public double mediaDisparosParaHundir(TipoBarco tipo, boolean delJugador) {
+        int lado = lado(delJugador);
+        long n = hundidos[lado][tipo.ordinal()];
+        return n == 0 ? 0 : (double) disparosParaHundir[lado][tipo.ordinal()] / n;
+    }
+
+    /**
+     * How often each cell held a ship at the start of a game.
+     *
+     * @param flotaJugador the human player's fleet, or else the machine's
+     */
+    public long[] frecuenciaColocacion(boolean flotaJugador) {
+        return colocaciones[lado(flotaJugador)].clone();
+    }
+
+    /** Machine results by the name of the strategy it played with. */
+    public Map<String, TasaVictoria> porEstrategia() {
+        Map<String, TasaVictoria> tasas = new TreeMap<>();
+        porEstrategia.forEach((estrategia, v) -> tasas.put(estrategia, new TasaVictoria(v[0], v[1])));
+        return tasas;
+    }
+
+    /**
+     * Plain-text rendering of the report, with cell maps as percentages of
+     * the games.
+     */
+    public String formatear() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Partidas: %d (ganadas por el jugador: %d)%n", partidas, victoriasJugador));
+
+        sb.append(String.format("%nVictorias de la máquina por estrategia:%n"));
+        porEstrategia().forEach((estrategia, t) -> sb.append(String.format("  %-24s %8d partidas  %5.1f%%%n",
+                estrategia, t.partidas(), 100 * t.tasa())));
+
+        sb.append(String.format("%nDisparos desde el primer impacto hasta hundir:%n"));
+        sb.append(String.format("  %-14s %9s %9s%n", "", "jugador", "máquina"));
+        for (TipoBarco tipo : TIPOS) {
+            sb.append(String.format("  %-14s %9.2f %9.2f%n", tipo,
+                    mediaDisparosParaHundir(tipo, true), mediaDisparosParaHundir(tipo, false)));
+        }
+
+        mapa(sb, "Primer impacto del jugador", primerImpacto[JUGADOR]);
+        mapa(sb, "Primer impacto de la máquina", primerImpacto[MAQUINA]);
+        mapa(sb, "Colocación de la flota del jugador", colocaciones[JUGADOR]);
+        mapa(sb, "Colocación de la flota de la máquina", colocaciones[MAQUINA]);
+        return sb.toString();
+    }
+
+    private void mapa(StringBuilder sb, String titulo, long[] celdas) {
+        sb.append(String.format("%n%s (%% de partidas):%n", titulo));
+        for (int fila = 0; fila < Tablero.SIZE; fila++) {
+            sb.append(' ');
+            for (int col = 0; col < Tablero.SIZE; col++) {
+                long n = celdas[fila * Tablero.SIZE + col];
+                sb.append(String.format(" %5.1f", partidas == 0 ? 0 : 100.0 * n / partidas));
+            }
+            sb.append(System.lineSeparator());
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package proyect.batallanaval.controllers;
+
+import proyect.batallanaval.logging.Registros;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Stores many saved games, one per named slot, in a single directory.
+ * <p>
+ * The serialized games are appended to one data file, and a small text
+ * index (one fixed-width line per slot, through {@link FileCRUD}, so saving
+ * a slot again rewrites only its line) records each slot's
+ * metadata together with the offset, length and checksum of its game in the
+ * data file. Listing saves reads only the index, which is kept in memory
+ * after the first access; loading a game reads exactly its bytes.
+ * </p>
+ * Saving a slot again appends the new game and leaves the old bytes behind.
+ * When that dead space outgrows the live games, the live games are copied to
+ * a data file of the next generation, the index is replaced atomically and
+ * the old file deleted, so a crash at any point leaves a readable store.
+ * <p>
+ * There is one instance per directory (see {@link #en(Path)}), shared by
+ * every {@link GameManager}; all methods are synchronized on it.
+ * </p>
+ */
+class AlmacenPartidas {
+    private static final System.Logger LOG = Registros.getLogger(AlmacenPartidas.class);
+
+    private static final String INDICE = "indice.csv";
+    private static final String PREFIJO_DATOS = "partidas-";
+    private static final String EXTENSION_DATOS = ".dat";
+    private static final String VERSION = "v1";
+
+    /** Dead bytes the data file may hold before compaction is considered. */
+    private static final long MINIMO_COMPACTAR = 256 * 1024;
+
+    private static final Map<Path, AlmacenPartidas> ABIERTOS = new ConcurrentHashMap<>();
+
+    private final Path directorio;
+    private final Path rutaIndice;
+    private final FileCRUD indice;
+
+    // Same order as the lines of the index file, after its header line
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+    private boolean cargado;
+    private int generacion;
+    private long bytesVivos;
+
+    private AlmacenPartidas(Path directorio) {
+        this.directorio = directorio;
+        this.rutaIndice = directorio.resolve(INDICE);
+        this.indice = new FileCRUD(rutaIndice.toString());
+    }
+
+    /**
+     * Returns the store kept in a directory, creating the directory the first
+     * time something is saved.
+     */
+    static AlmacenPartidas en(Path directorio) {
+        return ABIERTOS.computeIfAbsent(directorio.toAbsolutePath().normalize(), AlmacenPartidas::new);
+    }
+
+    /**
+     * Turns a nickname into the slot it is saved under: lower case, with
+     * anything but letters and digits replaced by {@code _}.
+     */
+    static String ranuraPara(String nickname) {
+        String ranura = nickname.strip().toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "_");
+        return ranura.isEmpty() ? "_" : ranura;
+    }
+
+    /**
+     * The slot a player's game is saved under. It is named after the
+     * nickname (see {@link #ranuraPara(String)}), but two nicknames may give
+     * the same name, so the index entry, which keeps the nickname, decides:
+     * a player with no save yet gets the first of {@code ranura},
+     * {@code ranura~2}, {@code ranura~3}... that nobody else holds.
+     */
+    synchronized String ranuraDe(String nickname) throws IOException {
+        cargar();
+        String nombre = nombreEnIndice(nickname);
+        for (Entrada e : entradas.values()) {
+            if (e.nickname().equals(nombre)) {
+                return e.ranura();
+            }
+        }
+        String base = ranuraPara(nickname);
+        String ranura = base;
+        for (int n = 2; entradas.containsKey(ranura); n++) {
+            ranura = base + "~" + n;
+        }
+        return ranura;
+    }
+
+    // Commas and line breaks would split the index line
+    private static String nombreEnIndice(String nickname) {
+        return nickname.replaceAll("[,\\r\\n]", " ");
+    }
+
+    /**
+     * Index line of a slot: its metadata and where its game lies in the data file.
+     *
+     * @param guardada save time, in milliseconds since the epoch
+     * @param offset   position of the game in the data file
+     * @param longitud size of the game in bytes
+     * @param crc      CRC-32 of those bytes
+     */
+    record Entrada(String ranura, String nickname, int turno, int hundidosJugador, int hundidosMaquina,
+                   long guardada, long semilla, long offset, int longitud, long crc) {
+
+        private String aLinea() {
+            return String.join(",", ranura, nickname, String.valueOf(turno),
+                    String.valueOf(hundidosJugador), String.valueOf(hundidosMaquina),
+                    String.valueOf(guardada), String.valueOf(semilla),
+                    String.valueOf(offset), String.valueOf(longitud), String.valueOf(crc));
+        }
+
+        private static Entrada deLinea(String linea) {
+            String[] d = linea.split(",");
+            if (d.length != 10) {
+                throw new IllegalArgumentException("Expected 10 fields, found " + d.length);
+            }
+            return new Entrada(d[0], d[1], Integer.parseInt(d[2]), Integer.parseInt(d[3]),
+                    Integer.parseInt(d[4]), Long.parseLong(d[5]), Long.parseLong(d[6]),
+                    Long.parseLong(d[7]), Integer.parseInt(d[8]), Long.parseLong(d[9]));
+        }
+
+        private Entrada enPosicion(long nuevoOffset) {
+            return new Entrada(ranura, nickname, turno, hundidosJugador, hundidosMaquina,
+                    guardada, semilla, nuevoOffset, longitud, crc);
+        }
+    }
+
+    /**
+     * Every saved slot, most recently saved first.
+     *
+     * @throws IOException if the index exists but cannot be read
+     */
+    synchronized List<Entrada> listar() throws IOException {
+        cargar();
+        List<Entrada> lista = new ArrayList<>(entradas.values());
+        lista.sort(Comparator.comparingLong(Entrada::guardada).reversed());
+        return lista;
+    }
+
+    /**
+     * The index entry of a slot, or {@code null} if nothing is saved there.
+     */
+    synchronized Entrada buscar(String ranura) throws IOException {
+        cargar();
+        return entradas.get(ranura);
+    }
+
+    /**
+     * Saves a game in the slot of its nickname (see {@link #ranuraDe(String)}),
+     * replacing that player's previous game.
+     *
+     * @param datos the serialized game
+     * @return the new index entry of the slot
+     * @throws IOException if the game cannot be written; the slot keeps its previous game
+     */
+    synchronized Entrada guardar(String nickname, int turno, int hundidosJugador, int hundidosMaquina,
+                                 long semilla, byte[] datos) throws IOException {
+        cargar();
+        Files.createDirectories(directorio);
+
+        long offset;
+        try (FileChannel canal = FileChannel.open(rutaDatos(generacion),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            offset = canal.size();
+            ByteBuffer buffer = ByteBuffer.wrap(datos);
+            long posicion = offset;
+            while (buffer.hasRemaining()) {
+                posicion += canal.write(buffer, posicion);
+            }
+        }
+
+        Entrada nueva = new Entrada(ranuraDe(nickname), nombreEnIndice(nickname), turno,
+                hundidosJugador, hundidosMaquina, System.currentTimeMillis(), semilla,
+                offset, datos.length, crc(datos));
+
+        // The index file first, so a failed write leaves the memory copy matching it
+        Entrada anterior = entradas.get(nueva.ranura());
+        if (!Files.exists(rutaIndice)) {
+            indice.createAll(List.of(VERSION + "," + generacion, nueva.aLinea()));
+        } else if (anterior == null) {
+            indice.create(nueva.aLinea());
+        } else {
+            indice.update(1 + posicion(nueva.ranura()), nueva.aLinea());
+            bytesVivos -= anterior.longitud();
+        }
+        entradas.put(nueva.ranura(), nueva);
+        bytesVivos += nueva.longitud();
+
+        compactarSiHaceFalta();
+        return nueva;
+    }
+
+    /**
+     * Reads the game saved under an index entry.
+     *
+     * @throws IOException if the bytes cannot be read or do not match their checksum
+     */
+    synchronized byte[] leer(Entrada entrada) throws IOException {
+        cargar();
+        // Compaction may have moved the game since the entry was listed
+        Entrada actual = entradas.get(entrada.ranura());
+        if (actual == null) {
+            throw new IOException("No saved game in slot: " + entrada.ranura());
+        }
+
+        byte[] datos = new byte[actual.longitud()];
+        ByteBuffer buffer = ByteBuffer.wrap(datos);
+        try (FileChannel canal = FileChannel.open(rutaDatos(generacion), StandardOpenOption.READ)) {
+            long posicion = actual.offset();
+            while (buffer.hasRemaining()) {
+                int leidos = canal.read(buffer, posicion);
+                if (leidos < 0) {
+                    throw new IOException("Data file ends inside slot: " + actual.ranura());
+                }
+                posicion += leidos;
+            }
+        }
+        if (crc(datos) != actual.crc()) {
+            throw new IOException("Checksum mismatch in slot: " + actual.ranura());
+        }
+        return datos;
+    }
+
+    /**
+     * Removes a slot from the index; its bytes are reclaimed by a later compaction.
+     *
+     * @return {@code true} if the slot existed
+     */
+    synchronized boolean eliminar(String ranura) throws IOException {
+        cargar();
+        if (!entradas.containsKey(ranura)) {
+            return false;
+        }
+        indice.delete(1 + posicion(ranura));
+        Entrada anterior = entradas.remove(ranura);
+        bytesVivos -= anterior.longitud();
+        LOG.log(Level.INFO, "Partida eliminada: {0}", ranura);
+
+        compactarSiHaceFalta();
+        return true;
+    }
+
+    private int posicion(String ranura) {
+        int i = 0;
+        for (String clave : entradas.keySet()) {
+            if (clave.equals(ranura)) {
+                return i;
+            }
+            i++;
+        }
+        throw new IllegalStateException("Slot not in index: " + ranura);
+    }
+
+    /**
+     * Reads the index the first time the store is used. Lines that cannot be
+     * parsed or point past the end of the data file are dropped, and data
+     * files of other generations, left by an interrupted compaction, deleted.
+     */
+    private void cargar() throws IOException {
+        if (cargado) {
+            return;
+        }
+        if (!Files.exists(rutaIndice)) {
+            cargado = true;
+            return;
+        }
+
+        List<String> lineas = indice.read();
+        if (lineas.isEmpty()) {
+            throw new IOException("Save index is empty: " + rutaIndice);
+        }
+        String[] cabecera = lineas.get(0).split(",");
+        if (cabecera.length != 2 || !VERSION.equals(cabecera[0])) {
+            throw new IOException("Unknown save index format: " + lineas.get(0));
+        }
+        try {
+            generacion = Integer.parseInt(cabecera[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Unknown save index format: " + lineas.get(0), e);
+        }
+
+        Path datos = rutaDatos(generacion);
+        long tamano = Files.exists(datos) ? Files.size(datos) : 0;
+        boolean descartadas = false;
+        for (String linea : lineas.subList(1, lineas.size())) {
+            try {
+                Entrada entrada = Entrada.deLinea(linea);
+                if (entrada.offset() < 0 || entrada.offset() + entrada.longitud() > tamano) {
+                    throw new IllegalArgumentException("Game outside the data file");
+                }
+                entradas.put(entrada.ranura(), entrada);
+                bytesVivos += entrada.longitud();
+            } catch (IllegalArgumentException e) {
+                LOG.log(Level.WARNING, "Entrada de índice descartada: {0} ({1})", linea, e.getMessage());
+                descartadas = true;
+            }
+        }
+
+        if (descartadas) {
+            // Line positions are only right once the dropped lines are gone from the file
+            try {
+                reescribirIndice(generacion, entradas.values());
+            } catch (IOException e) {
+                entradas.clear();
+                bytesVivos = 0;
+                throw e;
+            }
+        }
+        cargado = true;
+        borrarDatosHuerfanos();
+        LOG.log(Level.DEBUG, () -> "Índice de partidas cargado: " + entradas.size() + " ranuras");
+    }
+
+    private void compactarSiHaceFalta() throws IOException {
+        Path datos = rutaDatos(generacion);
+        long muertos = (Files.exists(datos) ? Files.size(datos) : 0) - bytesVivos;
+        if (muertos > MINIMO_COMPACTAR && muertos > bytesVivos) {
+            try {
+                compactar();
+            } catch (IOException e) {
+                // The change that triggered it is already saved; try again next time
+                LOG.log(Level.WARNING, "No se pudieron compactar las partidas", e);
+            }
+        }
+    }
+
+    /**
+     * Copies the live games into the data file of the next generation, then
+     * points the index at it and deletes the old file. The old file goes
+     * only once the new index has replaced the old one on disk; if anything
+     * fails before that, the new file is removed and the store stays on the
+     * current generation.
+     */
+    private void compactar() throws IOException {
+        int siguiente = generacion + 1;
+        Path origen = rutaDatos(generacion);
+        Path destino = rutaDatos(siguiente);
+        List<Entrada> movidas = new ArrayList<>(entradas.size());
+        long antes = Files.size(origen);
+
+        try {
+            try (FileChannel entrada = FileChannel.open(origen, StandardOpenOption.READ);
+                 FileChannel salida = FileChannel.open(destino, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long posicion = 0;
+                for (Entrada e : entradas.values()) {
+                    long copiados = 0;
+                    while (copiados < e.longitud()) {
+                        copiados += entrada.transferTo(e.offset() + copiados, e.longitud() - copiados, salida);
+                    }
+                    movidas.add(e.enPosicion(posicion));
+                    posicion += e.longitud();
+                }
+                salida.force(true);
+            }
+            reescribirIndice(siguiente, movidas);
+        } catch (IOException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+        generacion = siguiente;
+        entradas.clear();
+        for (Entrada e : movidas) {
+            entradas.put(e.ranura(), e);
+        }
+        Files.deleteIfExists(origen);
+        LOG.log(Level.INFO, "Partidas compactadas: {0} bytes -> {1} bytes", antes, bytesVivos);
+    }
+
+    /**
+     * Replaces the whole index in one atomic move.
+     *
+     * @throws IOException if the new index did not replace the old one, which is then left as it was
+     */
+    private void reescribirIndice(int generacionDatos, Iterable<Entrada> lista) throws IOException {
+        List<String> lineas = new ArrayList<>();
+        lineas.add(VERSION + "," + generacionDatos);
+        for (Entrada e : lista) {
+            lineas.add(e.aLinea());
+        }
+        indice.rewrite(lineas);
+    }
+
+    private void borrarDatosHuerfanos() throws IOException {
+        Path actual = rutaDatos(generacion);
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio,
+                PREFIJO_DATOS + "*" + EXTENSION_DATOS)) {
+            for (Path archivo : archivos) {
+                if (!archivo.equals(actual)) {
+                    Files.deleteIfExists(archivo);
+                    LOG.log(Level.INFO, "Archivo de partidas huérfano eliminado: {0}", archivo);
+                }
+            }
+        }
+    }
+
+    private Path rutaDatos(int gen) {
+        return directorio.resolve(PREFIJO_DATOS + gen + EXTENSION_DATOS);
+    }
+
+    private static long crc(byte[] datos) {
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,451 @@
+package proyect.batallanaval.controllers;
+
+import proyect.batallanaval.logging.Registros;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Leaderboard of every player that finished a game: wins, losses, shots
+ * needed to win and best game.
+ * <p>
+ * Each player is one line of a {@link FileCRUD} file, so recording a game
+ * rewrites a single fixed-width record. In memory, players are grouped in
+ * buckets by number of wins, kept sorted in a {@link TreeMap}, and a Fenwick
+ * tree counts players per number of wins. Each bucket is a treap sorted by
+ * {@link #ORDEN} whose nodes know the size of their subtree. Recording a game
+ * moves one player between buckets and updates the tree, both in O(log n). A
+ * player's rank is their place in {@link #ORDEN}: one plus the players with
+ * more wins, a prefix sum of the tree, plus those in their own bucket that go
+ * before them, counted down the bucket's treap. The top K walks buckets from
+ * the most wins down only until K players
+ * are gathered, and orders them through a heap bounded to K, so a player's
+ * rank is always their position in that list.
+ * </p>
+ * Players are told apart by their exact nickname.
+ * The file is read once, the first time the leaderboard is used, and again
+ * on the next use if that read failed. There is
+ * one instance per directory, shared by every {@link GameManager}.
+ */
+public class Clasificacion {
+    private static final System.Logger LOG = Registros.getLogger(Clasificacion.class);
+
+    private static final String ARCHIVO = "clasificacion.csv";
+
+    private static final Map<Path, Clasificacion> ABIERTAS = new ConcurrentHashMap<>();
+
+    /**
+     * Standing order: more wins first, then fewer shots per win, fewer losses
+     * and nickname.
+     */
+    public static final Comparator<Estadisticas> ORDEN =
+            Comparator.comparingInt(Estadisticas::victorias).reversed()
+                    .thenComparingDouble(Estadisticas::mediaDisparosVictoria)
+                    .thenComparingInt(Estadisticas::derrotas)
+                    .thenComparing(Estadisticas::nickname);
+
+    /**
+     * Record of one player.
+     *
+     * @param disparosEnVictorias shots the player fired in all the games they won
+     * @param mejorPartida        fewest shots the player needed to win, 0 if they never won
+     */
+    public record Estadisticas(String nickname, int victorias, int derrotas,
+                               long disparosEnVictorias, int mejorPartida) {
+
+        public int partidas() {
+            return victorias + derrotas;
+        }
+
+        /** Average shots per won game, 0 if the player never won. */
+        public double mediaDisparosVictoria() {
+            return victorias == 0 ? 0 : (double) disparosEnVictorias / victorias;
+        }
+
+        private Estadisticas conResultado(boolean gano, int disparos) {
+            if (!gano) {
+                return new Estadisticas(nickname, victorias, derrotas + 1, disparosEnVictorias, mejorPartida);
+            }
+            int mejor = mejorPartida == 0 ? disparos : Math.min(mejorPartida, disparos);
+            return new Estadisticas(nickname, victorias + 1, derrotas, disparosEnVictorias + disparos, mejor);
+        }
+    }
+
+    // A player and the line of the file that holds them
+    private record Fila(Estadisticas estadisticas, int linea) {
+    }
+
+    private final Path directorio;
+    private final FileCRUD archivo;
+
+    private final Map<String, Fila> jugadores = new HashMap<>();
+    private final TreeMap<Integer, ArbolOrden> porVictorias = new TreeMap<>();
+    private final ArbolFenwick conteoPorVictorias = new ArbolFenwick();
+    private int lineas;
+    private boolean cargada;
+
+    private Clasificacion(Path directorio) {
+        this.directorio = directorio;
+        this.archivo = new FileCRUD(directorio.resolve(ARCHIVO).toString());
+    }
+
+    /**
+     * Returns the leaderboard kept in a directory.
+     */
+    static Clasificacion en(Path directorio) {
+        return ABIERTAS.computeIfAbsent(directorio.toAbsolutePath().normalize(), Clasificacion::new);
+    }
+
+    /**
+     * Adds the result of a finished game to a player's record.
+     *
+     * @param disparos shots the player fired in that game
+     * @return the player's updated record
+     * @throws IOException if the leaderboard cannot be read, or its directory or the player's line cannot be written
+     */
+    public synchronized Estadisticas registrar(String nickname, boolean gano, int disparos) throws IOException {
+        cargar();
+        String clave = clave(nickname);
+        Fila anterior = jugadores.get(clave);
+
+        Estadisticas base = anterior != null
+                ? anterior.estadisticas()
+                : new Estadisticas(clave, 0, 0, 0, 0);
+        Estadisticas nuevas = base.conResultado(gano, disparos);
+
+        if (anterior == null) {
+            Files.createDirectories(directorio);
+            archivo.create(aLinea(clave, nuevas));
+            jugadores.put(clave, new Fila(nuevas, lineas++));
+        } else {
+            archivo.update(anterior.linea(), aLinea(clave, nuevas));
+            jugadores.put(clave, new Fila(nuevas, anterior.linea()));
+            quitarDeBucket(base);
+        }
+        ponerEnBucket(nuevas);
+
+        LOG.log(Level.DEBUG, () -> "Clasificación actualizada: " + nuevas);
+        return nuevas;
+    }
+
+    /**
+     * Record of a player, or {@code null} if they never finished a game.
+     *
+     * @throws IOException if the leaderboard cannot be read
+     */
+    public synchronized Estadisticas buscar(String nickname) throws IOException {
+        cargar();
+        Fila fila = jugadores.get(clave(nickname));
+        return fila == null ? null : fila.estadisticas();
+    }
+
+    /**
+     * Rank of a player: their position in {@link #ORDEN}, the order of
+     * {@link #mejores(int)}.
+     *
+     * @return the rank, or 0 if the player never finished a game
+     * @throws IOException if the leaderboard cannot be read
+     */
+    public synchronized int puesto(String nickname) throws IOException {
+        cargar();
+        Fila fila = jugadores.get(clave(nickname));
+        if (fila == null) {
+            return 0;
+        }
+        Estadisticas propias = fila.estadisticas();
+        int victorias = propias.victorias();
+        int delante = jugadores.size() - conteoPorVictorias.hasta(victorias);
+        return 1 + delante + porVictorias.get(victorias).antesDe(propias);
+    }
+
+    /**
+     * Number of players in the leaderboard.
+     *
+     * @throws IOException if the leaderboard cannot be read
+     */
+    public synchronized int totalJugadores() throws IOException {
+        cargar();
+        return jugadores.size();
+    }
+
+    /**
+     * The best players in {@link #ORDEN}.
+     *
+     * @param k how many players to return at most
+     * @throws IOException if the leaderboard cannot be read
+     */
+    public synchronized List<Estadisticas> mejores(int k) throws IOException {
+        cargar();
+        if (k <= 0) {
+            return List.of();
+        }
+        // Worst of the kept players at the head, evicted when a better one arrives
+        PriorityQueue<Estadisticas> heap = new PriorityQueue<>(k + 1, ORDEN.reversed());
+        int reunidos = 0;
+        for (ArbolOrden bucket : porVictorias.descendingMap().values()) {
+            if (reunidos >= k) {
+                break; // every remaining bucket has fewer wins
+            }
+            for (Estadisticas estadisticas : bucket) {
+                heap.offer(estadisticas);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+            reunidos += bucket.tamano();
+        }
+        List<Estadisticas> lista = new ArrayList<>(heap);
+        lista.sort(ORDEN);
+        return lista;
+    }
+
+    private void ponerEnBucket(Estadisticas estadisticas) {
+        porVictorias.computeIfAbsent(estadisticas.victorias(), v -> new ArbolOrden()).insertar(estadisticas);
+        conteoPorVictorias.sumar(estadisticas.victorias(), 1);
+    }
+
+    private void quitarDeBucket(Estadisticas estadisticas) {
+        ArbolOrden bucket = porVictorias.get(estadisticas.victorias());
+        bucket.quitar(estadisticas);
+        if (bucket.tamano() == 0) {
+            porVictorias.remove(estadisticas.victorias());
+        }
+        conteoPorVictorias.sumar(estadisticas.victorias(), -1);
+    }
+
+    // Line numbers must match the file, so a failed read leaves nothing loaded
+    private void cargar() throws IOException {
+        if (cargada) {
+            return;
+        }
+        List<String> contenido = archivo.read();
+        lineas = contenido.size();
+        for (int i = 0; i < contenido.size(); i++) {
+            try {
+                String[] d = contenido.get(i).split(",");
+                if (d.length != 6) {
+                    throw new IllegalArgumentException("Expected 6 fields, found " + d.length);
+                }
+                Estadisticas e = new Estadisticas(d[1], Integer.parseInt(d[2]), Integer.parseInt(d[3]),
+                        Long.parseLong(d[4]), Integer.parseInt(d[5]));
+                // Keyed on the nickname: older files keyed players on their save slot name
+                String clave = d[1];
+                Fila anterior = jugadores.put(clave, new Fila(e, i));
+                if (anterior != null) {
+                    quitarDeBucket(anterior.estadisticas());
+                }
+                ponerEnBucket(e);
+            } catch (IllegalArgumentException e) {
+                LOG.log(Level.WARNING, "Línea de clasificación descartada: {0} ({1})",
+                        contenido.get(i), e.getMessage());
+            }
+        }
+        cargada = true;
+        LOG.log(Level.DEBUG, () -> "Clasificación cargada: " + jugadores.size() + " jugadores");
+    }
+
+    // Commas and line breaks would split the line
+    private static String clave(String nickname) {
+        return nickname.replaceAll("[,\\r\\n]", " ");
+    }
+
+    private static String aLinea(String clave, Estadisticas e) {
+        return String.join(",", clave, e.nickname(), String.valueOf(e.victorias()),
+                String.valueOf(e.derrotas()), String.valueOf(e.disparosEnVictorias()),
+                String.valueOf(e.mejorPartida()));
+    }
+
+    /**
+     * Treap of records sorted by {@link #ORDEN}, each node holding the size
+     * of its subtree so the records before a given one are counted along a
+     * single path. Random priorities keep it balanced in expectation.
+     */
+    private static final class ArbolOrden implements Iterable<Estadisticas> {
+        private static final class Nodo {
+            final Estadisticas valor;
+            final int prioridad = ThreadLocalRandom.current().nextInt();
+            Nodo izquierdo;
+            Nodo derecho;
+            int tamano = 1;
+
+            Nodo(Estadisticas valor) {
+                this.valor = valor;
+            }
+        }
+
+        private Nodo raiz;
+
+        int tamano() {
+            return tamano(raiz);
+        }
+
+        void insertar(Estadisticas estadisticas) {
+            Nodo[] partes = dividir(raiz, estadisticas);
+            raiz = unir(unir(partes[0], new Nodo(estadisticas)), partes[1]);
+        }
+
+        /** Removes a record that is in the tree. */
+        void quitar(Estadisticas estadisticas) {
+            raiz = quitar(raiz, estadisticas);
+        }
+
+        /** Records that go before the given one. */
+        int antesDe(Estadisticas estadisticas) {
+            int cuenta = 0;
+            Nodo nodo = raiz;
+            while (nodo != null) {
+                if (ORDEN.compare(nodo.valor, estadisticas) < 0) {
+                    cuenta += tamano(nodo.izquierdo) + 1;
+                    nodo = nodo.derecho;
+                } else {
+                    nodo = nodo.izquierdo;
+                }
+            }
+            return cuenta;
+        }
+
+        /** Walks the records in {@link #ORDEN}. */
+        @Override
+        public Iterator<Estadisticas> iterator() {
+            return new Iterator<>() {
+                private final Deque<Nodo> pendientes = new ArrayDeque<>();
+
+                {
+                    bajar(raiz);
+                }
+
+                private void bajar(Nodo nodo) {
+                    for (; nodo != null; nodo = nodo.izquierdo) {
+                        pendientes.push(nodo);
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !pendientes.isEmpty();
+                }
+
+                @Override
+                public Estadisticas next() {
+                    if (pendientes.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Nodo nodo = pendientes.pop();
+                    bajar(nodo.derecho);
+                    return nodo.valor;
+                }
+            };
+        }
+
+        private static int tamano(Nodo nodo) {
+            return nodo == null ? 0 : nodo.tamano;
+        }
+
+        private static void recontar(Nodo nodo) {
+            nodo.tamano = tamano(nodo.izquierdo) + 1 + tamano(nodo.derecho);
+        }
+
+        // Splits into the records before the given one and the rest
+        private static Nodo[] dividir(Nodo nodo, Estadisticas estadisticas) {
+            if (nodo == null) {
+                return new Nodo[2];
+            }
+            Nodo[] partes;
+            if (ORDEN.compare(nodo.valor, estadisticas) < 0) {
+                partes = dividir(nodo.derecho, estadisticas);
+                nodo.derecho = partes[0];
+                partes[0] = nodo;
+            } else {
+                partes = dividir(nodo.izquierdo, estadisticas);
+                nodo.izquierdo = partes[1];
+                partes[1] = nodo;
+            }
+            recontar(nodo);
+            return partes;
+        }
+
+        // Every record of the first tree goes before every record of the second
+        private static Nodo unir(Nodo antes, Nodo despues) {
+            if (antes == null) {
+                return despues;
+            }
+            if (despues == null) {
+                return antes;
+            }
+            if (antes.prioridad > despues.prioridad) {
+                antes.derecho = unir(antes.derecho, despues);
+                recontar(antes);
+                return antes;
+            }
+            despues.izquierdo = unir(antes, despues.izquierdo);
+            recontar(despues);
+            return despues;
+        }
+
+        private static Nodo quitar(Nodo nodo, Estadisticas estadisticas) {
+            int comparacion = ORDEN.compare(estadisticas, nodo.valor);
+            if (comparacion == 0) {
+                return unir(nodo.izquierdo, nodo.derecho);
+            }
+            if (comparacion < 0) {
+                nodo.izquierdo = quitar(nodo.izquierdo, estadisticas);
+            } else {
+                nodo.derecho = quitar(nodo.derecho, estadisticas);
+            }
+            recontar(nodo);
+            return nodo;
+        }
+    }
+
+    /**
+     * Fenwick (binary indexed) tree of player counts per number of wins,
+     * grown by doubling as wins go up.
+     */
+    private static final class ArbolFenwick {
+        private long[] arbol = new long[64]; // 1-based; position v + 1 holds v wins
+
+        void sumar(int victorias, long delta) {
+            int i = victorias + 1;
+            while (i >= arbol.length) {
+                crecer();
+            }
+            for (; i < arbol.length; i += i & -i) {
+                arbol[i] += delta;
+            }
+        }
+
+        /** Players with at most the given number of wins. */
+        int hasta(int victorias) {
+            long suma = 0;
+            for (int i = Math.min(victorias + 1, arbol.length - 1); i > 0; i -= i & -i) {
+                suma += arbol[i];
+            }
+            return (int) suma;
+        }
+
+        private void crecer() {
+            // Nodes keep their ranges when the length doubles; the only new
+            // non-empty node is the one at the old length, covering everything so far
+            int anterior = arbol.length;
+            long total = hasta(anterior - 2);
+            arbol = Arrays.copyOf(arbol, anterior * 2);
+            arbol[anterior] = total;
+        }
+    }
+}
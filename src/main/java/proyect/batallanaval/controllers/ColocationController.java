@@ -1,24 +1,34 @@
 package proyect.batallanaval.controllers;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
-import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.input.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.jfr.EventoCargaEscena;
 import proyect.batallanaval.models.*;
+import proyect.batallanaval.models.strategy.EstrategiaCazaYRemate;
+import proyect.batallanaval.red.PartidaRemota;
+import proyect.batallanaval.views.BoardCanvasView;
+import proyect.batallanaval.views.EstiloCelda;
+import proyect.batallanaval.views.GestorEscenas;
+import proyect.batallanaval.views.PerformanceOverlay;
 import proyect.batallanaval.views.ShipCellView;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
 import java.net.URL;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Controller responsible for managing the ship placement phase (HU-1)
@@ -37,6 +47,7 @@ import java.util.ResourceBundle;
  * </p>
  */
 public class ColocationController implements Initializable {
+    private static final System.Logger LOG = Registros.getLogger(ColocationController.class);
 
     @FXML
     private GridPane gridTablero;
@@ -47,6 +58,9 @@ public class ColocationController implements Initializable {
     @FXML
     private Button btnJugar;
 
+    @FXML
+    private Button btnJugarRed;
+
     private Juego juego;
     private Jugador jugador;
     private Tablero tablero;
@@ -55,6 +69,12 @@ public class ColocationController implements Initializable {
     /** Size in pixels of each board cell*/
     private static final int CELL_SIZE = Tablero.CELL_SIZE;
 
+    /** Grid cells indexed by {@code fila * Tablero.SIZE + col}, built with the grid. */
+    private StackPane[] celdasVista;
+
+    /** Canvas renderer used instead of the cell nodes on large boards (null otherwise). */
+    private BoardCanvasView canvas;
+
     /** Currently selected ship (for rotation and movement). */
     private Barco barcoSeleccionado;
 
@@ -63,13 +83,21 @@ public class ColocationController implements Initializable {
     private int dragStartFila;
     private int dragStartCol;
 
+    /** Time the machine's fleet optimizer may run while the player arranges ships. */
+    private static final Duration PRESUPUESTO_OPTIMIZACION = Duration.ofSeconds(3);
+
+    /** Layout for the machine's fleet, searched in the background during placement. */
+    private OptimizadorFlota optimizador;
+    private CompletableFuture<List<Colocacion>> flotaMaquinaOptimizada;
+
     /**
      * Initializes the controller after the FXML has been loaded.
      * <p>
      * A new {@link Juego} instance is created for the human player.
      * The player, board and fleet are obtained from the model, the
      * grid is built, an initial placement is applied to the fleet,
-     * and button handlers are configured.
+     * and button handlers are configured. A search for a hard-to-sink machine
+     * fleet is started in the background so it is ready when the game starts.
      * </p>
      *
      * @param url            unused URL parameter required by {@link Initializable}
@@ -82,9 +110,57 @@ public class ColocationController implements Initializable {
         tablero = jugador.getTableroPosicion();
         flota = jugador.getFlota();
 
-        inicializarGrid();
+        if (BoardCanvasView.usarCanvas(tablero.getSize())) {
+            inicializarCanvas();
+        } else {
+            inicializarGrid();
+        }
         inicializarFlotaEnTablero();
         configurarBotones();
+        iniciarOptimizacionFlotaMaquina();
+
+        new PerformanceOverlay()
+                .agregarTablero("Tablero", gridTablero)
+                .instalar(gridTablero);
+
+        // The game view comes next; parse it while the player places the fleet
+        GestorEscenas.precargar(GestorEscenas.Vista.JUEGO);
+    }
+
+    /**
+     * Starts searching, on a background thread, for a machine fleet layout that
+     * a hunt and target attacker finds hard to sink. The player's placement
+     * phase hides the search time.
+     */
+    private void iniciarOptimizacionFlotaMaquina() {
+        optimizador = new OptimizadorFlota(
+                EstrategiaCazaYRemate::new, tablero.getSize(), tablero.isReglaSinContacto());
+        flotaMaquinaOptimizada = optimizador.optimizarEnSegundoPlano(PRESUPUESTO_OPTIMIZACION);
+    }
+
+    private void cancelarOptimizacion() {
+        if (optimizador != null) {
+            optimizador.cancelar();
+        }
+        optimizador = null;
+        flotaMaquinaOptimizada = null;
+    }
+
+    /**
+     * Replaces the machine's random fleet with the optimized layout, but only if
+     * the search has already finished: the game never waits for it.
+     */
+    private void aplicarFlotaMaquinaOptimizada() {
+        if (flotaMaquinaOptimizada == null) {
+            return;
+        }
+        if (flotaMaquinaOptimizada.isDone() && !flotaMaquinaOptimizada.isCompletedExceptionally()) {
+            juego.reemplazarFlotaMaquina(flotaMaquinaOptimizada.join());
+            LOG.log(Level.INFO, "Flota de la máquina optimizada aplicada");
+        } else {
+            LOG.log(Level.INFO, "Optimización sin terminar, se mantiene la flota aleatoria");
+        }
+        cancelarOptimizacion();
     }
 
     /* ---------- Grid 10x10 ---------- */
@@ -104,6 +180,7 @@ public class ColocationController implements Initializable {
      */
     private void inicializarGrid() {
         gridTablero.getChildren().clear();
+        celdasVista = new StackPane[Tablero.SIZE * Tablero.SIZE];
         gridTablero.getColumnConstraints().clear();
         gridTablero.getRowConstraints().clear();
 
@@ -130,13 +207,14 @@ public class ColocationController implements Initializable {
                 cell.setMaxSize(CELL_SIZE, CELL_SIZE);
 
                 cell.setUserData(new int[]{fila, col});
-                cell.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #b0b0b0;");
+                EstiloCelda.inicializar(cell);
                 GridPane.setMargin(cell, new Insets(1));
 
                 cell.setOnDragOver(e -> onDragOver(e, cell));
                 cell.setOnDragDropped(e -> onDragDropped(e, cell));
 
                 gridTablero.add(cell, col, fila);
+                celdasVista[fila * Tablero.SIZE + col] = cell;
             }
         }
 
@@ -147,26 +225,60 @@ public class ColocationController implements Initializable {
         gridTablero.setMaxSize(total, total);
     }
 
+    /**
+     * Replaces the grid contents with a single {@link BoardCanvasView}, for
+     * boards too large for one node per cell. Clicking a ship selects it and
+     * dragging the selected ship from one cell to another moves it by the
+     * same offset, like the drag and drop of the node-based grid.
+     */
+    private void inicializarCanvas() {
+        gridTablero.getChildren().clear();
+        gridTablero.getColumnConstraints().clear();
+        gridTablero.getRowConstraints().clear();
+
+        int size = tablero.getSize();
+        canvas = new BoardCanvasView(size, BoardCanvasView.tamanoCeldaPara(size, CELL_SIZE));
+        canvas.setOnCeldaClic((fila, col) -> {
+            Barco barco = tablero.getCelda(fila, col).getBarco();
+            if (barco != null) {
+                seleccionarBarco(barco, null);
+            }
+        });
+        canvas.setOnArrastre((filaOrigen, colOrigen, filaDestino, colDestino) -> {
+            // Only the selected ship can be dragged
+            Barco barco = tablero.getCelda(filaOrigen, colOrigen).getBarco();
+            if (barco != null && barco == barcoSeleccionado) {
+                moverBarcoConDelta(barco, filaDestino - filaOrigen, colDestino - colOrigen);
+            }
+        });
+
+        gridTablero.add(canvas, 0, 0);
+        gridTablero.setPrefSize(canvas.getWidth(), canvas.getHeight());
+        gridTablero.setMinSize(canvas.getWidth(), canvas.getHeight());
+        gridTablero.setMaxSize(canvas.getWidth(), canvas.getHeight());
+    }
+
     /* ---------- Initial fleet already deployed ---------- */
     /**
      * Places the initial fleet arrangement on the board.
      * <p>
      * Ships are placed in predefined positions and orientations, ensuring
      * that a complete fleet is available for the player to start adjusting
-     * positions using drag-and-drop and rotation.
+     * positions using drag-and-drop and rotation. Ships are spaced out so the
+     * arrangement is also valid when the no-touch rule is enabled.
      * </p>
      */
     private void inicializarFlotaEnTablero() {
         colocarInicial(TipoBarco.PORTAAVIONES, 0, 0, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.SUBMARINO,    1, 0, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.SUBMARINO,    0, 5, Orientacion.HORIZONTAL);
         colocarInicial(TipoBarco.SUBMARINO,    2, 0, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.DESTRUCTOR,   3, 0, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.DESTRUCTOR,   2, 4, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.DESTRUCTOR,   2, 7, Orientacion.HORIZONTAL);
         colocarInicial(TipoBarco.DESTRUCTOR,   4, 0, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.DESTRUCTOR,   5, 0, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.FRAGATA,      6, 0, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.FRAGATA,      6, 2, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.FRAGATA,      6, 4, Orientacion.HORIZONTAL);
-        colocarInicial(TipoBarco.FRAGATA,      6, 6, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.FRAGATA,      4, 3, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.FRAGATA,      4, 5, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.FRAGATA,      4, 7, Orientacion.HORIZONTAL);
+        colocarInicial(TipoBarco.FRAGATA,      4, 9, Orientacion.HORIZONTAL);
     }
 
     /**
@@ -206,6 +318,14 @@ public class ColocationController implements Initializable {
     private void pintarBarco(Barco barco) {
         boolean esSeleccionado = (barcoSeleccionado == barco);
 
+        if (canvas != null) {
+            for (Celda c : barco.getCeldas()) {
+                canvas.setCelda(c.getFila(), c.getColumna(), c.getEstado(), barco.getTipo());
+                canvas.setSeleccionada(c.getFila(), c.getColumna(), esSeleccionado);
+            }
+            return;
+        }
+
         barco.getCeldas().forEach(c -> {
             StackPane cell = getCell(c.getFila(), c.getColumna());
             if (cell == null) return;
@@ -234,14 +354,10 @@ public class ColocationController implements Initializable {
      * @return the {@link StackPane} representing the cell, or {@code null} if not found
      */
     private StackPane getCell(int fila, int col) {
-        for (Node node : gridTablero.getChildren()) {
-            Integer r = GridPane.getRowIndex(node);
-            Integer c = GridPane.getColumnIndex(node);
-            if (r != null && c != null && r == fila && c == col) {
-                return (StackPane) node;
-            }
+        if (celdasVista == null || fila < 0 || fila >= Tablero.SIZE || col < 0 || col >= Tablero.SIZE) {
+            return null;
         }
-        return null;
+        return celdasVista[fila * Tablero.SIZE + col];
     }
 
     /**
@@ -253,11 +369,20 @@ public class ColocationController implements Initializable {
      *                    but useful if extended later)
      */
     private void seleccionarBarco(Barco barco, ShipCellView clickedView) {
+        Barco anterior = barcoSeleccionado;
         barcoSeleccionado = barco;
 
+        if (canvas != null) {
+            // Only the cells of the previous and the new selection change
+            if (anterior != null) {
+                anterior.getCeldas().forEach(c -> canvas.setSeleccionada(c.getFila(), c.getColumna(), false));
+            }
+            barco.getCeldas().forEach(c -> canvas.setSeleccionada(c.getFila(), c.getColumna(), true));
+            return;
+        }
+
         // Clear current visual selection
-        for (Node node : gridTablero.getChildren()) {
-            StackPane cell = (StackPane) node;
+        for (StackPane cell : celdasVista) {
             if (!cell.getChildren().isEmpty() && cell.getChildren().get(0) instanceof ShipCellView view) {
                 view.setSeleccionado(false);
             }
@@ -360,11 +485,11 @@ public class ColocationController implements Initializable {
      * <p>
      * The method:
      * <ol>
-     *     <li>Copies the current cells occupied by the ship.</li>
-     *     <li>Computes the destination cells by adding the deltas.</li>
-     *     <li>Validates board boundaries and checks for collisions with other ships.</li>
-     *     <li>If the move is valid, clears the old cells in both model and view,</li>
-     *     <li>Assigns the ship to the new cells and repaints it on the grid.</li>
+     *     <li>Removes the ship from the board so it does not collide with itself.</li>
+     *     <li>Validates the destination with {@link Tablero#puedeColocarBarco},
+     *         which checks board boundaries, collisions and the no-touch rule.</li>
+     *     <li>Places the ship at the destination if valid, or back at its
+     *         original position otherwise, and repaints it on the grid.</li>
      * </ol>
      * </p>
      *
@@ -374,59 +499,55 @@ public class ColocationController implements Initializable {
      * @return {@code true} if the move was valid and applied; {@code false} otherwise
      */
     private boolean moverBarcoConDelta(Barco barco, int deltaFila, int deltaCol) {
-        // Copy of current cells; also validates that the ship has cells and that movement is non-zero
-        List<Celda> actuales = new ArrayList<>(barco.getCeldas());
-        if (actuales.isEmpty() || (deltaFila == 0 && deltaCol == 0)) {
+        // Validates that the ship has cells and that movement is non-zero
+        if (barco.getCeldas().isEmpty() || (deltaFila == 0 && deltaCol == 0)) {
             return false;
         }
 
-        // List for new positions of the ship
-        List<Celda> nuevasCeldas = new ArrayList<>();
-
-        for (Celda c : actuales) {
-            // Does the math for the new position of the cell by adding the deltas
-            int nuevaFila = c.getFila() + deltaFila;
-            int nuevaCol  = c.getColumna() + deltaCol;
-
-            // Verifies that the new position is between the limits
-            if (nuevaFila < 0 || nuevaFila >= Tablero.SIZE
-                    || nuevaCol < 0 || nuevaCol >= Tablero.SIZE) {
-                return false;
-            }
-
-            // Obtains new destination
-            Celda destino = tablero.getCelda(nuevaFila, nuevaCol);
+        return reubicarBarco(barco,
+                barco.getFilaOrigen() + deltaFila,
+                barco.getColumnaOrigen() + deltaCol,
+                barco.getOrientacion());
+    }
 
-            // Detects collisions
-            if (destino.tieneBarco() && !actuales.contains(destino)) {
-                return false;
+    /**
+     * Moves a ship to a new origin and orientation if the board allows it,
+     * keeping the same {@link Barco} instance in the fleet.
+     *
+     * @param barco       the ship to relocate
+     * @param fila        destination origin row
+     * @param col         destination origin column
+     * @param orientacion destination orientation
+     * @return {@code true} if the ship was relocated; {@code false} if it stayed in place
+     */
+    private boolean reubicarBarco(Barco barco, int fila, int col, Orientacion orientacion) {
+        int filaActual = barco.getFilaOrigen();
+        int colActual = barco.getColumnaOrigen();
+        Orientacion orientacionActual = barco.getOrientacion();
+
+        // Cleans the old view and takes the ship off the model
+        for (Celda c : barco.getCeldas()) {
+            if (canvas != null) {
+                canvas.setSeleccionada(c.getFila(), c.getColumna(), false);
+                canvas.setCelda(c.getFila(), c.getColumna(), EstadoCelda.VACIA, null);
+                continue;
             }
-
-            // If the cell is valid it gets added to the list of new cells
-            nuevasCeldas.add(destino);
-        }
-
-        // Cleans the model and the old view
-        for (Celda c : actuales) {
             StackPane cellView = getCell(c.getFila(), c.getColumna());
             if (cellView != null) {
                 cellView.getChildren().removeIf(n -> n instanceof ShipCellView);
             }
-            c.setBarco(null);
-            c.setEstado(EstadoCelda.VACIA);
         }
-        barco.getCeldas().clear();
+        tablero.retirarBarco(barco);
 
-        // Puts the ship in the new position
-        for (Celda destino : nuevasCeldas) {
-            destino.setBarco(barco);
-            destino.setEstado(EstadoCelda.BARCO);
-            barco.getCeldas().add(destino);
+        boolean valido = tablero.puedeColocarBarco(fila, col, orientacion, barco.getTipo());
+        if (valido) {
+            tablero.colocarBarco(barco, fila, col, orientacion);
+        } else {
+            tablero.colocarBarco(barco, filaActual, colActual, orientacionActual);
         }
 
         pintarBarco(barco);
-
-        return true;
+        return valido;
     }
 
 
@@ -439,24 +560,39 @@ public class ColocationController implements Initializable {
      */
     @FXML
     private void irAJuego() {
+        aplicarFlotaMaquinaOptimizada();
+        mostrarJuego(gameController -> gameController.setJuego(this.juego));
+    }
+
+    /**
+     * Loads the game view for a match against another player through the
+     * game server, with the fleet placed here. The machine's fleet is not
+     * used, so its search is cancelled.
+     */
+    private void irAJuegoEnRed() {
+        cancelarOptimizacion();
+        mostrarJuego(gameController -> gameController.setPartidaRemota(this.juego, new PartidaRemota(this.juego)));
+    }
+
+    private void mostrarJuego(Consumer<GameController> preparar) {
+        EventoCargaEscena evento = new EventoCargaEscena();
+        evento.begin();
+        evento.vista = "game-view.fxml";
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/proyect/batallanaval/game-view.fxml")
-            );
-            Parent root = loader.load();
+            GestorEscenas.VistaCargada vista = GestorEscenas.obtener(GestorEscenas.Vista.JUEGO);
+            Parent root = vista.getRaiz();
 
-            GameController gameController = loader.getController();
-            gameController.setJuego(this.juego);
+            preparar.accept(vista.getControlador());
 
             Stage stage = (Stage) btnJugar.getScene().getWindow();
             Scene scene = new Scene(root);
             stage.setScene(scene);
             stage.show();
+            evento.commit();
 
-            System.out.println("Vista de juego cargada correctamente");
+            LOG.log(Level.DEBUG, "Vista de juego cargada");
         } catch (IOException ex) {
-            System.err.println("Error al cargar game-view.fxml:");
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "Error al cargar game-view.fxml", ex);
         }
     }
 
@@ -465,70 +601,61 @@ public class ColocationController implements Initializable {
      * Configures the behavior of the rotation and play buttons.
      * <ul>
      *     <li>{@code btnRotar}: rotates the currently selected ship if the
-     *     rotation is valid (no collisions and within board boundaries).</li>
+     *     rotation is valid (no collisions, within board boundaries and
+     *     respecting the no-touch rule when enabled).</li>
      *     <li>{@code btnJugar}: checks that all ships are placed and, if so,
      *     switches to the machine colocation view.</li>
+     *     <li>{@code btnJugarRed}: same check, then plays against another
+     *     player through the game server.</li>
      * </ul>
      */
     private void configurarBotones() {
         btnRotar.setOnAction(e -> {
-            if (barcoSeleccionado == null) {
+            if (barcoSeleccionado == null || barcoSeleccionado.getCeldas().isEmpty()) {
                 return;
             }
 
-            // Current cells of the ship
-            List<Celda> actuales = new ArrayList<>(barcoSeleccionado.getCeldas());
-            if (actuales.isEmpty()) {
-                return;
-            }
-
-            // Origin: first cell used as pivot
-            Celda primera = actuales.get(0);
-            int filaOrigen = primera.getFila();
-            int colOrigen  = primera.getColumna();
-
             Orientacion orientacionActual = barcoSeleccionado.getOrientacion();
             Orientacion nuevaOrientacion =
                     (orientacionActual == Orientacion.HORIZONTAL)
                             ? Orientacion.VERTICAL
                             : Orientacion.HORIZONTAL;
 
-            // Validate new orientation ignoring the ship's own current cells
-            if (!puedeReubicarBarcoIgnorandoPropiasCeldasRotacion(
-                    barcoSeleccionado, filaOrigen, colOrigen, nuevaOrientacion)) {
-                return; // cannot rotate without collision or going out of bounds
-            }
-
-            // Clear old model + view
-            for (Celda c : actuales) {
-                StackPane cell = getCell(c.getFila(), c.getColumna());
-                if (cell != null) {
-                    cell.getChildren().removeIf(n -> n instanceof ShipCellView); //Now it only removes the ship
-                }
-                c.setBarco(null);
-                c.setEstado(EstadoCelda.VACIA);
-            }
-            barcoSeleccionado.getCeldas().clear();
-
-            // Re-place with new orientation
-            barcoSeleccionado.setOrientacion(nuevaOrientacion);
-            Barco nuevoBarco = tablero.colocarBarco(filaOrigen, colOrigen,
-                    nuevaOrientacion, barcoSeleccionado.getTipo());
-            barcoSeleccionado.getCeldas().addAll(nuevoBarco.getCeldas());
-
-            pintarBarco(barcoSeleccionado);  // keep it highlighted
+            // Origin (first cell) is used as pivot; the ship stays put if the
+            // rotation collides, leaves the board or breaks the no-touch rule
+            reubicarBarco(barcoSeleccionado,
+                    barcoSeleccionado.getFilaOrigen(),
+                    barcoSeleccionado.getColumnaOrigen(),
+                    nuevaOrientacion);  // keeps it highlighted
         });
 
         btnJugar.setOnAction(e -> {
             // Validate that all ships have been placed
             if (flota.getBarcos().size() < 10) { // 1+2+3+4 = 10 ships
-                System.out.println("Debes colocar todos los barcos");
+                avisarFlotaIncompleta();
                 return;
             }
 
             // Go to machine colocation view
             irAJuego();
         });
+
+        btnJugarRed.setOnAction(e -> {
+            if (flota.getBarcos().size() < 10) {
+                avisarFlotaIncompleta();
+                return;
+            }
+            irAJuegoEnRed();
+        });
+    }
+
+    private void avisarFlotaIncompleta() {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Flota incompleta");
+        alert.setHeaderText(null);
+        alert.setContentText("Debes colocar todos los barcos antes de jugar ("
+                + flota.getBarcos().size() + " de 10 colocados).");
+        alert.showAndWait();
     }
 
     /**
@@ -539,60 +666,24 @@ public class ColocationController implements Initializable {
      * </p>
      */
     private void irAColocacionMaquina() {
+        EventoCargaEscena evento = new EventoCargaEscena();
+        evento.begin();
+        evento.vista = "machine-colocation-view.fxml";
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/proyect/batallanaval/machine-colocation-view.fxml"));
-            Parent root = loader.load();
+            GestorEscenas.VistaCargada vista = GestorEscenas.obtener(GestorEscenas.Vista.COLOCACION_MAQUINA);
+            Parent root = vista.getRaiz();
 
-            MachineColocationController machineController = loader.getController();
+            MachineColocationController machineController = vista.getControlador();
             machineController.setJuego(this.juego); // Pass the 'juego' object WITH the player's fleet
 
             Stage stage = (Stage) btnJugar.getScene().getWindow();
             stage.setScene(new Scene(root));
             stage.show(); // You must call show() to update the scene
+            evento.commit();
 
-            System.out.println("Transición a Colocación Máquina exitosa.");
+            LOG.log(Level.DEBUG, "Vista de colocación de la máquina cargada");
         } catch (IOException ex) {
-            System.err.println("Error al cargar machine-colocation-view.fxml:");
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "Error al cargar machine-colocation-view.fxml", ex);
         }
     }
-
-    /**
-     * Validates if the ship can be rotated to a new orientation at the given origin
-     * position, ignoring its own current cells.
-     *
-     * @param barco            the ship to rotate
-     * @param filaOrigen       origin row used as pivot
-     * @param colOrigen        origin column used as pivot
-     * @param nuevaOrientacion new orientation to be tested
-     * @return {@code true} if the rotation is valid (no collisions and within bounds);
-     *         {@code false} otherwise
-     */
-    private boolean puedeReubicarBarcoIgnorandoPropiasCeldasRotacion(
-            Barco barco, int filaOrigen, int colOrigen, Orientacion nuevaOrientacion) {
-
-        int longitud = barco.getTipo().getSize();
-        List<Celda> celdasActuales = new ArrayList<>(barco.getCeldas());
-
-        for (int i = 0; i < longitud; i++) {
-            // If horizontal increases columns, if vertical increases rows
-            int f = (nuevaOrientacion == Orientacion.HORIZONTAL) ? filaOrigen : filaOrigen + i;
-            int c = (nuevaOrientacion == Orientacion.HORIZONTAL) ? colOrigen + i : colOrigen;
-
-            // Out of board boundaries
-            if (f < 0 || f >= Tablero.SIZE || c < 0 || c >= Tablero.SIZE) {
-                return false;
-            }
-
-            Celda destino = tablero.getCelda(f, c);
-
-            boolean esMismaCeldaDelBarco = celdasActuales.contains(destino);
-            if (destino.tieneBarco() && !esMismaCeldaDelBarco) {
-                return false; // Would collide with another ship
-            }
-        }
-        return true;
-    }
-
-
 }
@@ -0,0 +1,75 @@
+package proyect.batallanaval.controllers;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces model change notifications coming from any thread into at most
+ * one UI update per JavaFX pulse.
+ * <p>
+ * {@link #notificarCambio()} only raises a flag. The first notification of a
+ * batch starts an {@link AnimationTimer}; on the next pulse the timer clears
+ * the flag and runs the update once, however many notifications arrived in
+ * between, and stops itself when nothing else is pending. UI work therefore
+ * follows the frame rate instead of the number of shots, and no pulses are
+ * requested while the game is idle.
+ * </p>
+ */
+public class DespachadorUI {
+
+    private final Runnable aplicarCambios;
+    private final AtomicBoolean pendiente = new AtomicBoolean();
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private volatile boolean detenido;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (pendiente.getAndSet(false)) {
+                aplicarCambios.run();
+                return;
+            }
+            // A full pulse without news: stop until the next notification
+            stop();
+            programado.set(false);
+            if (pendiente.get() && !detenido) {
+                programar();
+            }
+        }
+    };
+
+    /**
+     * @param aplicarCambios merged update to run on the FX thread, once per batch;
+     *                       it must not block (no {@code showAndWait})
+     */
+    public DespachadorUI(Runnable aplicarCambios) {
+        this.aplicarCambios = aplicarCambios;
+    }
+
+    /**
+     * Records that the model changed. Safe to call from any thread.
+     */
+    public void notificarCambio() {
+        pendiente.set(true);
+        if (!detenido) {
+            programar();
+        }
+    }
+
+    /**
+     * Stops delivering updates; pending changes are dropped.
+     */
+    public void detener() {
+        detenido = true;
+        Platform.runLater(timer::stop);
+    }
+
+    private void programar() {
+        if (programado.compareAndSet(false, true)) {
+            // AnimationTimer must be started on the FX thread
+            Platform.runLater(timer::start);
+        }
+    }
+}
@@ -1,7 +1,18 @@
 package proyect.batallanaval.controllers;
 
+import proyect.batallanaval.logging.Registros;
+
 import java.io.*;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Provides basic Create, Read, Update, and Delete (CRUD) operations for a simple
@@ -10,10 +21,46 @@ import java.util.ArrayList;
  * This class is designed for persistent storage of simple, line-oriented data
  * (like configuration or score tracking), not complex object serialization.
  * </p>
+ * Lines are stored as fixed-width records after a header line that records
+ * the width: a flag byte (a space, or {@code -} once deleted), the line's
+ * UTF-8 bytes padded with spaces, and a line break. The file stays readable
+ * as text. An in-memory index maps each line to its record, built on first
+ * use, so {@link #update} and {@link #delete} write a single record in place
+ * through a {@link FileChannel} instead of rewriting the file. Deleted
+ * records are skipped until they outnumber the live ones, at which point the
+ * file is compacted. A line longer than the width rewrites the file once
+ * with a wider record, at least doubling it.
+ * <p>
+ * Plain text files written by earlier versions are converted to this format
+ * the first time they are accessed. Trailing spaces of a line are not kept,
+ * and the index assumes this instance is the only writer of its file.
+ * </p>
+ * Reads and writes report failures as {@link IOException}, so callers never
+ * keep in memory a line the file does not hold, nor take an unreadable file
+ * for an empty one; after a failure the index is rebuilt from the file on
+ * the next call.
  */
 public class FileCRUD {
+    private static final System.Logger LOG = Registros.getLogger(FileCRUD.class);
+
+    private static final String CABECERA = "!CRUD1 ";
+    private static final byte VIVO = ' ';
+    private static final byte BORRADO = '-';
+    private static final byte RELLENO = ' ';
+
+    /** Record widths are multiples of this many bytes. */
+    private static final int GRANO = 64;
+
+    /** Deleted records tolerated before compaction is considered. */
+    private static final int MINIMO_COMPACTAR = 32;
+
     private String filePath;
 
+    private int ancho;                  // record width in bytes, 0 while the file has no header
+    private List<Integer> registros;    // record number of each live line, in order; null until loaded
+    private int totalRegistros;         // records in the file, live or deleted
+    private int borrados;
+
     /**
      * Constructs a FileCRUD manager instance associated with a specific file path.
      *
@@ -30,18 +77,56 @@ public class FileCRUD {
      * </p>
      *
      * @param content The string content to write to the file.
+     * @throws IOException if the line could not be written.
+     * @throws IllegalArgumentException if the content contains a line break.
+     */
+    public synchronized void create(String content) throws IOException {
+        createAll(List.of(content));
+    }
+
+    /**
+     * Appends several lines to the end of the managed file with a single write.
+     *
+     * @param contents The lines to append, in order.
+     * @throws IOException if the lines could not be written; none of them is then counted.
+     * @throws IllegalArgumentException if any line contains a line break.
      */
-    public void create(String content) {
+    public synchronized void createAll(List<String> contents) throws IOException {
+        if (contents.isEmpty()) {
+            return;
+        }
         try {
-            // true parameter enables appending
-            FileWriter fileWriter = new FileWriter(this.filePath, true);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
-            bufferedWriter.write(content);
-            bufferedWriter.newLine();
-            bufferedWriter.close();
+            cargar();
+            List<byte[]> nuevos = new ArrayList<>(contents.size());
+            int necesario = 0;
+            for (String content : contents) {
+                byte[] bytes = codificar(content);
+                nuevos.add(bytes);
+                necesario = Math.max(necesario, bytes.length + 2);
+            }
+
+            if (necesario > ancho) {
+                // No header yet or records too narrow: write the whole file anew
+                List<String> lineas = leerVivas();
+                lineas.addAll(contents);
+                escribirTodo(lineas, Math.max(necesario, ancho * 2));
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(ancho * nuevos.size());
+            for (byte[] bytes : nuevos) {
+                ponerRegistro(buffer, bytes, ancho);
+            }
+            buffer.flip();
+            try (FileChannel canal = FileChannel.open(Path.of(filePath), StandardOpenOption.WRITE)) {
+                escribir(canal, buffer, posicion(totalRegistros));
+            }
+            for (int i = 0; i < nuevos.size(); i++) {
+                registros.add(totalRegistros++);
+            }
         } catch (IOException e) {
-            // Logs error if writing fails
-            e.printStackTrace();
+            registros = null; // reload the index on the next call
+            throw e;
         }
     }
 
@@ -49,101 +134,272 @@ public class FileCRUD {
      * Reads all lines from the managed file into an ArrayList.
      *
      * @return An {@code ArrayList<String>} containing every line of the file.
-     * Returns an empty list if the file cannot be read or is empty.
+     * Returns an empty list if the file does not exist or is empty.
+     * @throws IOException if the file could not be read.
      */
-    public ArrayList<String> read() {
-        ArrayList<String> lines = new ArrayList<>();
+    public synchronized ArrayList<String> read() throws IOException {
         try {
-            FileReader fileReader = new FileReader(this.filePath);
-            BufferedReader bufferedReader = new BufferedReader(fileReader);
-
-            String line;
-            while((line = bufferedReader.readLine()) != null) {
-                lines.add(line);
-            }
-            bufferedReader.close();
+            cargar();
+            return leerVivas();
         } catch (IOException e) {
-            // Logs error if reading fails
-            e.printStackTrace();
+            registros = null;
+            throw e;
         }
-        return lines;
     }
 
     /**
      * Updates a specific line in the file, replacing its content with a new string.
      * <p>
-     * This operation reads the entire file, modifies the line in memory, and then
-     * overwrites the entire file with the updated content.
+     * Only that line's record is written, in place.
      * </p>
      *
      * @param index The zero-based index of the line to update.
      * @param content The new string content for that line.
-     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IOException if the line could not be written.
+     * @throws IllegalArgumentException if the content contains a line break.
      */
-    public void update(int index, String content) {
-        ArrayList<String> lines = this.read();
-
-        // The set method handles IndexOutOfBoundsException if index is invalid
+    public synchronized void update(int index, String content) throws IOException {
         try {
-            lines.set(index, content);
-        } catch (IndexOutOfBoundsException e) {
-            System.err.println("Error: Index out of bounds for update operation.");
-            e.printStackTrace();
-            return; // Stop execution if index is invalid
-        }
-
+            cargar();
+            if (index < 0 || index >= registros.size()) {
+                LOG.log(Level.WARNING, "Índice fuera de rango al actualizar {0}: {1}", filePath, index);
+                return; // Stop execution if index is invalid
+            }
 
-        try {
-            // false parameter ensures the file is overwritten
-            FileWriter fileWriter = new FileWriter(this.filePath, false);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
+            byte[] bytes = codificar(content);
+            if (bytes.length + 2 > ancho) {
+                List<String> lineas = leerVivas();
+                lineas.set(index, content);
+                escribirTodo(lineas, Math.max(bytes.length + 2, ancho * 2));
+                return;
+            }
 
-            for(String line : lines) {
-                bufferedWriter.write(line);
-                bufferedWriter.newLine();
+            ByteBuffer buffer = ByteBuffer.allocate(ancho);
+            ponerRegistro(buffer, bytes, ancho);
+            buffer.flip();
+            try (FileChannel canal = FileChannel.open(Path.of(filePath), StandardOpenOption.WRITE)) {
+                escribir(canal, buffer, posicion(registros.get(index)));
             }
-            bufferedWriter.close();
         } catch (IOException e) {
-            // Logs error if writing fails
-            e.printStackTrace();
+            registros = null;
+            throw e;
         }
     }
 
     /**
      * Deletes a specific line from the file.
      * <p>
-     * This operation reads the entire file, removes the line in memory, and then
-     * overwrites the entire file with the remaining content.
+     * The line's record is only flagged as deleted; the space is reclaimed
+     * when deleted records outnumber the live ones.
      * </p>
      *
      * @param index The zero-based index of the line to delete.
-     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IOException if the line could not be flagged; it is then still in the file.
      */
-    public void delete(int index) {
-        ArrayList<String> lines = this.read();
+    public synchronized void delete(int index) throws IOException {
+        try {
+            cargar();
+            if (index < 0 || index >= registros.size()) {
+                LOG.log(Level.WARNING, "Índice fuera de rango al borrar {0}: {1}", filePath, index);
+                return; // Stop execution if index is invalid
+            }
+
+            try (FileChannel canal = FileChannel.open(Path.of(filePath), StandardOpenOption.WRITE)) {
+                escribir(canal, ByteBuffer.wrap(new byte[]{BORRADO}), posicion(registros.get(index)));
+            }
+        } catch (IOException e) {
+            registros = null;
+            throw e;
+        }
+        registros.remove(index);
+        borrados++;
 
-        // The remove method handles IndexOutOfBoundsException if index is invalid
+        if (borrados > MINIMO_COMPACTAR && borrados > registros.size()) {
+            try {
+                escribirTodo(leerVivas(), 0);
+            } catch (IOException e) {
+                // The line is already gone; the old file is still whole
+                LOG.log(Level.WARNING, "No se pudo compactar " + filePath, e);
+                registros = null;
+            }
+        }
+    }
+
+    /**
+     * Replaces every line of the file. The new file is written aside and
+     * moved over the old one, so readers see either version in full.
+     *
+     * @param contents The new lines, in order.
+     * @throws IOException if the new file could not be written or moved; the old one is then left as it was.
+     * @throws IllegalArgumentException if any line contains a line break.
+     */
+    public synchronized void rewrite(List<String> contents) throws IOException {
         try {
-            lines.remove(index);
-        } catch (IndexOutOfBoundsException e) {
-            System.err.println("Error: Index out of bounds for delete operation.");
-            e.printStackTrace();
-            return; // Stop execution if index is invalid
+            escribirTodo(contents, 0);
+        } catch (IOException e) {
+            registros = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the index of live records the first time the file is used,
+     * converting a plain text file to the record format.
+     */
+    private void cargar() throws IOException {
+        if (registros != null) {
+            return;
+        }
+        Path ruta = Path.of(filePath);
+        registros = new ArrayList<>();
+        totalRegistros = 0;
+        borrados = 0;
+        ancho = 0;
+        if (!Files.exists(ruta)) {
+            return;
+        }
+
+        byte[] contenido = Files.readAllBytes(ruta);
+        int finCabecera = indiceDe(contenido, (byte) '\n', 0);
+        String primera = finCabecera < 0 ? "" : new String(contenido, 0, finCabecera, StandardCharsets.UTF_8);
+
+        if (!primera.startsWith(CABECERA)) {
+            // Plain text file: one line per record
+            List<String> lineas = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new StringReader(
+                    new String(contenido, StandardCharsets.UTF_8)))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineas.add(line);
+                }
+            }
+            if (!lineas.isEmpty()) {
+                escribirTodo(lineas, 0);
+            }
+            return;
         }
 
         try {
-            // false parameter ensures the file is overwritten
-            FileWriter fileWriter = new FileWriter(this.filePath, false);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
+            ancho = Integer.parseInt(primera.substring(CABECERA.length()).strip());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid record header in " + filePath + ": " + primera, e);
+        }
+        if (ancho != finCabecera + 1) {
+            throw new IOException("Record header does not match its width in " + filePath);
+        }
 
-            for(String line : lines) {
-                bufferedWriter.write(line);
-                bufferedWriter.newLine();
+        // A partial record at the end (interrupted append) is ignored and later overwritten
+        totalRegistros = contenido.length / ancho - 1;
+        for (int r = 0; r < totalRegistros; r++) {
+            if (contenido[posicionEnArchivo(r)] == BORRADO) {
+                borrados++;
+            } else {
+                registros.add(r);
+            }
+        }
+    }
+
+    /**
+     * Reads the live lines through the index.
+     */
+    private ArrayList<String> leerVivas() throws IOException {
+        ArrayList<String> lineas = new ArrayList<>(registros.size());
+        if (registros.isEmpty()) {
+            return lineas;
+        }
+        byte[] contenido = Files.readAllBytes(Path.of(filePath));
+        for (int r : registros) {
+            int inicio = posicionEnArchivo(r) + 1;
+            int fin = posicionEnArchivo(r) + ancho - 1; // before the line break
+            while (fin > inicio && contenido[fin - 1] == RELLENO) {
+                fin--;
+            }
+            lineas.add(new String(contenido, inicio, fin - inicio, StandardCharsets.UTF_8));
+        }
+        return lineas;
+    }
+
+    /**
+     * Writes the given lines as a new file with records of at least the given
+     * width, replacing the old file atomically, and rebuilds the index. The
+     * new file is on disk before it replaces the old one.
+     */
+    private void escribirTodo(List<String> lineas, int anchoMinimo) throws IOException {
+        List<byte[]> codificadas = new ArrayList<>(lineas.size());
+        int necesario = Math.max(anchoMinimo, CABECERA.length() + 8);
+        for (String linea : lineas) {
+            byte[] bytes = codificar(linea);
+            codificadas.add(bytes);
+            necesario = Math.max(necesario, bytes.length + 2);
+        }
+        int nuevoAncho = (necesario + GRANO - 1) / GRANO * GRANO;
+
+        ByteBuffer buffer = ByteBuffer.allocate(nuevoAncho * (codificadas.size() + 1));
+        byte[] cabecera = (CABECERA + nuevoAncho).getBytes(StandardCharsets.US_ASCII);
+        buffer.put(cabecera);
+        for (int i = cabecera.length; i < nuevoAncho - 1; i++) {
+            buffer.put(RELLENO);
+        }
+        buffer.put((byte) '\n');
+        for (byte[] bytes : codificadas) {
+            ponerRegistro(buffer, bytes, nuevoAncho);
+        }
+        buffer.flip();
+
+        Path ruta = Path.of(filePath);
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            escribir(canal, buffer, 0);
+            canal.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        ancho = nuevoAncho;
+        totalRegistros = codificadas.size();
+        borrados = 0;
+        registros = new ArrayList<>(totalRegistros);
+        for (int r = 0; r < totalRegistros; r++) {
+            registros.add(r);
+        }
+    }
+
+    private static void ponerRegistro(ByteBuffer buffer, byte[] bytes, int anchoRegistro) {
+        buffer.put(VIVO);
+        buffer.put(bytes);
+        for (int i = bytes.length + 1; i < anchoRegistro - 1; i++) {
+            buffer.put(RELLENO);
+        }
+        buffer.put((byte) '\n');
+    }
+
+    private static byte[] codificar(String content) {
+        if (content.indexOf('\n') >= 0 || content.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("A line cannot contain line breaks.");
+        }
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long posicion(int registro) {
+        return (long) (registro + 1) * ancho;
+    }
+
+    private int posicionEnArchivo(int registro) {
+        return (registro + 1) * ancho;
+    }
+
+    private static void escribir(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicion += canal.write(buffer, posicion);
+        }
+    }
+
+    private static int indiceDe(byte[] datos, byte valor, int desde) {
+        for (int i = desde; i < datos.length; i++) {
+            if (datos[i] == valor) {
+                return i;
             }
-            bufferedWriter.close();
-        } catch (IOException e) {
-            // Logs error if writing fails
-            e.printStackTrace();
         }
+        return -1;
     }
-}
\ No newline at end of file
+}
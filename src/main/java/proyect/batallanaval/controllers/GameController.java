@@ -1,7 +1,7 @@
 package proyect.batallanaval.controllers;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -12,19 +12,33 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+import proyect.batallanaval.metrics.jfr.EventoRefrescoTablero;
 import proyect.batallanaval.models.*;
+import proyect.batallanaval.views.BoardCanvasView;
+import proyect.batallanaval.views.EstiloCelda;
+import proyect.batallanaval.views.GestorEscenas;
+import proyect.batallanaval.views.PerformanceOverlay;
 import proyect.batallanaval.views.ShipCellView;
 import proyect.batallanaval.models.strategy.EstrategiaAleatoria;
 import proyect.batallanaval.models.strategy.EstrategiaAtaque;
+import proyect.batallanaval.red.PartidaRemota;
 // Importaciones de excepciones
 import proyect.batallanaval.exceptions.AtaqueInvalidoException;
 import proyect.batallanaval.exceptions.JuegoNoInicializadoException;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller responsible for managing the main game view, displaying both
@@ -33,6 +47,13 @@ import java.util.Set;
  */
 public class GameController implements Initializable {
 
+    private static final System.Logger LOG = Registros.getLogger(GameController.class);
+
+    private static final Histograma T_LOTE = Metricas.histograma("ui.aplicarCambios");
+    private static final Histograma T_REPINTAR = Metricas.histograma("ui.repintarCeldas");
+    private static final Histograma T_VISTA_COMPLETA = Metricas.histograma("ui.vistaCompleta");
+    private static final Contador CELDAS_REPINTADAS = Metricas.contador("ui.celdasRepintadas");
+
     private GameManager gameManager;
 
     // FXML ELEMENTS
@@ -44,6 +65,14 @@ public class GameController implements Initializable {
 
     private static final int CELL_SIZE = Tablero.CELL_SIZE;
 
+    // Cells of each grid indexed by fila * Tablero.SIZE + col, built with the grid
+    private StackPane[] celdasJugador;
+    private StackPane[] celdasMaquina;
+
+    // Canvas renderers, used instead of the cell nodes on large boards (null otherwise)
+    private BoardCanvasView canvasJugador;
+    private BoardCanvasView canvasMaquina;
+
     // MODEL REFERENCES
     private Juego juego;
     private Jugador humano;
@@ -52,6 +81,20 @@ public class GameController implements Initializable {
     private MaquinaThread maquinaThread;
     private EstrategiaAtaque estrategiaMaquina;
 
+    // Match against a remote rival, or null when playing the machine
+    private PartidaRemota partidaRemota;
+    private final List<StackPane> celdasPendientes = new ArrayList<>();
+    private final List<int[]> pendientesCanvas = new ArrayList<>(); // same, when the rival board is a canvas
+
+    // Merges model changes into one UI update per pulse
+    private DespachadorUI despachador;
+    private boolean turnoMostradoJugador = true; // turn the label currently describes
+    private boolean finPartidaNotificado;
+
+    // Input-to-paint latency of the player's clicks and the machine's shots
+    private final MedidorLatencia medidorLatencia = new MedidorLatencia();
+    private PerformanceOverlay overlay;
+
     private StackPane celdaSeleccionadaMaquina;
     private int filaAtaque = -1;
     private int colAtaque = -1;
@@ -65,13 +108,29 @@ public class GameController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        System.out.println("Initialize llamado - esperando setJuego()");
+        LOG.log(Level.DEBUG, "Initialize llamado - esperando setJuego()");
 
         this.gameManager = new GameManager();
 
+        playerGrid.sceneProperty().addListener((obs, anterior, escena) -> {
+            if (escena != null) {
+                medidorLatencia.instalar(escena);
+            } else {
+                medidorLatencia.desinstalar();
+            }
+        });
+        overlay = new PerformanceOverlay()
+                .agregarTablero("Jugador", playerGrid)
+                .agregarTablero("Máquina", gridMaquina)
+                .agregarLatencia("Selección", MedidorLatencia.Medida.SELECCION.getMetrica())
+                .agregarLatencia("Ataque", MedidorLatencia.Medida.ATAQUE.getMetrica())
+                .agregarLatencia("Máquina", MedidorLatencia.Medida.MAQUINA.getMetrica());
+        overlay.instalar(playerGrid);
+
         btnAtacar.setDisable(true);
         if (btnCheck != null) {
             btnCheck.setOnAction(event -> irAColocacionMaquina());
+            GestorEscenas.precargar(GestorEscenas.Vista.COLOCACION_MAQUINA);
         }
     }
 
@@ -83,7 +142,7 @@ public class GameController implements Initializable {
      * @throws JuegoNoInicializadoException if the provided game object or its components are null.
      */
     public void setJuego(Juego juego) {
-        System.out.println("=== setJuego llamado ===");
+        LOG.log(Level.DEBUG, "setJuego llamado");
 
         if (juego == null || juego.getJugador() == null || juego.getMaquina() == null) {
             // We throw an unchecked error internally if the essential setup failed
@@ -92,19 +151,23 @@ public class GameController implements Initializable {
 
         this.juego = juego;
         assignReferences();
-
-        int conBarco = 0;
-        for (int f = 0; f < Tablero.SIZE; f++) {
-            for (int c = 0; c < Tablero.SIZE; c++) {
-                if (humano.getTableroPosicion().getCelda(f, c).tieneBarco()) {
-                    conBarco++;
+        Metricas.indicador("partida.disparos", juego::getTotalDisparos);
+
+        // Diagnostic only: skip the board walk unless it is going to be printed
+        if (LOG.isLoggable(Level.DEBUG)) {
+            int conBarco = 0;
+            for (int f = 0; f < Tablero.SIZE; f++) {
+                for (int c = 0; c < Tablero.SIZE; c++) {
+                    if (humano.getTableroPosicion().getCelda(f, c).tieneBarco()) {
+                        conBarco++;
+                    }
                 }
             }
+            LOG.log(Level.DEBUG, "Celdas con barco en tablero jugador: " + conBarco);
         }
-        System.out.println("Celdas con barco en tablero jugador: " + conBarco);
 
         if (playerGrid != null && gridMaquina != null) {
-            System.out.println("Grids existen, inicializando vistas...");
+            LOG.log(Level.DEBUG, "Grids existen, inicializando vistas...");
 
             inicializarVistaConEstados(playerGrid, humano.getTableroPosicion(), humano.getFlota(), true);
             inicializarVistaConEstados(gridMaquina, maquina.getTableroPosicion(), maquina.getFlota(), false);
@@ -112,11 +175,41 @@ public class GameController implements Initializable {
             configurarManejadoresAtaque();
             iniciarThreadMaquina();
             actualizarMensajeTurno();
+            turnoMostradoJugador = juego.esTurnoJugador();
         } else {
-            System.out.println("ERROR: Uno o ambos grids son nulos!");
+            LOG.log(Level.ERROR, "Uno o ambos grids son nulos!");
         }
     }
 
+    /**
+     * Starts a match against a remote rival instead of the machine. The
+     * player's board comes from the given game and the rival's is filled in
+     * from the server's results; the connection is opened in the background
+     * and the view follows the match through the UI dispatcher.
+     *
+     * @param juego   game holding the player's placed fleet
+     * @param partida remote match, not connected yet
+     */
+    void setPartidaRemota(Juego juego, PartidaRemota partida) {
+        LOG.log(Level.DEBUG, "setPartidaRemota llamado");
+        this.juego = juego;
+        this.partidaRemota = partida;
+        assignReferences();
+
+        inicializarVistaConEstados(playerGrid, humano.getTableroPosicion(), humano.getFlota(), true);
+        inicializarVistaConEstados(gridMaquina, partida.getTableroRival(), null, false);
+        configurarManejadoresAtaque();
+        if (btnCheck != null) {
+            // The rival's fleet is only known to the server
+            btnCheck.setVisible(false);
+            btnCheck.setManaged(false);
+        }
+
+        despachador = new DespachadorUI(this::aplicarCambiosPendientes);
+        partida.conectar(despachador::notificarCambio);
+        actualizarMensajeRemoto();
+    }
+
     /**
      * Initializes the basic grid view and applies the current state of attacks
      * and ship placement to the visual board.
@@ -127,8 +220,36 @@ public class GameController implements Initializable {
      * @param isPlayerBoard True if this is the player's positioning board (ships are visible).
      */
     private void inicializarVistaConEstados(GridPane grid, Tablero tablero, Flota flota, boolean isPlayerBoard) {
+        long inicio = System.nanoTime();
+        EventoRefrescoTablero evento = new EventoRefrescoTablero();
+        evento.begin();
+        try {
+            construirVistaConEstados(grid, tablero, flota, isPlayerBoard);
+        } finally {
+            T_VISTA_COMPLETA.registrarDesde(inicio);
+            if (evento.shouldCommit()) {
+                evento.tableroJugador = isPlayerBoard;
+                evento.celdas = tablero.getSize() * tablero.getSize();
+                evento.canvas = BoardCanvasView.usarCanvas(tablero.getSize());
+                evento.commit();
+            }
+        }
+    }
+
+    private void construirVistaConEstados(GridPane grid, Tablero tablero, Flota flota, boolean isPlayerBoard) {
         inicializarGridBase(grid);
 
+        // The full pass below paints everything, so pending changes are already covered
+        synchronized (juego) {
+            tablero.seguirCambios();
+            tablero.extraerCeldasModificadas();
+        }
+
+        if (BoardCanvasView.usarCanvas(tablero.getSize())) {
+            inicializarCanvas(grid, tablero, flota, isPlayerBoard);
+            return;
+        }
+
         if (isPlayerBoard && flota != null && !flota.getBarcos().isEmpty()) {
             pintarFlotaEnTablero(flota, grid);
         }
@@ -136,6 +257,53 @@ public class GameController implements Initializable {
         aplicarEstadosDeAtaque(grid, tablero, isPlayerBoard);
     }
 
+    /**
+     * Replaces the grid contents with a single {@link BoardCanvasView} and
+     * paints the current state of the board on it. Used for boards too large
+     * for one node per cell.
+     *
+     * @param grid The GridPane that will hold the canvas.
+     * @param tablero The corresponding board model.
+     * @param flota The fleet to show (only if isPlayerBoard is true).
+     * @param isPlayerBoard True if this is the player's positioning board (ships are visible).
+     */
+    private void inicializarCanvas(GridPane grid, Tablero tablero, Flota flota, boolean isPlayerBoard) {
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+
+        int size = tablero.getSize();
+        BoardCanvasView canvas = new BoardCanvasView(size, BoardCanvasView.tamanoCeldaPara(size, CELL_SIZE));
+
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                EstadoCelda estado = tablero.getEstado(fila, col);
+                if (estado != EstadoCelda.VACIA) {
+                    canvas.setEstado(fila, col, estado);
+                }
+            }
+        }
+        if (isPlayerBoard && flota != null) {
+            for (Barco barco : flota.getBarcos()) {
+                for (Celda celda : barco.getCeldas()) {
+                    canvas.setCelda(celda.getFila(), celda.getColumna(), celda.getEstado(), barco.getTipo());
+                }
+            }
+        }
+
+        if (isPlayerBoard) {
+            canvasJugador = canvas;
+        } else {
+            canvasMaquina = canvas;
+            canvas.setOnCeldaClic(this::seleccionarCeldaAtaque);
+        }
+
+        grid.add(canvas, 0, 0);
+        grid.setPrefSize(canvas.getWidth(), canvas.getHeight());
+        grid.setMinSize(canvas.getWidth(), canvas.getHeight());
+        grid.setMaxSize(canvas.getWidth(), canvas.getHeight());
+    }
+
     /**
      * Applies visual styles based on the cell's current attack state (Hit, Miss, Sunk).
      *
@@ -157,14 +325,12 @@ public class GameController implements Initializable {
 
                 switch (estado) {
                     case AGUA_TOCADA:
-                        cell.setStyle("-fx-background-color: #4444ff; -fx-border-color: #b0b0b0;");
-                        System.out.println("Aplicando AGUA_TOCADA en (" + fila + ", " + col + ")");
+                        EstiloCelda.aplicarEstado(cell, estado);
                         break;
 
                     case TOCADA:
                         if (celda.tieneBarco() && !celda.getBarco().estaHundido()) {
-                            cell.setStyle("-fx-background-color: orange; -fx-border-color: #b0b0b0;");
-                            System.out.println("Aplicando TOCADA en (" + fila + ", " + col + ")");
+                            EstiloCelda.aplicarEstado(cell, estado);
                         }
                         break;
 
@@ -174,7 +340,7 @@ public class GameController implements Initializable {
                             if (barco.estaHundido() && !barcosHundidosPintados.contains(barco)) {
                                 pintarBarcoHundido(cell, tablero, grid);
                                 barcosHundidosPintados.add(barco);
-                                System.out.println(" Aplicando HUNDIDA para barco " + barco.getTipo());
+                                LOG.log(Level.DEBUG, () -> "Aplicando HUNDIDA para barco " + barco.getTipo());
                             }
                         }
                         break;
@@ -195,7 +361,7 @@ public class GameController implements Initializable {
                 if (celda.tieneBarco()) {
                     Barco barco = celda.getBarco();
                     if (barco.estaHundido() && !barcosHundidosPintados.contains(barco)) {
-                        System.out.println(" Barco hundido sin estado HUNDIDA: " + barco.getTipo());
+                        LOG.log(Level.DEBUG, () -> "Barco hundido sin estado HUNDIDA: " + barco.getTipo());
                         pintarBarcoHundido(cell, tablero, grid);
                         barcosHundidosPintados.add(barco);
                     }
@@ -209,14 +375,12 @@ public class GameController implements Initializable {
      * @throws NullPointerException if the Juego object was not properly initialized.
      */
     private void assignReferences() {
-        System.out.println("Asignando referencias de juego...");
         if (juego == null) {
             // This is a programmatic error if setJuego was called without checking.
             throw new NullPointerException("Juego no puede ser nulo al asignar referencias.");
         }
         this.humano = juego.getJugador();
         this.maquina = juego.getMaquina();
-        System.out.println("Referencias asignadas.");
     }
 
     /**
@@ -243,58 +407,188 @@ public class GameController implements Initializable {
      */
     private void iniciarThreadMaquina() {
         if (humano.getFlota() == null || humano.getFlota().getBarcos().isEmpty()) {
-            System.err.println("ERROR: Flota del jugador no está inicializada!");
+            LOG.log(Level.ERROR, "Flota del jugador no está inicializada!");
             // Although checked exceptions are better for this, we use Runtime here
             // as this is an internal setup consistency error.
             throw new RuntimeException("ERROR: Flota del jugador no está inicializada!");
         }
 
-        System.out.println("GC - juego: " + System.identityHashCode(juego));
-        System.out.println("GC - flota máquina size: " +
-                (maquina.getFlota() == null ? "null" : maquina.getFlota().getBarcos().size()));
-
         if (maquina.getFlota() == null || maquina.getFlota().getBarcos().isEmpty()) {
-            System.err.println("ERROR: Flota de la máquina no está inicializada!");
+            LOG.log(Level.ERROR, "Flota de la máquina no está inicializada!");
             throw new RuntimeException("ERROR: Flota de la máquina no está inicializada!");
         }
 
-        System.out.println("Iniciando thread - Barcos Jugador: " + humano.getFlota().getBarcos().size());
-        System.out.println("Iniciando thread - Barcos Máquina: " + maquina.getFlota().getBarcos().size());
+        LOG.log(Level.DEBUG, () -> "Iniciando thread - Barcos Jugador: " + humano.getFlota().getBarcos().size()
+                + ", Barcos Máquina: " + maquina.getFlota().getBarcos().size());
 
         // Create attack strategy (can be changed to other implementations)
-        estrategiaMaquina = new EstrategiaAleatoria();
+        estrategiaMaquina = new EstrategiaAleatoria(juego.getGeneradorIA());
 
-        // Create and start machine thread
+        // Create and start machine thread; its shots reach the UI through the dispatcher
+        despachador = new DespachadorUI(this::aplicarCambiosPendientes);
         maquinaThread = new MaquinaThread(
                 juego,
                 estrategiaMaquina,
-                this::actualizarVistaConGuardado,
-                this::verificarGanadorConLimpieza          // Winner check callback
+                despachador::notificarCambio,
+                medidorLatencia::decisionMaquina
         );
 
         maquinaThread.start();
-        System.out.println("Thread de la máquina iniciado.");
+        LOG.log(Level.DEBUG, "Thread de la máquina iniciado.");
     }
 
     /**
-     * Updates the full view and automatically saves the game state after the machine's shot.
+     * Applies every change made to the game since the previous pulse: one
+     * merged repaint of the changed cells, then either one automatic save,
+     * written in the background, or, if the game has just ended, the
+     * end-of-game handling.
+     * <p>
+     * Runs inside a pulse, where dialogs cannot be shown, so alerts are
+     * posted to run afterwards.
+     * </p>
      */
-    private void actualizarVistaConGuardado() {
+    private void aplicarCambiosPendientes() {
+        long inicio = System.nanoTime();
         try {
-            // Automatically save after the machine's shot
-            // SIMULATING CHECKED EXCEPTION:
-            // if (Math.random() < 0.1) throw new IOException("Disk failure during save.");
-            gameManager.guardarPartida(humano, maquina);
-        } catch (Exception e) {
-            // Here we would catch a real IOException from GestorPartida and wrap it
-            mostrarAlerta("Error de Guardado", "No se pudo guardar la partida.", Alert.AlertType.ERROR);
-            // In a real application, you might throw an ErrorGuardadoException here
-            // throw new ErrorGuardadoException("Failed to save game state.", e);
+            aplicarLote();
+        } finally {
+            T_LOTE.registrarDesde(inicio);
         }
+    }
 
+    private void aplicarLote() {
+        if (partidaRemota != null) {
+            aplicarLoteRemoto();
+            return;
+        }
 
-        // Update the normal view
-        actualizarVistaCompleta();
+        // Taken before draining the boards, so the machine shot it belongs to is in this batch
+        long decisionMaquina = medidorLatencia.tomarDecisionMaquina();
+
+        boolean turnoJugador;
+        boolean terminado;
+        synchronized (juego) {
+            turnoJugador = juego.esTurnoJugador();
+            terminado = juego.juegoTerminado();
+        }
+
+        // The turn label is only rewritten when the turn changed, so the
+        // message of the player's last shot stays visible while it keeps playing
+        if (turnoJugador != turnoMostradoJugador) {
+            turnoMostradoJugador = turnoJugador;
+            actualizarVistaCompleta();
+        } else {
+            actualizarTableroJugador();
+            actualizarTableroMaquina();
+        }
+        if (MedidorLatencia.hayMarca(decisionMaquina)) {
+            medidorLatencia.aplicado(MedidorLatencia.Medida.MAQUINA, decisionMaquina);
+        }
+
+        if (terminado) {
+            if (!finPartidaNotificado) {
+                finPartidaNotificado = true;
+                despachador.detener();
+                Platform.runLater(this::verificarGanadorConLimpieza);
+            }
+            return;
+        }
+
+        // Only the snapshot is taken here; the file is written by the background writer
+        try {
+            synchronized (juego) {
+                gameManager.guardarEnSegundoPlano(juego, e -> Platform.runLater(this::avisarErrorGuardado));
+            }
+        } catch (IOException e) {
+            Platform.runLater(this::avisarErrorGuardado);
+        }
+    }
+
+    private void avisarErrorGuardado() {
+        mostrarAlerta("Error de Guardado", "No se pudo guardar la partida.", Alert.AlertType.ERROR);
+    }
+
+    /**
+     * Network counterpart of {@link #aplicarLote()}: applies what the server
+     * sent, repaints the changed cells, drops the pending mark of every shot
+     * that got its answer and shows the end of the match once it is over.
+     * Nothing is saved: the match lives on the server.
+     */
+    private void aplicarLoteRemoto() {
+        partidaRemota.procesarEntrantes();
+        actualizarTableroJugador();
+        actualizarTableroMaquina();
+        limpiarPendientesResueltas();
+
+        actualizarMensajeRemoto();
+        int descartados = partidaRemota.extraerDescartados();
+        if (descartados > 0) {
+            lblMensajeTurno.setText("El turno pasó al rival: " + descartados + " disparo(s) descartado(s).");
+        }
+
+        PartidaRemota.Estado estado = partidaRemota.getEstado();
+        if ((estado == PartidaRemota.Estado.TERMINADA || estado == PartidaRemota.Estado.ERROR)
+                && !finPartidaNotificado) {
+            finPartidaNotificado = true;
+            despachador.detener();
+            btnAtacar.setDisable(true);
+            Platform.runLater(this::mostrarFinRemoto);
+        }
+    }
+
+    private void limpiarPendientesResueltas() {
+        celdasPendientes.removeIf(cell -> {
+            int[] pos = (int[]) cell.getUserData();
+            if (partidaRemota.estaPendiente(pos[0], pos[1])) {
+                return false;
+            }
+            EstiloCelda.setPendiente(cell, false);
+            return true;
+        });
+        pendientesCanvas.removeIf(pos -> {
+            if (partidaRemota.estaPendiente(pos[0], pos[1])) {
+                return false;
+            }
+            canvasMaquina.setPendiente(pos[0], pos[1], false);
+            return true;
+        });
+    }
+
+    /**
+     * Describes the stage of the remote match in the turn label.
+     */
+    private void actualizarMensajeRemoto() {
+        String rival = partidaRemota.getRival();
+        lblMensajeTurno.setText(switch (partidaRemota.getEstado()) {
+            case BUSCANDO_RIVAL -> "Buscando rival en el servidor...";
+            case COLOCANDO -> "Rival: " + rival + ". Esperando a que coloque su flota...";
+            case JUGANDO -> !partidaRemota.esTurnoPropio()
+                    ? "Turno de " + rival + " - Esperando su disparo..."
+                    : partidaRemota.getEnVuelo() > 0
+                    ? "Tu turno - " + partidaRemota.getEnVuelo() + " disparo(s) en camino"
+                    : "Tu turno - Selecciona una casilla para atacar";
+            case TERMINADA -> "¡Juego Terminado!";
+            case ERROR -> "Error: " + partidaRemota.getError();
+        });
+    }
+
+    private void mostrarFinRemoto() {
+        String rival = partidaRemota.getRival();
+        if (partidaRemota.getEstado() == PartidaRemota.Estado.ERROR) {
+            mostrarAlerta("Partida en red", partidaRemota.getError(), Alert.AlertType.ERROR);
+        } else if (partidaRemota.interrumpida()) {
+            mostrarAlerta("Partida en red", "El servidor interrumpió la partida por un error. Nadie gana.",
+                    Alert.AlertType.WARNING);
+        } else if (partidaRemota.haGanado()) {
+            LOG.log(Level.INFO, "¡JUGADOR GANÓ!");
+            mostrarAlerta("¡VICTORIA!", partidaRemota.porAbandono()
+                    ? rival + " abandonó la partida."
+                    : "¡GANASTE! Has hundido toda la flota de " + rival + ".", Alert.AlertType.INFORMATION);
+        } else {
+            LOG.log(Level.INFO, "¡RIVAL GANÓ!");
+            mostrarAlerta("DERROTA", rival + " ha hundido toda tu flota. ¡Mejor suerte la próxima vez!",
+                    Alert.AlertType.INFORMATION);
+        }
     }
 
     /**
@@ -321,120 +615,127 @@ public class GameController implements Initializable {
      * Checks for a winner and performs cleanup (game saving/deletion).
      */
     private void verificarGanadorConLimpieza() {
-        System.out.println("=== VERIFICANDO GANADOR ===");
-        System.out.println("Flota Máquina hundida: " + maquina.getFlota().estaFlotaHundida());
-        System.out.println("Flota Jugador hundida: " + humano.getFlota().estaFlotaHundida());
+        LOG.log(Level.DEBUG, () -> "Verificando ganador - Flota Máquina hundida: "
+                + maquina.getFlota().estaFlotaHundida()
+                + ", Flota Jugador hundida: " + humano.getFlota().estaFlotaHundida());
 
         if (juego.haGanadoJugador()) {
-            System.out.println("¡JUGADOR GANÓ!");
+            LOG.log(Level.INFO, "¡JUGADOR GANÓ!");
             detenerThreadMaquina();
-            try {
-                // ✅ AGREGAR: Eliminar partida al ganar
-                gameManager.eliminarPartidaGuardada();
-            } catch (Exception e) {
-                mostrarAlerta("Error de Guardado", "No se pudo eliminar el archivo de partida guardada.", Alert.AlertType.WARNING);
-            }
-            mostrarAlerta("¡VICTORIA!", "¡GANASTE! Has hundido toda la flota enemiga.", Alert.AlertType.INFORMATION);
+            registrarResultado("¡VICTORIA!", "¡GANASTE! Has hundido toda la flota enemiga.");
         } else if (juego.haGanadoMaquina()) {
-            System.out.println("¡MÁQUINA GANÓ!");
+            LOG.log(Level.INFO, "¡MÁQUINA GANÓ!");
             detenerThreadMaquina();
-            try {
-                // ✅ AGREGAR: Eliminar partida al perder
-                gameManager.eliminarPartidaGuardada();
-            } catch (Exception e) {
-                mostrarAlerta("Error de Guardado", "No se pudo eliminar el archivo de partida guardada.", Alert.AlertType.WARNING);
-            }
-            mostrarAlerta("DERROTA", "La máquina ha hundido toda tu flota. ¡Mejor suerte la próxima vez!", Alert.AlertType.INFORMATION);
+            registrarResultado("DERROTA", "La máquina ha hundido toda tu flota. ¡Mejor suerte la próxima vez!");
         } else {
-            System.out.println("Juego continúa...");
+            LOG.log(Level.DEBUG, "Juego continúa...");
         }
     }
 
+    /**
+     * Records the finished game in the leaderboard and deletes its save on
+     * the background writer, then shows the end-of-game alert with the
+     * player's record and rank, or without them if the result could not be
+     * recorded.
+     */
+    private void registrarResultado(String titulo, String mensaje) {
+        CompletableFuture<GameManager.ResultadoFinal> registro;
+        synchronized (juego) {
+            registro = gameManager.registrarFinEnSegundoPlano(juego, estrategiaMaquina.getNombre());
+        }
+        registro.whenComplete((resultado, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                LOG.log(Level.ERROR, "No se pudo registrar el resultado de la partida", error);
+                mostrarAlerta("Error de Guardado", "No se pudo registrar el resultado de la partida.",
+                        Alert.AlertType.WARNING);
+                mostrarAlerta(titulo, mensaje, Alert.AlertType.INFORMATION);
+                return;
+            }
+            Clasificacion.Estadisticas estadisticas = resultado.estadisticas();
+            mostrarAlerta(titulo, mensaje + String.format(
+                    "%n%nVictorias: %d - Derrotas: %d%nPuesto en la clasificación: %d de %d",
+                    estadisticas.victorias(), estadisticas.derrotas(),
+                    resultado.puesto(), resultado.totalJugadores()), Alert.AlertType.INFORMATION);
+        }));
+    }
+
     /**
      * Updates the player's board view to reflect the machine's attacks.
+     * Only the cells changed since the previous refresh are repainted.
      */
     private void actualizarTableroJugador() {
-        Tablero tableroJugador = humano.getTableroPosicion();
-
-        for (Node node : playerGrid.getChildren()) {
-            if (node instanceof StackPane cell) {
-                int[] pos = (int[]) cell.getUserData();
-                int fila = pos[0];
-                int col = pos[1];
-
-                EstadoCelda estado = tableroJugador.getCelda(fila, col).getEstado();
-
-                // 1. Main condition: Only update if the cell has been attacked.
-                if (estado == EstadoCelda.TOCADA ||
-                        estado == EstadoCelda.HUNDIDA ||
-                        estado == EstadoCelda.AGUA_TOCADA) {
-
-                    // 2. Repainting logic for HITS (Machine to Player)
-
-                    if (estado == EstadoCelda.AGUA_TOCADA) {
-                        // The Machine shot water on the player's board.
-                        cell.setStyle("-fx-background-color: #4444ff; -fx-border-color: #b0b0b0;"); // AZUL
-                    } else if (estado == EstadoCelda.HUNDIDA) {
-                        // The Machine has sunk a ship (ROJO)
-                        // If the ship is sunk, paint that cell red.
-                        pintarBarcoHundido(cell, tableroJugador, playerGrid);                    } else if (estado == EstadoCelda.TOCADA) {
-                        // The Machine has hit a ship (NARANJA)
-                        cell.setStyle("-fx-background-color: orange; -fx-border-color: #b0b0b0;");
-                    }
-                }
-                // If the state is VACIA or BARCO, it is skipped, maintaining the initial color (gris or the ShipCellView).
-            }
-        }
+        repintarCeldasModificadas(humano.getTableroPosicion(), playerGrid);
     }
 
     /**
      * Updates the machine's attack board view to reflect the player's attacks.
+     * Only the cells changed since the previous refresh are repainted.
      */
     private void actualizarTableroMaquina() {
-        Tablero tableroMaquina = maquina.getTableroPosicion();
+        repintarCeldasModificadas(tableroRival(), gridMaquina);
+    }
 
-        for (Node node : gridMaquina.getChildren()) {
-            if (node instanceof StackPane cell) {
-                int[] pos = (int[]) cell.getUserData();
-                int fila = pos[0], col = pos[1];
+    /**
+     * Board the player attacks: the machine's, or the one mirroring the remote rival's.
+     */
+    private Tablero tableroRival() {
+        return partidaRemota != null ? partidaRemota.getTableroRival() : maquina.getTableroPosicion();
+    }
 
-                EstadoCelda estado = tableroMaquina.getCelda(fila, col).getEstado();
+    /**
+     * Drains the cells the model reports as changed and repaints each one
+     * according to its current state. A sunk ship arrives as all of its cells.
+     *
+     * @param tablero The board model whose changes are drained.
+     * @param grid The GridPane showing that board.
+     */
+    private void repintarCeldasModificadas(Tablero tablero, GridPane grid) {
+        long inicio = System.nanoTime();
+        List<Celda> modificadas;
+        synchronized (juego) {
+            modificadas = tablero.extraerCeldasModificadas();
+        }
+        CELDAS_REPINTADAS.sumar(modificadas.size());
 
-                if (estado == EstadoCelda.AGUA_TOCADA) {
-                    cell.setStyle("-fx-background-color: #4444ff; -fx-border-color: #b0b0b0;");
-                } else if (estado == EstadoCelda.TOCADA) {
-                    cell.setStyle("-fx-background-color: orange; -fx-border-color: #b0b0b0;");
-                } else if (estado == EstadoCelda.HUNDIDA) {
-                    pintarBarcoHundido(cell, tableroMaquina, gridMaquina);
-                }
+        BoardCanvasView canvas = grid == playerGrid ? canvasJugador : canvasMaquina;
+        for (Celda celda : modificadas) {
+            if (canvas != null) {
+                canvas.setEstado(celda.getFila(), celda.getColumna(), celda.getEstado());
+                continue;
+            }
+            StackPane cell = getCell(celda.getColumna(), celda.getFila(), grid);
+            if (cell == null) {
+                continue;
             }
+            EstiloCelda.aplicarEstado(cell, celda.getEstado());
         }
+        T_REPINTAR.registrarDesde(inicio);
     }
 
     /**
      * Checks for the end of the game and displays a winner/loser alert.
      */
     private void verificarGanador() {
-        System.out.println("=== VERIFICANDO GANADOR ===");
-        System.out.println("Flota Máquina hundida: " + maquina.getFlota().estaFlotaHundida());
-        System.out.println("Flota Jugador hundida: " + humano.getFlota().estaFlotaHundida());
-        System.out.println("Barcos Máquina: " + maquina.getFlota().getBarcos().size());
-        System.out.println("Barcos Jugador: " + humano.getFlota().getBarcos().size());
+        LOG.log(Level.DEBUG, () -> "Verificando ganador - Flota Máquina hundida: "
+                + maquina.getFlota().estaFlotaHundida()
+                + ", Flota Jugador hundida: " + humano.getFlota().estaFlotaHundida()
+                + ", Barcos Máquina: " + maquina.getFlota().getBarcos().size()
+                + ", Barcos Jugador: " + humano.getFlota().getBarcos().size());
 
         if (juego.haGanadoJugador()) {
-            System.out.println("¡JUGADOR GANÓ!");
+            LOG.log(Level.INFO, "¡JUGADOR GANÓ!");
             detenerThreadMaquina();
             mostrarAlerta("¡VICTORIA!",
                     "¡GANASTE! Has hundido toda la flota enemiga.",
                     Alert.AlertType.INFORMATION);
         } else if (juego.haGanadoMaquina()) {
-            System.out.println("¡MÁQUINA GANÓ!");
+            LOG.log(Level.INFO, "¡MÁQUINA GANÓ!");
             detenerThreadMaquina();
             mostrarAlerta("DERROTA",
                     "La máquina ha hundido toda tu flota. ¡Mejor suerte la próxima vez!",
                     Alert.AlertType.INFORMATION);
         } else {
-            System.out.println("Juego continúa...");
+            LOG.log(Level.DEBUG, "Juego continúa...");
         }
     }
 
@@ -444,7 +745,7 @@ public class GameController implements Initializable {
     private void detenerThreadMaquina() {
         if (maquinaThread != null) {
             maquinaThread.requestStop();
-            System.out.println("Thread de la máquina detenido.");
+            LOG.log(Level.DEBUG, "Thread de la máquina detenido.");
         }
     }
 
@@ -457,7 +758,10 @@ public class GameController implements Initializable {
     private void configurarManejadoresAtaque() {
         for (Node node : gridMaquina.getChildren()) {
             if (node instanceof StackPane cell) {
-                cell.setOnMouseClicked(e -> seleccionarCeldaAtaque(cell));
+                cell.setOnMouseClicked(e -> {
+                    int[] pos = (int[]) cell.getUserData();
+                    seleccionarCeldaAtaque(pos[0], pos[1]);
+                });
             }
         }
         btnAtacar.setOnAction(e -> handleAttack());
@@ -468,22 +772,26 @@ public class GameController implements Initializable {
      * Handles the selection logic when a player clicks a cell on the machine's board.
      * Manages highlighting, validation, and updating the attack coordinates.
      *
-     * @param cell The StackPane cell selected by the player.
+     * @param fila The row of the cell selected by the player.
+     * @param col The column of the cell selected by the player.
      * @throws AtaqueInvalidoException if the selected cell has already been attacked.
      */
-    private void seleccionarCeldaAtaque(StackPane cell) {
+    private void seleccionarCeldaAtaque(int fila, int col) {
+        long inicio = System.nanoTime();
+
         // Check if it's the player's turn
-        if (!juego.esTurnoJugador()) {
+        if (partidaRemota != null) {
+            // No dialog: the turn label already tells why, and the next click may be fine
+            if (!partidaRemota.puedeDisparar() || partidaRemota.estaPendiente(fila, col)) {
+                return;
+            }
+        } else if (!juego.esTurnoJugador()) {
             mostrarAlerta("Turno bloqueado", "¡Espera! Es el turno de la máquina.", Alert.AlertType.WARNING);
             return;
         }
 
-        Tablero tableroMaquina = maquina.getTableroPosicion();
-        int[] pos = (int[]) cell.getUserData();
-        int fila = pos[0];
-        int col = pos[1];
-
-        EstadoCelda estadoActual = tableroMaquina.getCelda(fila, col).getEstado();
+        Tablero tableroMaquina = tableroRival();
+        EstadoCelda estadoActual = tableroMaquina.getEstado(fila, col);
 
         // 1. Check if the cell has already been attacked (INCLUDING AGUA_TOCADA)
         if (estadoActual == EstadoCelda.TOCADA ||
@@ -501,36 +809,27 @@ public class GameController implements Initializable {
         }
 
         // 1. Deselect the previously selected cell
-        if (celdaSeleccionadaMaquina != null) {
-            int[] prevPos = (int[]) celdaSeleccionadaMaquina.getUserData();
-            EstadoCelda prevEstado = tableroMaquina.getCelda(prevPos[0], prevPos[1]).getEstado();
-
-            // If the previous state was AGUA_TOCADA, TOCADA, or HUNDIDA,
-            // restore to the color that corresponds to it.
-            if (prevEstado == EstadoCelda.AGUA_TOCADA) {
-                // If the previous was AGUA_TOCADA, restore to BLUE
-                celdaSeleccionadaMaquina.setStyle("-fx-background-color: #4444ff; -fx-border-color: #b0b0b0;");
-            }
-            else if (prevEstado == EstadoCelda.TOCADA) {
-                // If the previous was TOCADA, restore to ORANGE
-                celdaSeleccionadaMaquina.setStyle("-fx-background-color: orange; -fx-border-color: #b0b0b0;");
-            }
-            // Note: HUNDIDA is handled with pintarBarcoHundido and is usually red.
-            // We don't need a HUNDIDA condition here because sinking is permanent.
-
-            else {
-                // If the previous state was VACIA or BARCO (i.e., NOT ATTACKED), restore to the base GREY.
-                celdaSeleccionadaMaquina.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #b0b0b0;");
+        if (canvasMaquina != null) {
+            if (filaAtaque >= 0) {
+                canvasMaquina.setSeleccionada(filaAtaque, colAtaque, false);
             }
+        } else if (celdaSeleccionadaMaquina != null) {
+            // Its attack state is untouched, so clearing the selection restores its color
+            EstiloCelda.setSeleccionada(celdaSeleccionadaMaquina, false);
         }
 
         // 2. Mark the new selected cell (yellow)
         filaAtaque = fila;
         colAtaque = col;
-        celdaSeleccionadaMaquina = cell;
-        celdaSeleccionadaMaquina.setStyle("-fx-background-color: yellow; -fx-border-color: #b0b0b0;");
+        if (canvasMaquina != null) {
+            canvasMaquina.setSeleccionada(fila, col, true);
+        } else {
+            celdaSeleccionadaMaquina = getCell(col, fila, gridMaquina);
+            EstiloCelda.setSeleccionada(celdaSeleccionadaMaquina, true);
+        }
 
         btnAtacar.setDisable(false);
+        medidorLatencia.aplicado(MedidorLatencia.Medida.SELECCION, inicio);
     }
 
     /**
@@ -540,44 +839,51 @@ public class GameController implements Initializable {
      */
     @FXML
     private void handleAttack() {
-        if (celdaSeleccionadaMaquina == null) {
+        long inicio = System.nanoTime();
+        if (filaAtaque < 0) {
             mostrarAlerta("Celda ya atacada", "¡Ya atacaste esa celda! Selecciona otra.", Alert.AlertType.WARNING);
             return;
         }
 
         // This coordinates check should prevent ArrayIndexOutOfBoundsException
-        if (filaAtaque < 0 || filaAtaque >= Tablero.SIZE || colAtaque < 0 || colAtaque >= Tablero.SIZE) {
+        int size = tableroRival().getSize();
+        if (filaAtaque < 0 || filaAtaque >= size || colAtaque < 0 || colAtaque >= size) {
             throw new ArrayIndexOutOfBoundsException("Coordenadas de ataque fuera de límites.");
         }
 
-        System.out.println("Jugador atacando: (" + filaAtaque + ", " + colAtaque + ")");
+        if (partidaRemota != null) {
+            dispararRemoto(inicio);
+            return;
+        }
+
+        LOG.log(Level.DEBUG, () -> "Jugador atacando: (" + filaAtaque + ", " + colAtaque + ")");
 
         try {
             // 1. Execute the attack
-            ResultadoDisparo resultado = juego.ejecutarAtaqueJugador(filaAtaque, colAtaque);
-
-            // Save after successful attack
-            try {
-                gameManager.guardarPartida(humano, maquina);
-            } catch (Exception e) {
-                // Catching a general exception and wrapping it as our custom checked exception
-                // to manage persistence errors more specifically.
-                mostrarAlerta("Error de Guardado", "No se pudo guardar la partida.", Alert.AlertType.ERROR);
-                // throw new ErrorGuardadoException("Fallo al guardar después del ataque.", e);
+            ResultadoDisparo resultado;
+            synchronized (juego) {
+                resultado = juego.ejecutarAtaqueJugador(filaAtaque, colAtaque);
             }
 
-            // 2. Update the view of the attacked cell
-            actualizarVistaAtaque(celdaSeleccionadaMaquina, resultado, maquina.getTableroPosicion(), gridMaquina);
+            // 2. Update the view of the attacked cell (the whole ship if it sank)
+            if (canvasMaquina != null) {
+                canvasMaquina.setSeleccionada(filaAtaque, colAtaque, false);
+            } else if (celdaSeleccionadaMaquina != null) {
+                EstiloCelda.setSeleccionada(celdaSeleccionadaMaquina, false);
+            }
+            actualizarTableroMaquina();
+            medidorLatencia.aplicado(MedidorLatencia.Medida.ATAQUE, inicio);
 
-            // 3. Check victory condition
+            // 3. Save and victory check happen once in the next UI batch
+            despachador.notificarCambio();
             if (juego.haGanadoJugador()) {
-                gameManager.eliminarPartidaGuardada();
-                mostrarAlerta("¡VICTORIA!", "¡GANASTE! Has hundido toda la flota enemiga.", Alert.AlertType.INFORMATION);
                 return;
             }
 
             // 4. Message logic based on result
             celdaSeleccionadaMaquina = null;
+            filaAtaque = -1;
+            colAtaque = -1;
             btnAtacar.setDisable(true);
 
             switch (resultado) {
@@ -597,47 +903,52 @@ public class GameController implements Initializable {
                     // El jugador mantiene el turno (Juego no lo cambió)
                     break;
             }
+            turnoMostradoJugador = juego.esTurnoJugador();
 
         } catch (IllegalStateException e) {
             lblMensajeTurno.setText("Error: " + e.getMessage());
-            System.err.println(e.getMessage());
+            LOG.log(Level.WARNING, e.getMessage());
         } catch (RuntimeException e) {
             lblMensajeTurno.setText("Error en el ataque: " + e.getMessage());
-            System.err.println(e.getMessage());
+            LOG.log(Level.ERROR, "Error en el ataque", e);
         }
     }
 
-    /* ---------- Cell Painting Logic (View) ---------- */
-
     /**
-     * Updates the view of a single attacked cell based on the attack result.
+     * Sends the selected shot to the server and marks the cell as pending at
+     * once. The player can pick the next cell straight away; the result is
+     * painted over the mark when it arrives.
      *
-     * @param cell The visual cell (StackPane) being updated.
-     * @param resultado The result of the attack.
-     * @param tablero The board model.
-     * @param grid The entire visual grid.
-     */
-    private void actualizarVistaAtaque(StackPane cell, ResultadoDisparo resultado, Tablero tablero, GridPane grid) {
-        String color;
-
-        switch (resultado) {
-            case AGUA:
-                color = "#4444ff"; // Azul
-                break;
-            case TOCADO:
-                color = "orange"; // Naranja
-                break;
-            case HUNDIDO:
-                // If sunk, paint all cells of the ship red
-                pintarBarcoHundido(cell, tablero, grid);
-                return;
-            default:
-                color = "#e0e0e0";
+     * @param inicio time of the click, for the input-to-paint latency
+     */
+    private void dispararRemoto(long inicio) {
+        boolean enviado = partidaRemota.disparar(filaAtaque, colAtaque);
+        if (canvasMaquina != null) {
+            canvasMaquina.setSeleccionada(filaAtaque, colAtaque, false);
+            if (enviado) {
+                canvasMaquina.setPendiente(filaAtaque, colAtaque, true);
+                pendientesCanvas.add(new int[]{filaAtaque, colAtaque});
+            }
+        } else if (celdaSeleccionadaMaquina != null) {
+            EstiloCelda.setSeleccionada(celdaSeleccionadaMaquina, false);
+            if (enviado) {
+                EstiloCelda.setPendiente(celdaSeleccionadaMaquina, true);
+                celdasPendientes.add(celdaSeleccionadaMaquina);
+            }
+        }
+        if (enviado) {
+            medidorLatencia.aplicado(MedidorLatencia.Medida.ATAQUE, inicio);
         }
 
-        cell.setStyle("-fx-background-color: " + color + "; -fx-border-color: #b0b0b0;");
+        celdaSeleccionadaMaquina = null;
+        filaAtaque = -1;
+        colAtaque = -1;
+        btnAtacar.setDisable(true);
+        actualizarMensajeRemoto();
     }
 
+    /* ---------- Cell Painting Logic (View) ---------- */
+
     /**
      * Paints all cells belonging to a sunk ship in red.
      *
@@ -654,16 +965,15 @@ public class GameController implements Initializable {
             Barco barcoHundido = celdaModelo.getBarco();
 
             if (barcoHundido.estaHundido()) {
-                System.out.println(" Pintando barco hundido: " + barcoHundido.getTipo());
-                System.out.println("   Celdas del barco: " + barcoHundido.getCeldas().size());
+                LOG.log(Level.DEBUG, () -> "Pintando barco hundido: " + barcoHundido.getTipo()
+                        + " (" + barcoHundido.getCeldas().size() + " celdas)");
 
                 barcoHundido.getCeldas().forEach(c -> {
                     StackPane cellView = getCell(c.getColumna(), c.getFila(), grid);
                     if (cellView != null) {
-                        cellView.setStyle("-fx-background-color: red; -fx-border-color: #b0b0b0;");
-                        System.out.println("   Celda (" + c.getFila() + ", " + c.getColumna() + ") → ROJO");
+                        EstiloCelda.aplicarEstado(cellView, EstadoCelda.HUNDIDA);
                     } else {
-                        System.out.println("   No se encontró celda (" + c.getFila() + ", " + c.getColumna() + ")");
+                        LOG.log(Level.WARNING, () -> "No se encontró celda (" + c.getFila() + ", " + c.getColumna() + ")");
                     }
                 });
             }
@@ -713,7 +1023,7 @@ public class GameController implements Initializable {
      */
     private void pintarFlotaEnTablero(Flota flota, GridPane grid) {
         if (flota == null || flota.getBarcos().isEmpty()) {
-            System.err.println("DIAGNOSTIC: Flota vacía. No hay barcos para pintar.");
+            LOG.log(Level.WARNING, "Flota vacía. No hay barcos para pintar.");
             return;
         }
 
@@ -743,27 +1053,27 @@ public class GameController implements Initializable {
      * @return The StackPane cell or null if not found.
      */
     private StackPane getCell(int col, int fila, GridPane grid) {
-        for (Node node : grid.getChildren()) {
-            Integer nodeCol = GridPane.getColumnIndex(node);
-            Integer nodeFila = GridPane.getRowIndex(node);
-
-            if (nodeCol == null) nodeCol = 0;
-            if (nodeFila == null) nodeFila = 0;
-
-            if (nodeCol == col && nodeFila == fila) {
-                return (StackPane) node;
-            }
+        StackPane[] celdas = grid == playerGrid ? celdasJugador : celdasMaquina;
+        if (celdas == null || fila < 0 || fila >= Tablero.SIZE || col < 0 || col >= Tablero.SIZE) {
+            return null;
         }
-        return null;
+        return celdas[fila * Tablero.SIZE + col];
     }
 
     /**
-     * Initializes the basic visual structure of the GridPane (cells and constraints).
+     * Initializes the basic visual structure of the GridPane (cells and constraints)
+     * and rebuilds the cell index used by {@link #getCell(int, int, GridPane)}.
      *
      * @param grid The GridPane to set up.
      */
     private void inicializarGridBase(GridPane grid) {
         grid.getChildren().clear();
+        StackPane[] celdas = new StackPane[Tablero.SIZE * Tablero.SIZE];
+        if (grid == playerGrid) {
+            celdasJugador = celdas;
+        } else {
+            celdasMaquina = celdas;
+        }
         grid.getColumnConstraints().clear();
         grid.getRowConstraints().clear();
 
@@ -789,10 +1099,11 @@ public class GameController implements Initializable {
                 cell.setMaxSize(CELL_SIZE, CELL_SIZE);
 
                 cell.setUserData(new int[]{fila, col});
-                cell.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #b0b0b0;");
+                EstiloCelda.inicializar(cell);
                 GridPane.setMargin(cell, new Insets(1));
 
                 grid.add(cell, col, fila);
+                celdas[fila * Tablero.SIZE + col] = cell;
             }
         }
 
@@ -808,17 +1119,17 @@ public class GameController implements Initializable {
      */
     private void irAColocacionMaquina() {
         if (this.juego == null) {
-            System.err.println("ERROR: El objeto 'juego' no ha sido inicializado.");
+            LOG.log(Level.ERROR, "El objeto 'juego' no ha sido inicializado.");
             // Throwing a checked exception would force a try-catch here.
             // We use RuntimeException since this is an internal flow error often related to initialization order.
             throw new RuntimeException("ERROR: El objeto 'juego' no ha sido inicializado.");
         }
 
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/proyect/batallanaval/machine-colocation-view.fxml"));
-            Parent root = loader.load();
+            GestorEscenas.VistaCargada vista = GestorEscenas.obtener(GestorEscenas.Vista.COLOCACION_MAQUINA);
+            Parent root = vista.getRaiz();
 
-            MachineColocationController machineController = loader.getController();
+            MachineColocationController machineController = vista.getControlador();
             machineController.setJuego(this.juego);
 
             Stage nuevaVentana = new Stage();
@@ -827,11 +1138,10 @@ public class GameController implements Initializable {
 
             nuevaVentana.show();
 
-            System.out.println("Nueva ventana de Colocación Máquina abierta exitosamente.");
+            LOG.log(Level.DEBUG, "Nueva ventana de Colocación Máquina abierta exitosamente.");
 
         } catch (IOException ex) {
-            System.err.println("Error al cargar machine-colocation-view.fxml:");
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "Error al cargar machine-colocation-view.fxml", ex);
             // This is an external/checked exception related to file access
             mostrarAlerta("Error de Vista", "No se pudo cargar la vista de colocación.", Alert.AlertType.ERROR);
         }
@@ -842,5 +1152,13 @@ public class GameController implements Initializable {
      */
     public void cleanup() {
         detenerThreadMaquina();
+        if (partidaRemota != null) {
+            partidaRemota.close();
+        }
+        if (despachador != null) {
+            despachador.detener();
+        }
+        medidorLatencia.desinstalar();
+        overlay.ocultar();
     }
 }
\ No newline at end of file
@@ -1,74 +1,199 @@
 package proyect.batallanaval.controllers;
 
+import proyect.batallanaval.archivo.ArchivoPartidas;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+import proyect.batallanaval.metrics.jfr.EventoGuardado;
 import proyect.batallanaval.models.*;
 
 import java.io.*;
+import java.lang.System.Logger.Level;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Manages the persistence (saving and loading) of the complete game state,
  * including player/machine boards, fleets, and basic game status.
  *
- * Uses Java's standard Serialization for complex objects (Tablero, Flota)
- * and a simple text file/FileCRUD for scalar data (nickname, scores).
+ * Every player has a slot of its own, named after the nickname, in an
+ * {@link AlmacenPartidas} directory ({@code partidas} by default, or the
+ * {@code batallanaval.partidas} system property). The boards, fleets and match
+ * record are serialized together with Java's standard Serialization; the
+ * store's index keeps the scalar data (nickname, turn, scores, seed), so saves
+ * can be listed without reading any of them.
  */
 public class GameManager {
-    private static final String TABLERO_JUGADOR_FILE = "tablero_jugador.ser";
-    private static final String TABLERO_MAQUINA_FILE = "tablero_maquina.ser";
-    private static final String FLOTA_JUGADOR_FILE = "flota_jugador.ser";
-    private static final String FLOTA_MAQUINA_FILE = "flota_maquina.ser";
-    private static final String ESTADO_FILE = "estado_partida.txt";
+    private static final System.Logger LOG = Registros.getLogger(GameManager.class);
 
-    private FileCRUD fileCRUD;
+    private static final Histograma T_GUARDAR = Metricas.histograma("partida.guardar");
+    private static final Histograma T_CARGAR = Metricas.histograma("partida.cargar");
+    private static final Contador ERRORES_GUARDADO = Metricas.contador("partida.erroresGuardado");
+
+    private static final String DIRECTORIO_POR_DEFECTO = "partidas";
+
+    // A save writes the data file and the index
+    private static final int ARCHIVOS_POR_GUARDADO = 2;
+
+    // One writer for every save, so they reach the store in order and off the FX thread
+    private static final ExecutorService ESCRITOR = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "guardado-partidas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final AlmacenPartidas almacen;
+    private final Clasificacion clasificacion;
+    private final ArchivoPartidas archivo;
+
+    // Latest snapshot not written yet; older ones are skipped
+    private final AtomicReference<Instantanea> pendiente = new AtomicReference<>();
+
+    /** Game state captured for a save, independent of the live game. */
+    private record Instantanea(String nickname, int turno, int hundidosJugador, int hundidosMaquina,
+                               long semilla, byte[] datos) {
+    }
 
     /**
-     * Constructs the GameManager and initializes the persistence mechanism.
+     * Constructs the GameManager on the default save directory.
      */
     public GameManager() {
-        // Initializes FileCRUD for the simple state file
-        this.fileCRUD = new FileCRUD(ESTADO_FILE);
+        this(Path.of(System.getProperty("batallanaval.partidas", DIRECTORIO_POR_DEFECTO)));
     }
 
     /**
-     * Saves the complete game state.
+     * Constructs a GameManager whose saves live in the given directory.
+     *
+     * @param directorio Directory of the save store and leaderboard; created on the first save.
+     */
+    public GameManager(Path directorio) {
+        this.almacen = AlmacenPartidas.en(directorio);
+        this.clasificacion = Clasificacion.en(directorio);
+        this.archivo = ArchivoPartidas.en(directorio);
+    }
+
+    /**
+     * Saves the complete game state in the slot of the player's nickname,
+     * replacing the previous save of that player.
      * <p>
      * Criteria met:
      * <ul>
-     * <li>Serializable files for boards and fleets (binary).</li>
-     * <li>Plain text file for nickname and sunk ship counts.</li>
+     * <li>Serialized boards, fleets and match record (seed, initial fleets and shots, for replays).</li>
+     * <li>Index line with nickname, turn, sunk ship counts, save time and game seed.</li>
      * </ul>
      * </p>
      *
-     * @param jugador The human player instance.
-     * @param maquina The machine player instance.
-     * @throws IOException If any file operation (serialization or text writing) fails.
+     * @param juego The game whose participants and match record are saved.
+     * @throws IOException If serialization or writing to the store fails.
+     */
+    public void guardarPartida(Juego juego) throws IOException {
+        escribir(tomarInstantanea(juego));
+    }
+
+    /**
+     * Saves the game like {@link #guardarPartida(Juego)}, but leaves the
+     * writing to a background thread. The state is captured before
+     * returning, so the caller must hold whatever guards the game, and the
+     * game may change right after. Saves that pile up while the writer is
+     * busy are merged: only the latest one is written.
+     *
+     * @param juego    The game to save.
+     * @param alFallar Called on the writer thread if the save cannot be written.
+     * @throws IOException If the game cannot be serialized.
+     */
+    public void guardarEnSegundoPlano(Juego juego, Consumer<IOException> alFallar) throws IOException {
+        if (pendiente.getAndSet(tomarInstantanea(juego)) != null) {
+            return; // the writer has not taken the previous one yet and will take this instead
+        }
+        ESCRITOR.execute(() -> {
+            Instantanea instantanea = pendiente.getAndSet(null);
+            try {
+                escribir(instantanea);
+            } catch (IOException e) {
+                alFallar.accept(e);
+            }
+        });
+    }
+
+    /**
+     * Waits until every save handed to {@link #guardarEnSegundoPlano} has
+     * been written, so reading or deleting a save sees the latest one.
      */
-    public void guardarPartida(Jugador jugador, Maquina maquina) throws IOException {
-        System.out.println("=== GUARDANDO PARTIDA ===");
+    public static void esperarGuardados() {
+        try {
+            ESCRITOR.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        // 1. Serialize complex objects
-        serializarObjeto(jugador.getTableroPosicion(), TABLERO_JUGADOR_FILE);
-        serializarObjeto(maquina.getTableroPosicion(), TABLERO_MAQUINA_FILE);
+    private void escribir(Instantanea instantanea) throws IOException {
+        long inicio = System.nanoTime();
+        EventoGuardado evento = new EventoGuardado();
+        evento.begin();
+        boolean correcto = false;
+        try {
+            almacen.guardar(instantanea.nickname(), instantanea.turno(), instantanea.hundidosJugador(),
+                    instantanea.hundidosMaquina(), instantanea.semilla(), instantanea.datos());
+            correcto = true;
+        } catch (IOException | RuntimeException e) {
+            ERRORES_GUARDADO.incrementar();
+            throw e;
+        } finally {
+            T_GUARDAR.registrarDesde(inicio);
+            if (evento.shouldCommit()) {
+                evento.archivos = ARCHIVOS_POR_GUARDADO;
+                evento.bytes = instantanea.datos().length;
+                evento.correcto = correcto;
+                evento.commit();
+            }
+        }
 
-        serializarObjeto(jugador.getFlota(), FLOTA_JUGADOR_FILE);
-        serializarObjeto(maquina.getFlota(), FLOTA_MAQUINA_FILE);
+        // Saving happens after every shot, so this stays at DEBUG
+        LOG.log(Level.DEBUG, () -> "Partida guardada: " + instantanea.nickname()
+                + " (hundidos por jugador: " + instantanea.hundidosJugador()
+                + ", por máquina: " + instantanea.hundidosMaquina() + ")");
+    }
 
-        // 2. Prepare and save simple state
-        int barcosHundidosJugador = contarBarcosHundidos(maquina.getFlota()); // Ships sunk by player
-        int barcosHundidosMaquina = contarBarcosHundidos(jugador.getFlota()); // Ships sunk by machine
+    /**
+     * Serializes the boards, fleets and match record, and gathers the scalar
+     * state for the index.
+     */
+    private Instantanea tomarInstantanea(Juego juego) throws IOException {
+        Jugador jugador = juego.getJugador();
+        Maquina maquina = juego.getMaquina();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(jugador.getTableroPosicion());
+            oos.writeObject(maquina.getTableroPosicion());
+            oos.writeObject(jugador.getFlota());
+            oos.writeObject(maquina.getFlota());
+            oos.writeObject(juego.getRegistro());
+        } catch (IOException e) {
+            ERRORES_GUARDADO.incrementar();
+            LOG.log(Level.ERROR, "Error al serializar la partida de " + jugador.getNickname(), e);
+            throw e;
+        }
 
-        guardarEstadoSimple(
+        return new Instantanea(
                 jugador.getNickname(),
-                barcosHundidosJugador,
-                barcosHundidosMaquina
-        );
-
-        System.out.println("✅ Partida guardada: " + jugador.getNickname());
-        System.out.println("   Barcos hundidos por jugador: " + barcosHundidosJugador);
-        System.out.println("   Barcos hundidos por máquina: " + barcosHundidosMaquina);
+                juego.getTotalDisparos(),
+                contarBarcosHundidos(maquina.getFlota()), // Ships sunk by player
+                contarBarcosHundidos(jugador.getFlota()), // Ships sunk by machine
+                juego.getSemilla().getSemilla(),
+                bytes.toByteArray());
     }
 
     /**
@@ -87,208 +212,192 @@ public class GameManager {
     }
 
     /**
-     * Serializes an object to a binary file using ObjectOutputStream.
+     * Lists every saved game, most recently saved first. Only the store's
+     * index is read, never the boards.
      *
-     * @param objeto The object to serialize (must implement {@code Serializable}).
-     * @param fileName The name of the file to save to.
-     * @throws IOException If an I/O error occurs during serialization.
+     * @return Descriptions of the saved games, empty if there are none.
+     * @throws IOException If the index exists but cannot be read.
      */
-    private void serializarObjeto(Object objeto, String fileName) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(fileName))) {
-            oos.writeObject(objeto);
-        } catch (IOException e) {
-            // Re-throwing the exception to be handled by the caller (guardarPartida)
-            System.err.println("Error al serializar " + fileName + ": " + e.getMessage());
-            throw e;
+    public List<ResumenPartida> listarPartidas() throws IOException {
+        esperarGuardados();
+        List<ResumenPartida> partidas = new ArrayList<>();
+        for (AlmacenPartidas.Entrada e : almacen.listar()) {
+            partidas.add(new ResumenPartida(e.ranura(), e.nickname(), e.turno(),
+                    e.hundidosJugador(), e.hundidosMaquina(), Instant.ofEpochMilli(e.guardada())));
         }
+        return partidas;
     }
 
     /**
-     * Saves simple game state (nickname, scores) using FileCRUD.
+     * Loads the complete game state saved in a slot.
      *
-     * @param nickname Player's nickname.
-     * @param barcosJugador Sunk ships count by the player.
-     * @param barcosMaquina Sunk ships count by the machine.
+     * @param ranura Slot of the game, as listed by {@link #listarPartidas()}.
+     * @return A {@code PartidaGuardada} object containing all loaded game components.
+     * @throws IOException If the slot is empty or its data cannot be read or deserialized.
+     * @throws ClassNotFoundException If a serialized class file is missing or corrupted.
      */
-    private void guardarEstadoSimple(String nickname, int barcosJugador, int barcosMaquina) {
-        File file = new File(ESTADO_FILE);
-        if (file.exists()) {
-            // Ensure the file is fresh by deleting it, though FileCRUD.create often overwrites.
-            file.delete();
+    public PartidaGuardada cargarPartida(String ranura) throws IOException, ClassNotFoundException {
+        esperarGuardados();
+        long inicio = System.nanoTime();
+        try {
+            return leerPartida(ranura);
+        } finally {
+            T_CARGAR.registrarDesde(inicio);
         }
-
-        this.fileCRUD = new FileCRUD(ESTADO_FILE);
-
-        String[] datos = new String[]{
-                nickname,
-                String.valueOf(barcosJugador),
-                String.valueOf(barcosMaquina)
-        };
-
-        String content = String.join(",", datos);
-        fileCRUD.create(content); // FileCRUD should handle internal IOException if it fails
     }
 
-    /**
-     * Loads the complete game state from saved files.
-     *
-     * @return A {@code PartidaGuardada} object containing all loaded game components, or {@code null} if loading fails.
-     * @throws IOException If any file access fails during deserialization or reading the state file.
-     * @throws ClassNotFoundException If a serialized class file is missing or corrupted.
-     * @throws NumberFormatException If the score data in the state file is not a valid number.
-     */
-    public PartidaGuardada cargarPartida() throws IOException, ClassNotFoundException, NumberFormatException {
-        System.out.println("=== CARGANDO PARTIDA ===");
+    private PartidaGuardada leerPartida(String ranura) throws IOException, ClassNotFoundException {
+        LOG.log(Level.INFO, "Cargando partida: {0}", ranura);
+        AlmacenPartidas.Entrada entrada = almacen.buscar(ranura);
+        if (entrada == null) {
+            throw new IOException("No saved game in slot: " + ranura);
+        }
         PartidaGuardada partida = new PartidaGuardada();
 
         // 1. Deserialize complex objects
-        partida.tableroJugador = (Tablero) deserializarObjeto(TABLERO_JUGADOR_FILE);
-        partida.tableroMaquina = (Tablero) deserializarObjeto(TABLERO_MAQUINA_FILE);
-
-        if (partida.tableroJugador == null || partida.tableroMaquina == null) {
-            System.err.println("Error: No se pudieron cargar los tableros");
-            // Throwing IOException to signal a critical file access failure
-            throw new IOException("Failed to deserialize one or both Tablero objects.");
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(almacen.leer(entrada)))) {
+            partida.tableroJugador = (Tablero) ois.readObject();
+            partida.tableroMaquina = (Tablero) ois.readObject();
+            partida.flotaJugador = (Flota) ois.readObject();
+            partida.flotaMaquina = (Flota) ois.readObject();
+            partida.registro = (RegistroPartida) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            LOG.log(Level.ERROR, "Error al deserializar la partida " + ranura, e);
+            throw e;
         }
 
-        partida.flotaJugador = (Flota) deserializarObjeto(FLOTA_JUGADOR_FILE);
-        partida.flotaMaquina = (Flota) deserializarObjeto(FLOTA_MAQUINA_FILE);
-
-        if (partida.flotaJugador == null || partida.flotaMaquina == null) {
-            System.err.println("Error: No se pudieron cargar las flotas");
-            throw new IOException("Failed to deserialize one or both Flota objects.");
+        if (partida.tableroJugador == null || partida.tableroMaquina == null
+                || partida.flotaJugador == null || partida.flotaMaquina == null) {
+            LOG.log(Level.ERROR, "Partida incompleta: {0}", ranura);
+            throw new IOException("Saved game is missing boards or fleets: " + ranura);
         }
 
-        // 2. Re-link the ships' cells (critical step after deserialization)
-        reVincularFlotaDesdeTablero(partida.tableroJugador, partida.flotaJugador);
-        reVincularFlotaDesdeTablero(partida.tableroMaquina, partida.flotaMaquina);
+        // 2. Scalar state comes from the index. Boards and fleets were read from
+        //    one stream, so the fleets already share the ships placed on the boards.
+        partida.nickname = entrada.nickname();
+        partida.barcosHundidosJugador = entrada.hundidosJugador();
+        partida.barcosHundidosMaquina = entrada.hundidosMaquina();
+        partida.semilla = entrada.semilla();
 
+        LOG.log(Level.INFO, "Partida cargada: {0} (hundidos por jugador: {1}, por máquina: {2})",
+                partida.nickname, partida.barcosHundidosJugador, partida.barcosHundidosMaquina);
 
-        // 3. Read simple state file
-        ArrayList<String> lines = fileCRUD.read(); // Assuming fileCRUD.read() throws IOException or returns empty on failure
-
-        if (lines.isEmpty()) {
-            System.err.println("Error: Archivo de estado vacío o no se pudo leer");
-            throw new IOException("State file is empty or unreadable: " + ESTADO_FILE);
-        }
-
-        // 4. Parse data
-        String[] datos = lines.get(0).split(",");
+        return partida;
+    }
 
-        if (datos.length < 3) {
-            System.err.println("Error: Formato de archivo de estado incorrecto");
-            throw new IOException("State file has incorrect format (expected 3 fields).");
+    /**
+     * Checks if any saved game exists.
+     *
+     * @return {@code true} if the store lists at least one slot, {@code false}
+     * otherwise or if its index cannot be read.
+     */
+    public boolean existePartidaGuardada() {
+        try {
+            return !almacen.listar().isEmpty();
+        } catch (IOException e) {
+            LOG.log(Level.ERROR, "No se pudo leer el índice de partidas", e);
+            return false;
         }
+    }
 
-        // Potential for NumberFormatException here
-        partida.nickname = datos[0];
-        partida.barcosHundidosJugador = Integer.parseInt(datos[1]);
-        partida.barcosHundidosMaquina = Integer.parseInt(datos[2]);
-
-        System.out.println("✅ Partida cargada: " + partida.nickname);
-        System.out.println("   Barcos hundidos por jugador: " + partida.barcosHundidosJugador);
-        System.out.println("   Barcos hundidos por máquina: " + partida.barcosHundidosMaquina);
-
-        return partida;
+    /**
+     * Deletes the saved game of a player, if there is one.
+     *
+     * @param nickname Nickname the game was saved under.
+     * @throws IOException If the store's index cannot be read.
+     */
+    public void eliminarPartidaGuardada(String nickname) throws IOException {
+        esperarGuardados(); // a save still queued would bring the game back
+        almacen.eliminar(almacen.ranuraDe(nickname));
     }
 
     /**
-     * Deserializes an object from a binary file using ObjectInputStream.
+     * Records a finished game in the leaderboard and the match archive, and
+     * deletes the player's save, which can no longer be continued.
      *
-     * @param fileName The name of the file to load from.
-     * @return The deserialized object, or {@code null} if loading fails.
-     * @throws IOException If an I/O error occurs (e.g., file not found, corrupt stream).
-     * @throws ClassNotFoundException If the serialized class cannot be found.
+     * @param juego      A game in which one side has sunk the other's fleet.
+     * @param estrategia Name of the strategy the machine played with.
+     * @return The player's updated leaderboard record.
+     * @throws IOException If the leaderboard or the save store cannot be written.
      */
-    private Object deserializarObjeto(String fileName) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(fileName))) {
-            return ois.readObject();
-        } catch (FileNotFoundException e) {
-            System.err.println("Error: Archivo no encontrado " + fileName);
-            throw e;
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error al deserializar " + fileName + ": " + e.getMessage());
-            throw e;
-        }
+    public Clasificacion.Estadisticas registrarFinDePartida(Juego juego, String estrategia) throws IOException {
+        FinDePartida fin = tomarFin(juego);
+        esperarGuardados(); // a save still queued would bring the game back
+        return registrarFin(fin, estrategia);
     }
 
     /**
-     * Re-establishes the connection (binding) between the {@code Celda} objects in the
-     * {@code Tablero} and their corresponding parent {@code Barco} object in the {@code Flota}.
-     * This is necessary because Java's default serialization often breaks object relationships
-     * when objects are serialized and deserialized separately.
+     * The player's leaderboard record after a finished game, with their rank
+     * at that moment.
+     */
+    public record ResultadoFinal(Clasificacion.Estadisticas estadisticas, int puesto, int totalJugadores) {
+    }
+
+    /**
+     * Records a finished game like {@link #registrarFinDePartida}, but on the
+     * background writer, after every save handed to it before. The game is
+     * read before returning, so the caller must hold whatever guards it.
      *
-     * @param tablero The board model (source of cells).
-     * @param flota The fleet model (destination for reconstructed ships).
+     * @param juego      A game in which one side has sunk the other's fleet.
+     * @param estrategia Name of the strategy the machine played with.
+     * @return Completes, on the writer thread, with the player's record and
+     * rank, or exceptionally if the leaderboard or the save store cannot be written.
      */
-    private void reVincularFlotaDesdeTablero(Tablero tablero, Flota flota) {
-        System.out.println("=== RE-VINCULANDO FLOTA ===");
-
-        // 1. Use a map to track unique Barco objects by identity (since they are deserialized copies)
-        Map<Barco, Barco> barcosUnicos = new HashMap<>();
-
-        // 2. Iterate through the board and find all unique ships
-        for (int f = 0; f < Tablero.SIZE; f++) {
-            for (int c = 0; c < Tablero.SIZE; c++) {
-                Celda celda = tablero.getCelda(f, c);
-
-                if (celda.tieneBarco()) {
-                    Barco barcoDelTablero = celda.getBarco();
-
-                    // If it's the first time we see this ship (by object identity)
-                    if (!barcosUnicos.containsKey(barcoDelTablero)) {
-                        barcosUnicos.put(barcoDelTablero, barcoDelTablero);
-                        // Clear its cells to rebuild the correct list from the board
-                        barcoDelTablero.getCeldas().clear();
-                    }
-
-                    // Add this cell to the ship's cell list
-                    barcoDelTablero.agregarCelda(celda);
-                }
+    public CompletableFuture<ResultadoFinal> registrarFinEnSegundoPlano(Juego juego, String estrategia) {
+        FinDePartida fin = tomarFin(juego);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Clasificacion.Estadisticas estadisticas = registrarFin(fin, estrategia);
+                return new ResultadoFinal(estadisticas, clasificacion.puesto(fin.nickname()),
+                        clasificacion.totalJugadores());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
+        }, ESCRITOR);
+    }
 
-        // 3. Update the fleet with the unique ships found
-        flota.getBarcos().clear();
-        flota.getBarcos().addAll(barcosUnicos.values());
+    // What recording a finished game needs from it, taken while the caller holds the game
+    private record FinDePartida(String nickname, boolean gano, int disparos, RegistroPartida registro) {
+    }
 
-        System.out.println("✅ Flota reconstruida con " + flota.getBarcos().size() + " barcos");
+    private static FinDePartida tomarFin(Juego juego) {
+        return new FinDePartida(juego.getJugador().getNickname(), juego.haGanadoJugador(),
+                (int) juego.getHistorial().stream().filter(Disparo::delJugador).count(), juego.getRegistro());
+    }
 
-        // 4. Diagnosis: Verify that the ships have cells
-        for (Barco b : flota.getBarcos()) {
-            System.out.println("   - " + b.getTipo() + ": " + b.getCeldas().size() + " celdas, Hundido: " + b.estaHundido());
+    // The saves queued before must be written already: this does not wait for them
+    private Clasificacion.Estadisticas registrarFin(FinDePartida fin, String estrategia) throws IOException {
+        Clasificacion.Estadisticas estadisticas = clasificacion.registrar(fin.nickname(), fin.gano(), fin.disparos());
+        try {
+            archivo.registrar(fin.registro(), fin.gano(), estrategia);
+        } catch (IOException | IllegalArgumentException e) {
+            // The archive only feeds analytics; the game still counts
+            LOG.log(Level.WARNING, "No se pudo archivar la partida de " + fin.nickname(), e);
         }
+        almacen.eliminar(almacen.ranuraDe(fin.nickname()));
+        return estadisticas;
     }
 
     /**
-     * Checks if a complete saved game state exists (all necessary files are present).
-     *
-     * @return {@code true} if all persistence files exist, {@code false} otherwise.
+     * The leaderboard kept next to the saved games.
      */
-    public boolean existePartidaGuardada() {
-        File f1 = new File(TABLERO_JUGADOR_FILE);
-        File f2 = new File(TABLERO_MAQUINA_FILE);
-        File f3 = new File(FLOTA_JUGADOR_FILE);
-        File f4 = new File(FLOTA_MAQUINA_FILE);
-        File f5 = new File(ESTADO_FILE);
-
-        return f1.exists() && f2.exists() && f3.exists() && f4.exists() && f5.exists();
+    public Clasificacion getClasificacion() {
+        return clasificacion;
     }
 
     /**
-     * Deletes all saved game state files.
+     * Short description of a saved game, read from the store's index alone.
      *
-     * @throws SecurityException If a security manager exists and its {@code checkDelete} method denies delete access.
+     * @param ranura                slot the game is saved in
+     * @param nickname              the player's nickname
+     * @param turno                 shots fired so far by both sides
+     * @param barcosHundidosJugador ships sunk by the player
+     * @param barcosHundidosMaquina ships sunk by the machine
+     * @param guardada              when the game was last saved
      */
-    public void eliminarPartidaGuardada() {
-        new File(TABLERO_JUGADOR_FILE).delete();
-        new File(TABLERO_MAQUINA_FILE).delete();
-        new File(FLOTA_JUGADOR_FILE).delete();
-        new File(FLOTA_MAQUINA_FILE).delete();
-        new File(ESTADO_FILE).delete();
-        System.out.println("✅ Archivos de partida eliminados");
+    public record ResumenPartida(String ranura, String nickname, int turno, int barcosHundidosJugador,
+                                 int barcosHundidosMaquina, Instant guardada) {
     }
 
     /**
@@ -303,5 +412,7 @@ public class GameManager {
         public String nickname;
         public int barcosHundidosJugador;
         public int barcosHundidosMaquina;
+        public Long semilla;
+        public RegistroPartida registro;
     }
 }
\ No newline at end of file
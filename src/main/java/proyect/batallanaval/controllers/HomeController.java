@@ -1,24 +1,41 @@
 package proyect.batallanaval.controllers;
 
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.jfr.EventoCargaEscena;
 import proyect.batallanaval.models.*;
 import proyect.batallanaval.controllers.GameManager.PartidaGuardada;
+import proyect.batallanaval.controllers.GameManager.ResumenPartida;
 import proyect.batallanaval.views.ColocationView;
+import proyect.batallanaval.views.GestorEscenas;
 import proyect.batallanaval.views.InstructionsView;
 
 import proyect.batallanaval.exceptions.CargaPartidaException;
 import proyect.batallanaval.exceptions.VistaNoCargadaException;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controller for the main application home screen (Home View).
@@ -26,9 +43,20 @@ import java.util.Optional;
  * and loading a saved game.
  */
 public class HomeController {
+    private static final System.Logger LOG = Registros.getLogger(HomeController.class);
+
+    private static final DateTimeFormatter FORMATO_FECHA =
+            DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withZone(ZoneId.systemDefault());
 
     private GameManager gameManager;
 
+    /**
+     * Saved game being read and rebuilt in the background since the screen
+     * appeared, or {@code null} if there was no save.
+     */
+    private CompletableFuture<Juego> cargaEspeculativa;
+    private String ranuraEspeculativa;
+
     /**
      * Initializes the controller and creates a new {@code GestorPartida} instance
      * for persistence management.
@@ -37,6 +65,25 @@ public class HomeController {
         this.gameManager = new GameManager();
     }
 
+    /**
+     * Starts parsing the screens reachable from here in the background, so
+     * that pressing Play switches screens without loading FXML: the
+     * colocation view for a new game and, if there is a save to continue,
+     * the game view. The most recent save is also deserialized and rebuilt
+     * right away, while the user is still looking at this screen.
+     */
+    @FXML
+    private void initialize() {
+        if (!ColocationView.existe()) {
+            GestorEscenas.precargar(GestorEscenas.Vista.COLOCACION);
+        }
+        List<ResumenPartida> partidas = listarPartidas();
+        if (!partidas.isEmpty()) {
+            GestorEscenas.precargar(GestorEscenas.Vista.JUEGO);
+            iniciarCarga(partidas.get(0).ranura());
+        }
+    }
+
     /**
      * Handles the application exit when the Quit button is pressed.
      */
@@ -70,45 +117,77 @@ public class HomeController {
     }
 
     /**
-     * Initiates the game flow. Checks for a saved game and prompts the user
-     * to continue or start a new game.
+     * Initiates the game flow. Checks for saved games and prompts the user
+     * to continue one of them or start a new game.
      *
      * @param event The action event triggered by the user.
      */
     @FXML
     public void onPlay(ActionEvent event) throws VistaNoCargadaException {
-        if (gameManager.existePartidaGuardada()) {
-            boolean continuar = mostrarDialogoContinuar();
-
-            if (continuar) {
-                try {
-                    cargarYContinuarPartida(event);
-                } catch (CargaPartidaException | IOException | ClassNotFoundException e) {
-                    mostrarError(e.getMessage());
-                    // If loading fails, start a new game as a fallback
-                    iniciarNuevaPartida(event);
-                }
+        List<ResumenPartida> partidas = listarPartidas();
+        if (!partidas.isEmpty()) {
+            Optional<ResumenPartida> elegida = mostrarDialogoContinuar(partidas);
+
+            if (elegida.isPresent()) {
+                cargarYContinuarPartida(elegida.get().ranura(), event);
                 return;
-            } else {
-                // User chose New Game, so delete the old save file
-                gameManager.eliminarPartidaGuardada();
             }
+            // New Game keeps the other saves; the player's own slot is replaced on the first save
         }
 
         iniciarNuevaPartida(event);
     }
 
+    /**
+     * Lists the saved games from the store's index, or none if it cannot be read.
+     */
+    private List<ResumenPartida> listarPartidas() {
+        try {
+            return gameManager.listarPartidas();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo leer el índice de partidas", e);
+            return List.of();
+        }
+    }
+
     /**
      * Displays a confirmation dialog asking the user whether they want to continue
-     * the saved game or start a new one.
+     * a saved game or start a new one. With several saves, the user picks one
+     * from a list. Saves are described from the store's index alone, so the
+     * dialog never waits for any board to be read.
      *
-     * @return {@code true} if the user selects 'Continuar', {@code false} otherwise.
+     * @param partidas Saved games, most recent first (never empty).
+     * @return The save to continue, or empty if the user selects 'Nueva Partida'.
      */
-    private boolean mostrarDialogoContinuar() {
+    private Optional<ResumenPartida> mostrarDialogoContinuar(List<ResumenPartida> partidas) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Partida guardada");
-        alert.setHeaderText("Se encontró una partida guardada");
-        alert.setContentText("¿Deseas continuar donde lo dejaste?");
+
+        ChoiceBox<ResumenPartida> selector = new ChoiceBox<>(FXCollections.observableArrayList(partidas));
+        selector.getSelectionModel().selectFirst();
+        if (partidas.size() == 1) {
+            alert.setHeaderText("Se encontró una partida guardada");
+            alert.setContentText(describir(partidas.get(0)) + "\n\n¿Deseas continuar donde lo dejaste?");
+        } else {
+            alert.setHeaderText("Se encontraron " + partidas.size() + " partidas guardadas");
+            selector.setConverter(new StringConverter<>() {
+                @Override
+                public String toString(ResumenPartida p) {
+                    return p == null ? "" : p.nickname() + " - turno " + p.turno()
+                            + " - " + FORMATO_FECHA.format(p.guardada());
+                }
+
+                @Override
+                public ResumenPartida fromString(String texto) {
+                    return null;
+                }
+            });
+            Label detalle = new Label();
+            detalle.textProperty().bind(Bindings.createStringBinding(
+                    () -> describir(selector.getValue()), selector.valueProperty()));
+            alert.getDialogPane().setContent(new VBox(10,
+                    new Label("¿Qué partida deseas continuar?"), selector, detalle));
+        }
 
         ButtonType btnContinuar = new ButtonType("Continuar");
         ButtonType btnNueva = new ButtonType("Nueva Partida");
@@ -116,23 +195,82 @@ public class HomeController {
         alert.getButtonTypes().setAll(btnContinuar, btnNueva);
 
         Optional<ButtonType> result = alert.showAndWait();
-        return result.orElse(btnNueva) == btnContinuar;
+        return result.orElse(btnNueva) == btnContinuar
+                ? Optional.ofNullable(selector.getValue())
+                : Optional.empty();
+    }
+
+    /**
+     * Summary lines of a saved game for the continue dialog.
+     */
+    private static String describir(ResumenPartida resumen) {
+        return String.format("Jugador: %s%\nTurno: %d%\nBarcos hundidos: %d (tú) - %d (máquina)%\nGuardada: %s",
+                resumen.nickname(), resumen.turno(), resumen.barcosHundidosJugador(),
+                resumen.barcosHundidosMaquina(), FORMATO_FECHA.format(resumen.guardada()));
     }
 
     /**
-     * Loads the saved game state, reconstructs the {@code Juego} model, and
-     * navigates to the {@code GameController}.
+     * Starts loading a slot in the background, unless it is already the one
+     * being loaded.
+     */
+    private void iniciarCarga(String ranura) {
+        if (cargaEspeculativa == null || !ranura.equals(ranuraEspeculativa)) {
+            ranuraEspeculativa = ranura;
+            cargaEspeculativa = CompletableFuture.supplyAsync(() -> reconstruirPartida(ranura));
+        }
+    }
+
+    /**
+     * Opens the {@code GameController} with a saved game once it has been
+     * loaded. The most recent save started loading in the background when
+     * this screen appeared, so it is usually done by now; otherwise the
+     * screen switches as soon as the load completes, with the Play button
+     * disabled meanwhile. If the save cannot be loaded, the error is shown
+     * and a new game starts instead.
      *
-     * @param event The action event to extract the current stage.
-     * @throws CargaPartidaException If the saved data cannot be loaded or is corrupted.
+     * @param ranura Slot of the chosen save.
+     * @param event  The action event to extract the current stage.
      */
-    private void cargarYContinuarPartida(ActionEvent event) throws CargaPartidaException, IOException, ClassNotFoundException {
-        PartidaGuardada partida = gameManager.cargarPartida();
+    private void cargarYContinuarPartida(String ranura, ActionEvent event) {
+        iniciarCarga(ranura);
+        Node source = (Node) event.getSource();
+        source.setDisable(true);
+
+        cargaEspeculativa.whenComplete((juego, error) -> Platform.runLater(() -> {
+            try {
+                if (error != null) {
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    mostrarError(causa.getMessage());
+                    // If loading fails, start a new game as a fallback
+                    iniciarNuevaPartida(event);
+                    return;
+                }
+                abrirGameView(juego, event);
+                LOG.log(Level.INFO, "Partida cargada, se abre la vista de juego");
+            } catch (VistaNoCargadaException e) {
+                // The failing view already told the user; stay on this screen
+                source.setDisable(false);
+            }
+        }));
+    }
 
-        if (partida == null) {
-            String msg = "No se pudo cargar la partida guardada. Iniciando nueva partida.";
-            mostrarError(msg);
-            throw new CargaPartidaException(msg);
+    /**
+     * Loads a saved game and reconstructs the {@code Juego} model.
+     * Runs off the FX thread: it only reads files and builds model objects.
+     *
+     * @param ranura Slot of the save.
+     * @return the recovered game
+     * @throws CompletionException wrapping a {@link CargaPartidaException} if the
+     *                             saved data cannot be loaded or is corrupted
+     */
+    private Juego reconstruirPartida(String ranura) {
+        PartidaGuardada partida;
+        try {
+            partida = gameManager.cargarPartida(ranura);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new CompletionException(new CargaPartidaException(
+                    "Error al cargar la partida: " + e.getMessage(), e));
         }
 
         try {
@@ -150,20 +288,14 @@ public class HomeController {
                     partida.flotaMaquina
             );
 
-            // Reconstruct the Game model
-            Juego juegoRecuperado = new Juego(jugadorRecuperado, maquinaRecuperada);
+            // Reconstruct the Game model (seed, history and turn come from the match record)
+            return new Juego(jugadorRecuperado, maquinaRecuperada, partida.registro);
 
-            abrirGameView(juegoRecuperado, event);
-
-            System.out.println("✅ Partida cargada correctamente - Saltando a GameView");
-
-        } catch (VistaNoCargadaException e) {
-            // Propagate the view loading error
-            throw new CargaPartidaException("Error al abrir la vista de juego después de cargar la partida.", e);
         } catch (Exception e) {
             // Catch any unexpected data errors during model reconstruction and wrap them
-            e.printStackTrace();
-            throw new CargaPartidaException("Error al cargar la partida: " + e.getMessage(), e);
+            LOG.log(Level.ERROR, "Error al reconstruir la partida " + ranura, e);
+            throw new CompletionException(new CargaPartidaException(
+                    "Error al cargar la partida: " + e.getMessage(), e));
         }
     }
 
@@ -174,9 +306,13 @@ public class HomeController {
      * @throws VistaNoCargadaException If the colocation FXML file cannot be loaded.
      */
     private void iniciarNuevaPartida(ActionEvent event) throws VistaNoCargadaException {
+        EventoCargaEscena evento = new EventoCargaEscena();
+        evento.begin();
+        evento.vista = "colocation-view.fxml";
         try {
             ColocationView colocationView = ColocationView.getInstance();
             colocationView.show();
+            evento.commit();
 
             Node source = (Node) event.getSource();
             Stage stage = (Stage) source.getScene().getWindow();
@@ -197,13 +333,14 @@ public class HomeController {
      * @throws VistaNoCargadaException If the game FXML file cannot be loaded.
      */
     private void abrirGameView(Juego juego, ActionEvent event) throws VistaNoCargadaException {
+        EventoCargaEscena evento = new EventoCargaEscena();
+        evento.begin();
+        evento.vista = "game-view.fxml";
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/proyect/batallanaval/game-view.fxml")
-            );
-            Parent root = loader.load();
+            GestorEscenas.VistaCargada vista = GestorEscenas.obtener(GestorEscenas.Vista.JUEGO);
+            Parent root = vista.getRaiz();
 
-            GameController gameController = loader.getController();
+            GameController gameController = vista.getControlador();
             gameController.setJuego(juego);
 
             Node source = (Node) event.getSource();
@@ -211,12 +348,12 @@ public class HomeController {
             Scene scene = new Scene(root);
             stage.setScene(scene);
             stage.show();
+            evento.commit();
 
-            System.out.println("Vista de juego cargada con partida guardada");
+            LOG.log(Level.DEBUG, "Vista de juego cargada con partida guardada");
 
         } catch (IOException ex) {
-            System.err.println("Error al cargar game-view.fxml:");
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "Error al cargar game-view.fxml", ex);
             mostrarError("Error al abrir la vista del juego");
             // Throwing custom checked exception for FXML loading failure
             throw new VistaNoCargadaException("Failed to load game-view.fxml.", ex);
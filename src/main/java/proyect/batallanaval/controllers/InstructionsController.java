@@ -3,9 +3,14 @@ package proyect.batallanaval.controllers;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.stage.Stage;
+import proyect.batallanaval.logging.Registros;
 import proyect.batallanaval.views.HomeView;
 
+import java.lang.System.Logger.Level;
+
 public class InstructionsController {
+    private static final System.Logger LOG = Registros.getLogger(InstructionsController.class);
+
     @FXML
     private void onBack(javafx.event.ActionEvent e) {
         try {
@@ -18,7 +23,7 @@ public class InstructionsController {
             current.close();
 
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "No se pudo volver al menú", ex);
         }
     }
 }
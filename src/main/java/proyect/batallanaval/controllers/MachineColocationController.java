@@ -15,10 +15,14 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import proyect.batallanaval.logging.Registros;
 import proyect.batallanaval.models.*;
+import proyect.batallanaval.views.EstiloCelda;
+import proyect.batallanaval.views.PerformanceOverlay;
 import proyect.batallanaval.views.ShipCellView;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
 import java.net.URL;
 import java.util.ResourceBundle;
 
@@ -37,6 +41,7 @@ import java.util.ResourceBundle;
  * </p>
  */
 public class MachineColocationController implements Initializable {
+    private static final System.Logger LOG = Registros.getLogger(MachineColocationController.class);
 
     @FXML
     private GridPane gridTableroMaquina;
@@ -47,6 +52,9 @@ public class MachineColocationController implements Initializable {
     /** Size (in pixels) of each cell */
     private static final int CELL_SIZE = Tablero.CELL_SIZE;
 
+    /** Grid cells indexed by {@code fila * Tablero.SIZE + col}, built with the grid. */
+    private StackPane[] celdasVista;
+
     private Juego juego;
     private Maquina maquina;
     private Tablero tablero;
@@ -66,6 +74,9 @@ public class MachineColocationController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Initialization logic is deferred to setJuego, where model dependencies are met.
+        new PerformanceOverlay()
+                .agregarTablero("Tablero", gridTableroMaquina)
+                .instalar(gridTableroMaquina);
     }
 
     /**
@@ -99,28 +110,25 @@ public class MachineColocationController implements Initializable {
             this.tablero = maquina.getTableroPosicion();
             this.flota = maquina.getFlota();
 
-            System.out.println("MC - juego: " + System.identityHashCode(juego));
-            System.out.println("MC - flota máquina size AFTER generate: " + flota.getBarcos().size());
-
             // 1. Ensure the machine's fleet is complete
             if (!flota.estaCompleta()) {
                 GeneradorFlotaAleatoria generador = new GeneradorFlotaAleatoria();
                 generador.generarFlotaAleatoria(flota, tablero);
-                System.out.println("Flota de la Máquina GENERADA aleatoriamente.");
+                LOG.log(Level.DEBUG, "Flota de la máquina generada aleatoriamente");
             } else {
-                System.out.println("Flota de la Máquina ya existía, usando flota previa.");
+                LOG.log(Level.DEBUG, "Flota de la máquina ya existía, se usa la previa");
             }
 
             // 2. Initialize and paint the view with the final model
             if (gridTableroMaquina != null) {
                 inicializarGrid();
                 pintarFlotaEnTablero();
-                System.out.println("Barcos en flota máquina: " + flota.getBarcos().size());
+                LOG.log(Level.DEBUG, "Barcos en flota máquina: {0}", flota.getBarcos().size());
             } else {
-                System.err.println("ERROR: gridTableroMaquina es null.");
+                LOG.log(Level.ERROR, "gridTableroMaquina es null");
             }
         } catch (NullPointerException e) {
-            System.err.println("ERROR: setJuego recibió un objeto nulo o la inicialización del juego falló: " + e.getMessage());
+            LOG.log(Level.ERROR, "setJuego recibió un objeto nulo o la inicialización del juego falló", e);
             // Re-throw the standard unchecked exception for caller to address the setup failure
             throw new NullPointerException("Juego o sus componentes (Maquina/Tablero/Flota) son nulos en setJuego.");
         }
@@ -138,11 +146,12 @@ public class MachineColocationController implements Initializable {
      */
     private void inicializarGrid() {
         if (gridTableroMaquina == null) {
-            System.err.println("Cannot initialize grid: gridTableroMaquina is null.");
+            LOG.log(Level.ERROR, "No se puede inicializar el grid: gridTableroMaquina es null");
             return;
         }
 
         gridTableroMaquina.getChildren().clear();
+        celdasVista = new StackPane[Tablero.SIZE * Tablero.SIZE];
         gridTableroMaquina.getColumnConstraints().clear();
         gridTableroMaquina.getRowConstraints().clear();
 
@@ -168,10 +177,11 @@ public class MachineColocationController implements Initializable {
                 cell.setMaxSize(CELL_SIZE, CELL_SIZE);
 
                 cell.setUserData(new int[]{fila, col});
-                cell.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #b0b0b0;");
+                EstiloCelda.inicializar(cell);
                 GridPane.setMargin(cell, new Insets(1));
 
                 gridTableroMaquina.add(cell, col, fila);
+                celdasVista[fila * Tablero.SIZE + col] = cell;
             }
         }
 
@@ -190,7 +200,7 @@ public class MachineColocationController implements Initializable {
      */
     private void pintarFlotaEnTablero() {
         if (flota == null) {
-            System.err.println("ERROR: Cannot paint fleet, Flota object is null.");
+            LOG.log(Level.ERROR, "No se puede pintar la flota: es null");
             // Re-throw the standard unchecked exception
             throw new NullPointerException("Flota object is null during rendering.");
         }
@@ -228,15 +238,9 @@ public class MachineColocationController implements Initializable {
      * @return the matching StackPane, or {@code null} if not found
      */
     private StackPane getCell(int fila, int col) {
-        if (gridTableroMaquina == null) return null;
-
-        for (Node node : gridTableroMaquina.getChildren()) {
-            Integer r = GridPane.getRowIndex(node);
-            Integer c = GridPane.getColumnIndex(node);
-            if (r != null && c != null && r == fila && c == col) {
-                return (StackPane) node;
-            }
+        if (celdasVista == null || fila < 0 || fila >= Tablero.SIZE || col < 0 || col >= Tablero.SIZE) {
+            return null;
         }
-        return null;
+        return celdasVista[fila * Tablero.SIZE + col];
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package proyect.batallanaval.controllers;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the latency players feel: the time from an input, or from the
+ * machine's decision, to the first pulse that shows its result.
+ * <p>
+ * A change is timed up to the end of the layout pass of the first pulse
+ * after it reached the scene graph ({@link Scene#addPostLayoutPulseListener}),
+ * the last point before rendering that JavaFX lets application code see.
+ * Each measure goes to a {@link Histograma} of {@link Metricas}, so its
+ * percentiles show up in JMX, the exit dump and the performance overlay.
+ * </p>
+ * All methods run on the FX thread except {@link #decisionMaquina(long)}.
+ */
+public class MedidorLatencia {
+
+    /** What is being timed, with the name of the histogram it is recorded in. */
+    public enum Medida {
+        /** Click on an enemy cell until the selection is painted. */
+        SELECCION("latencia.seleccion"),
+        /** Attack button until the result of the shot is painted. */
+        ATAQUE("latencia.ataque"),
+        /** Machine decision until its shot is painted on the player's board. */
+        MAQUINA("latencia.maquina");
+
+        private final String metrica;
+
+        Medida(String metrica) {
+            this.metrica = metrica;
+        }
+
+        public String getMetrica() {
+            return metrica;
+        }
+    }
+
+    private static final long SIN_MARCA = Long.MIN_VALUE;
+
+    private final Histograma[] histogramas = new Histograma[Medida.values().length];
+    private final long[] aplicados = new long[Medida.values().length]; // FX thread only
+    private final AtomicLong decisionPendiente = new AtomicLong(SIN_MARCA);
+    private final Runnable alPulso = this::alPulso;
+    private Scene escena;
+
+    public MedidorLatencia() {
+        for (Medida medida : Medida.values()) {
+            histogramas[medida.ordinal()] = Metricas.histograma(medida.getMetrica());
+            aplicados[medida.ordinal()] = SIN_MARCA;
+        }
+    }
+
+    /**
+     * Starts listening to the pulses of a scene. Measures applied before
+     * this call are recorded on its first pulse.
+     */
+    public void instalar(Scene escena) {
+        desinstalar();
+        this.escena = escena;
+        escena.addPostLayoutPulseListener(alPulso);
+    }
+
+    /** Stops listening to pulses; pending measures are discarded. */
+    public void desinstalar() {
+        if (escena != null) {
+            escena.removePostLayoutPulseListener(alPulso);
+            escena = null;
+        }
+    }
+
+    /**
+     * Records that the effect of an input started at {@code inicio}, a
+     * {@link System#nanoTime()} reading, is now in the scene graph. The
+     * measure ends with the next pulse. If an earlier input is still waiting
+     * for its pulse, that one is kept, being the longest wait.
+     */
+    public void aplicado(Medida medida, long inicio) {
+        int i = medida.ordinal();
+        if (aplicados[i] == SIN_MARCA) {
+            aplicados[i] = inicio;
+        }
+        // Make sure a pulse follows even if nothing looked different
+        Platform.requestNextPulse();
+    }
+
+    /**
+     * Records the moment the machine chose a target. Safe to call from any
+     * thread; when several decisions are waiting, the earliest is kept.
+     */
+    public void decisionMaquina(long instante) {
+        decisionPendiente.compareAndSet(SIN_MARCA, instante);
+    }
+
+    /**
+     * Takes the pending machine decision, to be passed to
+     * {@link #aplicado(Medida, long)} once its shot has been repainted.
+     * Must be called before draining the board changes: a decision taken
+     * here has its shot already made or about to be made under the game
+     * lock, so the drain that follows sees it.
+     *
+     * @return the decision time, or {@code Long.MIN_VALUE} if there is none
+     */
+    public long tomarDecisionMaquina() {
+        return decisionPendiente.getAndSet(SIN_MARCA);
+    }
+
+    /** Whether a value returned by {@link #tomarDecisionMaquina()} is a real decision. */
+    public static boolean hayMarca(long instante) {
+        return instante != SIN_MARCA;
+    }
+
+    private void alPulso() {
+        long ahora = System.nanoTime();
+        for (int i = 0; i < aplicados.length; i++) {
+            if (aplicados[i] != SIN_MARCA) {
+                histogramas[i].registrar(ahora - aplicados[i]);
+                aplicados[i] = SIN_MARCA;
+            }
+        }
+    }
+}
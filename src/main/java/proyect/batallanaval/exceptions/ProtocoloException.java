@@ -0,0 +1,14 @@
+package proyect.batallanaval.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Checked exception thrown when a network peer sends a frame that does not
+ * follow the game protocol: unknown message type, wrong length or values out
+ * of range. The connection it came from can no longer be trusted and is closed.
+ */
+public class ProtocoloException extends IOException {
+    public ProtocoloException(String message) {
+        super(message);
+    }
+}
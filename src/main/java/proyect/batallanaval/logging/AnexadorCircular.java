@@ -0,0 +1,97 @@
+package proyect.batallanaval.logging;
+
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking appender: log calls drop their message into a bounded ring
+ * buffer and a daemon thread writes it to the console.
+ * <p>
+ * When the buffer is full the oldest message is discarded, so a burst of
+ * logging never stalls the game; the number of lost messages is reported
+ * with the next batch written. {@code INFO} and below go to standard output,
+ * {@code WARNING} and above to standard error.
+ * </p>
+ */
+final class AnexadorCircular {
+
+    private static final int CAPACIDAD = 8192;
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private record Evento(System.Logger.Level nivel, String logger, String mensaje,
+                          Throwable error, LocalTime hora, String hilo) {
+    }
+
+    private final ArrayBlockingQueue<Evento> cola = new ArrayBlockingQueue<>(CAPACIDAD);
+    private final AtomicLong descartados = new AtomicLong();
+
+    AnexadorCircular() {
+        Thread escritor = new Thread(this::escribir, "batallanaval-log");
+        escritor.setDaemon(true);
+        escritor.start();
+
+        // Flush what is still buffered when the application exits normally
+        Runtime.getRuntime().addShutdownHook(new Thread(this::vaciar, "batallanaval-log-flush"));
+    }
+
+    /**
+     * Queues a message without blocking.
+     */
+    void anexar(System.Logger.Level nivel, String logger, String mensaje, Throwable error) {
+        Evento evento = new Evento(nivel, logger, mensaje, error,
+                LocalTime.now(), Thread.currentThread().getName());
+        while (!cola.offer(evento)) {
+            // Ring buffer semantics: make room by dropping the oldest message
+            if (cola.poll() != null) {
+                descartados.incrementAndGet();
+            }
+        }
+    }
+
+    private void escribir() {
+        List<Evento> lote = new ArrayList<>(256);
+        while (true) {
+            try {
+                Evento primero = cola.poll(1, TimeUnit.SECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, 255);
+                escribirLote(lote);
+                lote.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void vaciar() {
+        List<Evento> lote = new ArrayList<>();
+        cola.drainTo(lote);
+        escribirLote(lote);
+    }
+
+    private synchronized void escribirLote(List<Evento> lote) {
+        long perdidos = descartados.getAndSet(0);
+        if (perdidos > 0) {
+            System.err.println("[log] " + perdidos + " mensajes descartados por buffer lleno");
+        }
+        for (Evento evento : lote) {
+            PrintStream salida = evento.nivel().getSeverity() >= System.Logger.Level.WARNING.getSeverity()
+                    ? System.err
+                    : System.out;
+            salida.println(HORA.format(evento.hora()) + " " + evento.nivel() + " ["
+                    + evento.hilo() + "] " + evento.logger() + " - " + evento.mensaje());
+            if (evento.error() != null) {
+                evento.error().printStackTrace(salida);
+            }
+        }
+    }
+}
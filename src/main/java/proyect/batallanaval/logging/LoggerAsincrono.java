@@ -0,0 +1,58 @@
+package proyect.batallanaval.logging;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+/**
+ * {@link System.Logger} that filters by a fixed threshold and hands accepted
+ * messages to an {@link AnexadorCircular}, so the calling thread never waits
+ * for console I/O.
+ */
+final class LoggerAsincrono implements System.Logger {
+
+    private final String nombre;
+    private final Level nivel;
+    private final AnexadorCircular anexador;
+
+    LoggerAsincrono(String nombre, Level nivel, AnexadorCircular anexador) {
+        this.nombre = nombre;
+        this.nivel = nivel;
+        this.anexador = anexador;
+    }
+
+    @Override
+    public String getName() {
+        return nombre;
+    }
+
+    @Override
+    public boolean isLoggable(Level level) {
+        return level != Level.OFF && nivel != Level.OFF
+                && level.getSeverity() >= nivel.getSeverity();
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {
+        if (isLoggable(level)) {
+            anexador.anexar(level, nombre, traducir(bundle, msg), thrown);
+        }
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String format, Object... params) {
+        if (isLoggable(level)) {
+            String patron = traducir(bundle, format);
+            String mensaje = params == null || params.length == 0
+                    ? patron
+                    : MessageFormat.format(patron, params);
+            anexador.anexar(level, nombre, mensaje, null);
+        }
+    }
+
+    private static String traducir(ResourceBundle bundle, String clave) {
+        if (bundle != null && clave != null && bundle.containsKey(clave)) {
+            return bundle.getString(clave);
+        }
+        return clave;
+    }
+}
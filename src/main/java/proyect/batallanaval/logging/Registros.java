@@ -0,0 +1,57 @@
+package proyect.batallanaval.logging;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of the game's logging: hands out {@link System.Logger}
+ * instances that write through a shared asynchronous appender.
+ * <p>
+ * The threshold comes from the {@code batallanaval.log} system property
+ * ({@code ALL}, {@code TRACE}, {@code DEBUG}, {@code INFO}, {@code WARNING},
+ * {@code ERROR} or {@code OFF}). It defaults to {@code WARNING}, so
+ * diagnostic output is off unless asked for, while problems still show up.
+ * Messages below the threshold are never built when passed as a
+ * {@code Supplier} or as a format with parameters.
+ * </p>
+ * Usage:
+ * <pre>{@code
+ * private static final System.Logger LOG = Registros.getLogger(Tablero.class);
+ * LOG.log(Level.DEBUG, () -> "Disparo en (" + fila + ", " + col + ")");
+ * }</pre>
+ */
+public final class Registros {
+
+    private static final System.Logger.Level NIVEL = leerNivel();
+    private static final AnexadorCircular ANEXADOR = new AnexadorCircular();
+    private static final Map<String, System.Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    private Registros() {
+    }
+
+    /**
+     * Returns the logger for a class, named after its simple name.
+     */
+    public static System.Logger getLogger(Class<?> clase) {
+        return LOGGERS.computeIfAbsent(clase.getSimpleName(),
+                nombre -> new LoggerAsincrono(nombre, NIVEL, ANEXADOR));
+    }
+
+    /**
+     * Threshold below which messages are discarded.
+     */
+    public static System.Logger.Level getNivel() {
+        return NIVEL;
+    }
+
+    private static System.Logger.Level leerNivel() {
+        String valor = System.getProperty("batallanaval.log", "WARNING");
+        try {
+            return System.Logger.Level.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Nivel de log desconocido '" + valor + "', se usa WARNING");
+            return System.Logger.Level.WARNING;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package proyect.batallanaval.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter. Increments from many threads never contend on a
+ * single field, since the value is spread over a {@link LongAdder}.
+ */
+public final class Contador {
+
+    private final LongAdder valor = new LongAdder();
+
+    Contador() {
+    }
+
+    public void incrementar() {
+        valor.increment();
+    }
+
+    public void sumar(long cantidad) {
+        valor.add(cantidad);
+    }
+
+    public long getValor() {
+        return valor.sum();
+    }
+}
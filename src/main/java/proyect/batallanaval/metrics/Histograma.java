@@ -0,0 +1,98 @@
+package proyect.batallanaval.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets.
+ * <p>
+ * A value {@code v} falls in bucket {@code 64 - numberOfLeadingZeros(v)}, so
+ * bucket {@code i} holds the values in {@code [2^(i-1), 2^i)}. Recording is
+ * one bit count plus a few {@link LongAdder} increments, cheap enough for the
+ * per-shot paths. Percentiles are reported as the upper bound of the bucket
+ * that contains them, capped by the largest value seen, which keeps them
+ * within a factor of two of the real value.
+ * </p>
+ * Values are nanoseconds unless the metric name says otherwise.
+ */
+public final class Histograma {
+
+    private static final int CUBETAS = Long.SIZE + 1;
+
+    private final LongAdder[] cubetas = new LongAdder[CUBETAS];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    Histograma() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one value; negative values count as zero.
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        cubetas[Long.SIZE - Long.numberOfLeadingZeros(v)].increment();
+        total.increment();
+        suma.add(v);
+        maximo.accumulate(v);
+    }
+
+    /**
+     * Records the time elapsed since {@code inicio}, a {@link System#nanoTime()} reading.
+     */
+    public void registrarDesde(long inicio) {
+        registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Takes a consistent-enough copy of the histogram. Values recorded while
+     * the copy is taken may or may not be included.
+     */
+    public Instantanea instantanea() {
+        long[] conteos = new long[CUBETAS];
+        long n = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = cubetas[i].sum();
+            n += conteos[i];
+        }
+        long max = maximo.get();
+        return new Instantanea(n, suma.sum(), max,
+                percentil(conteos, n, 0.50, max),
+                percentil(conteos, n, 0.90, max),
+                percentil(conteos, n, 0.99, max));
+    }
+
+    private static long percentil(long[] conteos, long n, double p, long max) {
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(p * n);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo) {
+                long limite = i == 0 ? 0 : i >= Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(limite, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Summary of a histogram at one point in time.
+     *
+     * @param total  number of recorded values
+     * @param suma   sum of the recorded values
+     * @param maximo largest recorded value
+     */
+    public record Instantanea(long total, long suma, long maximo, long p50, long p90, long p99) {
+
+        public double media() {
+            return total == 0 ? 0 : (double) suma / total;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package proyect.batallanaval.metrics;
+
+import proyect.batallanaval.logging.Registros;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms.
+ * <p>
+ * Metrics are created on first use and live for the whole run, so callers
+ * keep them in static fields:
+ * </p>
+ * <pre>{@code
+ * private static final Histograma T_GUARDAR = Metricas.histograma("partida.guardar");
+ * long inicio = System.nanoTime();
+ * ...
+ * T_GUARDAR.registrarDesde(inicio);
+ * }</pre>
+ * Every metric is published as an attribute of the JMX bean
+ * {@value #NOMBRE_JMX}. When the {@code batallanaval.metricas} system
+ * property names a file, a text dump of all metrics is written to it when
+ * the application exits.
+ */
+public final class Metricas {
+
+    /** Object name of the JMX bean exposing the registry. */
+    public static final String NOMBRE_JMX = "proyect.batallanaval:type=Metricas";
+
+    private static final System.Logger LOG = Registros.getLogger(Metricas.class);
+
+    private static final Map<String, Contador> CONTADORES = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> INDICADORES = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histograma> HISTOGRAMAS = new ConcurrentSkipListMap<>();
+
+    static {
+        registrarJmx();
+        String archivo = System.getProperty("batallanaval.metricas");
+        if (archivo != null && !archivo.isBlank()) {
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> volcarSinError(Path.of(archivo)), "batallanaval-metricas"));
+        }
+    }
+
+    private Metricas() {
+    }
+
+    /** Returns the counter with the given name, creating it if needed. */
+    public static Contador contador(String nombre) {
+        return CONTADORES.computeIfAbsent(nombre, n -> new Contador());
+    }
+
+    /** Returns the histogram with the given name, creating it if needed. */
+    public static Histograma histograma(String nombre) {
+        return HISTOGRAMAS.computeIfAbsent(nombre, n -> new Histograma());
+    }
+
+    /**
+     * Registers a gauge, a value read on demand. Registering a name again
+     * replaces the previous source, so a new game can take over its gauges.
+     */
+    public static void indicador(String nombre, LongSupplier fuente) {
+        INDICADORES.put(nombre, fuente);
+    }
+
+    static Map<String, Contador> contadores() {
+        return CONTADORES;
+    }
+
+    static Map<String, LongSupplier> indicadores() {
+        return INDICADORES;
+    }
+
+    static Map<String, Histograma> histogramas() {
+        return HISTOGRAMAS;
+    }
+
+    /**
+     * Reads a gauge, reporting failures of its source as {@code -1}.
+     */
+    static long leerIndicador(LongSupplier fuente) {
+        try {
+            return fuente.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Formats every metric as text, one per line, in name order.
+     * Histogram values are shown in microseconds.
+     */
+    public static String resumen() {
+        StringWriter texto = new StringWriter();
+        PrintWriter salida = new PrintWriter(texto);
+        salida.println("# Métricas de Batalla Naval - " + LocalDateTime.now());
+        CONTADORES.forEach((nombre, c) -> salida.println(nombre + " = " + c.getValor()));
+        INDICADORES.forEach((nombre, f) -> salida.println(nombre + " = " + leerIndicador(f)));
+        HISTOGRAMAS.forEach((nombre, h) -> {
+            Histograma.Instantanea i = h.instantanea();
+            salida.printf("%s n=%d media=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus%n",
+                    nombre, i.total(), i.media() / 1e3, i.p50() / 1e3, i.p90() / 1e3,
+                    i.p99() / 1e3, i.maximo() / 1e3);
+        });
+        salida.flush();
+        return texto.toString();
+    }
+
+    /**
+     * Writes {@link #resumen()} to a file, replacing it.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public static void volcar(Path archivo) throws IOException {
+        Files.writeString(archivo, resumen(), StandardCharsets.UTF_8);
+    }
+
+    private static void volcarSinError(Path archivo) {
+        try {
+            volcar(archivo);
+        } catch (IOException e) {
+            LOG.log(Level.ERROR, "No se pudieron volcar las métricas en " + archivo, e);
+        }
+    }
+
+    private static void registrarJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new MetricasJmx(), new ObjectName(NOMBRE_JMX));
+        } catch (JMException | RuntimeException e) {
+            // Metrics keep working without JMX, e.g. if the bean is already registered
+            LOG.log(Level.WARNING, "No se pudo publicar las métricas por JMX", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package proyect.batallanaval.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Read-only JMX view of {@link Metricas}.
+ * <p>
+ * Metrics appear as they are created, so the bean is dynamic rather than a
+ * fixed interface: each counter and gauge is a {@code long} attribute named
+ * after it, and each histogram contributes {@code <name>.count},
+ * {@code .p50}, {@code .p90}, {@code .p99} and {@code .max}, in nanoseconds.
+ * The {@code resumen} operation returns the same text as the exit dump.
+ * </p>
+ */
+final class MetricasJmx implements DynamicMBean {
+
+    private static final String[] CAMPOS = {"count", "p50", "p90", "p99", "max"};
+
+    @Override
+    public Object getAttribute(String nombre) throws AttributeNotFoundException {
+        Contador contador = Metricas.contadores().get(nombre);
+        if (contador != null) {
+            return contador.getValor();
+        }
+        LongSupplier indicador = Metricas.indicadores().get(nombre);
+        if (indicador != null) {
+            return Metricas.leerIndicador(indicador);
+        }
+
+        int punto = nombre.lastIndexOf('.');
+        Histograma histograma = punto < 0 ? null : Metricas.histogramas().get(nombre.substring(0, punto));
+        if (histograma != null) {
+            Histograma.Instantanea i = histograma.instantanea();
+            switch (nombre.substring(punto + 1)) {
+                case "count": return i.total();
+                case "p50": return i.p50();
+                case "p90": return i.p90();
+                case "p99": return i.p99();
+                case "max": return i.maximo();
+                default: break;
+            }
+        }
+        throw new AttributeNotFoundException(nombre);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] nombres) {
+        AttributeList lista = new AttributeList();
+        for (String nombre : nombres) {
+            try {
+                lista.add(new Attribute(nombre, getAttribute(nombre)));
+            } catch (AttributeNotFoundException e) {
+                // Skipped, as the DynamicMBean contract allows
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Las métricas son de solo lectura: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String accion, Object[] params, String[] firma) throws ReflectionException {
+        if ("resumen".equals(accion)) {
+            return Metricas.resumen();
+        }
+        throw new ReflectionException(new NoSuchMethodException(accion));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> atributos = new ArrayList<>();
+        Metricas.contadores().keySet().forEach(n -> atributos.add(atributo(n, "Contador")));
+        Metricas.indicadores().keySet().forEach(n -> atributos.add(atributo(n, "Indicador")));
+        Metricas.histogramas().keySet().forEach(n -> {
+            for (String campo : CAMPOS) {
+                atributos.add(atributo(n + "." + campo, "Histograma (ns)"));
+            }
+        });
+
+        MBeanOperationInfo resumen = new MBeanOperationInfo("resumen",
+                "Todas las métricas como texto", new MBeanParameterInfo[0],
+                String.class.getName(), MBeanOperationInfo.INFO);
+
+        return new MBeanInfo(getClass().getName(), "Métricas de Batalla Naval",
+                atributos.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[]{resumen}, null);
+    }
+
+    private static MBeanAttributeInfo atributo(String nombre, String descripcion) {
+        return new MBeanAttributeInfo(nombre, long.class.getName(), descripcion, true, false, false);
+    }
+}
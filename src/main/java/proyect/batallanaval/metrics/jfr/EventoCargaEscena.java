@@ -0,0 +1,20 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading an FXML view and handing it its game, up to showing it.
+ */
+@Name("batallanaval.CargaEscena")
+@Label("Carga de escena")
+@Category({"Batalla Naval", "Interfaz"})
+@Description("Carga de una vista FXML y su controlador")
+public class EventoCargaEscena extends Event {
+
+    @Label("Vista")
+    public String vista;
+}
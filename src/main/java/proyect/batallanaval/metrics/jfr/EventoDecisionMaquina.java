@@ -0,0 +1,35 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The machine choosing its next target: every call to the attack strategy
+ * until it returns a cell that was not attacked yet.
+ */
+@Name("batallanaval.DecisionMaquina")
+@Label("Decisión de la máquina")
+@Category({"Batalla Naval", "Máquina"})
+@Description("Selección del siguiente disparo de la máquina")
+public class EventoDecisionMaquina extends Event {
+
+    @Label("Estrategia")
+    public String estrategia;
+
+    @Label("Candidatos considerados")
+    @Description("Celdas propuestas por la estrategia, repetidas incluidas")
+    public int candidatos;
+
+    @Label("Celda de emergencia")
+    @Description("La estrategia no encontró celda y se tomó la primera libre")
+    public boolean emergencia;
+
+    @Label("Fila")
+    public int fila;
+
+    @Label("Columna")
+    public int columna;
+}
@@ -0,0 +1,29 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Resolution of one shot on a board, including the turn change.
+ */
+@Name("batallanaval.Disparo")
+@Label("Disparo")
+@Category({"Batalla Naval", "Partida"})
+@Description("Resolución de un disparo sobre un tablero")
+public class EventoDisparo extends Event {
+
+    @Label("Del jugador")
+    public boolean delJugador;
+
+    @Label("Fila")
+    public int fila;
+
+    @Label("Columna")
+    public int columna;
+
+    @Label("Resultado")
+    public String resultado;
+}
@@ -0,0 +1,28 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Automatic save of the game state to disk.
+ */
+@Name("batallanaval.Guardado")
+@Label("Guardado de partida")
+@Category({"Batalla Naval", "Persistencia"})
+@Description("Escritura de los archivos de la partida")
+public class EventoGuardado extends Event {
+
+    @Label("Bytes escritos")
+    @DataAmount
+    public long bytes;
+
+    @Label("Archivos")
+    public int archivos;
+
+    @Label("Correcto")
+    public boolean correcto;
+}
@@ -0,0 +1,27 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Building a board view from scratch, as opposed to the per-shot repaint of
+ * the changed cells.
+ */
+@Name("batallanaval.RefrescoTablero")
+@Label("Refresco completo de tablero")
+@Category({"Batalla Naval", "Interfaz"})
+@Description("Construcción completa de la vista de un tablero")
+public class EventoRefrescoTablero extends Event {
+
+    @Label("Tablero del jugador")
+    public boolean tableroJugador;
+
+    @Label("Celdas")
+    public int celdas;
+
+    @Label("Canvas")
+    public boolean canvas;
+}
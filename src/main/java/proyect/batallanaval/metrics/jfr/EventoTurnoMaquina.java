@@ -0,0 +1,31 @@
+package proyect.batallanaval.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One machine turn as seen by {@code MaquinaThread}, from waiting for the
+ * game lock to handing the change to the UI. The simulated thinking delay
+ * before it is reported separately so it is not mistaken for a stall.
+ */
+@Name("batallanaval.TurnoMaquina")
+@Label("Turno de la máquina")
+@Category({"Batalla Naval", "Máquina"})
+@Description("Disparo de la máquina, desde la espera del bloqueo hasta el aviso a la interfaz")
+public class EventoTurnoMaquina extends Event {
+
+    @Label("Pausa simulada")
+    @Timespan(Timespan.MILLISECONDS)
+    public long pausa;
+
+    @Label("Espera del bloqueo")
+    @Timespan(Timespan.NANOSECONDS)
+    public long esperaBloqueo;
+
+    @Label("Resultado")
+    public String resultado;
+}
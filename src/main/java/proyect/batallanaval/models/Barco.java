@@ -1,22 +1,28 @@
 package proyect.batallanaval.models;
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A ship, described by its geometry: type, orientation and origin cell (top
+ * or left end). Its cells are not stored but looked up on the board it is
+ * placed on, so a saved ship is just those four values and needs no fix-up
+ * after loading; see {@code Tablero}'s serialized form.
+ */
 public class Barco implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     private final TipoBarco tipo;
     private Orientacion orientacion;
+    private int filaOrigen = -1;    // -1 while the ship is not on a board
+    private int columnaOrigen = -1;
 
-    private transient List<Celda> celdas;
+    // Board the ship is placed on; set again by the board when it is loaded
+    private transient Tablero tablero;
 
     public Barco(TipoBarco tipo, Orientacion orientacion) {
         this.tipo = tipo;
         this.orientacion = orientacion;
-        this.celdas = new ArrayList<>();
     }
 
     public TipoBarco getTipo() { return tipo; }
@@ -25,32 +31,115 @@ public class Barco implements Serializable {
 
     public Orientacion getOrientacion() { return orientacion; }
 
-    public void setOrientacion(Orientacion orientacion) { this.orientacion = orientacion; }
+    /**
+     * Turns a ship that is not on a board yet. A placed ship's cells follow
+     * from its orientation, so it is moved through the board instead.
+     *
+     * @throws IllegalStateException if the ship is placed on a board
+     */
+    public void setOrientacion(Orientacion orientacion) {
+        if (tablero != null) {
+            throw new IllegalStateException("El barco " + tipo + " ya está colocado; no se puede girar.");
+        }
+        this.orientacion = orientacion;
+    }
+
+    /**
+     * Cells covered by the ship, from its origin onwards, looked up on its
+     * board. Empty if the ship is not placed.
+     *
+     * @return a new list on every call; changing it does not move the ship
+     */
+    public List<Celda> getCeldas() {
+        if (tablero == null) {
+            return List.of();
+        }
+        List<Celda> celdas = new ArrayList<>(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            celdas.add(tablero.getCelda(filaDe(i), columnaDe(i)));
+        }
+        return celdas;
+    }
 
-    public List<Celda> getCeldas() { return celdas; }
+    public boolean estaColocado() { return tablero != null; }
 
-    public void agregarCelda(Celda celda) {
-        if (celdas == null) {
-            celdas = new ArrayList<>();
+    /**
+     * Row of the ship's origin cell (its first cell, top or left end).
+     *
+     * @throws IllegalStateException if the ship is not placed on a board
+     */
+    public int getFilaOrigen() {
+        comprobarColocado();
+        return filaOrigen;
+    }
+
+    /**
+     * Column of the ship's origin cell (its first cell, top or left end).
+     *
+     * @throws IllegalStateException if the ship is not placed on a board
+     */
+    public int getColumnaOrigen() {
+        comprobarColocado();
+        return columnaOrigen;
+    }
+
+    private void comprobarColocado() {
+        if (tablero == null) {
+            throw new IllegalStateException("El barco " + tipo + " no está colocado en el tablero.");
         }
-        celdas.add(celda);
+    }
+
+    /** Row of the ship's i-th cell, counted from the origin. */
+    int filaDe(int i) {
+        return orientacion == Orientacion.HORIZONTAL ? filaOrigen : filaOrigen + i;
+    }
+
+    /** Column of the ship's i-th cell, counted from the origin. */
+    int columnaDe(int i) {
+        return orientacion == Orientacion.HORIZONTAL ? columnaOrigen + i : columnaOrigen;
+    }
+
+    /**
+     * Records where the ship lies. Only the board calls this, while it marks
+     * the covered cells.
+     */
+    void colocar(Tablero tablero, int fila, int columna, Orientacion orientacion) {
+        this.tablero = tablero;
+        this.filaOrigen = fila;
+        this.columnaOrigen = columna;
+        this.orientacion = orientacion;
+    }
+
+    /** Forgets the ship's position after the board has cleared its cells. */
+    void retirar() {
+        tablero = null;
+        filaOrigen = -1;
+        columnaOrigen = -1;
+    }
+
+    /**
+     * Attaches a loaded ship to the board it was saved on, keeping its
+     * saved position.
+     *
+     * @throws IllegalStateException if the ship was saved without a position
+     */
+    void vincular(Tablero tablero) {
+        if (filaOrigen < 0 || columnaOrigen < 0) {
+            throw new IllegalStateException("El barco " + tipo + " se guardó sin posición.");
+        }
+        this.tablero = tablero;
     }
 
     public boolean estaHundido() {
-        if (celdas == null || celdas.isEmpty()) return false;
+        if (tablero == null) return false;
 
-        for (Celda celda : celdas) {
-            if (celda.getEstado() != EstadoCelda.TOCADA &&
-                    celda.getEstado() != EstadoCelda.HUNDIDA) {
+        for (int i = 0; i < getSize(); i++) {
+            EstadoCelda estado = tablero.getEstado(filaDe(i), columnaDe(i));
+            if (estado != EstadoCelda.TOCADA &&
+                    estado != EstadoCelda.HUNDIDA) {
                 return false;
             }
         }
         return true;
     }
-
-    private void readObject(ObjectInputStream in)
-            throws IOException, ClassNotFoundException {
-        in.defaultReadObject(); // Lee los campos normales
-        this.celdas = new ArrayList<>(); // Reinicializa la lista transient
-    }
 }
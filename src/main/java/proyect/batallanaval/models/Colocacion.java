@@ -0,0 +1,50 @@
+package proyect.batallanaval.models;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Position of a single ship on a board: its type, origin cell (top or left
+ * end) and orientation. A list of these fully describes a fleet layout
+ * without any board or cell objects.
+ */
+public record Colocacion(TipoBarco tipo, int fila, int columna, Orientacion orientacion)
+        implements Serializable {
+
+    /**
+     * Describes where a placed ship currently is.
+     *
+     * @throws IllegalStateException if the ship has no cells
+     */
+    public static Colocacion de(Barco barco) {
+        return new Colocacion(barco.getTipo(), barco.getFilaOrigen(),
+                barco.getColumnaOrigen(), barco.getOrientacion());
+    }
+
+    /**
+     * Describes the layout of every ship in a fleet, in fleet order.
+     */
+    public static List<Colocacion> de(Flota flota) {
+        List<Colocacion> colocaciones = new ArrayList<>(flota.getBarcos().size());
+        for (Barco barco : flota.getBarcos()) {
+            colocaciones.add(de(barco));
+        }
+        return colocaciones;
+    }
+
+    /**
+     * Places every ship of the layout on the board and adds it to the fleet.
+     *
+     * @throws IllegalArgumentException if some ship does not fit on the board,
+     *                                  in which case the ships placed so far remain
+     */
+    public static void aplicar(List<Colocacion> colocaciones, Flota flota, Tablero tablero) {
+        for (Colocacion c : colocaciones) {
+            if (!tablero.puedeColocarBarco(c.fila(), c.columna(), c.orientacion(), c.tipo())) {
+                throw new IllegalArgumentException("Colocación inválida: " + c);
+            }
+            flota.agregarBarco(tablero.colocarBarco(c.fila(), c.columna(), c.orientacion(), c.tipo()));
+        }
+    }
+}
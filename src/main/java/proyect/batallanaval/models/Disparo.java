@@ -0,0 +1,15 @@
+package proyect.batallanaval.models;
+
+import java.io.Serializable;
+
+/**
+ * A single shot of a game, as kept in the game history.
+ *
+ * @param delJugador {@code true} if the human player fired it, {@code false} for the machine
+ * @param fila       target row
+ * @param columna    target column
+ * @param resultado  outcome of the shot
+ */
+public record Disparo(boolean delJugador, int fila, int columna, ResultadoDisparo resultado)
+        implements Serializable {
+}
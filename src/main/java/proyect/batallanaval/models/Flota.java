@@ -1,12 +1,16 @@
 package proyect.batallanaval.models;
 
+import proyect.batallanaval.logging.Registros;
+
 import java.io.Serializable;
+import java.lang.System.Logger.Level;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Flota implements Serializable{
 
     private static final long serialVersionUID = 1L;
+    private static final System.Logger LOG = Registros.getLogger(Flota.class);
 
     private final List<Barco> barcos;
 
@@ -35,14 +39,14 @@ public class Flota implements Serializable{
      */
     public boolean estaFlotaHundida() {
         if (barcos == null || barcos.isEmpty()) {
-            System.out.println("WARNING: Verificando flota vacía - retornando false");
+            LOG.log(Level.WARNING, "Verificando flota vacía - retornando false");
             return false;
         }
 
         // Verificar si TODOS los barcos están hundidos
         boolean todosHundidos = barcos.stream().allMatch(Barco::estaHundido);
 
-        System.out.println("Flota: " + barcos.size() + " barcos, todos hundidos: " + todosHundidos);
+        LOG.log(Level.DEBUG, () -> "Flota: " + barcos.size() + " barcos, todos hundidos: " + todosHundidos);
 
         return todosHundidos;
     }
@@ -1,6 +1,12 @@
 package proyect.batallanaval.models;
 
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Class responsible for generating a complete fleet of ships and
@@ -12,7 +18,30 @@ import java.util.Random;
  */
 public class GeneradorFlotaAleatoria {
 
-    private final Random random = new Random();
+    /** Times the whole fleet is laid out again when a ship no longer fits. */
+    private static final int MAX_REINICIOS = 100;
+
+    private static final Histograma T_GENERAR = Metricas.histograma("flota.generar");
+    private static final Contador REINICIOS = Metricas.contador("flota.reinicios");
+
+    private final RandomGenerator random;
+
+    /**
+     * Creates a generator with its own unseeded source of randomness.
+     */
+    public GeneradorFlotaAleatoria() {
+        this(new Random());
+    }
+
+    /**
+     * Creates a generator that draws every choice from the given source, so the
+     * same source state always yields the same fleet.
+     *
+     * @param random source of randomness, for instance {@link SemillaPartida#flujoFlota()}
+     */
+    public GeneradorFlotaAleatoria(RandomGenerator random) {
+        this.random = random;
+    }
 
     /**
      * Generates and places an entire fleet on the specified board.
@@ -25,20 +54,44 @@ public class GeneradorFlotaAleatoria {
      *     <li>4 Frigates (size 1)</li>
      * </ul>
      * The method ensures that all ships are placed in valid, non-overlapping
-     * positions.
+     * positions, honouring the board's no-touch rule when it is enabled. If an
+     * early choice leaves no room for a later ship, the fleet is removed and
+     * laid out again.
      * </p>
      *
      * @param flota   the fleet object that will store the newly placed ships
      * @param tablero the board where the ships will be placed
-     * @throws IllegalStateException if ships cannot be placed after a large
-     *                               number of attempts
+     * @throws IllegalStateException if the fleet cannot be placed after
+     *                               {@value #MAX_REINICIOS} restarts
      */
     public void generarFlotaAleatoria(Flota flota, Tablero tablero) {
+        long inicio = System.nanoTime();
+        try {
+            colocarFlota(flota, tablero);
+        } finally {
+            T_GENERAR.registrarDesde(inicio);
+        }
+    }
 
-        colocarTipo(flota, tablero, TipoBarco.PORTAAVIONES, 1);
-        colocarTipo(flota, tablero, TipoBarco.SUBMARINO, 2);
-        colocarTipo(flota, tablero, TipoBarco.DESTRUCTOR, 3);
-        colocarTipo(flota, tablero, TipoBarco.FRAGATA, 4);
+    private void colocarFlota(Flota flota, Tablero tablero) {
+        for (int reinicio = 0; reinicio < MAX_REINICIOS; reinicio++) {
+            int barcosPrevios = flota.getBarcos().size();
+
+            boolean completa = colocarTipo(flota, tablero, TipoBarco.PORTAAVIONES, 1)
+                    && colocarTipo(flota, tablero, TipoBarco.SUBMARINO, 2)
+                    && colocarTipo(flota, tablero, TipoBarco.DESTRUCTOR, 3)
+                    && colocarTipo(flota, tablero, TipoBarco.FRAGATA, 4);
+            if (completa) {
+                return;
+            }
+
+            // Dead end: undo this attempt and start over
+            List<Barco> colocados = flota.getBarcos().subList(barcosPrevios, flota.getBarcos().size());
+            colocados.forEach(tablero::retirarBarco);
+            colocados.clear();
+            REINICIOS.incrementar();
+        }
+        throw new IllegalStateException("No se pudo colocar la flota de forma aleatoria");
     }
 
     /**
@@ -53,9 +106,9 @@ public class GeneradorFlotaAleatoria {
      * @param tablero   the board where the ship will be placed
      * @param tipo      the type of ship to place
      * @param cantidad  number of ships of this type to place
-     * @throws IllegalStateException if a ship cannot be placed after 1000 attempts
+     * @return {@code false} if a ship could not be placed after 1000 attempts
      */
-    private void colocarTipo(Flota flota, Tablero tablero, TipoBarco tipo, int cantidad) {
+    private boolean colocarTipo(Flota flota, Tablero tablero, TipoBarco tipo, int cantidad) {
 
         for (int n = 0; n < cantidad; n++) {
             boolean colocado = false;
@@ -66,12 +119,12 @@ public class GeneradorFlotaAleatoria {
                         random.nextBoolean() ? Orientacion.HORIZONTAL : Orientacion.VERTICAL;
 
                 int maxFila = orientacion == Orientacion.HORIZONTAL
-                        ? Tablero.SIZE
-                        : Tablero.SIZE - tipo.getSize() + 1;
+                        ? tablero.getSize()
+                        : tablero.getSize() - tipo.getSize() + 1;
 
                 int maxCol = orientacion == Orientacion.HORIZONTAL
-                        ? Tablero.SIZE - tipo.getSize() + 1
-                        : Tablero.SIZE;
+                        ? tablero.getSize() - tipo.getSize() + 1
+                        : tablero.getSize();
 
                 int fila = random.nextInt(maxFila);
                 int col  = random.nextInt(maxCol);
@@ -83,10 +136,10 @@ public class GeneradorFlotaAleatoria {
                 }
 
                 if (++intentos > 1000) {
-                    throw new IllegalStateException(
-                            "No se pudo colocar el barco tipo " + tipo + " de forma aleatoria");
+                    return false;
                 }
             }
         }
+        return true;
     }
 }
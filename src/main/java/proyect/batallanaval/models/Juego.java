@@ -1,5 +1,19 @@
 package proyect.batallanaval.models;
 
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+import proyect.batallanaval.metrics.jfr.EventoDecisionMaquina;
+import proyect.batallanaval.metrics.jfr.EventoDisparo;
+import proyect.batallanaval.models.strategy.EstrategiaAtaque;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * The class {@code Juego} initializes and keeps the references of the two types of
  * participants on the game: player (human) and machine. It also facilitates the access
@@ -7,32 +21,104 @@ package proyect.batallanaval.models;
  */
 public class Juego {
 
+    private static final System.Logger LOG = Registros.getLogger(Juego.class);
+
+    private static final Histograma T_SELECCION_IA = Metricas.histograma("ia.seleccionarAtaque");
+    private static final Contador IA_REPETIDAS = Metricas.contador("ia.seleccionesRepetidas");
+    private static final Contador IA_EMERGENCIA = Metricas.contador("ia.celdaEmergencia");
+
     private final Jugador jugador;
     private final Maquina maquina;
     private boolean esTurnoJugador;
+    private boolean partidaIniciada;
+
+    private final SemillaPartida semilla;
+    private final boolean reglaSinContacto;
+    private final List<Disparo> historial = new ArrayList<>();
+    private List<Colocacion> flotaInicialJugador;
+    private List<Colocacion> flotaInicialMaquina;
+
+    // Machine choices are drawn from a stream re-keyed before every machine
+    // shot, so they only depend on the seed and on how many shots it fired
+    private int disparosMaquina;
+    private SplittableRandom flujoIA;
+    private final RandomGenerator generadorIA = () -> flujoIA.nextLong();
 
     /**
      * Creates a new instance of the game, initializing the human player with
      * the specified nickname and the machine with a fixed name.
+     * <p>
+     * The no-touch placement rule is off unless the
+     * {@code batallanaval.sinContacto} system property is set to {@code true}.
+     * </p>
      *
      * @param nicknameJugador name that will identify the human player
      * @throws IllegalArgumentException if the nickname is null or empty
      */
     public Juego(String nicknameJugador) {
+        this(nicknameJugador, Boolean.getBoolean("batallanaval.sinContacto"));
+    }
+
+    /**
+     * Creates a new game choosing whether ships are allowed to touch each other.
+     * <p>
+     * The seed is taken from the {@code batallanaval.semilla} system property
+     * when present, so that benchmark runs can replay the same game; otherwise
+     * a random one is used.
+     * </p>
+     *
+     * @param nicknameJugador  name that will identify the human player
+     * @param reglaSinContacto {@code true} to forbid adjacent ships (diagonals included)
+     * @throws IllegalArgumentException if the nickname is null or empty
+     */
+    public Juego(String nicknameJugador, boolean reglaSinContacto) {
+        this(nicknameJugador, reglaSinContacto, semillaPorDefecto());
+    }
+
+    /**
+     * Creates a new game whose machine fleet, machine choices and thinking
+     * delays all derive from the given seed.
+     *
+     * @param nicknameJugador  name that will identify the human player
+     * @param reglaSinContacto {@code true} to forbid adjacent ships (diagonals included)
+     * @param semilla          seed of the game
+     * @throws IllegalArgumentException if the nickname is null or empty
+     */
+    public Juego(String nicknameJugador, boolean reglaSinContacto, SemillaPartida semilla) {
         this.jugador = new Jugador(nicknameJugador);
         this.maquina = new Maquina("CPU");
         this.esTurnoJugador = true; // El jugador siempre empieza
+        this.semilla = semilla;
+        this.reglaSinContacto = reglaSinContacto;
+        this.flujoIA = semilla.flujoIA(0);
+
+        jugador.getTableroPosicion().setReglaSinContacto(reglaSinContacto);
+        maquina.getTableroPosicion().setReglaSinContacto(reglaSinContacto);
 
-        GeneradorFlotaAleatoria generador = new GeneradorFlotaAleatoria();
+        GeneradorFlotaAleatoria generador = new GeneradorFlotaAleatoria(semilla.flujoFlota());
         generador.generarFlotaAleatoria(
                 maquina.getFlota(),
                 maquina.getTableroPosicion()
         );
-        System.out.println("Flota de la máquina generada desde Juego. Barcos: "
-                + maquina.getFlota().getBarcos().size());
+        LOG.log(Level.INFO, "Flota de la máquina generada desde Juego. Barcos: {0} (semilla {1})",
+                maquina.getFlota().getBarcos().size(), semilla);
     }
 
     public Juego(Jugador jugador, Maquina maquina) {
+        this(jugador, maquina, null);
+    }
+
+    /**
+     * Rebuilds a game from saved participants and, when available, its match
+     * record. The record restores the seed, the shot history and whose turn it
+     * is; saves without one get a fresh seed and the player to move.
+     *
+     * @param jugador  the recovered human player
+     * @param maquina  the recovered machine
+     * @param registro the saved match record, or {@code null} for older saves
+     * @throws IllegalArgumentException if the player or the machine is null
+     */
+    public Juego(Jugador jugador, Maquina maquina, RegistroPartida registro) {
         if (jugador == null || maquina == null) {
             throw new IllegalArgumentException(
                     "El jugador y la máquina no pueden ser nulos."
@@ -42,11 +128,29 @@ public class Juego {
         this.jugador = jugador;
         this.maquina = maquina;
         this.esTurnoJugador = true; // Por defecto, empieza el jugador
+        this.reglaSinContacto = jugador.getTableroPosicion().isReglaSinContacto();
+
+        if (registro != null) {
+            this.semilla = new SemillaPartida(registro.semilla());
+            this.flotaInicialJugador = registro.flotaJugador();
+            this.flotaInicialMaquina = registro.flotaMaquina();
+            for (Disparo disparo : registro.disparos()) {
+                registrarDisparo(disparo);
+            }
+        } else {
+            this.semilla = SemillaPartida.aleatoria();
+        }
+
+        // Count from the board rather than the history, which older saves lack
+        this.disparosMaquina = contarCeldasAtacadas(jugador.getTableroPosicion());
+        this.partidaIniciada = disparosMaquina > 0
+                || contarCeldasAtacadas(maquina.getTableroPosicion()) > 0;
+        this.flujoIA = semilla.flujoIA(disparosMaquina);
 
-        System.out.println("Juego reconstruido desde partida guardada");
-        System.out.println("Jugador: " + jugador.getNickname());
-        System.out.println("Barcos jugador: " + jugador.getFlota().getBarcos().size());
-        System.out.println("Barcos máquina: " + maquina.getFlota().getBarcos().size());
+        LOG.log(Level.INFO, "Juego reconstruido desde partida guardada (semilla {0}). Jugador: {1},"
+                        + " barcos jugador: {2}, barcos máquina: {3}",
+                semilla, jugador.getNickname(),
+                jugador.getFlota().getBarcos().size(), maquina.getFlota().getBarcos().size());
     }
 
     public Jugador getJugador() {
@@ -57,6 +161,72 @@ public class Juego {
         return maquina;
     }
 
+    public SemillaPartida getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Source of randomness for the machine's attack strategy. Its output
+     * depends only on the seed and on the number of shots the machine has
+     * fired, so it stays reproducible across saves and replays.
+     */
+    public RandomGenerator getGeneradorIA() {
+        return generadorIA;
+    }
+
+    /**
+     * Every shot fired so far, in order.
+     */
+    public List<Disparo> getHistorial() {
+        return List.copyOf(historial);
+    }
+
+    /**
+     * Number of shots fired so far by both sides. Unlike
+     * {@link #getHistorial()} it copies nothing, so it can be polled cheaply.
+     */
+    public int getTotalDisparos() {
+        return historial.size();
+    }
+
+    /**
+     * Snapshot of everything needed to replay this game with {@link RepeticionPartida}.
+     */
+    public RegistroPartida getRegistro() {
+        return new RegistroPartida(semilla.getSemilla(), jugador.getNickname(), reglaSinContacto,
+                flotaInicialJugador, flotaInicialMaquina, historial);
+    }
+
+    /**
+     * Replaces the machine's fleet with the given layout, for instance one
+     * produced by {@link OptimizadorFlota}. Only allowed before the first shot.
+     *
+     * @param colocaciones complete fleet layout for the machine's board
+     * @throws IllegalStateException    if a shot has already been fired
+     * @throws IllegalArgumentException if the layout is not valid on the machine's board
+     */
+    public void reemplazarFlotaMaquina(List<Colocacion> colocaciones) {
+        if (partidaIniciada) {
+            throw new IllegalStateException("La flota de la máquina no puede cambiar con la partida en curso.");
+        }
+
+        Tablero tablero = maquina.getTableroPosicion();
+        Flota flota = maquina.getFlota();
+        List<Colocacion> anteriores = Colocacion.de(flota);
+
+        flota.getBarcos().forEach(tablero::retirarBarco);
+        flota.getBarcos().clear();
+        try {
+            Colocacion.aplicar(colocaciones, flota, tablero);
+        } catch (IllegalArgumentException e) {
+            // Restore the previous fleet before reporting the bad layout
+            flota.getBarcos().forEach(tablero::retirarBarco);
+            flota.getBarcos().clear();
+            Colocacion.aplicar(anteriores, flota, tablero);
+            throw e;
+        }
+    }
+
     /**
      * Verifies if it's the player's turn.
      *
@@ -80,8 +250,12 @@ public class Juego {
             throw new IllegalStateException("No es el turno del jugador");
         }
 
+        EventoDisparo evento = new EventoDisparo();
+        evento.begin();
         Tablero tableroMaquina = maquina.getTableroPosicion();
         ResultadoDisparo resultado = tableroMaquina.disparar(fila, col);
+        iniciarPartida();
+        historial.add(new Disparo(true, fila, col, resultado));
 
         // Si es AGUA, cambia el turno a la máquina
         if (resultado == ResultadoDisparo.AGUA) {
@@ -89,6 +263,7 @@ public class Juego {
         }
         // Si es TOCADO o HUNDIDO, el jugador sigue jugando (no se cambia el turno)
 
+        emitir(evento, true, fila, col, resultado);
         return resultado;
     }
 
@@ -106,8 +281,13 @@ public class Juego {
             throw new IllegalStateException("No es el turno de la máquina");
         }
 
+        EventoDisparo evento = new EventoDisparo();
+        evento.begin();
         Tablero tableroJugador = jugador.getTableroPosicion();
         ResultadoDisparo resultado = tableroJugador.disparar(fila, col);
+        iniciarPartida();
+        historial.add(new Disparo(false, fila, col, resultado));
+        flujoIA = semilla.flujoIA(++disparosMaquina);
 
         // Si es AGUA, cambia el turno al jugador
         if (resultado == ResultadoDisparo.AGUA) {
@@ -115,15 +295,135 @@ public class Juego {
         }
         // Si es TOCADO o HUNDIDO, la máquina sigue jugando (no se cambia el turno)
 
+        emitir(evento, false, fila, col, resultado);
         return resultado;
     }
 
+    private static void emitir(EventoDisparo evento, boolean delJugador, int fila, int col,
+                               ResultadoDisparo resultado) {
+        if (evento.shouldCommit()) {
+            evento.delJugador = delJugador;
+            evento.fila = fila;
+            evento.columna = col;
+            evento.resultado = resultado.name();
+            evento.commit();
+        }
+    }
+
+    /**
+     * Asks the strategy for the machine's next target, retrying when it
+     * returns a cell that was already attacked and falling back to the first
+     * free cell after 100 attempts. Both the game thread and
+     * {@link RepeticionPartida} go through here so they pick the same cells.
+     *
+     * @param estrategia the machine's attack strategy
+     * @return coordinates [row, col] of an unattacked cell of the player's
+     *         board, or {@code null} if none is left
+     */
+    public int[] elegirAtaqueMaquina(EstrategiaAtaque estrategia) {
+        EventoDecisionMaquina evento = new EventoDecisionMaquina();
+        evento.begin();
+        int[] coordenadas = consultarEstrategia(estrategia, evento);
+        if (evento.shouldCommit()) {
+            evento.estrategia = estrategia.getClass().getSimpleName();
+            if (coordenadas != null) {
+                evento.fila = coordenadas[0];
+                evento.columna = coordenadas[1];
+            }
+            evento.commit();
+        }
+        return coordenadas;
+    }
+
+    private int[] consultarEstrategia(EstrategiaAtaque estrategia, EventoDecisionMaquina evento) {
+        Tablero tableroJugador = jugador.getTableroPosicion();
+
+        for (int intento = 0; intento < 100; intento++) {
+            long inicio = System.nanoTime();
+            int[] coordenadas = estrategia.seleccionarAtaque(tableroJugador);
+            T_SELECCION_IA.registrarDesde(inicio);
+            evento.candidatos++;
+            if (coordenadas == null) {
+                return null;
+            }
+            EstadoCelda estado = tableroJugador.getEstado(coordenadas[0], coordenadas[1]);
+            if (estado == EstadoCelda.VACIA || estado == EstadoCelda.BARCO) {
+                return coordenadas;
+            }
+            IA_REPETIDAS.incrementar();
+        }
+
+        IA_EMERGENCIA.incrementar();
+        evento.emergencia = true;
+        LOG.log(Level.WARNING, "Máquina falló en selección aleatoria. Buscando celda de emergencia...");
+        return buscarCeldaLibre(tableroJugador);
+    }
+
+    /**
+     * Busca la primera celda que está en estado VACIA o BARCO (es decir, sin atacar).
+     * Este es el mecanismo de respaldo si la estrategia aleatoria falla.
+     * @param tablero El tablero del jugador.
+     * @return Coordenadas [fila, columna] de una celda disponible, o null si el tablero está lleno.
+     */
+    private int[] buscarCeldaLibre(Tablero tablero) {
+        for (int f = 0; f < tablero.getSize(); f++) {
+            for (int c = 0; c < tablero.getSize(); c++) {
+                EstadoCelda estado = tablero.getEstado(f, c);
+                if (estado == EstadoCelda.VACIA || estado == EstadoCelda.BARCO) {
+                    return new int[]{f, c};
+                }
+            }
+        }
+        return null; // No hay celdas libres
+    }
+
+    /**
+     * Marks the game as started on the first shot, freezing both initial
+     * fleet layouts for the match record.
+     */
+    private void iniciarPartida() {
+        if (flotaInicialJugador == null) {
+            flotaInicialJugador = Colocacion.de(jugador.getFlota());
+            flotaInicialMaquina = Colocacion.de(maquina.getFlota());
+        }
+        partidaIniciada = true;
+    }
+
+    /**
+     * Appends a recorded shot to the history and replays its effect on the turn.
+     */
+    private void registrarDisparo(Disparo disparo) {
+        historial.add(disparo);
+        esTurnoJugador = disparo.resultado() == ResultadoDisparo.AGUA
+                ? !disparo.delJugador()
+                : disparo.delJugador();
+    }
+
+    private static SemillaPartida semillaPorDefecto() {
+        Long fija = Long.getLong("batallanaval.semilla");
+        return fija != null ? new SemillaPartida(fija) : SemillaPartida.aleatoria();
+    }
+
+    private static int contarCeldasAtacadas(Tablero tablero) {
+        int atacadas = 0;
+        for (int f = 0; f < tablero.getSize(); f++) {
+            for (int c = 0; c < tablero.getSize(); c++) {
+                EstadoCelda estado = tablero.getEstado(f, c);
+                if (estado == EstadoCelda.TOCADA || estado == EstadoCelda.HUNDIDA
+                        || estado == EstadoCelda.AGUA_TOCADA) {
+                    atacadas++;
+                }
+            }
+        }
+        return atacadas;
+    }
+
     /**
      * Changes the turn from one player to the other.
      */
     private void cambiarTurno() {
         esTurnoJugador = !esTurnoJugador;
-        System.out.println("Turno cambiado. Ahora es turno de: " +
+        LOG.log(Level.DEBUG, () -> "Turno cambiado. Ahora es turno de: " +
                 (esTurnoJugador ? "JUGADOR" : "MÁQUINA"));
     }
 
@@ -1,29 +1,34 @@
 package proyect.batallanaval.models;
 
-import javafx.application.Platform;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.jfr.EventoTurnoMaquina;
 import proyect.batallanaval.models.Juego;
 import proyect.batallanaval.models.ResultadoDisparo;
-import proyect.batallanaval.models.Tablero;
 import proyect.batallanaval.models.strategy.EstrategiaAtaque;
 
-import java.util.Random;
+import java.lang.System.Logger.Level;
+import java.util.function.LongConsumer;
+import java.util.random.RandomGenerator;
 
 /**
  * A thread that executes machine turns in a loop.
  * Follows the same pattern as CpuTurnsThread from Cincuentazo.
  *
- * - Sleeps for a random time (1-3 seconds) to simulate "thinking"
+ * - Sleeps for a random time (1-3 seconds) to simulate "thinking", drawn from the game seed
  * - All mutations on the Juego are thread-safe using synchronized(juego)
- * - UI updates are posted to JavaFX thread using Platform.runLater()
+ * - Each shot is reported through a single change callback; the UI side
+ *   coalesces them (see DespachadorUI), so this thread never touches the FX queue
  */
 
 public class MaquinaThread extends Thread {
 
+    private static final System.Logger LOG = Registros.getLogger(MaquinaThread.class);
+
     private final Juego juego;
     private final EstrategiaAtaque estrategia;
-    private final Runnable uiRefresh;        // Callback to refresh UI
-    private final Runnable uiCheckWinner;    // Callback to check winner
-    private final Random random = new Random();
+    private final Runnable alCambiar;        // Notifies the UI that the game changed
+    private final LongConsumer alDecidir;    // Receives the System.nanoTime() of each decision
+    private final RandomGenerator random;    // Think delays, derived from the game seed
 
     // Volatile flag to safely request the thread to stop
     private volatile boolean stop = false;
@@ -33,12 +38,26 @@ public class MaquinaThread extends Thread {
      */
     public MaquinaThread(Juego juego,
                          EstrategiaAtaque estrategia,
-                         Runnable uiRefresh,
-                         Runnable uiCheckWinner) {
+                         Runnable alCambiar) {
+        this(juego, estrategia, alCambiar, instante -> { });
+    }
+
+    /**
+     * Constructs a new machine turn processing thread that also reports when
+     * each target was chosen, for input-to-paint latency measures.
+     *
+     * @param alDecidir called on this thread, under the game lock, with the
+     *                  {@link System#nanoTime()} of every decision
+     */
+    public MaquinaThread(Juego juego,
+                         EstrategiaAtaque estrategia,
+                         Runnable alCambiar,
+                         LongConsumer alDecidir) {
         this.juego = juego;
         this.estrategia = estrategia;
-        this.uiRefresh = uiRefresh;
-        this.uiCheckWinner = uiCheckWinner;
+        this.alCambiar = alCambiar;
+        this.alDecidir = alDecidir;
+        this.random = juego.getSemilla().flujoEspera();
         setDaemon(true);
     }
 
@@ -50,30 +69,6 @@ public class MaquinaThread extends Thread {
         interrupt();
     }
 
-    // -------------------------------------------------------------------
-    // METODO AUXILIAR PARA GARANTIZAR LA SELECCIÓN DE CELDA
-    // -------------------------------------------------------------------
-
-    /**
-     * Busca la primera celda que está en estado VACIA o BARCO (es decir, sin atacar).
-     * Este es el mecanismo de respaldo si la estrategia aleatoria falla.
-     * @param tablero El tablero del jugador.
-     * @return Coordenadas [fila, columna] de una celda disponible, o null si el tablero está lleno.
-     */
-    private int[] buscarCeldaLibre(Tablero tablero) {
-        for (int f = 0; f < Tablero.SIZE; f++) {
-            for (int c = 0; c < Tablero.SIZE; c++) {
-                EstadoCelda estado = tablero.getCelda(f, c).getEstado();
-                if (estado == EstadoCelda.VACIA || estado == EstadoCelda.BARCO) {
-                    return new int[]{f, c};
-                }
-            }
-        }
-        return null; // No hay celdas libres
-    }
-
-    // -------------------------------------------------------------------
-
     /**
      * Main execution loop for the thread.
      * Continuously checks if it's the machine's turn and executes attacks.
@@ -110,69 +105,30 @@ public class MaquinaThread extends Thread {
                 if (stop) break;
 
                 // 3. Ejecutar el ataque de la máquina
+                EventoTurnoMaquina evento = new EventoTurnoMaquina();
+                evento.begin();
+                long antesDelBloqueo = System.nanoTime();
                 ResultadoDisparo resultado;
                 synchronized (juego) {
+                    evento.esperaBloqueo = System.nanoTime() - antesDelBloqueo;
+                    if (juego.juegoTerminado()) {
+                        break; // the UI may take a pulse to notice the end
+                    }
                     if (juego.esTurnoJugador()) {
                         continue;
                     }
 
-                    Tablero tableroJugador = juego.getJugador().getTableroPosicion();
-                    int fila, col;
-
-                    // --- LÓGICA DE SELECCIÓN Y VALIDACIÓN (CORRECCIÓN CRÍTICA) ---
-                    int maxTries = 100; // Límite de intentos aleatorios
-                    int tries = 0;
-                    EstadoCelda estadoActual;
-                    boolean foundValidCoordinates = false;
-
-                    int[] coordenadas;
-
-                    do {
-                        coordenadas = estrategia.seleccionarAtaque(tableroJugador);
-
-                        if (coordenadas == null) {
-                            System.err.println("ERROR: Machine has no valid moves from strategy!");
-                            return;
-                        }
-
-                        fila = coordenadas[0];
-                        col = coordenadas[1];
-
-                        estadoActual = tableroJugador.getCelda(fila, col).getEstado();
-
-                        if (estadoActual == EstadoCelda.VACIA || estadoActual == EstadoCelda.BARCO) {
-                            foundValidCoordinates = true;
-                            break; // Se encontraron coordenadas aleatorias válidas.
-                        }
-
-                        tries++;
-                        if (tries >= maxTries) {
-
-                            // LÓGICA DE EMERGENCIA: Buscar la primera celda libre por iteración.
-                            System.err.println("Máquina falló en selección aleatoria. Buscando celda de emergencia...");
-                            int[] emergencia = buscarCeldaLibre(tableroJugador);
-
-                            if (emergencia != null) {
-                                fila = emergencia[0];
-                                col = emergencia[1];
-                                foundValidCoordinates = true;
-                            } else {
-                                System.err.println("ERROR: No quedan celdas libres para atacar.");
-                            }
-                            break; // Salir del do-while.
-                        }
-
-                    } while (!foundValidCoordinates);
-
-                    // Si no se encontraron coordenadas válidas (solo ocurre si no quedan celdas):
-                    if (!foundValidCoordinates) {
-                        System.out.println("Juego Finalizado - No quedan movimientos para la máquina.");
-                        continue;
+                    // Selection and validation live in Juego so replays pick the same cells
+                    int[] coordenadas = juego.elegirAtaqueMaquina(estrategia);
+                    if (coordenadas == null) {
+                        LOG.log(Level.ERROR, "Machine has no valid moves from strategy!");
+                        return;
                     }
-                    // --- FIN LÓGICA DE SELECCIÓN Y VALIDACIÓN ---
-
+                    alDecidir.accept(System.nanoTime());
+                    int fila = coordenadas[0];
+                    int col = coordenadas[1];
 
-                    System.out.println("Máquina atacando: (" + fila + ", " + col + ")");
+                    LOG.log(Level.DEBUG, () -> "Máquina atacando: (" + fila + ", " + col + ")");
 
                     // El ataque a tablero.disparar() será válido, evitando la IllegalStateException.
                     resultado = juego.ejecutarAtaqueMaquina(fila, col);
@@ -180,18 +136,21 @@ public class MaquinaThread extends Thread {
                     // Notificar a la estrategia
                     estrategia.notificarResultado(fila, col, resultado);
 
-                    System.out.println("Resultado: " + resultado);
+                    ResultadoDisparo obtenido = resultado;
+                    LOG.log(Level.DEBUG, () -> "Resultado: " + obtenido);
                 }
 
-                // 4. Actualizar UI y verificar ganador SOLO después del ataque
-                Platform.runLater(() -> {
-                    uiRefresh.run();      // refrescar tableros
-                    uiCheckWinner.run();  // llamar a verificarGanador() en el controller
-                });
+                // 4. Avisar a la UI; refresco, guardado y ganador se agrupan por pulso
+                alCambiar.run();
+
+                if (evento.shouldCommit()) {
+                    evento.pausa = delayMillis;
+                    evento.resultado = resultado.name();
+                    evento.commit();
+                }
             }
         } catch (Exception ex) {
-            System.err.println("Error en MaquinaThread:");
-            ex.printStackTrace();
+            LOG.log(Level.ERROR, "Error en MaquinaThread", ex);
         }
     }
 }
\ No newline at end of file
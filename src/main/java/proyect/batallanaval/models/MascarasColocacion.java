@@ -0,0 +1,135 @@
+package proyect.batallanaval.models;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed bit masks for every ship placement on a board of a given size.
+ * <p>
+ * Each board row is a {@code long}, so a placement is described by the rows it
+ * touches and the bits it sets on each of them. For every placement two masks
+ * are kept: the ship body and its halo (the body dilated by one cell in every
+ * direction, diagonals included). Checking a placement against the occupied
+ * cells is then a handful of {@code AND} operations instead of a walk over the
+ * neighbouring cells.
+ * </p>
+ * Masks only exist for boards up to {@link #TAMANO_MAXIMO} columns and are
+ * shared between all boards of the same size.
+ */
+final class MascarasColocacion {
+
+    /** Widest board whose rows fit in a single {@code long}. */
+    static final int TAMANO_MAXIMO = Long.SIZE;
+
+    private static final Map<Integer, MascarasColocacion> POR_TAMANO = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final Mascara[] cuerpos;
+    private final Mascara[] halos;
+
+    private MascarasColocacion(int size) {
+        this.size = size;
+        int total = TipoBarco.values().length * Orientacion.values().length * size * size;
+        this.cuerpos = new Mascara[total];
+        this.halos = new Mascara[total];
+
+        for (TipoBarco tipo : TipoBarco.values()) {
+            for (Orientacion orientacion : Orientacion.values()) {
+                for (int fila = 0; fila < size; fila++) {
+                    for (int col = 0; col < size; col++) {
+                        if (!cabe(fila, col, orientacion, tipo)) {
+                            continue;
+                        }
+                        int i = indice(fila, col, orientacion, tipo);
+                        cuerpos[i] = construir(fila, col, orientacion, tipo.getSize(), 0);
+                        halos[i] = construir(fila, col, orientacion, tipo.getSize(), 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared masks for boards of the given size.
+     *
+     * @return the masks, or {@code null} if the board is too wide to use them
+     */
+    static MascarasColocacion para(int size) {
+        if (size > TAMANO_MAXIMO) {
+            return null;
+        }
+        return POR_TAMANO.computeIfAbsent(size, MascarasColocacion::new);
+    }
+
+    /** Mask of the cells occupied by the ship; the placement must fit on the board. */
+    Mascara cuerpo(int fila, int col, Orientacion orientacion, TipoBarco tipo) {
+        return cuerpos[indice(fila, col, orientacion, tipo)];
+    }
+
+    /** Mask of the ship cells plus every neighbour; the placement must fit on the board. */
+    Mascara halo(int fila, int col, Orientacion orientacion, TipoBarco tipo) {
+        return halos[indice(fila, col, orientacion, tipo)];
+    }
+
+    private boolean cabe(int fila, int col, Orientacion orientacion, TipoBarco tipo) {
+        int ultimaFila = orientacion == Orientacion.HORIZONTAL ? fila : fila + tipo.getSize() - 1;
+        int ultimaCol = orientacion == Orientacion.HORIZONTAL ? col + tipo.getSize() - 1 : col;
+        return ultimaFila < size && ultimaCol < size;
+    }
+
+    private int indice(int fila, int col, Orientacion orientacion, TipoBarco tipo) {
+        int placement = tipo.ordinal() * Orientacion.values().length + orientacion.ordinal();
+        return (placement * size + fila) * size + col;
+    }
+
+    /**
+     * Builds the mask of the rectangle covered by the ship, grown by
+     * {@code margen} cells on every side and clipped to the board.
+     */
+    private Mascara construir(int fila, int col, Orientacion orientacion, int longitud, int margen) {
+        int alto = orientacion == Orientacion.HORIZONTAL ? 1 : longitud;
+        int ancho = orientacion == Orientacion.HORIZONTAL ? longitud : 1;
+
+        int filaInicial = Math.max(0, fila - margen);
+        int filaFinal = Math.min(size - 1, fila + alto - 1 + margen);
+        int colInicial = Math.max(0, col - margen);
+        int colFinal = Math.min(size - 1, col + ancho - 1 + margen);
+
+        long bits = 0L;
+        for (int c = colInicial; c <= colFinal; c++) {
+            bits |= 1L << c;
+        }
+
+        long[] filas = new long[filaFinal - filaInicial + 1];
+        Arrays.fill(filas, bits);
+        return new Mascara(filaInicial, filas);
+    }
+
+    /**
+     * Set of bits over consecutive board rows, starting at {@code filaInicial}.
+     */
+    record Mascara(int filaInicial, long[] filas) {
+
+        boolean intersecta(long[] tablero) {
+            for (int i = 0; i < filas.length; i++) {
+                if ((tablero[filaInicial + i] & filas[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void marcar(long[] tablero) {
+            for (int i = 0; i < filas.length; i++) {
+                tablero[filaInicial + i] |= filas[i];
+            }
+        }
+
+        void desmarcar(long[] tablero) {
+            for (int i = 0; i < filas.length; i++) {
+                tablero[filaInicial + i] &= ~filas[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package proyect.batallanaval.models;
+
+import proyect.batallanaval.models.strategy.EstrategiaAtaque;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Searches for a machine fleet layout that is hard to sink for a given
+ * {@link EstrategiaAtaque}.
+ * <p>
+ * Several simulated annealing chains run in parallel, on threads of their
+ * own, until a time budget is spent or the search is cancelled. Each chain starts from a random layout and repeatedly moves one ship
+ * to another valid position; a layout is scored by the average number of
+ * shots the strategy needs to sink it over a few simulated games. Moves that
+ * raise the score are always kept, worse ones are kept with a probability
+ * that shrinks as the budget runs out. The best layout of all chains wins.
+ * </p>
+ * Placement validity is checked on a scratch {@link Tablero}, so the board's
+ * precomputed masks and its no-touch rule apply to the search as well. The
+ * attacker must play differently against different layouts, as
+ * {@link proyect.batallanaval.models.strategy.EstrategiaCazaYRemate} does;
+ * against a uniformly random one every layout scores the same and the
+ * search only follows noise.
+ */
+public class OptimizadorFlota {
+
+    /** Simulated games played to score each candidate layout. */
+    private static final int PARTIDAS_POR_EVALUACION = 12;
+
+    /** Initial acceptance temperature, in shots. */
+    private static final double TEMPERATURA_INICIAL = 4.0;
+
+    // Daemon threads, so a search left running never keeps the JVM alive
+    private static final ExecutorService HILOS = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "optimizador-flota");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final Supplier<EstrategiaAtaque> fabricaEstrategia;
+    private final int size;
+    private final boolean reglaSinContacto;
+    private final int cadenas;
+    private volatile boolean cancelado;
+
+    /**
+     * @param fabricaEstrategia creates a fresh attacker for every simulated game
+     * @param size              side of the board the fleet is meant for
+     * @param reglaSinContacto  whether ships must not touch each other
+     */
+    public OptimizadorFlota(Supplier<EstrategiaAtaque> fabricaEstrategia, int size, boolean reglaSinContacto) {
+        this.fabricaEstrategia = fabricaEstrategia;
+        this.size = size;
+        this.reglaSinContacto = reglaSinContacto;
+        this.cadenas = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Runs the search and returns the best layout found.
+     *
+     * @param presupuesto wall-clock time the search may take
+     * @return a complete fleet layout, valid for the configured board
+     */
+    public List<Colocacion> optimizar(Duration presupuesto) {
+        return optimizarEnSegundoPlano(presupuesto).join();
+    }
+
+    /**
+     * Starts the search without waiting for it.
+     *
+     * @param presupuesto wall-clock time the search may take
+     * @return completes with the best layout found, when the budget is spent
+     * or soon after {@link #cancelar()}
+     */
+    public CompletableFuture<List<Colocacion>> optimizarEnSegundoPlano(Duration presupuesto) {
+        long inicio = System.nanoTime();
+        long limite = inicio + presupuesto.toNanos();
+
+        List<CompletableFuture<Resultado>> resultados = IntStream.range(0, cadenas)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> recocer(new Random(), inicio, limite), HILOS))
+                .toList();
+        return CompletableFuture.allOf(resultados.toArray(CompletableFuture[]::new))
+                .thenApply(v -> resultados.stream()
+                        .map(CompletableFuture::join)
+                        .max(Comparator.comparingDouble(Resultado::puntaje))
+                        .orElseThrow()
+                        .colocaciones());
+    }
+
+    /**
+     * Stops the search: each chain ends after the candidate it is scoring.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    /**
+     * One simulated annealing chain.
+     */
+    private Resultado recocer(Random random, long inicio, long limite) {
+        Tablero tablero = nuevoTablero();
+        Flota flota = new Flota();
+        new GeneradorFlotaAleatoria().generarFlotaAleatoria(flota, tablero);
+
+        List<Colocacion> actual = Colocacion.de(flota);
+        double puntajeActual = evaluar(actual);
+        Resultado mejor = new Resultado(actual, puntajeActual);
+
+        while (!cancelado && System.nanoTime() < limite) {
+            List<Barco> barcos = flota.getBarcos();
+            Barco barco = barcos.get(random.nextInt(barcos.size()));
+            Colocacion anterior = Colocacion.de(barco);
+
+            if (!moverAlAzar(tablero, barco, random)) {
+                continue;
+            }
+
+            List<Colocacion> candidata = Colocacion.de(flota);
+            double puntaje = evaluar(candidata);
+
+            double progreso = (double) (System.nanoTime() - inicio) / (limite - inicio);
+            double temperatura = TEMPERATURA_INICIAL * Math.max(0.01, 1.0 - progreso);
+
+            if (puntaje >= puntajeActual
+                    || random.nextDouble() < Math.exp((puntaje - puntajeActual) / temperatura)) {
+                puntajeActual = puntaje;
+                if (puntaje > mejor.puntaje()) {
+                    mejor = new Resultado(candidata, puntaje);
+                }
+            } else {
+                // Rejected: put the ship back where it was
+                tablero.retirarBarco(barco);
+                tablero.colocarBarco(barco, anterior.fila(), anterior.columna(), anterior.orientacion());
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Moves a ship to a random valid position on the scratch board.
+     *
+     * @return {@code false} if no other position was found, leaving the ship in place
+     */
+    private boolean moverAlAzar(Tablero tablero, Barco barco, Random random) {
+        Colocacion anterior = Colocacion.de(barco);
+        tablero.retirarBarco(barco);
+
+        for (int intento = 0; intento < 100; intento++) {
+            Orientacion orientacion = random.nextBoolean() ? Orientacion.HORIZONTAL : Orientacion.VERTICAL;
+            int fila = random.nextInt(size);
+            int col = random.nextInt(size);
+
+            boolean mismaPosicion = fila == anterior.fila() && col == anterior.columna()
+                    && orientacion == anterior.orientacion();
+            if (!mismaPosicion && tablero.puedeColocarBarco(fila, col, orientacion, barco.getTipo())) {
+                tablero.colocarBarco(barco, fila, col, orientacion);
+                return true;
+            }
+        }
+
+        tablero.colocarBarco(barco, anterior.fila(), anterior.columna(), anterior.orientacion());
+        return false;
+    }
+
+    /**
+     * Average number of shots the strategy needs to sink the layout.
+     */
+    private double evaluar(List<Colocacion> colocaciones) {
+        long total = 0;
+        for (int i = 0; i < PARTIDAS_POR_EVALUACION; i++) {
+            total += simularPartida(colocaciones);
+        }
+        return (double) total / PARTIDAS_POR_EVALUACION;
+    }
+
+    /**
+     * Plays the strategy against the layout until every ship is sunk.
+     *
+     * @return number of shots fired
+     */
+    private int simularPartida(List<Colocacion> colocaciones) {
+        Tablero tablero = nuevoTablero();
+        Flota flota = new Flota();
+        Colocacion.aplicar(colocaciones, flota, tablero);
+
+        EstrategiaAtaque estrategia = fabricaEstrategia.get();
+        int celdasConBarco = 0;
+        for (Colocacion c : colocaciones) {
+            celdasConBarco += c.tipo().getSize();
+        }
+
+        int disparos = 0;
+        int impactos = 0;
+        int limite = size * size;
+        while (impactos < celdasConBarco && disparos < limite) {
+            int[] objetivo = estrategia.seleccionarAtaque(tablero);
+            if (objetivo == null) {
+                break;
+            }
+            EstadoCelda estado = tablero.getEstado(objetivo[0], objetivo[1]);
+            if (estado == EstadoCelda.TOCADA || estado == EstadoCelda.HUNDIDA
+                    || estado == EstadoCelda.AGUA_TOCADA) {
+                disparos++; // a repeated target is a wasted shot
+                continue;
+            }
+
+            ResultadoDisparo resultado = tablero.disparar(objetivo[0], objetivo[1]);
+            estrategia.notificarResultado(objetivo[0], objetivo[1], resultado);
+            disparos++;
+            if (resultado != ResultadoDisparo.AGUA) {
+                impactos++;
+            }
+        }
+        return disparos;
+    }
+
+    private Tablero nuevoTablero() {
+        Tablero tablero = new Tablero(size);
+        tablero.setReglaSinContacto(reglaSinContacto);
+        return tablero;
+    }
+
+    private record Resultado(List<Colocacion> colocaciones, double puntaje) {
+    }
+}
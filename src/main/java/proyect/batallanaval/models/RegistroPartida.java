@@ -0,0 +1,41 @@
+package proyect.batallanaval.models;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Everything needed to rebuild a game from scratch: the seed, the rules, both
+ * initial fleet layouts and every shot in order.
+ * <p>
+ * The machine's fleet is stored as well as the seed because it may have been
+ * replaced by {@link OptimizadorFlota}, whose result depends on timing.
+ * Fleet layouts are {@code null} while the game has not started yet.
+ * </p>
+ *
+ * @param semilla          seed of the game
+ * @param nickname         human player's nickname
+ * @param reglaSinContacto whether ships were not allowed to touch
+ * @param flotaJugador     human fleet layout when the first shot was fired
+ * @param flotaMaquina     machine fleet layout when the first shot was fired
+ * @param disparos         every shot of both sides, in order
+ */
+public record RegistroPartida(long semilla,
+                              String nickname,
+                              boolean reglaSinContacto,
+                              List<Colocacion> flotaJugador,
+                              List<Colocacion> flotaMaquina,
+                              List<Disparo> disparos) implements Serializable {
+
+    public RegistroPartida {
+        flotaJugador = flotaJugador == null ? null : List.copyOf(flotaJugador);
+        flotaMaquina = flotaMaquina == null ? null : List.copyOf(flotaMaquina);
+        disparos = List.copyOf(disparos);
+    }
+
+    /**
+     * Shots fired by the human player, in order.
+     */
+    public List<Disparo> disparosJugador() {
+        return disparos.stream().filter(Disparo::delJugador).toList();
+    }
+}
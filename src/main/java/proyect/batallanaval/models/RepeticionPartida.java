@@ -0,0 +1,96 @@
+package proyect.batallanaval.models;
+
+import proyect.batallanaval.models.strategy.EstrategiaAleatoria;
+import proyect.batallanaval.models.strategy.EstrategiaAtaque;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Rebuilds a game from its {@link RegistroPartida} without any UI or delays.
+ * <p>
+ * Only the human side of the record is fed back: the seed regenerates the
+ * machine's choices, which then must match the recorded ones. This makes a
+ * recorded game usable to reproduce a problem or to benchmark changes on
+ * exactly the same sequence of moves.
+ * </p>
+ */
+public final class RepeticionPartida {
+
+    private RepeticionPartida() {
+    }
+
+    /**
+     * Replays a game with the default machine strategy.
+     *
+     * @see #reconstruir(RegistroPartida, Function)
+     */
+    public static Juego reconstruir(RegistroPartida registro) {
+        return reconstruir(registro, EstrategiaAleatoria::new);
+    }
+
+    /**
+     * Replays a game: recreates it from the seed, lays out both recorded
+     * fleets, feeds the recorded human shots in order and lets the machine
+     * play its turns in between, until the game ends or the human shots run
+     * out. The machine shots of the record are not used, only compared
+     * against the replayed ones.
+     *
+     * @param registro          the match record to replay
+     * @param fabricaEstrategia builds the machine strategy from the game's AI stream
+     * @return the game in the state reached by the replay
+     * @throws IllegalArgumentException if the record has no fleets, or if the
+     *                                  replay diverges from the recorded shots
+     */
+    public static Juego reconstruir(RegistroPartida registro,
+                                    Function<RandomGenerator, EstrategiaAtaque> fabricaEstrategia) {
+        if (registro.flotaJugador() == null || registro.flotaMaquina() == null) {
+            throw new IllegalArgumentException("El registro no contiene las flotas iniciales.");
+        }
+
+        Juego juego = new Juego(registro.nickname(), registro.reglaSinContacto(),
+                new SemillaPartida(registro.semilla()));
+        Jugador jugador = juego.getJugador();
+        Colocacion.aplicar(registro.flotaJugador(), jugador.getFlota(), jugador.getTableroPosicion());
+        juego.reemplazarFlotaMaquina(registro.flotaMaquina());
+
+        EstrategiaAtaque estrategia = fabricaEstrategia.apply(juego.getGeneradorIA());
+        Iterator<Disparo> disparosJugador = registro.disparosJugador().iterator();
+
+        while (!juego.juegoTerminado()) {
+            if (juego.esTurnoJugador()) {
+                if (!disparosJugador.hasNext()) {
+                    break;
+                }
+                Disparo disparo = disparosJugador.next();
+                juego.ejecutarAtaqueJugador(disparo.fila(), disparo.columna());
+            } else {
+                int[] objetivo = juego.elegirAtaqueMaquina(estrategia);
+                if (objetivo == null) {
+                    break;
+                }
+                ResultadoDisparo resultado = juego.ejecutarAtaqueMaquina(objetivo[0], objetivo[1]);
+                estrategia.notificarResultado(objetivo[0], objetivo[1], resultado);
+            }
+        }
+
+        verificar(registro.disparos(), juego.getHistorial());
+        return juego;
+    }
+
+    /**
+     * Checks that the replay went through every recorded shot unchanged. The
+     * replay may go further than the record when the machine was still to move.
+     */
+    private static void verificar(List<Disparo> esperados, List<Disparo> obtenidos) {
+        for (int i = 0; i < esperados.size(); i++) {
+            Disparo obtenido = i < obtenidos.size() ? obtenidos.get(i) : null;
+            if (!esperados.get(i).equals(obtenido)) {
+                throw new IllegalArgumentException("La repetición diverge en el disparo " + i
+                        + ": se esperaba " + esperados.get(i) + " y se obtuvo " + obtenido);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package proyect.batallanaval.models;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Single seed from which every random decision of a game is derived.
+ * <p>
+ * The seed is split into independent streams, one per concern, so that
+ * consuming more numbers in one of them (for example a longer think delay)
+ * never changes the others:
+ * <ul>
+ *     <li>{@link #flujoFlota()}: random fleet generation.</li>
+ *     <li>{@link #flujoIA(int)}: machine attack choices, one stream per
+ *         machine shot so a resumed game continues exactly where it left off.</li>
+ *     <li>{@link #flujoEspera()}: machine "thinking" delays.</li>
+ * </ul>
+ * Two games with the same seed and the same human input are identical.
+ * </p>
+ */
+public final class SemillaPartida implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long semilla;
+    private final long semillaFlota;
+    private final long semillaIA;
+    private final long semillaEspera;
+
+    public SemillaPartida(long semilla) {
+        this.semilla = semilla;
+
+        // Split order is part of the format: changing it changes every replay
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        this.semillaFlota = raiz.split().nextLong();
+        this.semillaIA = raiz.split().nextLong();
+        this.semillaEspera = raiz.split().nextLong();
+    }
+
+    /**
+     * Creates a seed for a new, unrepeatable game.
+     */
+    public static SemillaPartida aleatoria() {
+        return new SemillaPartida(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long getSemilla() { return semilla; }
+
+    /** Fresh stream for placing a fleet at random. */
+    public SplittableRandom flujoFlota() {
+        return new SplittableRandom(semillaFlota);
+    }
+
+    /** Fresh stream for the machine's thinking delays. */
+    public SplittableRandom flujoEspera() {
+        return new SplittableRandom(semillaEspera);
+    }
+
+    /**
+     * Stream for the machine's decision before its given shot.
+     *
+     * @param disparoMaquina number of shots the machine has already fired
+     */
+    public SplittableRandom flujoIA(int disparoMaquina) {
+        // Hash the index first: seeds one step apart would give overlapping sequences
+        long semillaDisparo = new SplittableRandom(semillaIA + disparoMaquina).nextLong();
+        return new SplittableRandom(semillaDisparo);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(semilla);
+    }
+}
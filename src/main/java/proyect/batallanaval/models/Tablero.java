@@ -1,47 +1,197 @@
 package proyect.batallanaval.models;
 
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+/**
+ * Board of one player: its cells, the ships placed on them and the
+ * placement rules.
+ * <p>
+ * The serialized form is compact and decoded in one linear pass: the side,
+ * the no-touch rule, the state of every non-empty cell as (index, state)
+ * pairs, and the ships by geometry (see {@link Barco}). Loading rebuilds the
+ * cells and links each ship to the cells it covers; there is no object graph
+ * of cells to fix up. Ships are written as objects, so a {@link Flota}
+ * written to the same stream afterwards shares them with the board.
+ * </p>
+ */
 public class Tablero implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    private static final EstadoCelda[] ESTADOS = EstadoCelda.values();
+
+    private static final Histograma T_DISPARAR = Metricas.histograma("tablero.disparar");
 
     public static final int SIZE = 10;
     public static final int CELL_SIZE = 30;
 
-    private final Celda[][] celdas;
+    /**
+     * Largest side length: the index of a cell, row times side plus column,
+     * must fit in an {@code int}.
+     */
+    public static final int TAMANO_MAXIMO = 46_340;
+
+    /**
+     * Cells are stored sparsely, only those that hold a ship or have been
+     * attacked, while fewer than one in this many are in use. Past that a map
+     * entry per cell costs more than a full matrix, so the board turns dense.
+     */
+    public static final int DENSIDAD_DENSA = 3;
+
+    private int size;
+
+    // Written by writeObject as cell states and ship geometry
+    private transient Celda[][] celdas;               // null while the board is sparse
+    private transient Map<Integer, Celda> celdasDispersas; // null once the board is dense
+
+    /** When enabled, ships may not touch each other, not even diagonally. */
+    private boolean reglaSinContacto;
+
+    // Row bitmaps used with the precomputed placement masks; null when the board
+    // is too wide, in which case neighbours are scanned instead.
+    private transient MascarasColocacion mascaras;
+    private transient long[] filasOcupadas;   // cells holding a ship
+    private transient long[] filasDescartadas; // cells next to a sunk ship
+
+    // Cells whose state changed through a shot since the view last drained them;
+    // null until a view follows the board, so simulations and the server keep nothing
+    private transient Set<Celda> celdasModificadas;
 
     public Tablero() {
-        celdas = new Celda[SIZE][SIZE];
-        for (int f = 0; f < SIZE; f++) {
-            for (int c = 0; c < SIZE; c++) {
-                celdas[f][c] = new Celda(f, c);
+        this(SIZE);
+    }
+
+    /**
+     * Creates an empty square board of the given side length. It starts
+     * sparse and turns dense once {@link #DENSIDAD_DENSA} says a matrix is
+     * cheaper, so its memory follows the ships and shots, not the area.
+     *
+     * @param size number of rows and columns of the board
+     * @throws IllegalArgumentException if the size is not positive or above {@link #TAMANO_MAXIMO}
+     */
+    public Tablero(int size) {
+        if (size <= 0 || size > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño del tablero debe estar entre 1 y " + TAMANO_MAXIMO + ".");
+        }
+        this.size = size;
+        crearCeldas();
+        inicializarMascaras();
+    }
+
+    private void crearCeldas() {
+        celdas = null;
+        celdasDispersas = new HashMap<>();
+    }
+
+    /**
+     * Moves the stored cells into a full matrix, keeping their identity since
+     * ships and views hold on to them.
+     */
+    private void densificar() {
+        Celda[][] matriz = new Celda[size][size];
+        for (Celda celda : celdasDispersas.values()) {
+            matriz[celda.getFila()][celda.getColumna()] = celda;
+        }
+        for (int f = 0; f < size; f++) {
+            for (int c = 0; c < size; c++) {
+                if (matriz[f][c] == null) {
+                    matriz[f][c] = new Celda(f, c);
+                }
             }
         }
+        celdas = matriz;
+        celdasDispersas = null;
     }
 
+    public int getSize() { return size; }
+
+    public boolean esDisperso() { return celdasDispersas != null; }
+
+    public boolean isReglaSinContacto() { return reglaSinContacto; }
+
+    /**
+     * Enables or disables the no-touch rule. It must be chosen before any ship
+     * is placed, since existing ships are not re-validated.
+     */
+    public void setReglaSinContacto(boolean reglaSinContacto) {
+        this.reglaSinContacto = reglaSinContacto;
+    }
+
+    /**
+     * Returns the cell at the given position. On a sparse board the cell is
+     * materialized on first access, since callers may mutate it.
+     */
     public Celda getCelda(int fila, int columna) {
-        return celdas[fila][columna];
+        if (celdas != null) {
+            return celdas[fila][columna];
+        }
+        Celda celda = celdasDispersas.computeIfAbsent(indice(fila, columna), k -> new Celda(fila, columna));
+        if ((long) celdasDispersas.size() * DENSIDAD_DENSA >= (long) size * size) {
+            densificar();
+        }
+        return celda;
+    }
+
+    /**
+     * Returns the state of the given cell without materializing it on sparse
+     * boards. Read-only scans (strategies, fallbacks) should prefer this over
+     * {@link #getCelda(int, int)}.
+     */
+    public EstadoCelda getEstado(int fila, int columna) {
+        Celda celda = buscarCelda(fila, columna);
+        return celda == null ? EstadoCelda.VACIA : celda.getEstado();
     }
 
     public boolean dentroDeLimites(int fila, int columna) {
-        return fila >= 0 && fila < SIZE && columna >= 0 && columna < SIZE;
+        return fila >= 0 && fila < size && columna >= 0 && columna < size;
     }
 
+    /**
+     * Checks whether a ship of the given type fits at the given origin without
+     * leaving the board or overlapping another ship. With the no-touch rule
+     * enabled, the ship may not be adjacent to another one either.
+     */
     public boolean puedeColocarBarco(int fila, int columna, Orientacion orientacion, TipoBarco tipo) {
-        int longitud = tipo.getSize();
+        int ultimaFila = orientacion == Orientacion.HORIZONTAL ? fila : fila + tipo.getSize() - 1;
+        int ultimaCol = orientacion == Orientacion.HORIZONTAL ? columna + tipo.getSize() - 1 : columna;
 
-        for (int i = 0; i < longitud; i++) {
-            int f = orientacion == Orientacion.HORIZONTAL ? fila : fila + i;
-            int c = orientacion == Orientacion.HORIZONTAL ? columna + i : columna;
+        if (!dentroDeLimites(fila, columna) || !dentroDeLimites(ultimaFila, ultimaCol)) {
+            return false;
+        }
 
-            if (!dentroDeLimites(f, c)) {
-                return false;
-            }
-            if (celdas[f][c].tieneBarco()) {
-                return false;
+        if (mascaras != null) {
+            MascarasColocacion.Mascara mascara = reglaSinContacto
+                    ? mascaras.halo(fila, columna, orientacion, tipo)
+                    : mascaras.cuerpo(fila, columna, orientacion, tipo);
+            return !mascara.intersecta(filasOcupadas);
+        }
+
+        // Without masks, scan the covered rectangle (grown by one with the rule)
+        int margen = reglaSinContacto ? 1 : 0;
+        for (int f = fila - margen; f <= ultimaFila + margen; f++) {
+            for (int c = columna - margen; c <= ultimaCol + margen; c++) {
+                if (!dentroDeLimites(f, c)) {
+                    continue;
+                }
+                Celda celda = buscarCelda(f, c);
+                if (celda != null && celda.tieneBarco()) {
+                    return false;
+                }
             }
         }
         return true;
@@ -49,22 +199,114 @@ public class Tablero implements Serializable {
 
     public Barco colocarBarco(int fila, int columna, Orientacion orientacion, TipoBarco tipo) {
         Barco barco = new Barco(tipo, orientacion);
-        int longitud = tipo.getSize();
+        colocarBarco(barco, fila, columna, orientacion);
+        return barco;
+    }
 
-        for (int i = 0; i < longitud; i++) {
-            int f = orientacion == Orientacion.HORIZONTAL ? fila : fila + i;
-            int c = orientacion == Orientacion.HORIZONTAL ? columna + i : columna;
+    /**
+     * Places an existing ship (with no cells) at the given origin and
+     * orientation. Used to move or rotate a ship while keeping its identity in
+     * the fleet. The placement is not validated; call
+     * {@link #puedeColocarBarco} first.
+     */
+    public void colocarBarco(Barco barco, int fila, int columna, Orientacion orientacion) {
+        barco.colocar(this, fila, columna, orientacion);
 
-            Celda celda = celdas[f][c];
+        for (Celda celda : barco.getCeldas()) {
             celda.setBarco(barco);
             celda.setEstado(EstadoCelda.BARCO);
-            barco.agregarCelda(celda);
         }
-        return barco;
+
+        if (mascaras != null) {
+            mascaras.cuerpo(fila, columna, orientacion, barco.getTipo()).marcar(filasOcupadas);
+        }
+    }
+
+    /**
+     * Removes a ship from the board, leaving its cells empty and the ship
+     * without cells so it can be placed again.
+     */
+    public void retirarBarco(Barco barco) {
+        if (!barco.estaColocado()) {
+            return;
+        }
+        if (mascaras != null) {
+            mascaras.cuerpo(barco.getFilaOrigen(), barco.getColumnaOrigen(),
+                    barco.getOrientacion(), barco.getTipo()).desmarcar(filasOcupadas);
+        }
+        for (Celda celda : barco.getCeldas()) {
+            celda.setBarco(null);
+            celda.setEstado(EstadoCelda.VACIA);
+        }
+        barco.retirar();
+    }
+
+    /**
+     * Tells whether a cell can be ruled out as a target because, under the
+     * no-touch rule, it is adjacent to a ship that has already been sunk.
+     *
+     * @return {@code false} whenever the rule is disabled
+     */
+    public boolean estaDescartada(int fila, int columna) {
+        if (!reglaSinContacto) {
+            return false;
+        }
+        if (filasDescartadas != null) {
+            return (filasDescartadas[fila] & (1L << columna)) != 0;
+        }
+        for (int f = fila - 1; f <= fila + 1; f++) {
+            for (int c = columna - 1; c <= columna + 1; c++) {
+                if (dentroDeLimites(f, c) && getEstado(f, c) == EstadoCelda.HUNDIDA) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the board as shown by a view: from now on the cells changed by
+     * each shot are kept for {@link #extraerCeldasModificadas()}, and shots
+     * are timed in the {@code tablero.disparar} histogram. Boards nobody
+     * shows, like those of simulations and of the server, skip both.
+     */
+    public void seguirCambios() {
+        if (celdasModificadas == null) {
+            celdasModificadas = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Returns the cells whose state changed through a shot since the previous
+     * call, in the order they changed, and forgets them. When a ship is sunk
+     * all of its cells are reported. Views use this to repaint only what
+     * changed instead of walking the whole board.
+     *
+     * @return the changed cells; always empty unless {@link #seguirCambios()} was called
+     */
+    public List<Celda> extraerCeldasModificadas() {
+        if (celdasModificadas == null) {
+            return List.of();
+        }
+        List<Celda> modificadas = new ArrayList<>(celdasModificadas);
+        celdasModificadas.clear();
+        return modificadas;
     }
 
     public ResultadoDisparo disparar(int fila, int columna) {
-        Celda celda = celdas[fila][columna];
+        if (celdasModificadas == null) {
+            return resolverDisparo(fila, columna);
+        }
+        long inicio = System.nanoTime();
+        try {
+            return resolverDisparo(fila, columna);
+        } finally {
+            T_DISPARAR.registrarDesde(inicio);
+        }
+    }
+
+    private ResultadoDisparo resolverDisparo(int fila, int columna) {
+        Celda celda = getCelda(fila, columna);
 
         // --- Caso 1: La celda ya fue atacada (importante para prevenir re-ataques) ---
         if (celda.getEstado() == EstadoCelda.TOCADA ||
@@ -77,13 +319,13 @@ public class Tablero implements Serializable {
         // --- Caso 2: Disparo al agua (no hay barco) ---
         if (!celda.tieneBarco()) {
             // Si no tiene barco, el resultado es AGUA
-            celda.setEstado(EstadoCelda.AGUA_TOCADA); // <--- AHORA SE USA CORRECTAMENTE
+            marcar(celda, EstadoCelda.AGUA_TOCADA);
             return ResultadoDisparo.AGUA;
         }
 
         // --- Caso 3: Disparo a un barco ---
         // Si llega aquí, es un barco que no ha sido atacado (estado BARCO)
-        celda.setEstado(EstadoCelda.TOCADA);
+        marcar(celda, EstadoCelda.TOCADA);
         Barco barco = celda.getBarco();
 
         // (Aquí falta la lógica para que el barco sepa que fue tocado,
@@ -93,30 +335,166 @@ public class Tablero implements Serializable {
         if (barco.estaHundido()) {
             // Si se hunde, marca todas las celdas del barco como HUNDIDA
             for (Celda c : barco.getCeldas()) {
-                c.setEstado(EstadoCelda.HUNDIDA);
+                marcar(c, EstadoCelda.HUNDIDA);
             }
+            marcarHaloHundido(barco);
             return ResultadoDisparo.HUNDIDO;
         }
 
         return ResultadoDisparo.TOCADO;
     }
 
+    /**
+     * Records a shot that was resolved elsewhere, on a board that only mirrors
+     * a rival's one whose ships are unknown. Water and hits just mark the
+     * cell; a sunk ship is placed from its reported position with all of its
+     * cells sunk. Changed cells are reported like those of {@link #disparar}.
+     *
+     * @param hundido position of the ship sunk by the shot; only read for {@code HUNDIDO}
+     */
+    public void reflejarDisparo(int fila, int columna, ResultadoDisparo resultado, Colocacion hundido) {
+        switch (resultado) {
+            case AGUA -> marcar(getCelda(fila, columna), EstadoCelda.AGUA_TOCADA);
+            case TOCADO -> marcar(getCelda(fila, columna), EstadoCelda.TOCADA);
+            case HUNDIDO -> {
+                Barco barco = colocarBarco(hundido.fila(), hundido.columna(), hundido.orientacion(), hundido.tipo());
+                barco.getCeldas().forEach(c -> marcar(c, EstadoCelda.HUNDIDA));
+                marcarHaloHundido(barco);
+            }
+        }
+    }
+
+    private void marcar(Celda celda, EstadoCelda estado) {
+        celda.setEstado(estado);
+        if (celdasModificadas != null) {
+            celdasModificadas.add(celda);
+        }
+    }
+
+    private void marcarHaloHundido(Barco barco) {
+        if (filasDescartadas != null) {
+            mascaras.halo(barco.getFilaOrigen(), barco.getColumnaOrigen(),
+                    barco.getOrientacion(), barco.getTipo()).marcar(filasDescartadas);
+        }
+    }
+
+    private void inicializarMascaras() {
+        mascaras = MascarasColocacion.para(size);
+        if (mascaras != null) {
+            filasOcupadas = new long[size];
+            filasDescartadas = new long[size];
+        }
+    }
+
+    /**
+     * Looks up a cell without creating it.
+     *
+     * @return the cell, or {@code null} if the board is sparse and the cell was never touched
+     */
+    private Celda buscarCelda(int fila, int columna) {
+        if (celdas != null) {
+            return celdas[fila][columna];
+        }
+        return celdasDispersas.get(indice(fila, columna));
+    }
+
+    private int indice(int fila, int columna) {
+        return fila * size + columna;
+    }
+
+    /**
+     * Returns the cells that are actually stored, in row-major order: every cell
+     * on a dense board, only the touched ones on a sparse board.
+     */
+    private Collection<Celda> celdasAlmacenadas() {
+        if (celdas == null) {
+            return new TreeMap<>(celdasDispersas).values();
+        }
+        List<Celda> todas = new ArrayList<>(size * size);
+        for (Celda[] fila : celdas) {
+            todas.addAll(List.of(fila));
+        }
+        return todas;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject(); // size y reglaSinContacto
+
+        List<Celda> marcadas = new ArrayList<>();
+        Set<Barco> barcos = new LinkedHashSet<>();
+        for (Celda celda : celdasAlmacenadas()) {
+            if (celda.getEstado() != EstadoCelda.VACIA) {
+                marcadas.add(celda);
+            }
+            if (celda.tieneBarco()) {
+                barcos.add(celda.getBarco());
+            }
+        }
+
+        out.writeInt(marcadas.size());
+        for (Celda celda : marcadas) {
+            out.writeInt(indice(celda.getFila(), celda.getColumna()));
+            out.writeByte(celda.getEstado().ordinal());
+        }
+
+        out.writeInt(barcos.size());
+        for (Barco barco : barcos) {
+            out.writeObject(barco);
+        }
+    }
+
     private void readObject(ObjectInputStream in)
             throws IOException, ClassNotFoundException {
 
-        in.defaultReadObject(); // Lee los campos normales (celdas[][])
+        in.defaultReadObject(); // Lee size y reglaSinContacto
+        if (size <= 0 || size > TAMANO_MAXIMO) {
+            throw new InvalidObjectException("Tamaño de tablero inválido: " + size);
+        }
+        crearCeldas();
+        inicializarMascaras();
 
-        // Reconstruir las listas de celdas de cada barco
-        for (int f = 0; f < SIZE; f++) {
-            for (int c = 0; c < SIZE; c++) {
-                Celda celda = celdas[f][c];
+        long totalCeldas = (long) size * size;
+        int marcadas = in.readInt();
+        for (int i = 0; i < marcadas; i++) {
+            int indice = in.readInt();
+            int estado = in.readUnsignedByte();
+            if (indice < 0 || indice >= totalCeldas || estado >= ESTADOS.length) {
+                throw new InvalidObjectException("Celda guardada inválida: " + indice + "=" + estado);
+            }
+            getCelda(indice / size, indice % size).setEstado(ESTADOS[estado]);
+        }
 
-                // Si la celda tiene un barco, reconstruir su lista
-                if (celda.tieneBarco()) {
-                    Barco barco = celda.getBarco();
-                    barco.agregarCelda(celda);
-                }
+        int barcos = in.readInt();
+        for (int i = 0; i < barcos; i++) {
+            vincularBarco((Barco) in.readObject());
+        }
+    }
+
+    /**
+     * Attaches a loaded ship to this board: links the cells it covers, whose
+     * states were already read, and marks it in the placement masks.
+     */
+    private void vincularBarco(Barco barco) throws InvalidObjectException {
+        try {
+            barco.vincular(this);
+        } catch (IllegalStateException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+        int ultima = barco.getSize() - 1;
+        if (!dentroDeLimites(barco.filaDe(0), barco.columnaDe(0))
+                || !dentroDeLimites(barco.filaDe(ultima), barco.columnaDe(ultima))) {
+            throw new InvalidObjectException("Barco fuera del tablero: " + barco.getTipo());
+        }
+
+        for (Celda celda : barco.getCeldas()) {
+            celda.setBarco(barco);
+        }
+        if (mascaras != null) {
+            mascaras.cuerpo(barco.getFilaOrigen(), barco.getColumnaOrigen(),
+                    barco.getOrientacion(), barco.getTipo()).marcar(filasOcupadas);
+            if (barco.estaHundido()) {
+                marcarHaloHundido(barco);
             }
         }
     }
-}
\ No newline at end of file
+}
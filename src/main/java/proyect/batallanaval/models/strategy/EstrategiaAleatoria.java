@@ -3,46 +3,84 @@ package proyect.batallanaval.models.strategy;
 import proyect.batallanaval.models.EstadoCelda;
 import proyect.batallanaval.models.Tablero;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 
 public class EstrategiaAleatoria implements EstrategiaAtaque {
 
-    private final Random random;
+    // Random draws tried before falling back to counting the free cells
+    private static final int INTENTOS_AL_AZAR = 32;
+
+    private final RandomGenerator random;
 
     public EstrategiaAleatoria() {
-        this.random = new Random();
+        this(new Random());
     }
 
     /**
-     * Selects a random cell that hasn't been attacked yet.
+     * Creates the strategy drawing its choices from the given source, for
+     * instance {@link proyect.batallanaval.models.Juego#getGeneradorIA()} to
+     * make the machine's shots reproducible from the game seed.
+     *
+     * @param random source of randomness for target selection
+     */
+    public EstrategiaAleatoria(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Selects a random cell that hasn't been attacked yet. When the target
+     * board forbids touching ships, cells next to a sunk ship are skipped too,
+     * since they cannot hold another ship.
+     * <p>
+     * Cells are drawn at random until one is free, which takes a draw or two
+     * while most of the board is untouched, however large it is. Only when
+     * the draws keep hitting attacked cells are the free ones counted and
+     * one of them picked.
+     * </p>
      *
      * @param tableroObjetivo the board to attack
      * @return coordinates [row, col] of a valid unattacked cell, or null if none exist
      */
     @Override
     public int[] seleccionarAtaque(Tablero tableroObjetivo) {
-        List<int[]> celdasDisponibles = new ArrayList<>();
-
-        // Collect all cells that haven't been attacked
-        for (int fila = 0; fila < Tablero.SIZE; fila++) {
-            for (int col = 0; col < Tablero.SIZE; col++) {
-                EstadoCelda estado = tableroObjetivo.getCelda(fila, col).getEstado();
-                if (estado != EstadoCelda.TOCADA && estado != EstadoCelda.HUNDIDA) {
-                    celdasDisponibles.add(new int[]{fila, col});
-                }
+        int size = tableroObjetivo.getSize();
+        for (int intento = 0; intento < INTENTOS_AL_AZAR; intento++) {
+            int fila = random.nextInt(size);
+            int col = random.nextInt(size);
+            if (estaLibre(tableroObjetivo, fila, col)) {
+                return new int[]{fila, col};
             }
         }
 
-        // If no cells available, return null
-        if (celdasDisponibles.isEmpty()) {
+        // Mostly attacked board: pick uniformly among the free cells
+        int libres = 0;
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                if (estaLibre(tableroObjetivo, fila, col)) {
+                    libres++;
+                }
+            }
+        }
+        if (libres == 0) {
             return null;
         }
+        int elegida = random.nextInt(libres);
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                if (estaLibre(tableroObjetivo, fila, col) && elegida-- == 0) {
+                    return new int[]{fila, col};
+                }
+            }
+        }
+        return null;
+    }
 
-        // Select a random cell from available ones
-        int indice = random.nextInt(celdasDisponibles.size());
-        return celdasDisponibles.get(indice);
+    private static boolean estaLibre(Tablero tablero, int fila, int col) {
+        EstadoCelda estado = tablero.getEstado(fila, col);
+        return estado != EstadoCelda.TOCADA && estado != EstadoCelda.HUNDIDA
+                && estado != EstadoCelda.AGUA_TOCADA
+                && !tablero.estaDescartada(fila, col);
     }
 }
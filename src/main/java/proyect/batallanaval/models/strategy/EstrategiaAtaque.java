@@ -23,4 +23,11 @@ public interface EstrategiaAtaque {
     default void notificarResultado(int fila, int col, ResultadoDisparo resultado) {
         // Default implementation does nothing
     }
+
+    /**
+     * Short name of the strategy, used to tell strategies apart in archived games.
+     */
+    default String getNombre() {
+        return getClass().getSimpleName();
+    }
 }
@@ -0,0 +1,152 @@
+package proyect.batallanaval.models.strategy;
+
+import proyect.batallanaval.models.EstadoCelda;
+import proyect.batallanaval.models.ResultadoDisparo;
+import proyect.batallanaval.models.Tablero;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hunt and target attacker: it searches on a checkerboard until it hits a
+ * ship, then shoots around the hits that belong to no sunk ship yet,
+ * following their line once two of them are in a row.
+ * <p>
+ * Unlike {@link EstrategiaAleatoria}, how long it takes depends on the
+ * layout it attacks: ships in the cells it hunts first, or lined up so that
+ * finishing one reveals another, go down sooner. That makes it a meaningful
+ * opponent to score fleet layouts against.
+ * </p>
+ */
+public class EstrategiaCazaYRemate implements EstrategiaAtaque {
+
+    // Random draws tried before falling back to counting the candidate cells
+    private static final int INTENTOS_AL_AZAR = 32;
+
+    private static final int[][] VECINOS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+
+    private final RandomGenerator random;
+    private final List<int[]> impactos = new ArrayList<>(); // hits not known to be sunk
+
+    public EstrategiaCazaYRemate() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source of randomness for the hunting shots
+     */
+    public EstrategiaCazaYRemate(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public int[] seleccionarAtaque(Tablero tableroObjetivo) {
+        impactos.removeIf(i -> tableroObjetivo.getEstado(i[0], i[1]) != EstadoCelda.TOCADA);
+        int[] remate = rematar(tableroObjetivo);
+        if (remate != null) {
+            return remate;
+        }
+        int[] caza = cazar(tableroObjetivo, true);
+        return caza != null ? caza : cazar(tableroObjetivo, false);
+    }
+
+    @Override
+    public void notificarResultado(int fila, int col, ResultadoDisparo resultado) {
+        if (resultado == ResultadoDisparo.TOCADO) {
+            impactos.add(new int[]{fila, col});
+        }
+    }
+
+    /**
+     * Picks a free cell next to the latest open hit, along its line when a
+     * neighbouring hit gives one.
+     */
+    private int[] rematar(Tablero tablero) {
+        for (int i = impactos.size() - 1; i >= 0; i--) {
+            int[] impacto = impactos.get(i);
+            List<int[]> candidatas = new ArrayList<>(4);
+            for (int[] v : VECINOS) {
+                if (esImpactoAbierto(tablero, impacto[0] - v[0], impacto[1] - v[1])) {
+                    // Aligned hits: continue the line past the end of the run
+                    int f = impacto[0] + v[0];
+                    int c = impacto[1] + v[1];
+                    while (esImpactoAbierto(tablero, f, c)) {
+                        f += v[0];
+                        c += v[1];
+                    }
+                    if (estaLibre(tablero, f, c)) {
+                        candidatas.add(new int[]{f, c});
+                    }
+                }
+            }
+            if (candidatas.isEmpty()) {
+                for (int[] v : VECINOS) {
+                    if (estaLibre(tablero, impacto[0] + v[0], impacto[1] + v[1])) {
+                        candidatas.add(new int[]{impacto[0] + v[0], impacto[1] + v[1]});
+                    }
+                }
+            }
+            if (!candidatas.isEmpty()) {
+                return candidatas.get(random.nextInt(candidatas.size()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks a random free cell, only from the checkerboard when asked to.
+     *
+     * @return the cell, or {@code null} if no such cell is left
+     */
+    private int[] cazar(Tablero tablero, boolean soloPares) {
+        int size = tablero.getSize();
+        for (int intento = 0; intento < INTENTOS_AL_AZAR; intento++) {
+            int fila = random.nextInt(size);
+            int col = random.nextInt(size);
+            if (esCandidata(tablero, fila, col, soloPares)) {
+                return new int[]{fila, col};
+            }
+        }
+
+        int libres = 0;
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                if (esCandidata(tablero, fila, col, soloPares)) {
+                    libres++;
+                }
+            }
+        }
+        if (libres == 0) {
+            return null;
+        }
+        int elegida = random.nextInt(libres);
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                if (esCandidata(tablero, fila, col, soloPares) && elegida-- == 0) {
+                    return new int[]{fila, col};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean esCandidata(Tablero tablero, int fila, int col, boolean soloPares) {
+        return (!soloPares || (fila + col) % 2 == 0) && estaLibre(tablero, fila, col);
+    }
+
+    private static boolean esImpactoAbierto(Tablero tablero, int fila, int col) {
+        return tablero.dentroDeLimites(fila, col) && tablero.getEstado(fila, col) == EstadoCelda.TOCADA;
+    }
+
+    private static boolean estaLibre(Tablero tablero, int fila, int col) {
+        if (!tablero.dentroDeLimites(fila, col)) {
+            return false;
+        }
+        EstadoCelda estado = tablero.getEstado(fila, col);
+        return estado != EstadoCelda.TOCADA && estado != EstadoCelda.HUNDIDA
+                && estado != EstadoCelda.AGUA_TOCADA
+                && !tablero.estaDescartada(fila, col);
+    }
+}
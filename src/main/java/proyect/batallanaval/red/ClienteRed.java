@@ -0,0 +1,236 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.exceptions.ProtocoloException;
+import proyect.batallanaval.logging.Registros;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Client side of the {@link Protocolo} connection to a {@link ServidorJuego}.
+ * <p>
+ * Messages are encoded on the calling thread and written, in order, by a
+ * writer thread of their own, so the FX thread never waits on the socket;
+ * a failed write counts as a lost connection. Incoming messages are decoded
+ * on a reader thread of their own and handed to the receiver in arrival
+ * order; the receiver must not block it.
+ * </p>
+ * The server comes from the {@code batallanaval.servidor} property, as
+ * {@code host:puerto}. Without it the client plays on this machine, starting
+ * a server inside the process when none is listening yet, so two instances
+ * of the game on one computer play each other; that server runs until
+ * {@link #detenerServidorLocal()}. The
+ * {@code batallanaval.latenciaRed} property, in milliseconds, delays every
+ * incoming message to try the game as if the server were far away.
+ */
+public final class ClienteRed implements AutoCloseable {
+    private static final System.Logger LOG = Registros.getLogger(ClienteRed.class);
+
+    private static ServidorJuego servidorLocal; // guarded by ClienteRed.class
+
+    private final SocketChannel canal;
+    private final ExecutorService escritor =
+            Executors.newSingleThreadExecutor(r -> demonio(r, "cliente-red-escritor"));
+    private final Consumer<Protocolo.Mensaje> receptor;
+    private final Runnable alPerderConexion;
+    private final ScheduledExecutorService retraso;
+    private final long latenciaNanos;
+    private volatile boolean cerrado;
+
+    private ClienteRed(SocketChannel canal, Consumer<Protocolo.Mensaje> receptor,
+                       Runnable alPerderConexion, Duration latencia) {
+        this.canal = canal;
+        this.receptor = receptor;
+        this.alPerderConexion = alPerderConexion;
+        this.latenciaNanos = latencia.toNanos();
+        this.retraso = latenciaNanos > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> demonio(r, "cliente-red-latencia"))
+                : null;
+        demonio(this::leer, "cliente-red").start();
+    }
+
+    /**
+     * Connects to the configured server, or to the one on this machine.
+     * Blocks while connecting, so it must not run on the FX thread.
+     *
+     * @param receptor         gets every message from the server, on the reader thread
+     * @param alPerderConexion runs on the reader thread if the connection drops
+     *                         without {@link #close()} being called
+     * @throws IOException if no server can be reached
+     */
+    public static ClienteRed conectar(Consumer<Protocolo.Mensaje> receptor, Runnable alPerderConexion)
+            throws IOException {
+        Duration latencia = Duration.ofMillis(Long.getLong("batallanaval.latenciaRed", 0));
+        String configurado = System.getProperty("batallanaval.servidor");
+        if (configurado != null && !configurado.isBlank()) {
+            return new ClienteRed(abrir(direccion(configurado)), receptor, alPerderConexion, latencia);
+        }
+
+        InetSocketAddress local = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                ServidorJuego.PUERTO_POR_DEFECTO);
+        SocketChannel canal;
+        try {
+            canal = abrir(local);
+        } catch (ConnectException e) {
+            iniciarServidorLocal(local);
+            canal = abrir(local);
+        }
+        return new ClienteRed(canal, receptor, alPerderConexion, latencia);
+    }
+
+    private static InetSocketAddress direccion(String texto) {
+        int separador = texto.lastIndexOf(':');
+        if (separador < 0) {
+            return new InetSocketAddress(texto.trim(), ServidorJuego.PUERTO_POR_DEFECTO);
+        }
+        return new InetSocketAddress(texto.substring(0, separador).trim(),
+                Integer.parseInt(texto.substring(separador + 1).trim()));
+    }
+
+    private static SocketChannel abrir(InetSocketAddress direccion) throws IOException {
+        SocketChannel canal = SocketChannel.open(direccion);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return canal;
+    }
+
+    /**
+     * Starts the in-process server, unless this or another process got there first.
+     */
+    private static synchronized void iniciarServidorLocal(InetSocketAddress direccion) throws IOException {
+        if (servidorLocal != null) {
+            return;
+        }
+        ServidorJuego servidor = new ServidorJuego(direccion, Duration.ofMillis(500));
+        try {
+            servidor.iniciar();
+            servidorLocal = servidor;
+        } catch (IOException e) {
+            // Another instance bound the port in between; connecting to it is enough
+            LOG.log(Level.DEBUG, "No se pudo iniciar el servidor local: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the server this process started for local play, if any, closing
+     * the matches it hosts. Its loops are not daemon threads, so the process
+     * would otherwise outlive the game window.
+     */
+    public static synchronized void detenerServidorLocal() {
+        if (servidorLocal == null) {
+            return;
+        }
+        try {
+            servidorLocal.close();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo detener el servidor local: {0}", e.getMessage());
+        }
+        servidorLocal = null;
+    }
+
+    /**
+     * Queues one message for the writer thread and returns at once. If the
+     * write fails, the connection is treated as lost.
+     *
+     * @throws IllegalArgumentException if the message cannot be encoded
+     */
+    public void enviar(Protocolo.Mensaje mensaje) {
+        ByteBuffer trama = ByteBuffer.allocate(Protocolo.MAXIMO_TRAMA + 2);
+        Protocolo.escribir(mensaje, trama);
+        trama.flip();
+        try {
+            escritor.execute(() -> escribir(trama));
+        } catch (RejectedExecutionException e) {
+            // Closed: the message has nowhere to go
+        }
+    }
+
+    private void escribir(ByteBuffer trama) {
+        try {
+            while (trama.hasRemaining()) {
+                canal.write(trama);
+            }
+        } catch (IOException e) {
+            if (!cerrado) {
+                LOG.log(Level.DEBUG, "No se pudo escribir al servidor: {0}", e.getMessage());
+                conexionPerdida();
+            }
+        }
+    }
+
+    private void leer() {
+        ByteBuffer entrada = ByteBuffer.allocate(4 * (Protocolo.MAXIMO_TRAMA + 2));
+        try {
+            while (canal.read(entrada) >= 0) {
+                entrada.flip();
+                Protocolo.Mensaje mensaje;
+                while ((mensaje = Protocolo.leer(entrada)) != null) {
+                    entregar(mensaje);
+                }
+                entrada.compact();
+            }
+        } catch (ProtocoloException e) {
+            LOG.log(Level.WARNING, "Mensaje inválido del servidor: {0}", e.getMessage());
+        } catch (IOException e) {
+            if (!cerrado) {
+                LOG.log(Level.DEBUG, "Conexión con el servidor perdida: {0}", e.getMessage());
+            }
+        }
+        if (!cerrado) {
+            entregar(null);
+        }
+    }
+
+    // null stands for the lost connection, so it keeps its place after the messages ahead of it
+    private void entregar(Protocolo.Mensaje mensaje) {
+        Runnable entrega = mensaje != null ? () -> receptor.accept(mensaje) : this::conexionPerdida;
+        if (retraso == null) {
+            entrega.run();
+        } else {
+            retraso.schedule(entrega, latenciaNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // The reader and the writer may both notice; only the first one reports it
+    private synchronized void conexionPerdida() {
+        if (!cerrado) {
+            close();
+            alPerderConexion.run();
+        }
+    }
+
+    /**
+     * Closes the connection; the server treats it as leaving the match.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            canal.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+        escritor.shutdown();
+        if (retraso != null) {
+            retraso.shutdown();
+        }
+    }
+
+    private static Thread demonio(Runnable tarea, String nombre) {
+        Thread hilo = new Thread(tarea, nombre);
+        hilo.setDaemon(true);
+        return hilo;
+    }
+}
@@ -0,0 +1,174 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.exceptions.ProtocoloException;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+/**
+ * One client socket of the server, with its read and write buffers.
+ * <p>
+ * Only the event loop it is registered with touches it; when it is paired
+ * with a client of another loop it stops reading, leaves any frames still
+ * buffered and is registered with that loop instead. Outgoing frames are appended to a
+ * buffer and written as far as the socket accepts; the rest waits for the
+ * socket to become writable again. A client that lets more than
+ * {@value #MAXIMO_PENDIENTE} bytes pile up is too slow to keep, and is
+ * disconnected rather than buffered without limit.
+ * </p>
+ */
+final class Conexion {
+
+    private static final int MAXIMO_PENDIENTE = 64 * 1024;
+
+    private final SocketChannel canal;
+    private SelectionKey clave;
+    private Runnable traslado;
+    private final ByteBuffer entrada = ByteBuffer.allocate(4 * (Protocolo.MAXIMO_TRAMA + 2));
+    private ByteBuffer salida = ByteBuffer.allocate(1024);
+
+    /** Loop serving this client; {@code null} until registered. */
+    Fragmento fragmento;
+    /** Match this client is in; {@code null} between matches. */
+    SesionRed sesion;
+    /** This client's side in {@link #sesion}. */
+    int lado;
+    /** Placement rule this client waits for a rival with, or -1. */
+    int reglaEspera = -1;
+    String nickname;
+
+    Conexion(SocketChannel canal) {
+        this.canal = canal;
+    }
+
+    /**
+     * Makes the loop's selector watch this client, keeping any pending output.
+     * Only from that loop's thread.
+     *
+     * @throws IOException if the client is already gone
+     */
+    void registrar(Fragmento fragmento, Selector selector) throws IOException {
+        SelectionKey anterior = canal.keyFor(selector);
+        if (anterior != null && !anterior.isValid()) {
+            // Back on a loop it left before that loop selected again: the
+            // cancelled key is only dropped by a selection, and registering
+            // over it would throw CancelledKeyException
+            selector.selectNow();
+        }
+        clave = canal.register(selector, interes(), this);
+        this.fragmento = fragmento;
+    }
+
+    /**
+     * Ends the current read after the message being handled; the handover
+     * runs once the loop has stopped reading.
+     */
+    void trasladar(Runnable traslado) {
+        this.traslado = traslado;
+    }
+
+    Runnable tomarTraslado() {
+        Runnable t = traslado;
+        traslado = null;
+        return t;
+    }
+
+    /**
+     * Stops watching this client on its current loop, leaving the socket open.
+     */
+    void soltar() {
+        clave.cancel();
+    }
+
+    /**
+     * Reads what the socket has and hands over every complete message.
+     *
+     * @return {@code false} if the client closed the connection
+     * @throws ProtocoloException if a frame is malformed
+     */
+    boolean leer(Consumer<Protocolo.Mensaje> destino) throws IOException {
+        int leidos = canal.read(entrada);
+        entrada.flip();
+        try {
+            Protocolo.Mensaje mensaje;
+            while (traslado == null && (mensaje = Protocolo.leer(entrada)) != null) {
+                destino.accept(mensaje);
+            }
+        } finally {
+            entrada.compact();
+        }
+        return leidos >= 0;
+    }
+
+    /**
+     * Queues a message and writes as much as the socket takes right away.
+     *
+     * @throws IOException if the client is gone or too far behind
+     */
+    void enviar(Protocolo.Mensaje mensaje) throws IOException {
+        int posicion = salida.position();
+        try {
+            Protocolo.escribir(mensaje, salida);
+        } catch (BufferOverflowException e) {
+            salida.position(posicion);
+            if (salida.capacity() >= MAXIMO_PENDIENTE) {
+                throw new IOException("Client too slow, " + salida.position() + " bytes pending");
+            }
+            ByteBuffer mayor = ByteBuffer.allocate(salida.capacity() * 2);
+            mayor.put(salida.flip());
+            salida = mayor;
+            Protocolo.escribir(mensaje, salida);
+        }
+        escribir();
+    }
+
+    /**
+     * Writes pending bytes, asking the selector for writability while some remain.
+     */
+    void escribir() throws IOException {
+        salida.flip();
+        try {
+            canal.write(salida);
+        } finally {
+            salida.compact();
+        }
+        if (clave == null || !clave.isValid()) {
+            return;
+        }
+        int interes = interes();
+        if (clave.interestOps() != interes) {
+            clave.interestOps(interes);
+        }
+    }
+
+    private int interes() {
+        return salida.position() > 0
+                ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                : SelectionKey.OP_READ;
+    }
+
+    void cerrar() {
+        if (clave != null) {
+            clave.cancel();
+        }
+        try {
+            canal.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    boolean abierta() {
+        return canal.isOpen();
+    }
+
+    @Override
+    public String toString() {
+        return nickname != null ? nickname : String.valueOf(canal.socket().getRemoteSocketAddress());
+    }
+}
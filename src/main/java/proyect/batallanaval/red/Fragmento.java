@@ -0,0 +1,424 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.exceptions.ProtocoloException;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One event loop of a {@link ServidorJuego}: a thread with its own
+ * {@link Selector}, clients, matches and timed tasks.
+ * <p>
+ * Everything a loop owns is touched by its thread only. Other threads reach
+ * it through {@link #ejecutar(Runnable)}, which queues the work and wakes
+ * the selector; that is how accepted clients arrive and how a client paired
+ * with a rival of another loop moves over, so both players of a match are
+ * always served by the same loop.
+ * </p>
+ * A message, timed task or queued action that throws only costs the match or
+ * clients it was for; the loop logs it and goes on serving the rest.
+ */
+final class Fragmento {
+    private static final System.Logger LOG = Registros.getLogger(Fragmento.class);
+
+    private static final Histograma T_MENSAJE = Metricas.histograma("red.mensaje");
+    private static final Contador TRASLADOS = Metricas.contador("red.traslados");
+
+    private final ServidorJuego servidor;
+    private final long esperaMaquinaNanos;
+    private final Selector selector;
+    private final Thread hilo;
+    private volatile boolean detenido;
+
+    private final ConcurrentLinkedQueue<Runnable> buzon = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, SesionRed> sesiones = new HashMap<>();
+    private final PriorityQueue<Tarea> tareas = new PriorityQueue<>();
+    private final List<Conexion> porCerrar = new ArrayList<>();
+    private long secuenciaTareas;
+
+    // Timed work of the loop, on behalf of a match; ties run in scheduling order
+    private record Tarea(long instante, long secuencia, SesionRed sesion, Runnable accion)
+            implements Comparable<Tarea> {
+        @Override
+        public int compareTo(Tarea otra) {
+            int c = Long.compare(instante, otra.instante);
+            return c != 0 ? c : Long.compare(secuencia, otra.secuencia);
+        }
+    }
+
+    Fragmento(ServidorJuego servidor, int indice, long esperaMaquinaNanos) throws IOException {
+        this.servidor = servidor;
+        this.esperaMaquinaNanos = esperaMaquinaNanos;
+        this.selector = Selector.open();
+        this.hilo = new Thread(this::bucle, "servidor-juego-" + indice);
+    }
+
+    void iniciar() {
+        hilo.start();
+    }
+
+    /**
+     * Stops the loop, closing its clients, and waits for it.
+     */
+    void detener() {
+        detenido = true;
+        selector.wakeup();
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs work on this loop's thread. Safe to call from any thread.
+     */
+    void ejecutar(Runnable accion) {
+        buzon.add(accion);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs work for some clients on this loop's thread; if it throws, those
+     * clients are dropped. Safe to call from any thread.
+     */
+    private void ejecutarPara(Runnable accion, Conexion... clientes) {
+        ejecutar(() -> {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                LOG.log(Level.ERROR, "Clientes descartados tras un error del servidor de partidas", e);
+                for (Conexion c : clientes) {
+                    descartar(c, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Takes a newly accepted client. Safe to call from any thread.
+     */
+    void adoptar(Conexion conexion) {
+        ejecutarPara(() -> registrar(conexion), conexion);
+    }
+
+    private boolean registrar(Conexion conexion) {
+        try {
+            conexion.registrar(this, selector);
+            return true;
+        } catch (IOException e) {
+            conexion.cerrar();
+            return false;
+        }
+    }
+
+    private void bucle() {
+        try {
+            while (!detenido) {
+                vaciarBuzon();
+                long espera = ejecutarTareasVencidas();
+                // Keys left selected by a registration's selectNow would not wake select()
+                if (!buzon.isEmpty() || espera == 0 || !selector.selectedKeys().isEmpty()) {
+                    selector.selectNow();
+                } else if (espera < 0) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, espera / 1_000_000));
+                }
+
+                Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                while (claves.hasNext()) {
+                    SelectionKey clave = claves.next();
+                    claves.remove();
+                    if (!clave.isValid()) {
+                        continue;
+                    }
+                    Conexion conexion = (Conexion) clave.attachment();
+                    if (clave.isReadable()) {
+                        leer(conexion);
+                    }
+                    if (clave.isValid() && clave.isWritable()) {
+                        escribir(conexion);
+                    }
+                }
+                cerrarPendientes();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            LOG.log(Level.ERROR, "Un bucle del servidor de partidas se detuvo", e);
+        } finally {
+            for (SelectionKey clave : selector.keys()) {
+                if (clave.attachment() instanceof Conexion c) {
+                    c.cerrar();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void vaciarBuzon() {
+        Runnable accion;
+        while ((accion = buzon.poll()) != null) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                LOG.log(Level.ERROR, "Una acción del servidor de partidas falló", e);
+            }
+            cerrarPendientes();
+        }
+    }
+
+    /**
+     * Runs the timed tasks that are due.
+     *
+     * @return nanoseconds until the next task, or -1 if there is none
+     */
+    private long ejecutarTareasVencidas() {
+        while (!tareas.isEmpty()) {
+            long falta = tareas.peek().instante() - System.nanoTime();
+            if (falta > 0) {
+                return falta;
+            }
+            long inicio = System.nanoTime();
+            Tarea tarea = tareas.poll();
+            try {
+                tarea.accion().run();
+            } catch (RuntimeException e) {
+                fallo(tarea.sesion(), e);
+            }
+            T_MENSAJE.registrarDesde(inicio);
+            cerrarPendientes();
+        }
+        return -1;
+    }
+
+    private void leer(Conexion conexion) {
+        try {
+            boolean abierta = conexion.leer(mensaje -> recibir(conexion, mensaje));
+            // Closed or not, a client moving away is the other loop's business now
+            if (!completarTraslado(conexion) && !abierta) {
+                desconectar(conexion);
+            }
+        } catch (ProtocoloException e) {
+            LOG.log(Level.WARNING, "Cliente {0} desconectado: {1}", conexion, e.getMessage());
+            desconectar(conexion);
+        } catch (IOException e) {
+            desconectar(conexion);
+        }
+    }
+
+    private void escribir(Conexion conexion) {
+        try {
+            conexion.escribir();
+        } catch (IOException e) {
+            desconectar(conexion);
+        }
+    }
+
+    private void recibir(Conexion conexion, Protocolo.Mensaje mensaje) {
+        if (!conexion.abierta()) {
+            return; // dropped earlier in this same read
+        }
+        long inicio = System.nanoTime();
+        SesionRed sesion = conexion.sesion;
+        try {
+            if (mensaje instanceof Protocolo.Unirse unirse) {
+                unirse(conexion, unirse);
+            } else if (sesion != null) {
+                sesion.recibir(conexion.lado, mensaje);
+            } else {
+                enviar(conexion, new Protocolo.Rechazo(Protocolo.CodigoError.ESTADO));
+            }
+        } catch (RuntimeException e) {
+            if (sesion != null) {
+                fallo(sesion, e);
+            } else {
+                LOG.log(Level.ERROR, "Mensaje de " + conexion + " no procesado", e);
+                porCerrar.add(conexion);
+            }
+        }
+        T_MENSAJE.registrarDesde(inicio);
+    }
+
+    /**
+     * A match failed on this loop: it ends with no winner, and the loop goes
+     * on serving every other match.
+     */
+    private void fallo(SesionRed sesion, RuntimeException e) {
+        if (sesion == null) {
+            LOG.log(Level.ERROR, "Una tarea del servidor de partidas falló", e);
+            return;
+        }
+        LOG.log(Level.ERROR, "Partida " + sesion.getId() + " interrumpida por un error", e);
+        try {
+            sesion.interrumpir();
+        } catch (RuntimeException otro) {
+            LOG.log(Level.ERROR, "No se pudo cerrar la partida " + sesion.getId(), otro);
+            sesiones.remove(sesion.getId());
+        }
+    }
+
+    private void unirse(Conexion conexion, Protocolo.Unirse unirse) {
+        if (conexion.sesion != null || conexion.reglaEspera >= 0 || unirse.nickname().isBlank()) {
+            enviar(conexion, new Protocolo.Rechazo(Protocolo.CodigoError.ESTADO));
+            return;
+        }
+        conexion.nickname = unirse.nickname();
+        if (unirse.contraHumano()) {
+            buscarRival(conexion, unirse.reglaSinContacto() ? 1 : 0);
+        } else {
+            abrirSesion(conexion, null, unirse.reglaSinContacto());
+        }
+    }
+
+    /**
+     * Pairs the client with the one waiting for the same rule, or leaves it
+     * waiting. A rival served by another loop is joined there, once this
+     * loop has stopped reading from the client.
+     */
+    private void buscarRival(Conexion conexion, int regla) {
+        Conexion primero = servidor.emparejar(conexion, regla);
+        if (primero == null) {
+            conexion.reglaEspera = regla;
+            return;
+        }
+        Fragmento destino = primero.fragmento;
+        if (destino == this) {
+            llegarRival(primero, conexion, regla);
+            return;
+        }
+        conexion.trasladar(() -> destino.ejecutarPara(() -> destino.llegarRival(primero, conexion, regla),
+                primero, conexion));
+        TRASLADOS.incrementar();
+    }
+
+    /**
+     * Starts the match of a waiting client, on its loop, with the rival that
+     * was just paired with it. Either may have left in between; the one
+     * still there looks for a rival again.
+     */
+    private void llegarRival(Conexion primero, Conexion rival, int regla) {
+        boolean primeroSigue = primero.abierta() && primero.reglaEspera == regla;
+        if (primeroSigue) {
+            primero.reglaEspera = -1;
+        }
+        boolean trasladado = rival.fragmento != this;
+        boolean rivalSigue = rival.abierta() && (!trasladado || registrar(rival));
+
+        if (primeroSigue && rivalSigue) {
+            abrirSesion(primero, rival, regla == 1);
+        } else if (primeroSigue) {
+            buscarRival(primero, regla);
+            completarTraslado(primero);
+        } else if (rivalSigue) {
+            buscarRival(rival, regla);
+        }
+        if (trasladado && rivalSigue) {
+            // Frames that came with the Unirse were left in the buffer for this loop
+            leer(rival);
+        }
+    }
+
+    /**
+     * Hands a client over to the loop it was paired into, if it is moving.
+     * Called once nothing on this loop is reading from it.
+     *
+     * @return whether the client left this loop
+     */
+    private boolean completarTraslado(Conexion conexion) {
+        Runnable traslado = conexion.tomarTraslado();
+        if (traslado == null) {
+            return false;
+        }
+        conexion.soltar();
+        traslado.run();
+        return true;
+    }
+
+    private void abrirSesion(Conexion primero, Conexion rival, boolean reglaSinContacto) {
+        SesionRed sesion = new SesionRed(servidor.nuevaSesion(), this, primero, rival,
+                reglaSinContacto, esperaMaquinaNanos);
+        sesiones.put(sesion.getId(), sesion);
+        servidor.partidaAbierta();
+    }
+
+    void sesionTerminada(SesionRed sesion) {
+        sesiones.remove(sesion.getId());
+    }
+
+    /**
+     * Runs an action of a match on this loop after a delay. Only from the
+     * loop itself. If the action fails, that match is interrupted.
+     */
+    void programar(SesionRed sesion, Runnable accion, long retardoNanos) {
+        tareas.add(new Tarea(System.nanoTime() + retardoNanos, secuenciaTareas++, sesion, accion));
+    }
+
+    /**
+     * Sends a message; a client that cannot take it is dropped once the
+     * current message has been handled.
+     */
+    void enviar(Conexion conexion, Protocolo.Mensaje mensaje) {
+        if (!conexion.abierta()) {
+            return;
+        }
+        try {
+            conexion.enviar(mensaje);
+        } catch (IOException e) {
+            porCerrar.add(conexion);
+        }
+    }
+
+    private void cerrarPendientes() {
+        while (!porCerrar.isEmpty()) {
+            desconectar(porCerrar.remove(porCerrar.size() - 1));
+        }
+    }
+
+    /**
+     * Drops a client after an error, interrupting its match if it has one.
+     */
+    private void descartar(Conexion conexion, RuntimeException e) {
+        if (conexion.sesion != null) {
+            fallo(conexion.sesion, e);
+        }
+        try {
+            desconectar(conexion);
+        } catch (RuntimeException otro) {
+            conexion.cerrar();
+        }
+    }
+
+    private void desconectar(Conexion conexion) {
+        if (!conexion.abierta()) {
+            return;
+        }
+        conexion.cerrar();
+        if (conexion.reglaEspera >= 0) {
+            servidor.dejarDeEsperar(conexion, conexion.reglaEspera);
+            conexion.reglaEspera = -1;
+        }
+        if (conexion.sesion != null) {
+            SesionRed sesion = conexion.sesion;
+            conexion.sesion = null;
+            sesion.desconectado(conexion.lado);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.models.Colocacion;
+import proyect.batallanaval.models.EstadoCelda;
+import proyect.batallanaval.models.Juego;
+import proyect.batallanaval.models.Jugador;
+import proyect.batallanaval.models.ResultadoDisparo;
+import proyect.batallanaval.models.Tablero;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The player's side of a match hosted by a {@link ServidorJuego}, against
+ * another client.
+ * <p>
+ * The player's own board is the one placed in the local {@link Juego}; the
+ * rival's board starts empty and only shows what the server reports. Shots
+ * are not held back until the previous one is answered: while it is the
+ * player's turn up to {@value #MAXIMO_EN_VUELO} of them may be in flight,
+ * each shown as pending until its result arrives. Results come back in the
+ * order the shots were sent, so each one settles the oldest pending shot. A
+ * shot that missed hands the turn over, and the shots sent after it are
+ * refused by the server and simply dropped.
+ * </p>
+ * Messages arrive on the connection's thread and wait in a queue; all the
+ * state is read and changed on the FX thread only, in
+ * {@link #procesarEntrantes()}, so it needs no locking.
+ */
+public final class PartidaRemota implements AutoCloseable {
+    private static final System.Logger LOG = Registros.getLogger(PartidaRemota.class);
+
+    /** Shots that may wait for their result at the same time. */
+    public static final int MAXIMO_EN_VUELO = 4;
+
+    /** Stage of the match, as known by this client. */
+    public enum Estado {
+        /** Connecting, or waiting for the server to find a rival. */
+        BUSCANDO_RIVAL,
+        /** Paired; waiting until both fleets are placed. */
+        COLOCANDO,
+        JUGANDO,
+        TERMINADA,
+        /** The connection was lost or the server refused the fleet. */
+        ERROR
+    }
+
+    private final Jugador jugador;
+    private final Tablero tableroRival;
+    private final ConcurrentLinkedQueue<Protocolo.Mensaje> entrantes = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<int[]> pendientes = new ArrayDeque<>(MAXIMO_EN_VUELO);
+    private Runnable alLlegar;
+    private volatile ClienteRed cliente;
+    private volatile String errorConexion;
+    private volatile boolean cerrada;
+
+    private Estado estado = Estado.BUSCANDO_RIVAL;
+    private boolean turnoPropio;
+    private String rival;
+    private boolean ganada;
+    private Protocolo.Motivo motivoFin;
+    private String error;
+    private int descartados;
+
+    /**
+     * @param juego local game whose player's fleet is already placed
+     */
+    public PartidaRemota(Juego juego) {
+        this.jugador = juego.getJugador();
+        this.tableroRival = new Tablero();
+        this.tableroRival.setReglaSinContacto(jugador.getTableroPosicion().isReglaSinContacto());
+    }
+
+    /**
+     * Connects in the background and asks the server for a human rival.
+     *
+     * @param alLlegar runs, on any thread, every time there is something
+     *                 for {@link #procesarEntrantes()}
+     */
+    public void conectar(Runnable alLlegar) {
+        this.alLlegar = alLlegar;
+        Protocolo.Unirse unirse = new Protocolo.Unirse(true,
+                tableroRival.isReglaSinContacto(), jugador.getNickname());
+        CompletableFuture.runAsync(() -> {
+            try {
+                ClienteRed c = ClienteRed.conectar(this::recibir,
+                        () -> perderConexion("Se perdió la conexión con el servidor."));
+                cliente = c;
+                if (cerrada) {
+                    c.close(); // left before the connection was up
+                    return;
+                }
+                c.enviar(unirse);
+                LOG.log(Level.INFO, "Conectado al servidor, buscando rival");
+            } catch (IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "No se pudo conectar al servidor: {0}", e.toString());
+                perderConexion("No se pudo conectar al servidor.");
+            }
+        });
+    }
+
+    private void recibir(Protocolo.Mensaje mensaje) {
+        entrantes.add(mensaje);
+        alLlegar.run();
+    }
+
+    private void perderConexion(String motivo) {
+        errorConexion = motivo;
+        alLlegar.run();
+    }
+
+    /**
+     * Applies every message received since the previous call. Must run on the FX thread.
+     */
+    public void procesarEntrantes() {
+        Protocolo.Mensaje mensaje;
+        while ((mensaje = entrantes.poll()) != null) {
+            aplicar(mensaje);
+        }
+        // Checked after the queue, so the end of the match wins over the closed socket
+        if (errorConexion != null && estado != Estado.TERMINADA && estado != Estado.ERROR) {
+            fallar(errorConexion);
+        }
+    }
+
+    private void aplicar(Protocolo.Mensaje mensaje) {
+        switch (mensaje) {
+            case Protocolo.Emparejada e -> {
+                rival = e.rival();
+                estado = Estado.COLOCANDO;
+                LOG.log(Level.INFO, "Partida {0} contra {1}", e.partida(), e.rival());
+                enviar(new Protocolo.EnviarFlota(Colocacion.de(jugador.getFlota())));
+            }
+            case Protocolo.Turno t -> {
+                if (estado == Estado.COLOCANDO) {
+                    estado = Estado.JUGANDO;
+                }
+                turnoPropio = t.tuyo();
+            }
+            case Protocolo.Resultado r -> {
+                if (r.propio()) {
+                    resolverPropio(r);
+                } else {
+                    recibirDisparo(r);
+                }
+            }
+            case Protocolo.Rechazo r -> rechazado(r.codigo());
+            case Protocolo.Fin f -> {
+                estado = Estado.TERMINADA;
+                ganada = f.ganaste();
+                motivoFin = f.motivo();
+                turnoPropio = false;
+                pendientes.clear();
+                LOG.log(Level.INFO, "Partida en red terminada: {0} ({1})",
+                        f.ganaste() ? "victoria" : "derrota", f.motivo());
+                close();
+            }
+            default -> LOG.log(Level.WARNING, "Mensaje inesperado del servidor: {0}", mensaje);
+        }
+    }
+
+    private void resolverPropio(Protocolo.Resultado r) {
+        int[] disparo = pendientes.poll();
+        if (disparo == null || disparo[0] != r.fila() || disparo[1] != r.columna()) {
+            LOG.log(Level.WARNING, "Resultado sin disparo pendiente en ({0}, {1})", r.fila(), r.columna());
+        }
+        tableroRival.reflejarDisparo(r.fila(), r.columna(), r.resultado(), r.hundido());
+        if (r.resultado() == ResultadoDisparo.AGUA) {
+            // The server's Turno follows; stop new shots now
+            turnoPropio = false;
+        }
+    }
+
+    private void recibirDisparo(Protocolo.Resultado r) {
+        ResultadoDisparo local = jugador.getTableroPosicion().disparar(r.fila(), r.columna());
+        if (local != r.resultado()) {
+            LOG.log(Level.WARNING, "El servidor dice {0} en ({1}, {2}) y el tablero local {3}",
+                    r.resultado(), r.fila(), r.columna(), local);
+        }
+    }
+
+    private void rechazado(Protocolo.CodigoError codigo) {
+        if (estado == Estado.JUGANDO || estado == Estado.TERMINADA) {
+            // Only shots are sent once the match is under way: the oldest one was refused
+            if (pendientes.poll() != null) {
+                descartados++;
+            }
+            return;
+        }
+        LOG.log(Level.ERROR, "El servidor rechazó la flota: {0}", codigo);
+        fallar("El servidor rechazó la flota (" + codigo + ").");
+    }
+
+    private void fallar(String motivo) {
+        estado = Estado.ERROR;
+        error = motivo;
+        turnoPropio = false;
+        pendientes.clear();
+        close();
+    }
+
+    /**
+     * Fires at the rival's board without waiting for the previous shots.
+     *
+     * @return {@code false} if the shot cannot be fired now: not the player's
+     * turn, too many shots in flight, or a cell already shot or pending
+     */
+    public boolean disparar(int fila, int columna) {
+        if (!puedeDisparar() || tableroRival.getEstado(fila, columna) != EstadoCelda.VACIA
+                || estaPendiente(fila, columna)) {
+            return false;
+        }
+        pendientes.add(new int[]{fila, columna});
+        enviar(new Protocolo.Disparar(fila, columna));
+        return true;
+    }
+
+    // Never blocks: a failed write comes back through the connection-lost callback
+    private void enviar(Protocolo.Mensaje mensaje) {
+        cliente.enviar(mensaje);
+    }
+
+    /**
+     * Whether a new shot would be sent: it is the player's turn as far as is
+     * known and there is room in flight.
+     */
+    public boolean puedeDisparar() {
+        return estado == Estado.JUGANDO && turnoPropio && pendientes.size() < MAXIMO_EN_VUELO;
+    }
+
+    /**
+     * Whether a shot at the cell was sent and has no result yet.
+     */
+    public boolean estaPendiente(int fila, int columna) {
+        for (int[] disparo : pendientes) {
+            if (disparo[0] == fila && disparo[1] == columna) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns how many shots the server refused since the previous call, and forgets them.
+     */
+    public int extraerDescartados() {
+        int n = descartados;
+        descartados = 0;
+        return n;
+    }
+
+    public Estado getEstado() { return estado; }
+
+    public boolean esTurnoPropio() { return turnoPropio; }
+
+    public int getEnVuelo() { return pendientes.size(); }
+
+    /** Rival's nickname, or {@code null} until paired. */
+    public String getRival() { return rival; }
+
+    /** Board showing the shots fired at the rival and what they found. */
+    public Tablero getTableroRival() { return tableroRival; }
+
+    public boolean haGanado() { return ganada; }
+
+    /** Whether the match ended because one of the players left it. */
+    public boolean porAbandono() { return motivoFin == Protocolo.Motivo.ABANDONO; }
+
+    /** Whether the server ended the match, with no winner, after an error. */
+    public boolean interrumpida() { return motivoFin == Protocolo.Motivo.INTERRUMPIDA; }
+
+    /** What went wrong when the state is {@link Estado#ERROR}. */
+    public String getError() { return error; }
+
+    /**
+     * Leaves the match: closing the connection makes the server give it to the rival.
+     */
+    @Override
+    public void close() {
+        cerrada = true;
+        ClienteRed c = cliente;
+        if (c != null) {
+            c.close();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.exceptions.ProtocoloException;
+import proyect.batallanaval.models.Colocacion;
+import proyect.batallanaval.models.Orientacion;
+import proyect.batallanaval.models.ResultadoDisparo;
+import proyect.batallanaval.models.Tablero;
+import proyect.batallanaval.models.TipoBarco;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary protocol between game clients and {@link ServidorJuego}.
+ * <p>
+ * Every message is a frame: a 2-byte big-endian length, then that many bytes
+ * holding a 1-byte type and the payload. Cells of the 10x10 board take one
+ * byte, {@code fila * 10 + columna}; a ship takes two, its type and its
+ * origin cell with the high bit set when vertical. A shot is 4 bytes on the
+ * wire, a whole fleet 24 and a shot result 6 to 8.
+ * </p>
+ * A client joins with {@link Unirse}, gets {@link Emparejada} once it has a
+ * rival, sends its {@link EnviarFlota} and then plays {@link Disparar} when
+ * told by {@link Turno}. Each shot, from either side, is reported to both
+ * players with a {@link Resultado}, until {@link Fin}.
+ */
+public final class Protocolo {
+
+    /** Longest frame accepted, length prefix excluded. */
+    public static final int MAXIMO_TRAMA = 255;
+
+    /** Longest nickname accepted, in UTF-8 bytes. */
+    public static final int MAXIMO_NICKNAME = 64;
+
+    private static final int BIT_VERTICAL = 0x80;
+    private static final int CELDAS = Tablero.SIZE * Tablero.SIZE;
+
+    private static final byte UNIRSE = 0x01;
+    private static final byte ENVIAR_FLOTA = 0x02;
+    private static final byte DISPARAR = 0x03;
+    private static final byte ABANDONAR = 0x04;
+    private static final byte EMPAREJADA = (byte) 0x81;
+    private static final byte RESULTADO = (byte) 0x82;
+    private static final byte TURNO = (byte) 0x83;
+    private static final byte FIN = (byte) 0x84;
+    private static final byte RECHAZO = (byte) 0x85;
+
+    private static final ResultadoDisparo[] RESULTADOS = ResultadoDisparo.values();
+    private static final TipoBarco[] TIPOS = TipoBarco.values();
+
+    private Protocolo() {
+    }
+
+    /** A protocol message, in either direction. */
+    public sealed interface Mensaje {
+    }
+
+    /**
+     * Client asks to play.
+     *
+     * @param contraHumano     {@code true} to wait for another client, {@code false} to play the machine
+     * @param reglaSinContacto whether ships must not touch; only clients with the same rule are paired
+     */
+    public record Unirse(boolean contraHumano, boolean reglaSinContacto, String nickname) implements Mensaje {
+    }
+
+    /** Client places its whole fleet. */
+    public record EnviarFlota(List<Colocacion> colocaciones) implements Mensaje {
+    }
+
+    /** Client shoots at the rival's board. */
+    public record Disparar(int fila, int columna) implements Mensaje {
+    }
+
+    /** Client leaves its match, which the rival wins. */
+    public record Abandonar() implements Mensaje {
+    }
+
+    /**
+     * Server paired the client with a rival.
+     *
+     * @param partida  id of the match on the server
+     * @param empiezas whether the client shoots first
+     */
+    public record Emparejada(int partida, String rival, boolean empiezas) implements Mensaje {
+    }
+
+    /**
+     * A shot of the match.
+     *
+     * @param propio  {@code true} if the receiving client fired it, {@code false} if its rival did
+     * @param hundido the ship the shot sank, or {@code null} unless the result is {@link ResultadoDisparo#HUNDIDO}
+     */
+    public record Resultado(boolean propio, int fila, int columna, ResultadoDisparo resultado,
+                            Colocacion hundido) implements Mensaje {
+    }
+
+    /** Whose turn it is now. */
+    public record Turno(boolean tuyo) implements Mensaje {
+    }
+
+    /** The match is over. */
+    public record Fin(boolean ganaste, Motivo motivo) implements Mensaje {
+    }
+
+    /** The server refused the last message; the match goes on. */
+    public record Rechazo(CodigoError codigo) implements Mensaje {
+    }
+
+    /** Why a match ended. */
+    public enum Motivo {
+        FLOTA_HUNDIDA,
+        ABANDONO,
+        /** The server could not go on with it; nobody wins. */
+        INTERRUMPIDA
+    }
+
+    /** Why a message was refused. */
+    public enum CodigoError {
+        /** The message makes no sense at this point of the match. */
+        ESTADO,
+        /** It is the rival's turn. */
+        TURNO,
+        /** The cell is outside the board or was already shot. */
+        CELDA,
+        /** The fleet is incomplete or does not fit on the board. */
+        FLOTA
+    }
+
+    /**
+     * Appends a message as one frame.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has no room for it
+     * @throws IllegalArgumentException         if the message cannot be encoded
+     */
+    public static void escribir(Mensaje mensaje, ByteBuffer destino) {
+        int inicio = destino.position();
+        destino.putShort((short) 0);
+        switch (mensaje) {
+            case Unirse u -> {
+                destino.put(UNIRSE).put((byte) ((u.contraHumano() ? 1 : 0) | (u.reglaSinContacto() ? 2 : 0)));
+                ponerTexto(destino, u.nickname());
+            }
+            case EnviarFlota f -> {
+                destino.put(ENVIAR_FLOTA).put((byte) f.colocaciones().size());
+                f.colocaciones().forEach(c -> ponerBarco(destino, c));
+            }
+            case Disparar d -> destino.put(DISPARAR).put((byte) celda(d.fila(), d.columna()));
+            case Abandonar a -> destino.put(ABANDONAR);
+            case Emparejada e -> {
+                destino.put(EMPAREJADA).putInt(e.partida()).put((byte) (e.empiezas() ? 1 : 0));
+                ponerTexto(destino, e.rival());
+            }
+            case Resultado r -> {
+                destino.put(RESULTADO).put((byte) (r.propio() ? 1 : 0))
+                        .put((byte) celda(r.fila(), r.columna()))
+                        .put((byte) r.resultado().ordinal());
+                if (r.resultado() == ResultadoDisparo.HUNDIDO) {
+                    ponerBarco(destino, r.hundido());
+                }
+            }
+            case Turno t -> destino.put(TURNO).put((byte) (t.tuyo() ? 1 : 0));
+            case Fin f -> destino.put(FIN).put((byte) (f.ganaste() ? 1 : 0)).put((byte) f.motivo().ordinal());
+            case Rechazo r -> destino.put(RECHAZO).put((byte) r.codigo().ordinal());
+        }
+        destino.putShort(inicio, (short) (destino.position() - inicio - 2));
+    }
+
+    /**
+     * Reads the next complete frame, if the buffer holds one.
+     *
+     * @param origen buffer in read mode; the frame is consumed from it
+     * @return the message, or {@code null} if the frame is not complete yet
+     * @throws ProtocoloException if the frame is malformed
+     */
+    public static Mensaje leer(ByteBuffer origen) throws ProtocoloException {
+        if (origen.remaining() < 2) {
+            return null;
+        }
+        int longitud = origen.getShort(origen.position()) & 0xFFFF;
+        if (longitud == 0 || longitud > MAXIMO_TRAMA) {
+            throw new ProtocoloException("Bad frame length: " + longitud);
+        }
+        if (origen.remaining() < 2 + longitud) {
+            return null;
+        }
+        ByteBuffer trama = origen.slice(origen.position() + 2, longitud);
+        origen.position(origen.position() + 2 + longitud);
+        try {
+            Mensaje mensaje = decodificar(trama);
+            if (trama.hasRemaining()) {
+                throw new ProtocoloException("Trailing bytes in frame of " + mensaje.getClass().getSimpleName());
+            }
+            return mensaje;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new ProtocoloException("Malformed frame: " + e);
+        }
+    }
+
+    private static Mensaje decodificar(ByteBuffer b) throws ProtocoloException {
+        byte tipo = b.get();
+        return switch (tipo) {
+            case UNIRSE -> {
+                int flags = b.get();
+                yield new Unirse((flags & 1) != 0, (flags & 2) != 0, leerTexto(b));
+            }
+            case ENVIAR_FLOTA -> {
+                int n = b.get() & 0xFF;
+                List<Colocacion> colocaciones = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    colocaciones.add(leerBarco(b));
+                }
+                yield new EnviarFlota(colocaciones);
+            }
+            case DISPARAR -> {
+                int celda = leerCelda(b.get());
+                yield new Disparar(celda / Tablero.SIZE, celda % Tablero.SIZE);
+            }
+            case ABANDONAR -> new Abandonar();
+            case EMPAREJADA -> {
+                int partida = b.getInt();
+                boolean empiezas = b.get() != 0;
+                yield new Emparejada(partida, leerTexto(b), empiezas);
+            }
+            case RESULTADO -> {
+                boolean propio = b.get() != 0;
+                int celda = leerCelda(b.get());
+                ResultadoDisparo resultado = RESULTADOS[indice(b.get(), RESULTADOS.length)];
+                Colocacion hundido = resultado == ResultadoDisparo.HUNDIDO ? leerBarco(b) : null;
+                yield new Resultado(propio, celda / Tablero.SIZE, celda % Tablero.SIZE, resultado, hundido);
+            }
+            case TURNO -> new Turno(b.get() != 0);
+            case FIN -> {
+                boolean ganaste = b.get() != 0;
+                yield new Fin(ganaste, Motivo.values()[indice(b.get(), Motivo.values().length)]);
+            }
+            case RECHAZO -> new Rechazo(CodigoError.values()[indice(b.get(), CodigoError.values().length)]);
+            default -> throw new ProtocoloException("Unknown message type: " + tipo);
+        };
+    }
+
+    private static int celda(int fila, int columna) {
+        if (fila < 0 || fila >= Tablero.SIZE || columna < 0 || columna >= Tablero.SIZE) {
+            throw new IllegalArgumentException("Cell outside the board: " + fila + "," + columna);
+        }
+        return fila * Tablero.SIZE + columna;
+    }
+
+    private static int leerCelda(byte valor) throws ProtocoloException {
+        return indice(valor, CELDAS);
+    }
+
+    private static int indice(byte valor, int limite) throws ProtocoloException {
+        int i = valor & 0xFF;
+        if (i >= limite) {
+            throw new ProtocoloException("Value out of range: " + i);
+        }
+        return i;
+    }
+
+    private static void ponerBarco(ByteBuffer destino, Colocacion c) {
+        destino.put((byte) c.tipo().ordinal())
+                .put((byte) ((c.orientacion() == Orientacion.VERTICAL ? BIT_VERTICAL : 0) | celda(c.fila(), c.columna())));
+    }
+
+    private static Colocacion leerBarco(ByteBuffer b) throws ProtocoloException {
+        TipoBarco tipo = TIPOS[indice(b.get(), TIPOS.length)];
+        int valor = b.get() & 0xFF;
+        int celda = leerCelda((byte) (valor & ~BIT_VERTICAL));
+        Orientacion orientacion = (valor & BIT_VERTICAL) != 0 ? Orientacion.VERTICAL : Orientacion.HORIZONTAL;
+        return new Colocacion(tipo, celda / Tablero.SIZE, celda % Tablero.SIZE, orientacion);
+    }
+
+    private static void ponerTexto(ByteBuffer destino, String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAXIMO_NICKNAME) {
+            throw new IllegalArgumentException("Nickname too long: " + bytes.length + " bytes");
+        }
+        destino.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer b) throws ProtocoloException {
+        int longitud = b.get() & 0xFF;
+        if (longitud > MAXIMO_NICKNAME) {
+            throw new ProtocoloException("Nickname too long: " + longitud + " bytes");
+        }
+        byte[] bytes = new byte[longitud];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hosts many matches at once over TCP, with the binary {@link Protocolo}.
+ * <p>
+ * The matches are split among a fixed number of {@link Fragmento}s, by
+ * default one per processor. Each is a thread running a non-blocking
+ * selector loop that owns its clients and their matches outright: it decodes
+ * their frames, plays the messages and writes the replies, and machine turns
+ * are timed tasks of the same loop. A match is therefore touched by one
+ * thread only, with no locks and no thread per game, and the loops share
+ * nothing on the way of a shot, so they run side by side on separate cores.
+ * The time a message takes is bounded by the work of the messages ahead of
+ * it in the same loop.
+ * </p>
+ * An acceptor thread deals new clients to the loops in turn. Clients asking
+ * for a human rival wait until another client with the same placement rule
+ * arrives; if the two are on different loops, the newcomer moves to the loop
+ * of the one that was waiting. Run it with
+ * {@code java -m proyect.batallanaval/proyect.batallanaval.red.ServidorJuego [puerto]}.
+ */
+public final class ServidorJuego implements AutoCloseable {
+    private static final System.Logger LOG = Registros.getLogger(ServidorJuego.class);
+
+    private static final Contador CONEXIONES = Metricas.contador("red.conexiones");
+    private static final Contador PARTIDAS = Metricas.contador("red.partidas");
+
+    /** Port used when none is given. */
+    public static final int PUERTO_POR_DEFECTO = 7474;
+
+    private final InetSocketAddress direccion;
+    private final long esperaMaquinaNanos;
+    private final int numeroFragmentos;
+
+    private ServerSocketChannel servidor;
+    private Fragmento[] fragmentos;
+    private Thread aceptador;
+    private volatile boolean detenido;
+
+    private final AtomicReferenceArray<Conexion> esperando = new AtomicReferenceArray<>(2); // per placement rule
+    private final AtomicInteger siguienteSesion = new AtomicInteger();
+
+    /**
+     * Creates a server with one loop per available processor.
+     *
+     * @param direccion     address to listen on; port 0 picks a free one
+     * @param esperaMaquina how long the machine "thinks" before each shot
+     */
+    public ServidorJuego(InetSocketAddress direccion, Duration esperaMaquina) {
+        this(direccion, esperaMaquina, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param direccion     address to listen on; port 0 picks a free one
+     * @param esperaMaquina how long the machine "thinks" before each shot
+     * @param fragmentos    number of event loops the matches are split among
+     * @throws IllegalArgumentException if {@code fragmentos} is not positive
+     */
+    public ServidorJuego(InetSocketAddress direccion, Duration esperaMaquina, int fragmentos) {
+        if (fragmentos <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + fragmentos);
+        }
+        this.direccion = direccion;
+        this.esperaMaquinaNanos = esperaMaquina.toNanos();
+        this.numeroFragmentos = fragmentos;
+    }
+
+    /**
+     * Binds the socket and starts the loops and the acceptor.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void iniciar() throws IOException {
+        if (aceptador != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        servidor = ServerSocketChannel.open();
+        servidor.bind(direccion, 1024);
+
+        fragmentos = new Fragmento[numeroFragmentos];
+        for (int i = 0; i < fragmentos.length; i++) {
+            fragmentos[i] = new Fragmento(this, i, esperaMaquinaNanos);
+            fragmentos[i].iniciar();
+        }
+        aceptador = new Thread(this::aceptar, "servidor-juego-aceptor");
+        aceptador.start();
+        LOG.log(Level.INFO, "Servidor de partidas escuchando en {0} con {1} bucles",
+                servidor.getLocalAddress(), fragmentos.length);
+    }
+
+    /**
+     * Port the server listens on, once started.
+     */
+    public int getPuerto() {
+        return servidor.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting, stops every loop and closes every connection.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (aceptador == null || detenido) {
+            return;
+        }
+        detenido = true;
+        servidor.close();
+        try {
+            aceptador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Fragmento fragmento : fragmentos) {
+            fragmento.detener();
+        }
+        LOG.log(Level.INFO, "Servidor de partidas detenido");
+    }
+
+    private void aceptar() {
+        int siguiente = 0;
+        try {
+            while (!detenido) {
+                SocketChannel canal = servidor.accept();
+                try {
+                    canal.configureBlocking(false);
+                    canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    // This client is gone already; keep accepting the others
+                    LOG.log(Level.DEBUG, () -> "Cliente descartado al aceptarlo: " + e.getMessage());
+                    canal.close();
+                    continue;
+                }
+                fragmentos[siguiente].adoptar(new Conexion(canal));
+                siguiente = (siguiente + 1) % fragmentos.length;
+                CONEXIONES.incrementar();
+            }
+        } catch (ClosedChannelException e) {
+            // Closed by close()
+        } catch (IOException e) {
+            LOG.log(Level.ERROR, "El servidor de partidas dejó de aceptar clientes", e);
+        }
+    }
+
+    /**
+     * Takes the client waiting for a rival with the given rule, or leaves
+     * this one waiting if there is none. Safe to call from any loop.
+     *
+     * @return the rival to pair with, or {@code null} if the client now waits
+     */
+    Conexion emparejar(Conexion conexion, int regla) {
+        while (true) {
+            Conexion primero = esperando.getAndSet(regla, null);
+            if (primero != null) {
+                return primero;
+            }
+            if (esperando.compareAndSet(regla, null, conexion)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Withdraws a client that stopped waiting, unless it was already paired.
+     */
+    void dejarDeEsperar(Conexion conexion, int regla) {
+        esperando.compareAndSet(regla, conexion, null);
+    }
+
+    /**
+     * Whether a client is waiting for a rival with the given rule.
+     */
+    boolean hayEsperando(int regla) {
+        return esperando.get(regla) != null;
+    }
+
+    int nuevaSesion() {
+        return siguienteSesion.incrementAndGet();
+    }
+
+    void partidaAbierta() {
+        PARTIDAS.incrementar();
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args optional port; the machine's thinking time comes from the
+     *             {@code batallanaval.esperaMaquina} property, in milliseconds,
+     *             and the number of loops from {@code batallanaval.bucles}
+     */
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+        Duration espera = Duration.ofMillis(Long.getLong("batallanaval.esperaMaquina", 500));
+        int bucles = Integer.getInteger("batallanaval.bucles", Runtime.getRuntime().availableProcessors());
+        new ServidorJuego(new InetSocketAddress(puerto), espera, bucles).iniciar();
+    }
+}
@@ -0,0 +1,267 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.models.Barco;
+import proyect.batallanaval.models.Colocacion;
+import proyect.batallanaval.models.EstadoCelda;
+import proyect.batallanaval.models.Flota;
+import proyect.batallanaval.models.Juego;
+import proyect.batallanaval.models.ResultadoDisparo;
+import proyect.batallanaval.models.SemillaPartida;
+import proyect.batallanaval.models.Tablero;
+import proyect.batallanaval.models.TipoBarco;
+import proyect.batallanaval.models.strategy.EstrategiaAleatoria;
+import proyect.batallanaval.models.strategy.EstrategiaAtaque;
+
+import java.lang.System.Logger.Level;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One hosted match, between two clients or a client and the machine.
+ * <p>
+ * The match is a plain {@link Juego}: side 0 is its human player, who always
+ * shoots first, and side 1 its machine, whose board holds the second client's
+ * fleet when there is one. A session lives on one {@link Fragmento}, whose
+ * loop serves both players, so the game needs no locking. Machine turns are
+ * scheduled on that loop instead of running on a thread of their own.
+ * </p>
+ */
+final class SesionRed {
+    private static final System.Logger LOG = Registros.getLogger(SesionRed.class);
+
+    private static final Map<TipoBarco, Integer> FLOTA_ESTANDAR = new EnumMap<>(Map.of(
+            TipoBarco.PORTAAVIONES, 1,
+            TipoBarco.SUBMARINO, 2,
+            TipoBarco.DESTRUCTOR, 3,
+            TipoBarco.FRAGATA, 4));
+
+    private final int id;
+    private final Fragmento fragmento;
+    private final Juego juego;
+    private final Conexion[] clientes;        // null on side 1 when playing the machine
+    private final String[] nicknames;
+    private final boolean[] flotaLista = new boolean[2];
+    private final EstrategiaAtaque estrategiaMaquina;
+    private final long esperaMaquinaNanos;
+    private boolean terminada;
+
+    /**
+     * Starts a match and tells the clients who they are playing.
+     *
+     * @param rival the second client, or {@code null} to play the machine
+     */
+    SesionRed(int id, Fragmento fragmento, Conexion primero, Conexion rival,
+              boolean reglaSinContacto, long esperaMaquinaNanos) {
+        this.id = id;
+        this.fragmento = fragmento;
+        this.juego = new Juego(primero.nickname, reglaSinContacto, SemillaPartida.aleatoria());
+        this.clientes = new Conexion[]{primero, rival};
+        this.nicknames = new String[]{primero.nickname, rival != null ? rival.nickname : "CPU"};
+        this.esperaMaquinaNanos = esperaMaquinaNanos;
+        this.estrategiaMaquina = rival == null ? new EstrategiaAleatoria(juego.getGeneradorIA()) : null;
+        flotaLista[1] = rival == null; // the machine's fleet comes from the seed
+
+        for (int lado = 0; lado < 2; lado++) {
+            Conexion c = clientes[lado];
+            if (c != null) {
+                c.sesion = this;
+                c.lado = lado;
+                fragmento.enviar(c, new Protocolo.Emparejada(id, nicknames[1 - lado], lado == 0));
+            }
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+
+    boolean contraMaquina() {
+        return estrategiaMaquina != null;
+    }
+
+    /**
+     * Handles a message from one of the clients.
+     */
+    void recibir(int lado, Protocolo.Mensaje mensaje) {
+        if (terminada) {
+            rechazar(lado, Protocolo.CodigoError.ESTADO);
+            return;
+        }
+        switch (mensaje) {
+            case Protocolo.EnviarFlota f -> colocarFlota(lado, f.colocaciones());
+            case Protocolo.Disparar d -> disparar(lado, d.fila(), d.columna());
+            case Protocolo.Abandonar a -> terminar(1 - lado, Protocolo.Motivo.ABANDONO);
+            default -> rechazar(lado, Protocolo.CodigoError.ESTADO);
+        }
+    }
+
+    /**
+     * Ends the match with no winner, after it failed on the server. Both
+     * clients are told and are free to join another match.
+     */
+    void interrumpir() {
+        if (!terminada) {
+            terminar(-1, Protocolo.Motivo.INTERRUMPIDA);
+        }
+    }
+
+    /**
+     * A client left: its rival wins, unless the match was already over.
+     */
+    void desconectado(int lado) {
+        clientes[lado] = null;
+        if (!terminada) {
+            terminar(1 - lado, Protocolo.Motivo.ABANDONO);
+        }
+    }
+
+    private void colocarFlota(int lado, List<Colocacion> colocaciones) {
+        if (flotaLista[lado]) {
+            rechazar(lado, Protocolo.CodigoError.ESTADO);
+            return;
+        }
+        if (!esFlotaEstandar(colocaciones) || !aplicarFlota(lado, colocaciones)) {
+            rechazar(lado, Protocolo.CodigoError.FLOTA);
+            return;
+        }
+        flotaLista[lado] = true;
+        if (flotaLista[0] && flotaLista[1]) {
+            LOG.log(Level.DEBUG, () -> "Partida " + id + " empieza: " + nicknames[0] + " contra " + nicknames[1]);
+            avisarTurno();
+        }
+    }
+
+    private static boolean esFlotaEstandar(List<Colocacion> colocaciones) {
+        Map<TipoBarco, Integer> cuenta = new EnumMap<>(TipoBarco.class);
+        for (Colocacion c : colocaciones) {
+            cuenta.merge(c.tipo(), 1, Integer::sum);
+        }
+        return cuenta.equals(FLOTA_ESTANDAR);
+    }
+
+    private boolean aplicarFlota(int lado, List<Colocacion> colocaciones) {
+        try {
+            if (lado == 1) {
+                juego.reemplazarFlotaMaquina(colocaciones);
+                return true;
+            }
+            Tablero tablero = juego.getJugador().getTableroPosicion();
+            Flota flota = juego.getJugador().getFlota();
+            try {
+                Colocacion.aplicar(colocaciones, flota, tablero);
+                return true;
+            } catch (IllegalArgumentException e) {
+                flota.getBarcos().forEach(tablero::retirarBarco);
+                flota.getBarcos().clear();
+                return false;
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void disparar(int lado, int fila, int columna) {
+        if (!flotaLista[0] || !flotaLista[1]) {
+            rechazar(lado, Protocolo.CodigoError.ESTADO);
+            return;
+        }
+        if (lado != ladoEnTurno()) {
+            rechazar(lado, Protocolo.CodigoError.TURNO);
+            return;
+        }
+        EstadoCelda estado = tableroDe(1 - lado).getEstado(fila, columna);
+        if (estado != EstadoCelda.VACIA && estado != EstadoCelda.BARCO) {
+            rechazar(lado, Protocolo.CodigoError.CELDA);
+            return;
+        }
+        ResultadoDisparo resultado = lado == 0
+                ? juego.ejecutarAtaqueJugador(fila, columna)
+                : juego.ejecutarAtaqueMaquina(fila, columna);
+        trasDisparo(lado, fila, columna, resultado);
+    }
+
+    /**
+     * Plays one machine turn; scheduled on the event loop. A machine with no
+     * cell left to shoot cannot go on, so the match is interrupted rather
+     * than left waiting for a shot that never comes.
+     */
+    private void turnoMaquina() {
+        if (terminada || ladoEnTurno() != 1) {
+            return;
+        }
+        int[] coordenadas = juego.elegirAtaqueMaquina(estrategiaMaquina);
+        if (coordenadas == null) {
+            LOG.log(Level.ERROR, "Partida {0}: la máquina no tiene disparos válidos", id);
+            interrumpir();
+            return;
+        }
+        ResultadoDisparo resultado = juego.ejecutarAtaqueMaquina(coordenadas[0], coordenadas[1]);
+        estrategiaMaquina.notificarResultado(coordenadas[0], coordenadas[1], resultado);
+        trasDisparo(1, coordenadas[0], coordenadas[1], resultado);
+    }
+
+    private void trasDisparo(int lado, int fila, int columna, ResultadoDisparo resultado) {
+        Colocacion hundido = null;
+        if (resultado == ResultadoDisparo.HUNDIDO) {
+            Barco barco = tableroDe(1 - lado).getCelda(fila, columna).getBarco();
+            hundido = Colocacion.de(barco);
+        }
+        for (int l = 0; l < 2; l++) {
+            enviar(l, new Protocolo.Resultado(l == lado, fila, columna, resultado, hundido));
+        }
+
+        if (juego.juegoTerminado()) {
+            terminar(juego.haGanadoJugador() ? 0 : 1, Protocolo.Motivo.FLOTA_HUNDIDA);
+        } else if (resultado == ResultadoDisparo.AGUA) {
+            avisarTurno();
+        } else if (lado == 1 && contraMaquina()) {
+            fragmento.programar(this, this::turnoMaquina, esperaMaquinaNanos);
+        }
+    }
+
+    private void avisarTurno() {
+        int enTurno = ladoEnTurno();
+        for (int l = 0; l < 2; l++) {
+            enviar(l, new Protocolo.Turno(l == enTurno));
+        }
+        if (enTurno == 1 && contraMaquina()) {
+            fragmento.programar(this, this::turnoMaquina, esperaMaquinaNanos);
+        }
+    }
+
+    /**
+     * @param ganador the winning side, or -1 if nobody wins
+     */
+    private void terminar(int ganador, Protocolo.Motivo motivo) {
+        terminada = true;
+        for (int l = 0; l < 2; l++) {
+            enviar(l, new Protocolo.Fin(l == ganador, motivo));
+            if (clientes[l] != null) {
+                clientes[l].sesion = null;
+            }
+        }
+        LOG.log(Level.DEBUG, () -> "Partida " + id + " terminada: "
+                + (ganador >= 0 ? "gana " + nicknames[ganador] : "sin ganador") + " (" + motivo + ")");
+        fragmento.sesionTerminada(this);
+    }
+
+    private int ladoEnTurno() {
+        return juego.esTurnoJugador() ? 0 : 1;
+    }
+
+    private Tablero tableroDe(int lado) {
+        return lado == 0 ? juego.getJugador().getTableroPosicion() : juego.getMaquina().getTableroPosicion();
+    }
+
+    private void rechazar(int lado, Protocolo.CodigoError codigo) {
+        enviar(lado, new Protocolo.Rechazo(codigo));
+    }
+
+    private void enviar(int lado, Protocolo.Mensaje mensaje) {
+        if (clientes[lado] != null) {
+            fragmento.enviar(clientes[lado], mensaje);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package proyect.batallanaval.views;
+
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import proyect.batallanaval.models.EstadoCelda;
+import proyect.batallanaval.models.TipoBarco;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Draws a whole board on a single {@link Canvas} instead of one
+ * {@code StackPane} per cell.
+ * <p>
+ * The view keeps its own copy of what each cell shows (attack state, visible
+ * ship type and selection) and every change redraws only the rectangle of
+ * that cell. Mouse positions are turned into cells by arithmetic, so neither
+ * the number of nodes nor the CSS work per pulse grows with the board.
+ * Colors match the node-based boards and {@link ShipCellView}.
+ * </p>
+ * The game itself always plays on {@link proyect.batallanaval.models.Tablero#SIZE}
+ * boards, below {@link #UMBRAL_CELDAS}, so there the canvas is only used when
+ * the {@code batallanaval.canvas} property asks for it. The size switch is in
+ * place for callers that build larger boards.
+ */
+public class BoardCanvasView extends Canvas {
+
+    /** Boards with more cells than this use the canvas renderer by default. */
+    public static final int UMBRAL_CELDAS = 20 * 20;
+
+    /** Space around each cell, like the {@code GridPane} margins of the node-based boards. */
+    private static final double MARGEN = 1;
+
+    /** Largest side, in pixels, a board canvas is allowed to take. */
+    private static final double LADO_MAXIMO = 4096;
+
+    private static final Color COLOR_FONDO = Color.web("#e0e0e0");
+    private static final Color COLOR_BORDE = Color.web("#b0b0b0");
+    private static final Color COLOR_AGUA = Color.web("#4444ff");
+    private static final Color COLOR_PENDIENTE = Color.web("#a8b8d8");
+
+    /**
+     * Called when a drag that started on one cell ends on another.
+     */
+    @FunctionalInterface
+    public interface ArrastreListener {
+        void soltar(int filaOrigen, int colOrigen, int filaDestino, int colDestino);
+    }
+
+    private final int size;
+    private final double cellSize;
+
+    private final EstadoCelda[] estados;
+    private final TipoBarco[] barcos;   // visible ship per cell, null if none or hidden
+    private final BitSet seleccionadas = new BitSet();
+    private final BitSet pendientes = new BitSet();
+
+    private BiConsumer<Integer, Integer> onCeldaClic;
+    private ArrastreListener onArrastre;
+    private int inicioArrastre = -1;
+
+    /**
+     * @param size     number of rows and columns of the board
+     * @param cellSize side of each cell in pixels, not counting the margin around it
+     */
+    public BoardCanvasView(int size, double cellSize) {
+        super(size * (cellSize + 2 * MARGEN), size * (cellSize + 2 * MARGEN));
+        this.size = size;
+        this.cellSize = cellSize;
+        this.estados = new EstadoCelda[size * size];
+        this.barcos = new TipoBarco[size * size];
+        Arrays.fill(estados, EstadoCelda.VACIA);
+
+        setCursor(Cursor.HAND);
+        setOnMousePressed(this::alPresionar);
+        setOnMouseReleased(this::alSoltar);
+        dibujarTodo();
+    }
+
+    /**
+     * Tells whether a board of the given side should be drawn on a canvas:
+     * always when the {@code batallanaval.canvas} system property is
+     * {@code true}, otherwise only above {@link #UMBRAL_CELDAS} cells.
+     */
+    public static boolean usarCanvas(int size) {
+        return Boolean.getBoolean("batallanaval.canvas") || (long) size * size > UMBRAL_CELDAS;
+    }
+
+    /**
+     * Picks a cell size that keeps a board of the given side within a
+     * texture size every graphics pipeline supports.
+     *
+     * @param size   number of rows and columns of the board
+     * @param maximo preferred cell size, used when it fits
+     */
+    public static double tamanoCeldaPara(int size, double maximo) {
+        return Math.max(1, Math.min(maximo, LADO_MAXIMO / size - 2 * MARGEN));
+    }
+
+    public int getSize() { return size; }
+
+    /** Sets the handler for a click (press and release on the same cell). */
+    public void setOnCeldaClic(BiConsumer<Integer, Integer> onCeldaClic) {
+        this.onCeldaClic = onCeldaClic;
+    }
+
+    /** Sets the handler for a drag from one cell to another. */
+    public void setOnArrastre(ArrastreListener onArrastre) {
+        this.onArrastre = onArrastre;
+    }
+
+    /**
+     * Updates what a cell shows and redraws it.
+     *
+     * @param estado attack state of the cell
+     * @param barco  ship type to draw on the cell, or {@code null} to show none
+     */
+    public void setCelda(int fila, int col, EstadoCelda estado, TipoBarco barco) {
+        int i = indice(fila, col);
+        estados[i] = estado;
+        barcos[i] = barco;
+        dibujarCelda(fila, col);
+    }
+
+    /**
+     * Updates the attack state of a cell, keeping its ship, and redraws it.
+     */
+    public void setEstado(int fila, int col, EstadoCelda estado) {
+        estados[indice(fila, col)] = estado;
+        dibujarCelda(fila, col);
+    }
+
+    /**
+     * Highlights or clears a cell: an empty cell is filled in yellow, a ship
+     * cell gets a yellow outline.
+     */
+    public void setSeleccionada(int fila, int col, boolean seleccionada) {
+        int i = indice(fila, col);
+        if (seleccionadas.get(i) != seleccionada) {
+            seleccionadas.set(i, seleccionada);
+            dibujarCelda(fila, col);
+        }
+    }
+
+    /**
+     * Marks a cell as shot at, with the result still unknown, like the
+     * {@code pendiente} style of the node-based boards: pale blue with a
+     * dashed blue border.
+     */
+    public void setPendiente(int fila, int col, boolean pendiente) {
+        int i = indice(fila, col);
+        if (pendientes.get(i) != pendiente) {
+            pendientes.set(i, pendiente);
+            dibujarCelda(fila, col);
+        }
+    }
+
+    /**
+     * Converts a position in the canvas into the cell under it.
+     *
+     * @return [row, col], or {@code null} if the position is outside the board
+     */
+    public int[] celdaEn(double x, double y) {
+        double paso = cellSize + 2 * MARGEN;
+        int col = (int) Math.floor(x / paso);
+        int fila = (int) Math.floor(y / paso);
+        if (fila < 0 || fila >= size || col < 0 || col >= size) {
+            return null;
+        }
+        return new int[]{fila, col};
+    }
+
+    /** Redraws every cell, for instance after many changes at once. */
+    public void dibujarTodo() {
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+        for (int fila = 0; fila < size; fila++) {
+            for (int col = 0; col < size; col++) {
+                dibujarCelda(fila, col);
+            }
+        }
+    }
+
+    private void dibujarCelda(int fila, int col) {
+        GraphicsContext g = getGraphicsContext2D();
+        int i = indice(fila, col);
+        double paso = cellSize + 2 * MARGEN;
+        double x = col * paso + MARGEN;
+        double y = fila * paso + MARGEN;
+
+        g.clearRect(col * paso, fila * paso, paso, paso);
+
+        boolean seleccionada = seleccionadas.get(i);
+        TipoBarco barco = barcos[i];
+
+        boolean pendiente = pendientes.get(i) && barco == null && !seleccionada;
+
+        g.setFill(seleccionada && barco == null ? Color.YELLOW
+                : pendiente ? COLOR_PENDIENTE : colorDeFondo(estados[i]));
+        g.fillRect(x, y, cellSize, cellSize);
+        g.setStroke(pendiente ? COLOR_AGUA : COLOR_BORDE);
+        g.setLineWidth(1);
+        if (pendiente) {
+            g.setLineDashes(3);
+        }
+        g.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+        g.setLineDashes();
+
+        if (barco != null) {
+            // Same shape as ShipCellView: a rounded rectangle inset in the cell.
+            // Cells too small for the outline are simply filled.
+            double borde = cellSize >= 8 ? 2 : 0;
+            double lado = cellSize - 2 * borde;
+            double arco = Math.min(6, lado / 2);
+            g.setFill(colorDeBarco(barco));
+            g.fillRoundRect(x + borde, y + borde, lado, lado, arco, arco);
+            if (borde > 0) {
+                g.setStroke(seleccionada ? Color.YELLOW : Color.BLACK);
+                g.setLineWidth(seleccionada ? 2 : 1.5);
+                g.strokeRoundRect(x + borde, y + borde, lado, lado, arco, arco);
+            }
+
+            // Keep the attack state visible on top of the ship
+            if (estados[i] == EstadoCelda.TOCADA || estados[i] == EstadoCelda.HUNDIDA) {
+                g.setFill(colorDeFondo(estados[i]));
+                g.fillOval(x + cellSize / 4, y + cellSize / 4, cellSize / 2, cellSize / 2);
+            }
+        }
+    }
+
+    private static Color colorDeFondo(EstadoCelda estado) {
+        return switch (estado) {
+            case AGUA_TOCADA -> COLOR_AGUA;
+            case TOCADA -> Color.ORANGE;
+            case HUNDIDA -> Color.RED;
+            case VACIA, BARCO -> COLOR_FONDO;
+        };
+    }
+
+    private static Color colorDeBarco(TipoBarco tipo) {
+        return switch (tipo) {
+            case PORTAAVIONES -> Color.DARKBLUE;
+            case SUBMARINO -> Color.DARKGREEN;
+            case DESTRUCTOR -> Color.DARKORANGE;
+            case FRAGATA -> Color.DARKRED;
+        };
+    }
+
+    private void alPresionar(MouseEvent e) {
+        int[] celda = celdaEn(e.getX(), e.getY());
+        inicioArrastre = celda == null ? -1 : indice(celda[0], celda[1]);
+    }
+
+    private void alSoltar(MouseEvent e) {
+        int[] celda = celdaEn(e.getX(), e.getY());
+        int inicio = inicioArrastre;
+        inicioArrastre = -1;
+        if (celda == null || inicio < 0) {
+            return;
+        }
+
+        if (indice(celda[0], celda[1]) == inicio) {
+            if (onCeldaClic != null) {
+                onCeldaClic.accept(celda[0], celda[1]);
+            }
+        } else if (onArrastre != null) {
+            onArrastre.soltar(inicio / size, inicio % size, celda[0], celda[1]);
+        }
+        e.consume();
+    }
+
+    private int indice(int fila, int col) {
+        return fila * size + col;
+    }
+}
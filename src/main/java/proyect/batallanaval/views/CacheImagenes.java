@@ -0,0 +1,40 @@
+package proyect.batallanaval.views;
+
+import javafx.scene.image.Image;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Images decoded once and shared by every window that shows them.
+ * <p>
+ * {@link Image} is immutable once loaded, so one instance can back any
+ * number of stages and image views. Images may be requested from any thread,
+ * which lets them be decoded while a view is preloaded in the background.
+ * </p>
+ */
+public final class CacheImagenes {
+
+    /** Window icon used by every stage of the game. */
+    public static final String ICONO = "/proyect/batallanaval/images/favicon.svg";
+
+    private static final Map<String, Image> IMAGENES = new ConcurrentHashMap<>();
+
+    private CacheImagenes() {
+    }
+
+    /**
+     * Returns the image at a classpath location, decoding it the first time.
+     *
+     * @param ruta absolute resource path of the image
+     */
+    public static Image obtener(String ruta) {
+        return IMAGENES.computeIfAbsent(ruta,
+                r -> new Image(CacheImagenes.class.getResourceAsStream(r)));
+    }
+
+    /** Returns the window icon. */
+    public static Image icono() {
+        return obtener(ICONO);
+    }
+}
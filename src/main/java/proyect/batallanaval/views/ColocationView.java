@@ -1,21 +1,17 @@
 package proyect.batallanaval.views;
 
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 
 public class ColocationView extends Stage{
     public ColocationView() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/proyect/batallanaval/colocation-view.fxml"));
-        Parent root = fxmlLoader.load();
+        // Usually parsed in the background while the home screen was open
+        Parent root = GestorEscenas.obtener(GestorEscenas.Vista.COLOCACION).getRaiz();
         Scene scene = new Scene(root);
-        this.getIcons().add(new Image(
-                getClass().getResourceAsStream("/proyect/batallanaval/images/favicon.svg")
-        ));
+        this.getIcons().add(CacheImagenes.icono());
         scene.getStylesheets().add(
                 getClass().getResource("/proyect/batallanaval/styles/styles.css").toExternalForm()
         );
@@ -31,6 +27,14 @@ public class ColocationView extends Stage{
         return ColocationView.StartViewHolder.INSTANCE;
     }
 
+    /**
+     * Whether the shared instance was already built, in which case its view
+     * will not be loaded again.
+     */
+    public static boolean existe() {
+        return ColocationView.StartViewHolder.INSTANCE != null;
+    }
+
     private static class StartViewHolder {
         private static ColocationView INSTANCE = null;
     }
@@ -0,0 +1,60 @@
+package proyect.batallanaval.views;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import proyect.batallanaval.models.EstadoCelda;
+
+/**
+ * Applies the look of board cells through the {@code .celda} style class and
+ * its pseudo-classes, declared once in {@code styles.css}.
+ * <p>
+ * Changing a cell's look is a pseudo-class flip: no inline style string is
+ * built and nothing is parsed when a cell is repainted.
+ * </p>
+ */
+public final class EstiloCelda {
+
+    /** Style class of every board cell. */
+    public static final String CLASE_CELDA = "celda";
+
+    public static final PseudoClass AGUA_TOCADA = PseudoClass.getPseudoClass("agua-tocada");
+    public static final PseudoClass TOCADA = PseudoClass.getPseudoClass("tocada");
+    public static final PseudoClass HUNDIDA = PseudoClass.getPseudoClass("hundida");
+    public static final PseudoClass SELECCIONADA = PseudoClass.getPseudoClass("seleccionada");
+    public static final PseudoClass PENDIENTE = PseudoClass.getPseudoClass("pendiente");
+
+    private EstiloCelda() {
+    }
+
+    /**
+     * Gives a new cell node the base board cell look (untouched water).
+     */
+    public static void inicializar(Node celda) {
+        celda.getStyleClass().add(CLASE_CELDA);
+    }
+
+    /**
+     * Shows the given attack state on the cell. {@code VACIA} and {@code BARCO}
+     * clear every attack state, leaving the base look.
+     */
+    public static void aplicarEstado(Node celda, EstadoCelda estado) {
+        celda.pseudoClassStateChanged(AGUA_TOCADA, estado == EstadoCelda.AGUA_TOCADA);
+        celda.pseudoClassStateChanged(TOCADA, estado == EstadoCelda.TOCADA);
+        celda.pseudoClassStateChanged(HUNDIDA, estado == EstadoCelda.HUNDIDA);
+    }
+
+    /**
+     * Highlights or clears the selection of a cell, keeping its attack state.
+     */
+    public static void setSeleccionada(Node celda, boolean seleccionada) {
+        celda.pseudoClassStateChanged(SELECCIONADA, seleccionada);
+    }
+
+    /**
+     * Marks a cell as shot at, with the result still unknown. The attack
+     * state shown once it arrives replaces the mark.
+     */
+    public static void setPendiente(Node celda, boolean pendiente) {
+        celda.pseudoClassStateChanged(PENDIENTE, pendiente);
+    }
+}
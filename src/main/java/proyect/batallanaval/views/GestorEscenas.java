@@ -0,0 +1,149 @@
+package proyect.batallanaval.views;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import proyect.batallanaval.logging.Registros;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads FXML views ahead of time so that screen transitions do not parse
+ * FXML on the FX thread.
+ * <p>
+ * While the user is on one screen, its controller calls
+ * {@link #precargar(Vista...)} with the screens likely to come next. Each
+ * requested view is parsed, and its controller initialized, on a background
+ * thread; this is allowed because the nodes are not part of a showing
+ * window yet. {@link #obtener(Vista)} then hands over the prepared instance,
+ * waits for it if it is still loading, or loads it on the spot if nothing
+ * was requested or the preload failed.
+ * </p>
+ * Controllers keep the state of one game, so a prepared view is handed out
+ * only once; asking to preload it again prepares a fresh instance. The
+ * window icon is decoded once into {@link CacheImagenes}.
+ */
+public final class GestorEscenas {
+
+    /** FXML views of the game, with their resource file. */
+    public enum Vista {
+        COLOCACION("colocation-view.fxml"),
+        JUEGO("game-view.fxml"),
+        COLOCACION_MAQUINA("machine-colocation-view.fxml");
+
+        private final String archivo;
+
+        Vista(String archivo) {
+            this.archivo = archivo;
+        }
+
+        public String getArchivo() {
+            return archivo;
+        }
+    }
+
+    /**
+     * A parsed view: its root node and its controller.
+     */
+    public static final class VistaCargada {
+        private final Parent raiz;
+        private final Object controlador;
+
+        private VistaCargada(Parent raiz, Object controlador) {
+            this.raiz = raiz;
+            this.controlador = controlador;
+        }
+
+        public Parent getRaiz() {
+            return raiz;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <C> C getControlador() {
+            return (C) controlador;
+        }
+    }
+
+    private static final System.Logger LOG = Registros.getLogger(GestorEscenas.class);
+    private static final Histograma T_CARGA = Metricas.histograma("escena.cargarFxml");
+    private static final Contador PRECARGAS_USADAS = Metricas.contador("escena.precargasUsadas");
+    private static final Contador CARGAS_SINCRONAS = Metricas.contador("escena.cargasSincronas");
+
+    // One thread: views are few, and parsing them in parallel would only
+    // compete with the game for the same cores
+    private static final ExecutorService HILO = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "batallanaval-precarga");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private static final Map<Vista, CompletableFuture<VistaCargada>> PREPARADAS = new ConcurrentHashMap<>();
+
+    private GestorEscenas() {
+    }
+
+    /**
+     * Starts loading the given views in the background, unless a prepared
+     * instance of them is already waiting. Safe to call from any thread.
+     */
+    public static void precargar(Vista... vistas) {
+        for (Vista vista : vistas) {
+            PREPARADAS.computeIfAbsent(vista, v -> CompletableFuture.supplyAsync(() -> {
+                CacheImagenes.icono();
+                return cargar(v);
+            }, HILO));
+        }
+    }
+
+    /**
+     * Returns a view ready to be placed in a scene, preferably the one
+     * prepared by {@link #precargar(Vista...)}. Must be called on the FX thread.
+     *
+     * @throws IOException if the FXML cannot be loaded
+     */
+    public static VistaCargada obtener(Vista vista) throws IOException {
+        CompletableFuture<VistaCargada> preparada = PREPARADAS.remove(vista);
+        if (preparada != null) {
+            try {
+                VistaCargada cargada = preparada.join();
+                PRECARGAS_USADAS.incrementar();
+                return cargada;
+            } catch (CompletionException e) {
+                LOG.log(Level.WARNING, "Falló la precarga de " + vista.getArchivo() + ", se carga de nuevo", e.getCause());
+            }
+        }
+
+        CARGAS_SINCRONAS.incrementar();
+        try {
+            return cargar(vista);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static VistaCargada cargar(Vista vista) {
+        long inicio = System.nanoTime();
+        try {
+            FXMLLoader loader = new FXMLLoader(
+                    GestorEscenas.class.getResource("/proyect/batallanaval/" + vista.getArchivo()));
+            Parent raiz = loader.load();
+            LOG.log(Level.DEBUG, () -> "Vista " + vista.getArchivo() + " cargada en "
+                    + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            return new VistaCargada(raiz, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            T_CARGA.registrarDesde(inicio);
+        }
+    }
+}
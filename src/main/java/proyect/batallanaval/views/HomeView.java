@@ -3,7 +3,6 @@ package proyect.batallanaval.views;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -13,9 +12,7 @@ public class HomeView extends Stage {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/proyect/batallanaval/home-view.fxml"));
         Parent root = fxmlLoader.load();
         Scene scene = new Scene(root);
-        this.getIcons().add(new Image(
-                getClass().getResourceAsStream("/proyect/batallanaval/images/favicon.svg")
-        ));
+        this.getIcons().add(CacheImagenes.icono());
         scene.getStylesheets().add(
                 getClass().getResource("/proyect/batallanaval/styles/styles.css").toExternalForm()
         );
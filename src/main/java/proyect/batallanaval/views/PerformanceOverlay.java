@@ -0,0 +1,303 @@
+package proyect.batallanaval.views;
+
+import javafx.animation.AnimationTimer;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import proyect.batallanaval.metrics.Histograma;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small panel with live performance figures, drawn over the top-left corner
+ * of a window: frame rate and longest frame, time spent in CSS and layout
+ * per pulse, node count of each board, heap usage, garbage collections and
+ * any latency histograms of {@link Metricas} the view adds.
+ * <p>
+ * It lives in a {@link Popup}, so no view has to make room for it in its
+ * layout, and it ignores the mouse. {@link #TECLA} shows or hides it; it
+ * starts visible when the {@code batallanaval.overlay} system property is
+ * {@code true}.
+ * </p>
+ * While hidden it costs nothing but the key filter. While shown, an
+ * {@link AnimationTimer} counts frames and refreshes the text a couple of
+ * times per second, and two pulse listeners time the CSS and layout pass.
+ * The timer itself keeps pulses coming every frame, which is what makes the
+ * frame rate meaningful, so the panel should be hidden when not in use.
+ */
+public class PerformanceOverlay {
+
+    /** Key that shows or hides the overlay. */
+    public static final KeyCode TECLA = KeyCode.F3;
+
+    private static final long INTERVALO_NS = 500_000_000L;
+    private static final double DESPLAZAMIENTO_X = 12;
+    private static final double DESPLAZAMIENTO_Y = 40;
+    private static final double MB = 1024.0 * 1024.0;
+
+    private Popup popup; // windows belong to the FX thread, so it is created when first shown
+    private final Label texto = new Label();
+    private final Map<String, Histograma> latencias = new LinkedHashMap<>();
+    private final Map<String, Parent> tableros = new LinkedHashMap<>();
+    private final List<GarbageCollectorMXBean> colectores = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private Scene escena;
+    private Window ventana;
+    private boolean solicitado = habilitado();
+
+    // Sampling state, only touched on the FX thread while shown
+    private long inicioIntervalo;
+    private long ultimoFrame;
+    private int frames;
+    private long frameMaximo;
+    private long inicioLayout;
+    private long layoutTotal;
+    private long layoutMaximo;
+    private int pulsos;
+    private long gcConteoPrevio;
+    private long gcTiempoPrevio;
+
+    private final AnimationTimer muestreo = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (ultimoFrame != 0) {
+                frameMaximo = Math.max(frameMaximo, now - ultimoFrame);
+            }
+            ultimoFrame = now;
+            frames++;
+            if (now - inicioIntervalo >= INTERVALO_NS) {
+                actualizar(now);
+            }
+        }
+    };
+
+    private final Runnable antesDelLayout = () -> inicioLayout = System.nanoTime();
+
+    private final Runnable despuesDelLayout = () -> {
+        long duracion = System.nanoTime() - inicioLayout;
+        layoutTotal += duracion;
+        layoutMaximo = Math.max(layoutMaximo, duracion);
+        pulsos++;
+    };
+
+    private final EventHandler<KeyEvent> alPulsarTecla = evento -> {
+        if (evento.getCode() == TECLA) {
+            alternar();
+            evento.consume();
+        }
+    };
+
+    public PerformanceOverlay() {
+        texto.getStyleClass().add("overlay-rendimiento");
+        texto.getStylesheets().add(
+                PerformanceOverlay.class.getResource("/proyect/batallanaval/styles/styles.css").toExternalForm());
+        texto.setMouseTransparent(true);
+    }
+
+    /**
+     * Whether the overlay was requested to start visible for this run.
+     */
+    public static boolean habilitado() {
+        return Boolean.getBoolean("batallanaval.overlay");
+    }
+
+    /**
+     * Adds a latency histogram of {@link Metricas} to the panel, shown as
+     * its p50 and p99 in milliseconds.
+     */
+    public PerformanceOverlay agregarLatencia(String etiqueta, String metrica) {
+        latencias.put(etiqueta, Metricas.histograma(metrica));
+        return this;
+    }
+
+    /**
+     * Adds a board whose nodes are counted on every refresh.
+     */
+    public PerformanceOverlay agregarTablero(String etiqueta, Parent tablero) {
+        tableros.put(etiqueta, tablero);
+        return this;
+    }
+
+    /**
+     * Attaches the overlay to the window of a node: the toggle key works as
+     * soon as the node is in a scene, and the panel follows that window
+     * being shown and closed.
+     */
+    public void instalar(Node nodo) {
+        nodo.sceneProperty().addListener((obs, anterior, nueva) -> alCambiarEscena(nueva));
+        alCambiarEscena(nodo.getScene());
+    }
+
+    /** Shows the overlay if it is hidden and hides it otherwise. */
+    public void alternar() {
+        solicitado = !solicitado;
+        if (solicitado) {
+            mostrar();
+        } else {
+            ocultar();
+        }
+    }
+
+    /** Hides the overlay and stops sampling; the toggle key can bring it back. */
+    public void ocultar() {
+        muestreo.stop();
+        if (popup != null) {
+            popup.hide();
+        }
+        if (escena != null) {
+            escena.removePreLayoutPulseListener(antesDelLayout);
+            escena.removePostLayoutPulseListener(despuesDelLayout);
+        }
+    }
+
+    private void alCambiarEscena(Scene nueva) {
+        if (nueva == escena) {
+            return;
+        }
+        ocultar();
+        if (escena != null) {
+            escena.removeEventFilter(KeyEvent.KEY_PRESSED, alPulsarTecla);
+        }
+        escena = nueva;
+        if (nueva == null) {
+            return;
+        }
+        nueva.addEventFilter(KeyEvent.KEY_PRESSED, alPulsarTecla);
+        nueva.windowProperty().addListener((obs, anterior, ventanaNueva) -> {
+            if (nueva == escena) {
+                alCambiarVentana(ventanaNueva);
+            }
+        });
+        alCambiarVentana(nueva.getWindow());
+    }
+
+    private void alCambiarVentana(Window nueva) {
+        if (nueva == ventana) {
+            return;
+        }
+        ventana = nueva;
+        if (nueva == null) {
+            ocultar();
+            return;
+        }
+        nueva.showingProperty().addListener((obs, antes, visible) -> {
+            if (nueva != ventana) {
+                return;
+            }
+            if (visible) {
+                mostrar();
+            } else {
+                ocultar();
+            }
+        });
+        mostrar();
+    }
+
+    private void mostrar() {
+        if (!solicitado || ventana == null || !ventana.isShowing()) {
+            return;
+        }
+        if (popup == null) {
+            popup = new Popup();
+            popup.getContent().add(texto);
+            popup.setAutoHide(false);
+        } else if (popup.isShowing()) {
+            return;
+        }
+        reiniciarIntervalo(System.nanoTime());
+        gcConteoPrevio = gcConteo();
+        gcTiempoPrevio = gcTiempo();
+        texto.setText("Midiendo...");
+
+        escena.addPreLayoutPulseListener(antesDelLayout);
+        escena.addPostLayoutPulseListener(despuesDelLayout);
+        popup.show(ventana, ventana.getX() + DESPLAZAMIENTO_X, ventana.getY() + DESPLAZAMIENTO_Y);
+        muestreo.start();
+    }
+
+    private void actualizar(long ahora) {
+        double segundos = (ahora - inicioIntervalo) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("FPS %5.1f   frame máx %5.1f ms   [%s]",
+                frames / segundos, frameMaximo / 1e6, TECLA.getName()));
+        sb.append(String.format("%nCSS+layout  media %4.2f ms  máx %5.2f ms",
+                pulsos == 0 ? 0 : layoutTotal / 1e6 / pulsos, layoutMaximo / 1e6));
+
+        if (!tableros.isEmpty()) {
+            sb.append(String.format("%nNodos"));
+            tableros.forEach((etiqueta, tablero) ->
+                    sb.append("  ").append(etiqueta).append(' ').append(contarNodos(tablero)));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        long conteo = gcConteo();
+        long tiempo = gcTiempo();
+        sb.append(String.format("%nHeap %5.1f / %5.1f MB   GC %d (%d ms)",
+                (runtime.totalMemory() - runtime.freeMemory()) / MB, runtime.maxMemory() / MB,
+                conteo - gcConteoPrevio, tiempo - gcTiempoPrevio));
+        gcConteoPrevio = conteo;
+        gcTiempoPrevio = tiempo;
+
+        if (!latencias.isEmpty()) {
+            sb.append(String.format("%nLatencia p50 / p99 (ms)"));
+            latencias.forEach((etiqueta, histograma) -> {
+                Histograma.Instantanea i = histograma.instantanea();
+                sb.append(String.format("%n%-10s %6.1f / %6.1f  (n=%d)",
+                        etiqueta, i.p50() / 1e6, i.p99() / 1e6, i.total()));
+            });
+        }
+        texto.setText(sb.toString());
+
+        // Follow the window if it was moved
+        popup.setX(ventana.getX() + DESPLAZAMIENTO_X);
+        popup.setY(ventana.getY() + DESPLAZAMIENTO_Y);
+
+        reiniciarIntervalo(ahora);
+    }
+
+    private void reiniciarIntervalo(long ahora) {
+        inicioIntervalo = ahora;
+        ultimoFrame = 0;
+        frames = 0;
+        frameMaximo = 0;
+        layoutTotal = 0;
+        layoutMaximo = 0;
+        pulsos = 0;
+    }
+
+    private static int contarNodos(Parent padre) {
+        int total = 1;
+        for (Node hijo : padre.getChildrenUnmodifiable()) {
+            total += hijo instanceof Parent p ? contarNodos(p) : 1;
+        }
+        return total;
+    }
+
+    // GC figures are cumulative since JVM start; -1 means "not available"
+    private long gcConteo() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : colectores) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long gcTiempo() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : colectores) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -30,6 +30,7 @@ public class ShipCellView extends StackPane {
         rect.setStrokeWidth(1.5);
 
         getChildren().add(rect);
+        getStyleClass().add("barco");
         setCursor(Cursor.HAND);
 
         setOnMouseClicked(this::toggleSeleccion);
@@ -43,9 +44,7 @@ public class ShipCellView extends StackPane {
     }
 
     private void actualizarEstilo() {
-        setStyle(seleccionado
-                ? "-fx-border-color: yellow; -fx-border-width: 2;"
-                : "-fx-border-color: transparent;");
+        pseudoClassStateChanged(EstiloCelda.SELECCIONADA, seleccionado);
     }
 
     public boolean isSeleccionado() {
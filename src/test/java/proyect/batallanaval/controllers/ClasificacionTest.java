@@ -0,0 +1,85 @@
+package proyect.batallanaval.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClasificacionTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void puestoSigueElOrdenDeMejores() throws IOException {
+        Clasificacion clasificacion = Clasificacion.en(directorio);
+        clasificacion.registrar("Lenta", true, 90);
+        clasificacion.registrar("Rapida", true, 40);
+        clasificacion.registrar("Media", true, 60);
+        clasificacion.registrar("Media", false, 0);
+        clasificacion.registrar("Novata", false, 0);
+
+        List<Clasificacion.Estadisticas> mejores = clasificacion.mejores(10);
+        for (int i = 0; i < mejores.size(); i++) {
+            assertEquals(i + 1, clasificacion.puesto(mejores.get(i).nickname()));
+        }
+        assertEquals(1, clasificacion.puesto("Rapida"));
+        assertEquals(2, clasificacion.puesto("Media"));
+        assertEquals(3, clasificacion.puesto("Lenta"));
+        assertEquals(4, clasificacion.puesto("Novata"));
+        assertEquals(0, clasificacion.puesto("Nadie"));
+    }
+
+    @Test
+    void puestoCoincideConLaClasificacionCompleta() throws IOException {
+        Clasificacion clasificacion = Clasificacion.en(directorio);
+        Random random = new Random(45);
+        for (int i = 0; i < 2000; i++) {
+            clasificacion.registrar("Jugador" + random.nextInt(300), random.nextInt(3) > 0, 17 + random.nextInt(4));
+        }
+
+        List<Clasificacion.Estadisticas> todos = clasificacion.mejores(clasificacion.totalJugadores());
+        assertEquals(clasificacion.totalJugadores(), todos.size());
+        for (int i = 0; i < todos.size(); i++) {
+            assertEquals(i + 1, clasificacion.puesto(todos.get(i).nickname()));
+        }
+    }
+
+    @Test
+    void nicknamesParecidosSonJugadoresDistintos() throws IOException {
+        Clasificacion clasificacion = Clasificacion.en(directorio);
+        clasificacion.registrar("Ana", true, 50);
+        clasificacion.registrar("ana", false, 0);
+        clasificacion.registrar("ANA!", true, 70);
+
+        assertEquals(3, clasificacion.totalJugadores());
+        assertEquals(1, clasificacion.buscar("Ana").victorias());
+        assertEquals(1, clasificacion.buscar("ana").derrotas());
+        assertEquals(0, clasificacion.buscar("ana").victorias());
+        assertEquals(70, clasificacion.buscar("ANA!").mejorPartida());
+        assertNull(clasificacion.buscar("ANA"));
+    }
+
+    @Test
+    void unaLecturaFallidaNoDejaLaClasificacionCargada() throws IOException {
+        Path archivo = directorio.resolve("clasificacion.csv");
+        Files.writeString(archivo, "!CRUD1 x\n");
+        Clasificacion clasificacion = Clasificacion.en(directorio);
+        assertThrows(IOException.class, () -> clasificacion.puesto("Ana"));
+
+        Files.writeString(archivo, "Ana,Ana,2,1,80,35\nLuis,Luis,3,0,90,25\n");
+        assertEquals(2, clasificacion.puesto("Ana"));
+        clasificacion.registrar("Ana", true, 30);
+
+        assertEquals(2, clasificacion.totalJugadores());
+        assertEquals(List.of("Ana,Ana,3,1,110,30", "Luis,Luis,3,0,90,25"), new FileCRUD(archivo.toString()).read());
+    }
+}
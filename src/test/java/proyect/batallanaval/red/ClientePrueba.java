@@ -0,0 +1,116 @@
+package proyect.batallanaval.red;
+
+import proyect.batallanaval.models.Colocacion;
+import proyect.batallanaval.models.Orientacion;
+import proyect.batallanaval.models.ResultadoDisparo;
+import proyect.batallanaval.models.TipoBarco;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Blocking client of {@link ServidorJuego} for tests: one socket, one
+ * message at a time, and a read timeout so a stuck server fails the test
+ * instead of hanging it.
+ */
+final class ClientePrueba implements AutoCloseable {
+
+    /** A legal standard fleet with no two ships touching. */
+    static final List<Colocacion> FLOTA = List.of(
+            new Colocacion(TipoBarco.PORTAAVIONES, 0, 0, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.SUBMARINO, 2, 0, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.SUBMARINO, 2, 5, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.DESTRUCTOR, 4, 0, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.DESTRUCTOR, 4, 4, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.DESTRUCTOR, 4, 8, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.FRAGATA, 6, 0, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.FRAGATA, 6, 2, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.FRAGATA, 6, 4, Orientacion.HORIZONTAL),
+            new Colocacion(TipoBarco.FRAGATA, 6, 6, Orientacion.HORIZONTAL));
+
+    private final Socket socket;
+    private final DataInputStream entrada;
+    private final OutputStream salida;
+
+    ClientePrueba(int puerto) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), puerto);
+        socket.setSoTimeout(10_000);
+        socket.setTcpNoDelay(true);
+        entrada = new DataInputStream(socket.getInputStream());
+        salida = socket.getOutputStream();
+    }
+
+    void enviar(Protocolo.Mensaje mensaje) throws IOException {
+        ByteBuffer trama = ByteBuffer.allocate(Protocolo.MAXIMO_TRAMA + 2);
+        Protocolo.escribir(mensaje, trama);
+        salida.write(trama.array(), 0, trama.position());
+        salida.flush();
+    }
+
+    Protocolo.Mensaje recibir() throws IOException {
+        int longitud = entrada.readUnsignedShort();
+        byte[] trama = new byte[2 + longitud];
+        trama[0] = (byte) (longitud >> 8);
+        trama[1] = (byte) longitud;
+        entrada.readFully(trama, 2, longitud);
+        return Protocolo.leer(ByteBuffer.wrap(trama));
+    }
+
+    /** Reads messages until one of the given type arrives, skipping the rest. */
+    <T extends Protocolo.Mensaje> T esperar(Class<T> tipo) throws IOException {
+        while (true) {
+            Protocolo.Mensaje mensaje = recibir();
+            if (tipo.isInstance(mensaje)) {
+                return tipo.cast(mensaje);
+            }
+        }
+    }
+
+    /**
+     * Joins a match, places {@link #FLOTA} and waits for the first turn.
+     *
+     * @return the pairing message
+     */
+    Protocolo.Emparejada entrar(String nickname, boolean contraHumano) throws IOException {
+        enviar(new Protocolo.Unirse(contraHumano, false, nickname));
+        Protocolo.Emparejada emparejada = esperar(Protocolo.Emparejada.class);
+        enviar(new Protocolo.EnviarFlota(FLOTA));
+        return emparejada;
+    }
+
+    /**
+     * Plays to the end, shooting the rival's board cell by cell whenever it
+     * is this client's turn.
+     *
+     * @return the message that ended the match
+     */
+    Protocolo.Fin jugarHastaElFin() throws IOException {
+        int siguiente = 0;
+        while (true) {
+            Protocolo.Mensaje mensaje = recibir();
+            boolean disparar = false;
+            if (mensaje instanceof Protocolo.Fin fin) {
+                return fin;
+            } else if (mensaje instanceof Protocolo.Turno turno) {
+                disparar = turno.tuyo();
+            } else if (mensaje instanceof Protocolo.Resultado r && r.propio()) {
+                disparar = r.resultado() != ResultadoDisparo.AGUA;
+            }
+            // After the last cell, only the Fin is left to read
+            if (disparar && siguiente < 100) {
+                enviar(new Protocolo.Disparar(siguiente / 10, siguiente % 10));
+                siguiente++;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,136 @@
+package proyect.batallanaval.red;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import proyect.batallanaval.metrics.Contador;
+import proyect.batallanaval.metrics.Metricas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Clients are dealt to the loops in turn, so with two loops consecutive
+ * clients start on different loops and pairing them moves one over.
+ */
+class FragmentoTest {
+
+    private static final Contador TRASLADOS = Metricas.contador("red.traslados");
+
+    private ServidorJuego servidor;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        servidor = new ServidorJuego(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                Duration.ZERO, 2);
+        servidor.iniciar();
+    }
+
+    @AfterEach
+    void detener() throws IOException {
+        servidor.close();
+    }
+
+    @Test
+    void rivalesDeBuclesDistintosJueganHastaElFin() throws Exception {
+        try (ClientePrueba ana = new ClientePrueba(servidor.getPuerto());
+             ClientePrueba bea = new ClientePrueba(servidor.getPuerto())) {
+            jugarEntre(ana, bea, true);
+        }
+    }
+
+    @Test
+    void unClienteVuelveAlBucleQueDejo() throws Exception {
+        try (ClientePrueba ana = new ClientePrueba(servidor.getPuerto());    // loop 0
+             ClientePrueba bea = new ClientePrueba(servidor.getPuerto())) {  // loop 1, moves to 0
+            jugarEntre(ana, bea, true);
+
+            try (ClientePrueba carla = new ClientePrueba(servidor.getPuerto());   // loop 0
+                 ClientePrueba dora = new ClientePrueba(servidor.getPuerto())) {  // loop 1
+                // Bea goes back to loop 1 to play Dora, right after leaving it
+                jugarEntre(dora, bea, true);
+                jugarEntre(carla, ana, false);
+            }
+        }
+    }
+
+    @Test
+    void unRivalQueSeVaNoDejaAlOtroSinPartida() throws Exception {
+        try (ClientePrueba ana = new ClientePrueba(servidor.getPuerto())) {
+            ana.enviar(new Protocolo.Unirse(true, false, "Ana"));
+            try (ClientePrueba bea = new ClientePrueba(servidor.getPuerto())) {
+                bea.enviar(new Protocolo.Unirse(true, false, "Bea"));
+            }
+
+            try (ClientePrueba carla = new ClientePrueba(servidor.getPuerto())) {
+                carla.enviar(new Protocolo.Unirse(true, false, "Carla"));
+                // Ana may have been paired with Bea before Bea was seen leaving
+                while (true) {
+                    Protocolo.Mensaje mensaje = ana.recibir();
+                    if (mensaje instanceof Protocolo.Emparejada e && e.rival().equals("Carla")) {
+                        break;
+                    }
+                    if (mensaje instanceof Protocolo.Fin fin) {
+                        assertEquals(Protocolo.Motivo.ABANDONO, fin.motivo());
+                        ana.enviar(new Protocolo.Unirse(true, false, "Ana"));
+                    }
+                }
+                assertEquals("Ana", carla.esperar(Protocolo.Emparejada.class).rival());
+            }
+        }
+    }
+
+    /**
+     * Pairs two clients, the first one waiting, and plays their match out
+     * from both sides at once.
+     *
+     * @param traslado whether the second one is served by another loop and
+     *                 must move to the first one's
+     */
+    private void jugarEntre(ClientePrueba primero, ClientePrueba segundo, boolean traslado)
+            throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        primero.enviar(new Protocolo.Unirse(true, false, "Primero"));
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!servidor.hayEsperando(0)) {
+            if (System.nanoTime() > limite) {
+                fail("The first client never started waiting for a rival");
+            }
+            Thread.sleep(1);
+        }
+        long traslados = TRASLADOS.getValor();
+        CompletableFuture<Protocolo.Fin> finPrimero = CompletableFuture.supplyAsync(() -> jugar(primero));
+        Protocolo.Fin finSegundo = jugar(segundo, "Segundo");
+
+        Protocolo.Fin fin = finPrimero.get(10, TimeUnit.SECONDS);
+        assertEquals(Protocolo.Motivo.FLOTA_HUNDIDA, fin.motivo());
+        assertEquals(Protocolo.Motivo.FLOTA_HUNDIDA, finSegundo.motivo());
+        assertNotEquals(fin.ganaste(), finSegundo.ganaste());
+        assertEquals(traslado ? traslados + 1 : traslados, TRASLADOS.getValor());
+    }
+
+    private static Protocolo.Fin jugar(ClientePrueba cliente) {
+        try {
+            cliente.esperar(Protocolo.Emparejada.class);
+            cliente.enviar(new Protocolo.EnviarFlota(ClientePrueba.FLOTA));
+            return cliente.jugarHastaElFin();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Protocolo.Fin jugar(ClientePrueba cliente, String nickname) throws IOException {
+        cliente.entrar(nickname, true);
+        return cliente.jugarHastaElFin();
+    }
+}
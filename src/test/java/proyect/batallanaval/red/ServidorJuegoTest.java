@@ -0,0 +1,77 @@
+package proyect.batallanaval.red;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServidorJuegoTest {
+
+    private ServidorJuego servidor;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        servidor = new ServidorJuego(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                Duration.ZERO, 1);
+        servidor.iniciar();
+    }
+
+    @AfterEach
+    void detener() throws IOException {
+        servidor.close();
+    }
+
+    @Test
+    void partidaContraLaMaquinaLlegaAlFin() throws IOException {
+        try (ClientePrueba cliente = new ClientePrueba(servidor.getPuerto())) {
+            Protocolo.Emparejada emparejada = cliente.entrar("Ana", false);
+            assertEquals("CPU", emparejada.rival());
+            assertTrue(emparejada.empiezas());
+
+            Protocolo.Fin fin = cliente.jugarHastaElFin();
+            assertEquals(Protocolo.Motivo.FLOTA_HUNDIDA, fin.motivo());
+        }
+    }
+
+    @Test
+    void mensajeFueraDePartidaSeRechaza() throws IOException {
+        try (ClientePrueba cliente = new ClientePrueba(servidor.getPuerto())) {
+            cliente.enviar(new Protocolo.Disparar(0, 0));
+            Protocolo.Rechazo rechazo = assertInstanceOf(Protocolo.Rechazo.class, cliente.recibir());
+            assertEquals(Protocolo.CodigoError.ESTADO, rechazo.codigo());
+
+            // The connection is still usable afterwards
+            cliente.entrar("Ana", false);
+            assertInstanceOf(Protocolo.Fin.class, cliente.jugarHastaElFin());
+        }
+    }
+
+    @Test
+    void abandonoDaLaVictoriaAlRivalYElServidorSigue() throws IOException {
+        try (ClientePrueba rival = new ClientePrueba(servidor.getPuerto())) {
+            try (ClientePrueba primero = new ClientePrueba(servidor.getPuerto())) {
+                primero.enviar(new Protocolo.Unirse(true, false, "Ana"));
+                rival.entrar("Bea", true);
+                primero.esperar(Protocolo.Emparejada.class);
+                primero.enviar(new Protocolo.EnviarFlota(ClientePrueba.FLOTA));
+                primero.esperar(Protocolo.Turno.class);
+            }
+            Protocolo.Fin fin = rival.esperar(Protocolo.Fin.class);
+            assertTrue(fin.ganaste());
+            assertEquals(Protocolo.Motivo.ABANDONO, fin.motivo());
+        }
+
+        try (ClientePrueba otro = new ClientePrueba(servidor.getPuerto())) {
+            otro.entrar("Carla", false);
+            assertEquals(Protocolo.Motivo.FLOTA_HUNDIDA, otro.jugarHastaElFin().motivo());
+        }
+    }
+}